@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi;
+
+import biz.paluch.sgreadypi.measure.Percent;
+import biz.paluch.sgreadypi.measure.Watt;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the cost of a single {@link SgReadyPolicy#decide policy decision} for typical conditions, with and without
+ * rendering the explanation. Run with {@code -prof gc} (as {@link #main(String[])} does) to compare allocations per
+ * decision: explanations are rendered lazily, so {@code decide} alone should not allocate any strings.
+ *
+ * @author Mark Paluch
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SgReadyPolicyBenchmark {
+
+	static final LocalDateTime NOW = LocalDateTime.of(2026, 6, 1, 12, 30);
+
+	@Param({ "night", "available", "excess" })
+	String scenario;
+
+	SgReadyPolicy policy;
+
+	SgReadyState state;
+
+	Conditions conditions;
+
+	@Setup
+	public void setUp() {
+
+		SgReadyProperties properties = new SgReadyProperties();
+		properties.setHeatPumpPowerConsumption(Watt.of(1000));
+		properties.setHeatElementPowerConsumption(Watt.of(3000));
+		properties.setDischargeLimit(Watt.of(500));
+		properties.setExcessNotBefore(LocalTime.of(9, 0));
+		properties.setExcessNotAfter(LocalTime.of(17, 0));
+
+		policy = new SgReadyPolicy(properties);
+
+		switch (scenario) {
+			case "night" -> {
+				state = SgReadyState.NORMAL;
+				conditions = new Conditions(Watt.of(150), Watt.zero(), Percent.of(40), Watt.of(300), false);
+			}
+			case "available" -> {
+				state = SgReadyState.AVAILABLE_PV;
+				conditions = new Conditions(Watt.zero(), Watt.of(1800), Percent.of(50), Watt.zero(), false);
+			}
+			case "excess" -> {
+				state = SgReadyState.EXCESS_PV;
+				conditions = new Conditions(Watt.zero(), Watt.of(4200), Percent.of(90), Watt.of(-1500), false);
+			}
+			default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+		}
+	}
+
+	@Benchmark
+	public Decision decide() {
+		return policy.decide(state, conditions, null, NOW);
+	}
+
+	@Benchmark
+	public List<String> decideAndExplain() {
+		return policy.decide(state, conditions, null, NOW).conditionOutcome().explain();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SgReadyPolicyBenchmark.class.getSimpleName()).addProfiler("gc").build())
+				.run();
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares encoding cost and query latency of raw {@link HistorySegment segments} with {@link CompressedSegment
+ * compressed segments} and rollups. Each store holds one day of 1 Hz samples for the meter and battery channels. Setup
+ * prints the bytes per sample of raw and compacted files, counting the records of raw segments rather than their
+ * preallocated file size.
+ *
+ * @author Mark Paluch
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistoryCompressionBenchmark {
+
+	static final LocalDate DAY = LocalDate.of(2026, 6, 1);
+
+	static final Instant FROM = DAY.atStartOfDay(ZoneOffset.UTC).toInstant();
+
+	static final Instant TO = FROM.plus(Duration.ofDays(1));
+
+	static final List<Channel> CHANNELS = Channel.all(List.of());
+
+	@State(Scope.Benchmark)
+	public static class Store {
+
+		@Param({ "false", "true" })
+		boolean compacted;
+
+		@Param({ "10s", "1m", "15m" })
+		String step;
+
+		Duration duration;
+
+		Path directory;
+
+		HistoryStore store;
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+
+			directory = Files.createTempDirectory("history-benchmark");
+			duration = Duration.parse("PT" + step.toUpperCase());
+			store = new HistoryStore(directory, 64 * 1024 * 1024, Duration.ofDays(30), CHANNELS, ZoneOffset.UTC);
+
+			long start = FROM.toEpochMilli();
+			for (int second = 0; second < 86400; second++) {
+				long timestamp = start + second * 1000L + (second % 7 == 0 ? 3 : 0);
+				store.append(timestamp, Channel.INGRESS.id(), (float) Math.max(0, 800 * Math.sin(second / 3000.0)));
+				store.append(timestamp, Channel.EGRESS.id(), (float) Math.max(0, -800 * Math.sin(second / 3000.0)));
+				store.append(timestamp, Channel.GENERATOR_POWER.id(), (float) (4000 + (second / 60) % 200));
+				store.append(timestamp, Channel.BATTERY_DISCHARGE.id(), (float) (second % 900 < 450 ? 1200 : -300));
+				store.append(timestamp, Channel.SOC.id(), (float) (40 + second / 3600));
+			}
+
+			// roll over so that the day can be compacted
+			store.append(TO.toEpochMilli(), Channel.SOC.id(), 64);
+			long raw = size(directory.resolve("history-" + DAY + ".bin"));
+			if (compacted) {
+				store.compact(DAY.plusDays(2));
+			}
+
+			System.out.printf("%n%s: %d samples, raw file %d bytes%n", DAY, 5 * 86400, raw);
+			try (Stream<Path> files = Files.list(directory)) {
+				files.sorted().forEach(it -> System.out.printf("%s: %.2f bytes/sample%n", it.getFileName(),
+						size(it) / (5 * 86400.0)));
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+
+			store.close();
+			try (Stream<Path> files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).forEach(it -> it.toFile().delete());
+			}
+		}
+
+		// raw segments are preallocated, count the records instead of the file size
+		private static long size(Path file) {
+			try {
+				if (file.getFileName().toString().endsWith(".bin")) {
+					try (HistorySegment segment = HistorySegment.openReadOnly(file)) {
+						return HistorySegment.HEADER_SIZE + (long) segment.size() * HistorySegment.RECORD_SIZE;
+					}
+				}
+				return Files.size(file);
+			} catch (IOException e) {
+				return -1;
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Encoder {
+
+		final BlockEncoder encoder = new BlockEncoder(Channel.INGRESS.id());
+
+		final ByteBuffer raw = ByteBuffer.allocate(CompressedSegment.BLOCK_SAMPLES * HistorySegment.RECORD_SIZE);
+
+		final ByteBuffer compressed = ByteBuffer.allocate(CompressedSegment.BLOCK_SAMPLES * HistorySegment.RECORD_SIZE);
+	}
+
+	@Benchmark
+	public History query(Store store) {
+		return store.store.query(FROM, TO, store.duration);
+	}
+
+	@Benchmark
+	public int writeRawBlock(Encoder encoder) {
+
+		ByteBuffer buffer = encoder.raw.clear();
+		long start = FROM.toEpochMilli();
+		for (int i = 0; i < CompressedSegment.BLOCK_SAMPLES; i++) {
+			buffer.putLong(start + i * 1000L).putInt(Channel.INGRESS.id()).putFloat(400 + (i % 16));
+		}
+		return buffer.position();
+	}
+
+	@Benchmark
+	public int writeCompressedBlock(Encoder encoder) {
+
+		BlockEncoder blockEncoder = encoder.encoder;
+		blockEncoder.reset(Channel.INGRESS.id());
+		long start = FROM.toEpochMilli();
+		for (int i = 0; i < CompressedSegment.BLOCK_SAMPLES; i++) {
+			blockEncoder.add(start + i * 1000L, 400 + (i % 16));
+		}
+
+		ByteBuffer buffer = encoder.compressed.clear();
+		blockEncoder.writeTo(buffer);
+		return buffer.position();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(HistoryCompressionBenchmark.class.getSimpleName()).addProfiler("gc")
+				.build()).run();
+	}
+}
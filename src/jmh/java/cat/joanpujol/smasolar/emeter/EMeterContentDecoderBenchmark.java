@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cat.joanpujol.smasolar.emeter;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.socket.DatagramPacket;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the full {@link EMeterContentDecoder} path with the table-driven path for datagrams of
+ * the subscribed meter and of foreign meters. Run with {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EMeterContentDecoderBenchmark {
+
+	static final long SUBSCRIBED = 3004123456L;
+	static final long FOREIGN = 1901234567L;
+
+	private final List<Object> out = new ArrayList<>(1);
+
+	private EMeterContentDecoder full;
+	private EMeterContentDecoder table;
+	private DatagramPacket subscribed;
+	private DatagramPacket foreign;
+
+	@Setup
+	public void setup() {
+		full = new EMeterContentDecoder();
+		table = new EMeterContentDecoder(SUBSCRIBED);
+		subscribed = packet(EMeterDatagrams.create(SUBSCRIBED));
+		foreign = packet(EMeterDatagrams.create(FOREIGN));
+	}
+
+	@Benchmark
+	public List<Object> fullSubscribed() throws Exception {
+		return decode(full, subscribed);
+	}
+
+	@Benchmark
+	public List<Object> tableSubscribed() throws Exception {
+		return decode(table, subscribed);
+	}
+
+	@Benchmark
+	public List<Object> fullForeign() throws Exception {
+		return decode(full, foreign);
+	}
+
+	@Benchmark
+	public List<Object> tableForeign() throws Exception {
+		return decode(table, foreign);
+	}
+
+	private List<Object> decode(EMeterContentDecoder decoder, DatagramPacket packet)
+			throws Exception {
+		out.clear();
+		packet.content().readerIndex(0);
+		decoder.decode(null, packet, out);
+		return out;
+	}
+
+	private static DatagramPacket packet(ByteBuf content) {
+		return new DatagramPacket(
+				content, new InetSocketAddress("239.12.255.254", 9522), new InetSocketAddress("192.168.1.2", 9522));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(
+						new OptionsBuilder()
+								.include(EMeterContentDecoderBenchmark.class.getSimpleName())
+								.addProfiler("gc")
+								.build())
+				.run();
+	}
+}
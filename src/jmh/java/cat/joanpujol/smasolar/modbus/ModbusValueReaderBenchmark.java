@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cat.joanpujol.smasolar.modbus;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the boxing {@link ModbusValueReader#read} path with the primitive decoders for every
+ * {@link ModbusDataType} and {@link ModbusDataFormat} combination. Numeric types are combined with
+ * all formats except {@code IP4}, which requires a string, {@code STR32} with the formats accepting
+ * strings. Run with {@code -prof gc} to compare allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModbusValueReaderBenchmark {
+
+	@State(Scope.Thread)
+	public static class NumericRegister {
+
+		@Param({"S16", "U16", "S32", "U32", "U32_STATUS", "U64"})
+		String dataType;
+
+		@Param({
+			"ENUM", "TAGLIST", "FIX0", "FIX1", "FIX2", "FIX3", "FIX4", "FUNCTION_SEC", "FW", "HW", "RAW",
+			"OUTLINE_PURCHASE_AGREEMENT", "TEMP", "TM", "UTF8", "DT"
+		})
+		String dataFormat;
+
+		ModbusDataType type;
+		ModbusDataFormat<?> format;
+		ByteBuf buffer;
+
+		@Setup
+		public void setup() throws ReflectiveOperationException {
+			type = ModbusDataType.valueOf(dataType);
+			format = format(dataFormat);
+			// 0x01020304... is a valid firmware version and no NaN value for any type
+			buffer = Unpooled.buffer(8).writeLong(0x0102030405060708L);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class StringRegister {
+
+		@Param({"ENUM", "TAGLIST", "FUNCTION_SEC", "RAW", "OUTLINE_PURCHASE_AGREEMENT", "IP4", "UTF8"})
+		String dataFormat;
+
+		ModbusDataFormat<?> format;
+		ByteBuf buffer;
+
+		@Setup
+		public void setup() throws ReflectiveOperationException {
+			format = format(dataFormat);
+			buffer = Unpooled.buffer(32).writeBytes("192.168.1.2".getBytes(StandardCharsets.UTF_8)).writeZero(21);
+		}
+	}
+
+	private final ModbusValueReader reader = new ModbusValueReader();
+
+	@Benchmark
+	public Object read(NumericRegister register) {
+		register.buffer.readerIndex(0);
+		return reader.read(register.buffer, register.type, register.format);
+	}
+
+	@Benchmark
+	public long readLong(NumericRegister register) {
+		register.buffer.readerIndex(0);
+		return reader.readLong(register.buffer, register.type, 0);
+	}
+
+	@Benchmark
+	public double readScaledDouble(NumericRegister register) {
+		register.buffer.readerIndex(0);
+		return reader.readScaledDouble(register.buffer, register.type, register.format.getDecimals());
+	}
+
+	@Benchmark
+	public Object readString(StringRegister register) {
+		register.buffer.readerIndex(0);
+		return reader.read(register.buffer, ModbusDataType.STR32, register.format);
+	}
+
+	private static ModbusDataFormat<?> format(String name) throws ReflectiveOperationException {
+		return (ModbusDataFormat<?>) ModbusDataFormat.class.getField(name).get(null);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(
+						new OptionsBuilder()
+								.include(ModbusValueReaderBenchmark.class.getSimpleName())
+								.addProfiler("gc")
+								.build())
+				.run();
+	}
+}
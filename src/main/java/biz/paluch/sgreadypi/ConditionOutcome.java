@@ -17,12 +17,19 @@ package biz.paluch.sgreadypi;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import org.jspecify.annotations.Nullable;
 
+import org.springframework.util.Assert;
+
 /**
  * Outcome for a condition match, including log message. Outcomes nest to form an explanation trail behind a
  * {@link Decision}.
+ * <p>
+ * Outcomes either carry a fixed message or a {@link Reason} with up to four arguments. Reason-based outcomes capture
+ * their arguments without formatting them; the message is rendered on first access through {@link #getMessage()},
+ * {@link #explain()} or {@link #toString()}. This keeps decisions cheap when nobody reads the explanation.
  *
  * @author Mark Paluch
  */
@@ -32,11 +39,31 @@ public class ConditionOutcome {
 
 	private final boolean match;
 
-	private final String message;
+	private final @Nullable Reason reason;
+
+	private final @Nullable Object a;
+
+	private final @Nullable Object b;
+
+	private final @Nullable Object c;
+
+	private final @Nullable Object d;
+
+	private @Nullable String message;
 
 	private ConditionOutcome(@Nullable ConditionOutcome parent, boolean match, String message) {
+		this(parent, match, null, null, null, null, null, message);
+	}
+
+	private ConditionOutcome(@Nullable ConditionOutcome parent, boolean match, @Nullable Reason reason,
+			@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d, @Nullable String message) {
 		this.parent = parent;
 		this.match = match;
+		this.reason = reason;
+		this.a = a;
+		this.b = b;
+		this.c = c;
+		this.d = d;
 		this.message = message;
 	}
 
@@ -60,6 +87,37 @@ public class ConditionOutcome {
 		return new ConditionOutcome(null, false, message);
 	}
 
+	/**
+	 * Create a root {@link ConditionOutcome} whose message is rendered lazily from {@code reason} and the given
+	 * arguments.
+	 *
+	 * @param match whether the condition matched.
+	 * @param reason the reason rendering the message.
+	 * @param a first argument, must be immutable.
+	 * @param b second argument, must be immutable.
+	 * @return a root outcome.
+	 */
+	public static ConditionOutcome of(boolean match, Reason reason, @Nullable Object a, @Nullable Object b) {
+		return new ConditionOutcome(null, match, reason, a, b, null, null, null);
+	}
+
+	/**
+	 * Create a root {@link ConditionOutcome} whose message is rendered lazily from {@code reason} and the given
+	 * arguments.
+	 *
+	 * @param match whether the condition matched.
+	 * @param reason the reason rendering the message.
+	 * @param a first argument, must be immutable.
+	 * @param b second argument, must be immutable.
+	 * @param c third argument, must be immutable.
+	 * @param d fourth argument, must be immutable.
+	 * @return a root outcome.
+	 */
+	public static ConditionOutcome of(boolean match, Reason reason, @Nullable Object a, @Nullable Object b,
+			@Nullable Object c, @Nullable Object d) {
+		return new ConditionOutcome(null, match, reason, a, b, c, d, null);
+	}
+
 	/**
 	 * Create a nested {@link ConditionOutcome} for a matching condition including a {@code message}.
 	 *
@@ -67,7 +125,7 @@ public class ConditionOutcome {
 	 * @return a matching outcome appended to this trail.
 	 */
 	public ConditionOutcome nestedMatch(String message) {
-		return nested(true, message);
+		return new ConditionOutcome(this, true, message);
 	}
 
 	/**
@@ -77,7 +135,38 @@ public class ConditionOutcome {
 	 * @return a non-matching outcome appended to this trail.
 	 */
 	public ConditionOutcome nestedNoMatch(String message) {
-		return nested(false, message);
+		return new ConditionOutcome(this, false, message);
+	}
+
+	/**
+	 * Create a nested {@link ConditionOutcome} whose message is rendered lazily from {@code reason} and the given
+	 * arguments.
+	 *
+	 * @param match whether the condition matched.
+	 * @param reason the reason rendering the message.
+	 * @param a first argument, must be immutable.
+	 * @param b second argument, must be immutable.
+	 * @return an outcome appended to this trail.
+	 */
+	public ConditionOutcome nested(boolean match, Reason reason, @Nullable Object a, @Nullable Object b) {
+		return new ConditionOutcome(this, match, reason, a, b, null, null, null);
+	}
+
+	/**
+	 * Create a nested {@link ConditionOutcome} whose message is rendered lazily from {@code reason} and the given
+	 * arguments.
+	 *
+	 * @param match whether the condition matched.
+	 * @param reason the reason rendering the message.
+	 * @param a first argument, must be immutable.
+	 * @param b second argument, must be immutable.
+	 * @param c third argument, must be immutable.
+	 * @param d fourth argument, must be immutable.
+	 * @return an outcome appended to this trail.
+	 */
+	public ConditionOutcome nested(boolean match, Reason reason, @Nullable Object a, @Nullable Object b,
+			@Nullable Object c, @Nullable Object d) {
+		return new ConditionOutcome(this, match, reason, a, b, c, d, null);
 	}
 
 	/**
@@ -90,11 +179,8 @@ public class ConditionOutcome {
 
 		ConditionOutcome parent = nested.parent;
 		ConditionOutcome outcome = parent != null ? nested(parent) : this;
-		return outcome.nested(nested.match, nested.message);
-	}
-
-	private ConditionOutcome nested(boolean match, String message) {
-		return new ConditionOutcome(this, match, message);
+		return new ConditionOutcome(outcome, nested.match, nested.reason, nested.a, nested.b, nested.c, nested.d,
+				nested.message);
 	}
 
 	@Nullable
@@ -106,10 +192,66 @@ public class ConditionOutcome {
 		return match;
 	}
 
+	/**
+	 * Return the reason of this outcome.
+	 *
+	 * @return the reason or {@literal null} if the outcome was created with a fixed message.
+	 */
+	public @Nullable Reason getReason() {
+		return reason;
+	}
+
+	/**
+	 * Return the message of this outcome, rendering it on first access if the outcome was created from a
+	 * {@link Reason}.
+	 *
+	 * @return the reasoning message.
+	 */
 	public String getMessage() {
+
+		String message = this.message;
+		if (message == null) {
+
+			Reason reason = this.reason;
+			Assert.state(reason != null, "Outcome requires either a message or a reason");
+			message = reason.render(a, b, c, d);
+			this.message = message;
+		}
+
 		return message;
 	}
 
+	/**
+	 * Return whether {@code other} explains the same path as this trail: the same {@link Reason reasons} or fixed
+	 * messages with the same match results at each step, regardless of the arguments captured by the reasons. Does not
+	 * render messages.
+	 *
+	 * @param other the trail to compare with.
+	 * @return {@literal true} if both trails consist of the same reasons.
+	 */
+	public boolean hasSameReasons(ConditionOutcome other) {
+
+		ConditionOutcome left = this;
+		ConditionOutcome right = other;
+
+		while (left != null && right != null) {
+
+			if (left == right) {
+				return true;
+			}
+
+			if (left.match != right.match || left.reason != right.reason
+					|| (left.reason == null && !Objects.equals(left.message, right.message))) {
+				return false;
+			}
+
+			left = left.parent;
+			right = right.parent;
+		}
+
+		return left == right;
+	}
+
 	/**
 	 * Render the explanation trail as an ordered list, from the root outcome down to this one. Each entry is prefixed
 	 * with whether the step matched.
@@ -140,4 +282,23 @@ public class ConditionOutcome {
 
 		return builder.toString();
 	}
+
+	/**
+	 * Reason code rendering the message of a {@link ConditionOutcome} from its captured arguments.
+	 */
+	public interface Reason {
+
+		/**
+		 * Render the message.
+		 *
+		 * @param a first argument, can be {@literal null}.
+		 * @param b second argument, can be {@literal null}.
+		 * @param c third argument, can be {@literal null}.
+		 * @param d fourth argument, can be {@literal null}.
+		 * @return the rendered message.
+		 */
+		String render(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d);
+
+	}
+
 }
@@ -15,6 +15,8 @@
  */
 package biz.paluch.sgreadypi;
 
+import java.time.Instant;
+
 import javax.measure.Quantity;
 import javax.measure.quantity.Dimensionless;
 import javax.measure.quantity.Power;
@@ -30,8 +32,18 @@ import javax.measure.quantity.Power;
  * @param batteryDischarge net power drawn from the batteries (discharging minus charging); negative while charging
  *          dominates.
  * @param outOfService whether the power generator or power meter data is too stale to trust.
+ * @param timestamp arrival of the most recent reading, {@link Instant#MIN} if unknown.
  * @author Mark Paluch
  */
 public record Conditions(Quantity<Power> ingress, Quantity<Power> generatorPower, Quantity<Dimensionless> soc,
-		Quantity<Power> batteryDischarge, boolean outOfService) {
+		Quantity<Power> batteryDischarge, boolean outOfService, Instant timestamp) {
+
+	/**
+	 * Create conditions without a known reading timestamp.
+	 */
+	public Conditions(Quantity<Power> ingress, Quantity<Power> generatorPower, Quantity<Dimensionless> soc,
+			Quantity<Power> batteryDischarge, boolean outOfService) {
+		this(ingress, generatorPower, soc, batteryDischarge, outOfService, Instant.MIN);
+	}
+
 }
@@ -15,14 +15,51 @@
  */
 package biz.paluch.sgreadypi;
 
+import java.time.Instant;
+
+import org.jspecify.annotations.Nullable;
+
 /**
  * The chosen {@link SgReadyState} together with the {@link ConditionOutcome} chain explaining how it was reached.
  *
  * @param state the chosen SG Ready state.
  * @param conditionOutcome the reasoning trail behind the state.
+ * @param conditions snapshot of the conditions the decision was made from, {@literal null} if unknown.
+ * @param timestamp time the decision was made, {@link Instant#MIN} if unknown.
  * @author Mark Paluch
  */
-public record Decision(SgReadyState state, ConditionOutcome conditionOutcome) {
+public record Decision(SgReadyState state, ConditionOutcome conditionOutcome, @Nullable Conditions conditions,
+		Instant timestamp) {
+
+	/**
+	 * Create a decision without conditions and timestamp. The policy is free of clocks; the control loop attaches both
+	 * through {@link #at(Conditions, Instant)}.
+	 */
+	public Decision(SgReadyState state, ConditionOutcome conditionOutcome) {
+		this(state, conditionOutcome, null, Instant.MIN);
+	}
+
+	/**
+	 * Return a copy of this decision carrying the conditions it was made from and the time it was made.
+	 *
+	 * @param conditions the conditions the decision was made from.
+	 * @param timestamp time the decision was made.
+	 * @return the decision snapshot.
+	 */
+	public Decision at(Conditions conditions, Instant timestamp) {
+		return new Decision(state, conditionOutcome, conditions, timestamp);
+	}
+
+	/**
+	 * Return the arrival time of the most recent reading the decision is based on.
+	 *
+	 * @return the reading timestamp, {@link Instant#MIN} if unknown.
+	 */
+	public Instant readingTimestamp() {
+
+		Conditions conditions = this.conditions;
+		return conditions != null ? conditions.timestamp() : Instant.MIN;
+	}
 
 	/**
 	 * A decision resulting in {@link SgReadyState#NORMAL}.
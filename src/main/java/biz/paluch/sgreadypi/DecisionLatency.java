@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the stages between a reading arriving and the relay applying the resulting state. Each stage is recorded
+ * as {@code sg.decision.latency} timer tagged with its {@code stage} and as {@link DecisionStageEvent JFR event}.
+ * Individual {@link biz.paluch.sgreadypi.output.SgReadyStateConsumer outputs} are recorded as
+ * {@code sg.output.latency} tagged with the {@code consumer} type to identify outputs blocking others, and as
+ * {@link Stage#OUTPUT} so that JFR recordings separate notifications from the relay write.
+ * <p>
+ * Timers are registered with an internal composite registry so that components can record from construction on;
+ * recordings become visible once the instance is {@link #bindTo(MeterRegistry) bound}.
+ *
+ * @author Mark Paluch
+ */
+public class DecisionLatency implements MeterBinder {
+
+	private static final DecisionLatency GLOBAL = new DecisionLatency();
+
+	private final CompositeMeterRegistry registry = new CompositeMeterRegistry();
+
+	private final Timer[] stages = new Timer[Stage.values().length];
+
+	private final Map<String, Timer> outputs = new ConcurrentHashMap<>();
+
+	DecisionLatency() {
+
+		for (Stage stage : Stage.values()) {
+			stages[stage.ordinal()] = Timer.builder("sg.decision.latency").description("Latency of a decision stage")
+					.tag("stage", stage.getTag()).publishPercentileHistogram().register(registry);
+		}
+	}
+
+	/**
+	 * @return the shared instance used by readers, the control loop and outputs.
+	 */
+	public static DecisionLatency global() {
+		return GLOBAL;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry.add(registry);
+	}
+
+	/**
+	 * Start measuring a stage.
+	 *
+	 * @return the start time to pass to {@link #record(Stage, long)}.
+	 */
+	public long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Record a stage that began at {@code startNanos} obtained from {@link #start()}.
+	 */
+	public void record(Stage stage, long startNanos) {
+		record(stage, stage.getTag(), System.nanoTime() - startNanos, stages[stage.ordinal()]);
+	}
+
+	/**
+	 * Record a stage spanning wall-clock timestamps, such as the age of a reading.
+	 */
+	public void record(Stage stage, Duration latency) {
+		record(stage, stage.getTag(), latency.toNanos(), stages[stage.ordinal()]);
+	}
+
+	/**
+	 * Record the time an output took to apply a state. Outputs are applied one after another, a slow output delays all
+	 * following ones.
+	 *
+	 * @param consumer name of the output.
+	 * @param startNanos start time obtained from {@link #start()}.
+	 */
+	public void recordOutput(String consumer, long startNanos) {
+
+		Timer timer = outputs.computeIfAbsent(consumer,
+				it -> Timer.builder("sg.output.latency").description("Time an output took to apply a state")
+						.tag("consumer", it).publishPercentileHistogram().register(registry));
+		long nanos = System.nanoTime() - startNanos;
+		stages[Stage.OUTPUT.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+		record(Stage.OUTPUT, consumer, nanos, timer);
+	}
+
+	private static void record(Stage stage, String detail, long nanos, Timer timer) {
+
+		timer.record(nanos, TimeUnit.NANOSECONDS);
+
+		DecisionStageEvent event = new DecisionStageEvent();
+		if (event.shouldCommit()) {
+			event.stage = stage.getTag();
+			event.detail = detail;
+			event.latency = nanos;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Stages from reading arrival to relay write.
+	 */
+	public enum Stage {
+
+		/**
+		 * Age of the most recent reading when the control loop first evaluates it.
+		 */
+		INGEST("ingest"),
+
+		/**
+		 * Updating statistics with a reading.
+		 */
+		STATISTICS("statistics"),
+
+		/**
+		 * {@link SgReadyPolicy} evaluation.
+		 */
+		POLICY("policy"),
+
+		/**
+		 * Debounce bookkeeping before a state is passed on to the outputs.
+		 */
+		DEBOUNCE("debounce"),
+
+		/**
+		 * Writing a state to the relay.
+		 */
+		RELAY("relay"),
+
+		/**
+		 * Applying a state by an output such as the relay or a notification. Per-output latency is recorded as
+		 * {@code sg.output.latency}.
+		 */
+		OUTPUT("output"),
+
+		/**
+		 * Arrival of the most recent reading a state change was decided from until the inline outputs, including the
+		 * relay, applied it. States held back by debouncing include the hold time.
+		 */
+		END_TO_END("end-to-end");
+
+		private final String tag;
+
+		Stage(String tag) {
+			this.tag = tag;
+		}
+
+		public String getTag() {
+			return tag;
+		}
+	}
+
+}
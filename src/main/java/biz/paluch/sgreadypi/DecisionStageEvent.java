@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * JFR event for a {@link DecisionLatency.Stage}. Recorded alongside the {@code sg.decision.latency} timers.
+ *
+ * @author Mark Paluch
+ */
+@Name("biz.paluch.sgreadypi.DecisionStage")
+@Label("SG Ready Decision Stage")
+@Category("SG Ready")
+@Description("Latency of a stage between reading arrival and relay write")
+@StackTrace(false)
+class DecisionStageEvent extends Event {
+
+	@Label("Stage") @Nullable String stage;
+
+	@Label("Detail") @Nullable String detail;
+
+	@Label("Latency") @Timespan(Timespan.NANOSECONDS) long latency;
+
+}
@@ -15,8 +15,6 @@
  */
 package biz.paluch.sgreadypi;
 
-import javax.measure.Quantity;
-
 /**
  * Schmitt-trigger style hysteresis for threshold comparisons. A gate stays active until the value drops below the lower
  * {@code off} threshold, and requires the higher {@code on} threshold to switch on again. This avoids flickering when a
@@ -31,17 +29,17 @@ class Hysteresis {
 	private Hysteresis() {}
 
 	/**
-	 * Evaluate a hysteretic threshold gate.
+	 * Evaluate a hysteretic threshold gate on values already normalized to a common unit, for example through
+	 * {@link PolicyThresholds}.
 	 *
-	 * @param <Q> the quantity dimension being compared.
 	 * @param active whether the gate is currently considered active (the previous outcome).
 	 * @param value the current value to test.
 	 * @param on the upper threshold required to switch the gate on and should be greater than or equal to {@code off}.
 	 * @param off the lower threshold at or below which an active gate switches off.
 	 * @return {@literal true} if the gate should be active for {@code value}; {@literal false} otherwise.
 	 */
-	static <Q extends Quantity<Q>> boolean active(boolean active, Quantity<Q> value, Quantity<Q> on, Quantity<Q> off) {
-		return SgReadyPolicy.gte(value, active ? off : on);
+	static boolean active(boolean active, double value, double on, double off) {
+		return value >= (active ? off : on);
 	}
 
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi;
+
+import biz.paluch.sgreadypi.measure.Percent;
+import biz.paluch.sgreadypi.measure.Watt;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Dimensionless;
+import javax.measure.quantity.Power;
+
+/**
+ * Thresholds of {@link SgReadyProperties} compiled to primitive values. Power thresholds are normalized to watts and
+ * state-of-charge thresholds to percent, the units {@link Conditions} readings are supplied in (see {@link Watt} and
+ * {@link Percent}). Derived hysteresis off-thresholds are computed once as well, so {@link SgReadyPolicy} compares
+ * plain {@code double} values instead of converting {@link Quantity} units on every decision.
+ * <p>
+ * A compiled model is a snapshot. Configured quantities are immutable and change only by replacement, so
+ * {@link #isCurrent(SgReadyProperties)} detects a property change by comparing references.
+ *
+ * @author Mark Paluch
+ * @see SgReadyPolicy
+ * @see Hysteresis
+ */
+final class PolicyThresholds {
+
+	private final Quantity<Power> heatPumpPowerConsumption;
+
+	private final Quantity<Power> heatElementPowerConsumption;
+
+	private final Quantity<Power> ingressLimitQuantity;
+
+	private final Quantity<Power> dischargeLimitQuantity;
+
+	private final SgReadyProperties.Levels battery;
+
+	private final Quantity<Dimensionless> availableSocOffMargin;
+
+	private final double generatorPowerOffRatio;
+
+	/**
+	 * Generator power off-threshold as quantity for explanations.
+	 */
+	final Quantity<Power> generatorOffQuantity;
+
+	/**
+	 * Discharge re-allow threshold as quantity for explanations.
+	 */
+	final Quantity<Power> dischargeReAllowQuantity;
+
+	final double ingressLimit;
+
+	final double generatorOn;
+
+	final double generatorOff;
+
+	final double elementOn;
+
+	final double elementOff;
+
+	final double dischargeLimit;
+
+	final double dischargeReAllow;
+
+	final double pvAvailable;
+
+	final double pvAvailableOff;
+
+	final double pvExcessOn;
+
+	final double pvExcessOff;
+
+	private PolicyThresholds(SgReadyProperties properties) {
+
+		this.heatPumpPowerConsumption = properties.getHeatPumpPowerConsumption();
+		this.heatElementPowerConsumption = properties.getHeatElementPowerConsumption();
+		this.ingressLimitQuantity = properties.getIngressLimit();
+		this.dischargeLimitQuantity = properties.getDischargeLimit();
+		this.battery = properties.getBattery();
+		this.availableSocOffMargin = properties.getAvailableSocOffMargin();
+		this.generatorPowerOffRatio = properties.getGeneratorPowerOffRatio();
+
+		double ratio = generatorPowerOffRatio;
+		this.generatorOffQuantity = heatPumpPowerConsumption.multiply(ratio);
+		this.dischargeReAllowQuantity = dischargeLimitQuantity.multiply(ratio);
+
+		this.ingressLimit = Watt.toWatts(ingressLimitQuantity);
+		this.generatorOn = Watt.toWatts(heatPumpPowerConsumption);
+		this.generatorOff = generatorOn * ratio;
+		this.elementOn = Watt.toWatts(heatElementPowerConsumption);
+		this.elementOff = elementOn * ratio;
+		this.dischargeLimit = Watt.toWatts(dischargeLimitQuantity);
+		this.dischargeReAllow = dischargeLimit * ratio;
+		this.pvAvailable = Percent.toPercent(battery.pvAvailable());
+		this.pvAvailableOff = pvAvailable - Percent.toPercent(availableSocOffMargin);
+		this.pvExcessOn = Percent.toPercent(battery.pvExcessOn());
+		this.pvExcessOff = Percent.toPercent(battery.pvExcessOff());
+	}
+
+	/**
+	 * Compile the thresholds of the given {@link SgReadyProperties}.
+	 *
+	 * @param properties the properties to compile.
+	 * @return the compiled thresholds.
+	 */
+	static PolicyThresholds compile(SgReadyProperties properties) {
+		return new PolicyThresholds(properties);
+	}
+
+	/**
+	 * Check whether these thresholds were compiled from the current state of {@code properties}.
+	 *
+	 * @param properties the properties to compare with.
+	 * @return {@literal true} if no policy-relevant property was replaced since compilation; {@literal false}
+	 *         otherwise.
+	 */
+	boolean isCurrent(SgReadyProperties properties) {
+		return heatPumpPowerConsumption == properties.getHeatPumpPowerConsumption()
+				&& heatElementPowerConsumption == properties.getHeatElementPowerConsumption()
+				&& ingressLimitQuantity == properties.getIngressLimit()
+				&& dischargeLimitQuantity == properties.getDischargeLimit() && battery == properties.getBattery()
+				&& availableSocOffMargin == properties.getAvailableSocOffMargin()
+				&& Double.compare(generatorPowerOffRatio, properties.getGeneratorPowerOffRatio()) == 0;
+	}
+
+}
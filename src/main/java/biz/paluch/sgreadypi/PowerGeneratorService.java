@@ -19,6 +19,8 @@ import biz.paluch.sgreadypi.measure.Percent;
 import biz.paluch.sgreadypi.measure.Watt;
 import biz.paluch.sgreadypi.provider.Statistics;
 
+import java.time.Instant;
+
 import javax.measure.Quantity;
 import javax.measure.quantity.Dimensionless;
 import javax.measure.quantity.Power;
@@ -59,6 +61,15 @@ public interface PowerGeneratorService {
 		return Statistics.just(Watt.zero());
 	}
 
+	/**
+	 * Return the arrival time of the most recent reading.
+	 *
+	 * @return the arrival time of the most recent reading, {@link Instant#MIN} if unknown.
+	 */
+	default Instant getReading() {
+		return Instant.MIN;
+	}
+
 	/**
 	 * Return whether the service is alive and holds recent data.
 	 *
@@ -73,4 +84,20 @@ public interface PowerGeneratorService {
 	 */
 	boolean isOutOfService();
 
+	/**
+	 * Register a listener that is notified after new readings were recorded. Listeners are called on the thread that
+	 * received the readings and must not block.
+	 *
+	 * @param listener the listener to notify.
+	 */
+	default void onUpdate(Runnable listener) {}
+
+	/**
+	 * Hint from the control loop whether the current readings are close to a hysteresis threshold. Implementations
+	 * polling their data source may poll more frequently while this is {@literal true}.
+	 *
+	 * @param nearThreshold whether the readings are close to a threshold.
+	 */
+	default void setNearThreshold(boolean nearThreshold) {}
+
 }
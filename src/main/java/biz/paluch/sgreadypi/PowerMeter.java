@@ -47,4 +47,12 @@ public interface PowerMeter {
 	 */
 	boolean hasData();
 
+	/**
+	 * Register a listener that is notified after new readings were recorded. Listeners are called on the thread that
+	 * received the readings and must not block.
+	 *
+	 * @param listener the listener to notify.
+	 */
+	default void onUpdate(Runnable listener) {}
+
 }
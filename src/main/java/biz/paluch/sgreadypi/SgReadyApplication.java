@@ -16,10 +16,12 @@
 package biz.paluch.sgreadypi;
 
 import biz.paluch.sgreadypi.output.SgReadyStateConsumer;
+import biz.paluch.sgreadypi.output.gpio.Relay;
 import biz.paluch.sgreadypi.provider.SunnyHomeManagerService;
 import biz.paluch.sgreadypi.weather.WeatherService;
 
 import java.time.Clock;
+import java.time.Duration;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -27,6 +29,7 @@ import org.springframework.boot.context.ApplicationPidFileWriter;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
@@ -59,10 +62,25 @@ public class SgReadyApplication {
 		return Clock.systemDefaultZone();
 	}
 
+	@Bean
+	DecisionLatency decisionLatency() {
+		return DecisionLatency.global();
+	}
+
 	@Bean
 	public SgReadyControlLoop controlLoop(PowerGeneratorService inverters, SunnyHomeManagerService powerMeter,
-			SgReadyStateConsumer stateConsumer, SgReadyProperties properties, WeatherService weatherService, Clock clock) {
-		return new SgReadyControlLoop(inverters, powerMeter, stateConsumer, properties, weatherService, clock);
+			SgReadyStateConsumer stateConsumer, SgReadyProperties properties, WeatherService weatherService, Clock clock,
+			TaskScheduler taskScheduler) {
+		return new SgReadyControlLoop(inverters, powerMeter, stateConsumer, properties, weatherService, clock,
+				taskScheduler);
+	}
+
+	@Bean
+	SgReadyEventStream eventStream(SgReadyControlLoop controlLoop, Relay relay) {
+
+		SgReadyEventStream events = new SgReadyEventStream(relay, Duration.ofSeconds(15));
+		controlLoop.onDecision(events::publish);
+		return events;
 	}
 
 }
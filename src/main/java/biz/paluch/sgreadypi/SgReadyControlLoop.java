@@ -20,14 +20,23 @@ import biz.paluch.sgreadypi.provider.SunnyHomeManagerService;
 import biz.paluch.sgreadypi.weather.WeatherService;
 
 import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.measure.Quantity;
 
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
 
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
 
 /**
@@ -35,6 +44,11 @@ import org.springframework.scheduling.annotation.Scheduled;
  * power meter, fetches the weather {@link WeatherService.Range Range} when weather optimisation is enabled, and hands
  * everything to the pure {@link SgReadyPolicy} which returns the {@link Decision}. The loop is the I/O shell; all
  * state-selection rules live in the policy.
+ * <p>
+ * The loop runs on a fixed watchdog tick that falls back to {@link SgReadyState#NORMAL} on stale readings (ADR-0005).
+ * In {@link SgReadyProperties.Control#isReactive() reactive} mode, fresh readings additionally trigger an evaluation
+ * at most once per {@link SgReadyProperties.Control#getMinInterval() minimum interval}, and only if a reading moved by
+ * more than its epsilon since the last evaluation.
  *
  * @author Mark Paluch
  */
@@ -56,12 +70,37 @@ public class SgReadyControlLoop {
 
 	private final SgReadyPolicy policy;
 
+	private final @Nullable TaskScheduler scheduler;
+
+	private final AtomicBoolean evaluationPending = new AtomicBoolean();
+
+	private final DecisionLatency latency = DecisionLatency.global();
+
+	private final List<Consumer<Decision>> decisionListeners = new CopyOnWriteArrayList<>();
+
 	private volatile SgReadyState state = SgReadyState.NORMAL;
 
 	private volatile @Nullable Decision decision;
 
+	private volatile @Nullable Conditions evaluated;
+
+	private volatile Instant lastEvaluation = Instant.MIN;
+
+	private Instant lastIngested = Instant.MIN;
+
 	public SgReadyControlLoop(PowerGeneratorService inverters, SunnyHomeManagerService powerMeter,
 			SgReadyStateConsumer stateConsumer, SgReadyProperties properties, WeatherService weatherService, Clock clock) {
+		this(inverters, powerMeter, stateConsumer, properties, weatherService, clock, null);
+	}
+
+	/**
+	 * Create a new control loop.
+	 *
+	 * @param scheduler scheduler running reactive evaluations. Reactive evaluation is disabled if {@literal null}.
+	 */
+	public SgReadyControlLoop(PowerGeneratorService inverters, SunnyHomeManagerService powerMeter,
+			SgReadyStateConsumer stateConsumer, SgReadyProperties properties, WeatherService weatherService, Clock clock,
+			@Nullable TaskScheduler scheduler) {
 		this.inverters = inverters;
 		this.powerMeter = powerMeter;
 		this.stateConsumer = stateConsumer;
@@ -69,6 +108,12 @@ public class SgReadyControlLoop {
 		this.weatherService = weatherService;
 		this.clock = clock;
 		this.policy = new SgReadyPolicy(properties);
+		this.scheduler = properties.getControl().isReactive() ? scheduler : null;
+
+		if (this.scheduler != null) {
+			inverters.onUpdate(this::onUpdate);
+			powerMeter.onUpdate(this::onUpdate);
+		}
 	}
 
 	public SgReadyState getState() {
@@ -80,12 +125,59 @@ public class SgReadyControlLoop {
 	}
 
 	/**
-	 * Control loop.
+	 * Register a listener notified with every {@link Decision} after it has been applied. Listeners are called on the
+	 * control loop thread and must not block.
+	 *
+	 * @param listener the listener to notify.
+	 */
+	public void onDecision(Consumer<Decision> listener) {
+		decisionListeners.add(listener);
+	}
+
+	/**
+	 * Control loop watchdog tick. Evaluates unconditionally so that stale readings are detected even if no fresh
+	 * readings arrive.
 	 */
 	@Scheduled(fixedDelay = 10, timeUnit = TimeUnit.SECONDS)
 	public void control() {
+		control(readConditions());
+	}
+
+	/**
+	 * Schedule a reactive evaluation after fresh readings arrived. Evaluations are coalesced: at most one is pending and
+	 * it runs no earlier than the minimum interval after the previous evaluation.
+	 */
+	void onUpdate() {
+
+		TaskScheduler scheduler = this.scheduler;
+		if (scheduler == null || !evaluationPending.compareAndSet(false, true)) {
+			return;
+		}
+
+		Instant now = clock.instant();
+		Instant earliest = lastEvaluation.plus(properties.getControl().getMinInterval());
+		scheduler.schedule(this::evaluate, earliest.isAfter(now) ? earliest : now);
+	}
+
+	/**
+	 * Reactive evaluation. Skipped if no reading moved by more than its epsilon since the last evaluation.
+	 */
+	void evaluate() {
+
+		evaluationPending.set(false);
 
 		Conditions conditions = readConditions();
+		Conditions evaluated = this.evaluated;
+		if (evaluated != null && !moved(evaluated, conditions)) {
+			return;
+		}
+
+		control(conditions);
+	}
+
+	private synchronized void control(Conditions conditions) {
+
+		lastEvaluation = clock.instant();
 
 		if (conditions.outOfService()) {
 			log.warn("Out of service, returning to normal state.");
@@ -94,7 +186,15 @@ public class SgReadyControlLoop {
 			return;
 		}
 
+		// watchdog ticks re-evaluate the same reading, its age is not ingest latency
+		if (conditions.timestamp().isAfter(lastIngested)) {
+			lastIngested = conditions.timestamp();
+			latency.record(DecisionLatency.Stage.INGEST, Duration.between(conditions.timestamp(), clock.instant()));
+		}
+
 		applyDecision(decide(conditions), conditions);
+		evaluated = conditions;
+		inverters.setNearThreshold(policy.isNearThreshold(conditions, properties.getPolling().getThresholdMargin()));
 	}
 
 	private void applyDecision(Decision decision, Conditions conditions) {
@@ -105,7 +205,15 @@ public class SgReadyControlLoop {
 		this.decision = decision;
 
 		logState(this.state, conditions, changed);
-		this.stateConsumer.onState(this.state);
+		this.stateConsumer.onState(this.state, conditions.timestamp());
+
+		for (Consumer<Decision> listener : decisionListeners) {
+			try {
+				listener.accept(decision);
+			} catch (RuntimeException e) {
+				log.error("Decision listener failed", e);
+			}
+		}
 	}
 
 	private Decision decide(Conditions conditions) {
@@ -115,16 +223,46 @@ public class SgReadyControlLoop {
 				? weatherService.getUsableTimeRange()
 				: null;
 
-		return policy.decide(this.state, conditions, weatherRange, LocalDateTime.now(clock));
+		long start = latency.start();
+		Decision decision = policy.decide(this.state, conditions, weatherRange, LocalDateTime.now(clock));
+		latency.record(DecisionLatency.Stage.POLICY, start);
+
+		return decision.at(conditions, clock.instant());
 	}
 
 	/**
 	 * Read the current {@link Conditions} from the power generator and power meter.
 	 */
 	private Conditions readConditions() {
+
+		Instant meterReading = powerMeter.getReading();
+		Instant generatorReading = inverters.getReading();
+
 		return new Conditions(powerMeter.getIngress().getAverage(), inverters.getGeneratorPower().getAverage(),
 				inverters.getBatteryStateOfCharge(), inverters.getBatteryDischarge().getAverage(),
-				inverters.isOutOfService() || powerMeter.isOutOfService());
+				inverters.isOutOfService() || powerMeter.isOutOfService(),
+				meterReading.isAfter(generatorReading) ? meterReading : generatorReading);
+	}
+
+	/**
+	 * Return whether any reading moved by more than its epsilon or the service state changed.
+	 */
+	private boolean moved(Conditions previous, Conditions current) {
+
+		SgReadyProperties.Control control = properties.getControl();
+
+		return previous.outOfService() != current.outOfService()
+				|| moved(previous.ingress(), current.ingress(), control.getPowerEpsilon())
+				|| moved(previous.generatorPower(), current.generatorPower(), control.getPowerEpsilon())
+				|| moved(previous.batteryDischarge(), current.batteryDischarge(), control.getPowerEpsilon())
+				|| moved(previous.soc(), current.soc(), control.getSocEpsilon());
+	}
+
+	private static <Q extends Quantity<Q>> boolean moved(Quantity<Q> previous, Quantity<Q> current, Quantity<Q> epsilon) {
+
+		double delta = current.to(epsilon.getUnit()).getValue().doubleValue()
+				- previous.to(epsilon.getUnit()).getValue().doubleValue();
+		return Math.abs(delta) > epsilon.getValue().doubleValue();
 	}
 
 	/**
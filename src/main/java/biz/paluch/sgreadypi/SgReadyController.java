@@ -16,12 +16,16 @@
 package biz.paluch.sgreadypi;
 
 import biz.paluch.sgreadypi.output.gpio.Relay;
+import reactor.core.Disposable;
 
+import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -29,9 +33,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
- * REST controller exposing and overriding the current SG Ready state.
+ * REST controller exposing and overriding the current SG Ready state. {@code GET api/sg-ready/stream} streams state,
+ * decision and reading changes as Server-Sent Events, see {@link SgReadyEventStream}.
  *
  * @author Mark Paluch
  */
@@ -43,9 +49,12 @@ public class SgReadyController {
 
 	private final Relay relay;
 
-	public SgReadyController(SgReadyControlLoop controller, Relay relay) {
+	private final SgReadyEventStream events;
+
+	public SgReadyController(SgReadyControlLoop controller, Relay relay, SgReadyEventStream events) {
 		this.controller = controller;
 		this.relay = relay;
+		this.events = events;
 	}
 
 	@GetMapping
@@ -63,11 +72,49 @@ public class SgReadyController {
 		return state;
 	}
 
+	@GetMapping(path = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter stream() {
+
+		// no timeout: dashboards stay connected, heartbeats keep idle connections open
+		SseEmitter emitter = new SseEmitter(0L);
+		Disposable subscription = events.stream().subscribe(event -> send(emitter, event), emitter::completeWithError,
+				emitter::complete);
+
+		emitter.onCompletion(subscription::dispose);
+		emitter.onError(e -> subscription.dispose());
+		return emitter;
+	}
+
+	private static void send(SseEmitter emitter, ServerSentEvent<String> event) {
+
+		String name = event.event();
+		String comment = event.comment();
+		String data = event.data();
+
+		SseEmitter.SseEventBuilder builder = SseEmitter.event();
+		if (name != null) {
+			builder.name(name);
+		}
+		if (comment != null) {
+			builder.comment(comment);
+		}
+		if (data != null) {
+			builder.data(data);
+		}
+
+		try {
+			emitter.send(builder);
+		} catch (IOException e) {
+			emitter.completeWithError(e);
+		}
+	}
+
 	@PostMapping
 	public String set(@RequestBody String body) {
 		if (StringUtils.hasText(body)) {
 			SgReadyState sgReadyState = SgReadyState.valueOf(body.trim());
 			relay.setState(sgReadyState);
+			events.refresh();
 			return sgReadyState.name();
 		}
 		return "NOT_APPLIED";
@@ -76,11 +123,13 @@ public class SgReadyController {
 	@PostMapping("a")
 	public void setA(@RequestBody String body) {
 		relay.setState(SgReadyState.from(parseBoolean(body), relay.getState().b()));
+		events.refresh();
 	}
 
 	@PostMapping("b")
 	public void setB(@RequestBody String body) {
 		relay.setState(SgReadyState.from(relay.getState().a(), parseBoolean(body)));
+		events.refresh();
 	}
 
 	private static boolean parseBoolean(String body) {
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi;
+
+import biz.paluch.sgreadypi.measure.Percent;
+import biz.paluch.sgreadypi.measure.Watt;
+import biz.paluch.sgreadypi.output.gpio.Relay;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Power;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.boot.json.JsonWriter;
+import org.springframework.http.codec.ServerSentEvent;
+
+/**
+ * Broadcasts the SG Ready state, the latest {@link Decision} and its averaged readings as Server-Sent Events. Changes
+ * are diffed and rendered to JSON once and shared by all subscribers through a single sink, so the cost per dashboard
+ * is writing the pre-rendered event. A new subscriber first receives a {@code snapshot} event carrying the full state,
+ * followed by {@code delta} events that contain only the fields that changed, and a heartbeat comment to keep idle
+ * connections open.
+ * <p>
+ * Each subscriber receives events on a {@link Scheduler} worker so a slow connection never blocks the publishing
+ * thread. A subscriber that falls behind skips intermediate changes and receives one delta against the state it was
+ * sent last, so its client state stays consistent.
+ * <p>
+ * Readings are rounded to whole Watt and percent so that noise below the display resolution does not cause events.
+ *
+ * @author Mark Paluch
+ */
+public class SgReadyEventStream {
+
+	private static final JsonWriter<Object> JSON = JsonWriter.standard();
+
+	private static final ServerSentEvent<String> HEARTBEAT = ServerSentEvent.<String> builder().comment("heartbeat")
+			.build();
+
+	private final Relay relay;
+
+	private final Sinks.Many<Change> changes = Sinks.many().replay().latest();
+
+	private final Flux<ServerSentEvent<String>> heartbeats;
+
+	private final Scheduler scheduler;
+
+	private @Nullable Decision decision;
+
+	private Snapshot snapshot;
+
+	/**
+	 * Create a new event stream.
+	 *
+	 * @param relay the relay reporting the effective state, including manual overrides.
+	 * @param heartbeat interval of heartbeat comments.
+	 */
+	public SgReadyEventStream(Relay relay, Duration heartbeat) {
+		this(relay, heartbeat, Schedulers.boundedElastic());
+	}
+
+	/**
+	 * Create a new event stream.
+	 *
+	 * @param relay the relay reporting the effective state, including manual overrides.
+	 * @param heartbeat interval of heartbeat comments.
+	 * @param scheduler scheduler on which subscribers receive events.
+	 */
+	SgReadyEventStream(Relay relay, Duration heartbeat, Scheduler scheduler) {
+
+		this.relay = relay;
+		this.heartbeats = Flux.interval(heartbeat).map(it -> HEARTBEAT).share();
+		this.scheduler = scheduler;
+		this.snapshot = Snapshot.from(relay.getState(), null, null);
+		this.changes.tryEmitNext(new Change(snapshot, null, event("delta", snapshot.toMap())));
+	}
+
+	/**
+	 * Publish a new decision along with the current relay state.
+	 *
+	 * @param decision the decision made by the control loop.
+	 */
+	public synchronized void publish(Decision decision) {
+		this.decision = decision;
+		refresh();
+	}
+
+	/**
+	 * Re-read the relay state, for example after a manual override, and publish changes.
+	 */
+	public synchronized void refresh() {
+
+		Snapshot previous = this.snapshot;
+		Snapshot current = Snapshot.from(relay.getState(), decision, previous);
+		Map<String, Object> delta = current.diff(previous);
+
+		if (delta.isEmpty()) {
+			return;
+		}
+
+		this.snapshot = current;
+		changes.tryEmitNext(new Change(current, previous, event("delta", delta)));
+	}
+
+	/**
+	 * Return the event stream for a new subscriber. The first event is the full {@code snapshot}, subsequent events are
+	 * shared {@code delta} events and heartbeats. Events are emitted on the scheduler of this event stream.
+	 *
+	 * @return the event stream.
+	 */
+	public Flux<ServerSentEvent<String>> stream() {
+
+		// keep only the latest change while the subscriber is busy, the delta is then rendered against what it was sent
+		Flux<Object> updates = Flux.merge(1, changes.asFlux().onBackpressureLatest(), heartbeats.onBackpressureDrop());
+
+		return Flux.defer(() -> {
+
+			ClientState client = new ClientState();
+			return updates.publishOn(scheduler, 1).handle(client::next);
+		});
+	}
+
+	private static ServerSentEvent<String> event(String type, Map<String, Object> data) {
+		return ServerSentEvent.builder(JSON.writeToString(data)).event(type).build();
+	}
+
+	/**
+	 * A change along with the snapshot it was diffed against and the shared, pre-rendered delta event.
+	 */
+	record Change(Snapshot snapshot, @Nullable Snapshot previous, ServerSentEvent<String> delta) {
+	}
+
+	/**
+	 * Per-subscriber state remembering the last snapshot sent to the client.
+	 */
+	static class ClientState {
+
+		private @Nullable Snapshot sent;
+
+		@SuppressWarnings("unchecked")
+		void next(Object update, SynchronousSink<ServerSentEvent<String>> sink) {
+
+			if (!(update instanceof Change change)) {
+				sink.next((ServerSentEvent<String>) update);
+				return;
+			}
+
+			Snapshot sent = this.sent;
+			this.sent = change.snapshot();
+
+			if (sent == null) {
+				sink.next(event("snapshot", change.snapshot().toMap()));
+			} else if (sent == change.previous()) {
+				sink.next(change.delta());
+			} else {
+
+				Map<String, Object> delta = change.snapshot().diff(sent);
+				if (!delta.isEmpty()) {
+					sink.next(event("delta", delta));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rendered view of the state, decision and readings. {@code decision} is only re-rendered if the decided state or
+	 * the {@link ConditionOutcome#hasSameReasons reasons} behind it changed. Arguments of the reasons, such as live
+	 * readings, do not cause a new explanation.
+	 */
+	record Snapshot(SgReadyState state, @Nullable Decision source, List<String> decision, @Nullable Readings readings) {
+
+		static Snapshot from(SgReadyState state, @Nullable Decision decision, @Nullable Snapshot previous) {
+
+			List<String> explained;
+			if (decision == null) {
+				explained = List.of();
+			} else if (previous != null && isSameDecision(previous.source(), decision)) {
+				explained = previous.decision();
+			} else {
+				explained = decision.conditionOutcome().explain();
+			}
+
+			Conditions conditions = decision != null ? decision.conditions() : null;
+			return new Snapshot(state, decision, explained, conditions != null ? Readings.from(conditions) : null);
+		}
+
+		private static boolean isSameDecision(@Nullable Decision previous, Decision decision) {
+			return previous != null && previous.state().equals(decision.state())
+					&& decision.conditionOutcome().hasSameReasons(previous.conditionOutcome());
+		}
+
+		Map<String, Object> toMap() {
+			return diff(null);
+		}
+
+		Map<String, Object> diff(@Nullable Snapshot previous) {
+
+			Map<String, Object> delta = new LinkedHashMap<>();
+
+			if (previous == null || !previous.state().equals(state)) {
+				delta.put("state", state.name());
+				delta.put("a", state.a());
+				delta.put("b", state.b());
+			}
+
+			if (previous == null || !previous.decision().equals(decision)) {
+				delta.put("decision", decision);
+			}
+
+			Readings readings = this.readings;
+			if (readings != null) {
+				readings.diff(previous != null ? previous.readings() : null, delta);
+			}
+
+			return delta;
+		}
+	}
+
+	record Readings(long ingress, long generatorPower, long soc, long batteryDischarge, boolean outOfService) {
+
+		static Readings from(Conditions conditions) {
+			return new Readings(watt(conditions.ingress()), watt(conditions.generatorPower()),
+					Math.round(Percent.toPercent(conditions.soc())),
+					watt(conditions.batteryDischarge()), conditions.outOfService());
+		}
+
+		private static long watt(Quantity<Power> power) {
+			return Math.round(Watt.toWatts(power));
+		}
+
+		void diff(@Nullable Readings previous, Map<String, Object> delta) {
+
+			if (previous == null || previous.ingress() != ingress) {
+				delta.put("ingress", ingress);
+			}
+			if (previous == null || previous.generatorPower() != generatorPower) {
+				delta.put("generatorPower", generatorPower);
+			}
+			if (previous == null || previous.soc() != soc) {
+				delta.put("soc", soc);
+			}
+			if (previous == null || previous.batteryDischarge() != batteryDischarge) {
+				delta.put("batteryDischarge", batteryDischarge);
+			}
+			if (previous == null || previous.outOfService() != outOfService) {
+				delta.put("outOfService", outOfService);
+			}
+		}
+	}
+
+}
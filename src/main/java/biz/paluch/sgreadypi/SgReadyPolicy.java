@@ -15,6 +15,8 @@
  */
 package biz.paluch.sgreadypi;
 
+import biz.paluch.sgreadypi.measure.Percent;
+import biz.paluch.sgreadypi.measure.Watt;
 import biz.paluch.sgreadypi.weather.WeatherService;
 
 import java.time.Duration;
@@ -68,8 +70,16 @@ public class SgReadyPolicy {
 
 	private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
 
+	private static final Decision OUT_OF_SERVICE = Decision
+			.normal(ConditionOutcome.noMatch("Inverters or power meter out of service"));
+
+	private static final Decision GENERATOR_POWER_BELOW = Decision
+			.normal(ConditionOutcome.noMatch("Generator power below heat pump consumption"));
+
 	private final SgReadyProperties properties;
 
+	private @Nullable PolicyThresholds thresholds;
+
 	public SgReadyPolicy(SgReadyProperties properties) {
 		this.properties = properties;
 	}
@@ -89,107 +99,127 @@ public class SgReadyPolicy {
 			LocalDateTime currentTime) {
 
 		if (conditions.outOfService()) {
-			return Decision.normal(ConditionOutcome.noMatch("Inverters or power meter out of service"));
+			return OUT_OF_SERVICE;
 		}
 
+		PolicyThresholds thresholds = thresholds();
 		Quantity<Power> ingress = conditions.ingress();
 		Quantity<Power> generatorPower = conditions.generatorPower();
 		Quantity<Dimensionless> soc = conditions.soc();
+		double generator = Watt.toWatts(generatorPower);
+		double stateOfCharge = Percent.toPercent(soc);
 
-		if (gte(ingress, properties.getIngressLimit())) {
+		if (Watt.toWatts(ingress) >= thresholds.ingressLimit) {
 			return Decision.normal(
-					ConditionOutcome.match("Ingress %s exceeds limit %s".formatted(ingress, properties.getIngressLimit())));
+					ConditionOutcome.of(true, PolicyReason.INGRESS_LIMIT, ingress, properties.getIngressLimit()));
 		}
 
 		boolean consuming = currentState.isAvailablePv() || currentState.isExcessPv();
-		Quantity<Power> generatorOn = properties.getHeatPumpPowerConsumption();
-		Quantity<Power> generatorOff = generatorOn.multiply(properties.getGeneratorPowerOffRatio());
 
-		if (!Hysteresis.active(consuming, generatorPower, generatorOn, generatorOff)) {
-			return Decision.normal(ConditionOutcome.noMatch("Generator power below heat pump consumption"));
+		if (!Hysteresis.active(consuming, generator, thresholds.generatorOn, thresholds.generatorOff)) {
+			return GENERATOR_POWER_BELOW;
 		}
 
-		ConditionOutcome match = ConditionOutcome
-				.match("Generator power %s above heat pump consumption %s (hysteresis off %s)".formatted(generatorPower,
-						generatorOn, generatorOff));
+		ConditionOutcome match = ConditionOutcome.of(true, PolicyReason.GENERATOR_POWER_ABOVE, generatorPower,
+				properties.getHeatPumpPowerConsumption(), thresholds.generatorOffQuantity, null);
 
 		SgReadyProperties.Levels battery = properties.getBattery();
-		ConditionOutcome qualifiesForExcessPower = match.nested(qualifiesForExcessPower(battery,
-				properties.getExcessNotBefore(), properties.getExcessNotAfter(), soc, currentTime));
+		ConditionOutcome qualifiesForExcessPower = match.nested(qualifiesForExcessPower(thresholds, battery,
+				properties.getExcessNotBefore(), properties.getExcessNotAfter(), soc, stateOfCharge, currentTime));
 		boolean excess = qualifiesForExcessPower.isMatch();
 		boolean weather = true;
 
 		if (weatherRange != null) {
 
-			String sunset = TIME.format(weatherRange.sunset());
 			if (weatherRange.enoughRemainingSunHours()) {
 				weather = false;
-				qualifiesForExcessPower = qualifiesForExcessPower
-						.nestedNoMatch("Enough remaining sunny time %s (Sunset: %s), starting at %s until %s".formatted(
-								format(weatherRange.remainingSunDuration()), sunset, TIMESTAMP.format(weatherRange.from()),
-								TIMESTAMP.format(weatherRange.to())));
+				qualifiesForExcessPower = qualifiesForExcessPower.nested(false, PolicyReason.ENOUGH_SUN, weatherRange,
+						null);
 			} else {
 
 				if (weatherRange.afterSunset()) {
 					weather = false;
-					qualifiesForExcessPower = qualifiesForExcessPower
-							.nestedNoMatch("After sunset (Sunset: %s)".formatted(sunset));
+					qualifiesForExcessPower = qualifiesForExcessPower.nested(false, PolicyReason.AFTER_SUNSET,
+							weatherRange, null);
 				} else if (weatherRange.afterSunsetLimit()) {
 					weather = false;
-					qualifiesForExcessPower = qualifiesForExcessPower
-							.nestedNoMatch("After sunset limit (Sunset: %s)".formatted(sunset));
+					qualifiesForExcessPower = qualifiesForExcessPower.nested(false, PolicyReason.AFTER_SUNSET_LIMIT,
+							weatherRange, null);
 				} else {
-					qualifiesForExcessPower = qualifiesForExcessPower
-							.nestedMatch(String.format("Using remaining %s sunny time", format(weatherRange.remainingSunDuration())));
+					qualifiesForExcessPower = qualifiesForExcessPower.nested(true, PolicyReason.REMAINING_SUN,
+							weatherRange, null);
 				}
 			}
 		}
 
 		Quantity<Power> elementOn = properties.getHeatElementPowerConsumption();
-		Quantity<Power> elementOff = elementOn.multiply(properties.getGeneratorPowerOffRatio());
 
 		if (excess && weather) {
 
-			boolean canRunElement = Hysteresis.active(currentState.isExcessPv(), generatorPower, elementOn,
-					elementOff);
-			if (gte(soc, battery.pvExcessOn())) {
+			boolean canRunElement = Hysteresis.active(currentState.isExcessPv(), generator, thresholds.elementOn,
+					thresholds.elementOff);
+			if (stateOfCharge >= thresholds.pvExcessOn) {
 
 				if (canRunElement) {
-					return withDischargeGate(Decision.excessPv(qualifiesForExcessPower.nestedMatch(
-							"Battery SoC %s above excess PV start threshold %s and generator power %s covers heat element %s"
-									.formatted(soc, battery.pvExcessOn(), generatorPower, elementOn))),
-							currentState, conditions);
+					return withDischargeGate(Decision.excessPv(qualifiesForExcessPower.nested(true,
+							PolicyReason.EXCESS_COVERED, soc, battery.pvExcessOn(), generatorPower, elementOn)),
+							currentState, conditions, thresholds);
 				}
 
-				return Decision.availablePv(qualifiesForExcessPower.nestedNoMatch(
-						"Battery SoC %s above excess PV start threshold %s but generator power %s below heat element draw %s, staying on compressor"
-								.formatted(soc, battery.pvExcessOn(), generatorPower, elementOn)));
+				return Decision.availablePv(qualifiesForExcessPower.nested(false, PolicyReason.EXCESS_NOT_COVERED, soc,
+						battery.pvExcessOn(), generatorPower, elementOn));
 			}
 
 			if (currentState.isNormal()) {
-				return Decision.availablePv(qualifiesForExcessPower
-						.nestedNoMatch("Battery SoC %s below excess PV start threshold %s, switching from normal to available"
-								.formatted(soc, battery.pvExcessOn())));
+				return Decision.availablePv(qualifiesForExcessPower.nested(false, PolicyReason.BELOW_EXCESS_START, soc,
+						battery.pvExcessOn()));
 			}
 
 			if (currentState.isExcessPv() && !canRunElement) {
-				return Decision.availablePv(qualifiesForExcessPower.nestedNoMatch(
-						"Retaining within hysteresis but generator power %s below heat element draw %s, downgrading to available"
-								.formatted(generatorPower, elementOn)));
+				return Decision.availablePv(qualifiesForExcessPower.nested(false, PolicyReason.RETAINING_NOT_COVERED,
+						generatorPower, elementOn));
 			}
 
 			return withDischargeGate(
 					new Decision(currentState,
-							qualifiesForExcessPower.nestedMatch("Battery SoC %s retaining %s".formatted(soc, currentState))),
-					currentState, conditions);
-		} else if (Hysteresis.active(consuming, soc, battery.pvAvailable(),
-				battery.pvAvailable().subtract(properties.getAvailableSocOffMargin()))) {
-			return Decision.availablePv(qualifiesForExcessPower
-					.nestedMatch("Battery SoC %s above required SoC threshold %s".formatted(soc, battery.pvAvailable())));
+							qualifiesForExcessPower.nested(true, PolicyReason.RETAINING, soc, currentState)),
+					currentState, conditions, thresholds);
+		} else if (Hysteresis.active(consuming, stateOfCharge, thresholds.pvAvailable, thresholds.pvAvailableOff)) {
+			return Decision.availablePv(
+					qualifiesForExcessPower.nested(true, PolicyReason.ABOVE_REQUIRED_SOC, soc, battery.pvAvailable()));
 		} else {
-			return Decision.normal(qualifiesForExcessPower
-					.nestedNoMatch("Battery SoC %s below required SoC threshold %s".formatted(soc, battery.pvAvailable())));
+			return Decision.normal(
+					qualifiesForExcessPower.nested(false, PolicyReason.BELOW_REQUIRED_SOC, soc, battery.pvAvailable()));
+		}
+	}
+
+	/**
+	 * Determine whether the conditions are close to one of the thresholds the policy switches states at. Used to poll
+	 * readings more frequently when a state change is imminent.
+	 *
+	 * @param conditions the current conditions.
+	 * @param margin distance to a threshold relative to the threshold, for example {@code 0.1} for 10%.
+	 * @return {@literal true} if any reading is within {@code margin} of a threshold; {@literal false} otherwise.
+	 */
+	public boolean isNearThreshold(Conditions conditions, double margin) {
+
+		if (conditions.outOfService()) {
+			return false;
 		}
+
+		PolicyThresholds thresholds = thresholds();
+		double ingress = Watt.toWatts(conditions.ingress());
+		double generator = Watt.toWatts(conditions.generatorPower());
+		double soc = Percent.toPercent(conditions.soc());
+		double discharge = Watt.toWatts(conditions.batteryDischarge());
+
+		return near(ingress, thresholds.ingressLimit, margin) || near(generator, thresholds.generatorOn, margin)
+				|| near(generator, thresholds.generatorOff, margin) || near(generator, thresholds.elementOn, margin)
+				|| near(generator, thresholds.elementOff, margin) || near(soc, thresholds.pvAvailable, margin)
+				|| near(soc, thresholds.pvAvailableOff, margin) || near(soc, thresholds.pvExcessOn, margin)
+				|| near(soc, thresholds.pvExcessOff, margin)
+				|| (thresholds.dischargeLimit > 0 && (near(discharge, thresholds.dischargeLimit, margin)
+						|| near(discharge, thresholds.dischargeReAllow, margin)));
 	}
 
 	/**
@@ -200,53 +230,46 @@ public class SgReadyPolicy {
 	 * {@link SgReadyProperties#getGeneratorPowerOffRatio()}: once degraded, excess PV is re-allowed only after discharge
 	 * falls below {@code limit * ratio}. Decisions for other states pass through unchanged.
 	 */
-	private Decision withDischargeGate(Decision decision, SgReadyState currentState, Conditions conditions) {
+	private Decision withDischargeGate(Decision decision, SgReadyState currentState, Conditions conditions,
+			PolicyThresholds thresholds) {
 
-		Quantity<Power> limit = properties.getDischargeLimit();
-		if (!decision.state().isExcessPv() || limit.getValue().doubleValue() <= 0) {
+		if (!decision.state().isExcessPv() || thresholds.dischargeLimit <= 0) {
 			return decision;
 		}
 
 		Quantity<Power> discharge = conditions.batteryDischarge();
-		Quantity<Power> reAllow = limit.multiply(properties.getGeneratorPowerOffRatio());
+		Quantity<Power> limit = properties.getDischargeLimit();
 
 		// blocking gate: engages once discharge reaches the limit, releases below limit * ratio
-		if (Hysteresis.active(!currentState.isExcessPv(), discharge, limit, reAllow)) {
-			return Decision.availablePv(decision.conditionOutcome().nestedNoMatch(
-					"Battery discharge %s blocks excess PV (limit %s, re-allow below %s)".formatted(discharge, limit, reAllow)));
+		if (Hysteresis.active(!currentState.isExcessPv(), Watt.toWatts(discharge), thresholds.dischargeLimit,
+				thresholds.dischargeReAllow)) {
+			return Decision.availablePv(decision.conditionOutcome().nested(false, PolicyReason.DISCHARGE_BLOCKS,
+					discharge, limit, thresholds.dischargeReAllowQuantity, null));
 		}
 
-		return new Decision(decision.state(), decision.conditionOutcome()
-				.nestedMatch("Battery discharge %s within discharge limit %s".formatted(discharge, limit)));
+		return new Decision(decision.state(),
+				decision.conditionOutcome().nested(true, PolicyReason.DISCHARGE_WITHIN_LIMIT, discharge, limit));
 	}
 
-	private static ConditionOutcome qualifiesForExcessPower(SgReadyProperties.Levels battery,
-			@Nullable LocalTime excessNotBefore, @Nullable LocalTime excessNotAfter, Quantity<Dimensionless> soc,
-			LocalDateTime now) {
+	private static ConditionOutcome qualifiesForExcessPower(PolicyThresholds thresholds,
+			SgReadyProperties.Levels battery, @Nullable LocalTime excessNotBefore, @Nullable LocalTime excessNotAfter,
+			Quantity<Dimensionless> soc, double stateOfCharge, LocalDateTime now) {
 
 		ConditionOutcome outcome = null;
 
 		if (excessNotBefore != null) {
 
 			if (now.toLocalTime().isBefore(excessNotBefore)) {
-				return ConditionOutcome.noMatch("Current time %s before excess power is allowed %s (not-before)"
-						.formatted(now.toLocalTime(), excessNotBefore));
+				return ConditionOutcome.of(false, PolicyReason.BEFORE_NOT_BEFORE, now.toLocalTime(), excessNotBefore);
 			} else {
-				outcome = ConditionOutcome.match("Current time %s after excess power is allowed %s (not-before)"
-						.formatted(now.toLocalTime(), excessNotBefore));
+				outcome = ConditionOutcome.of(true, PolicyReason.AFTER_NOT_BEFORE, now.toLocalTime(), excessNotBefore);
 			}
 		}
 
 		if (excessNotAfter != null) {
 
-			ConditionOutcome notAfter;
-			if (now.toLocalTime().isAfter(excessNotAfter)) {
-				notAfter = ConditionOutcome.noMatch("Current time %s after excess power is allowed %s (not-after)"
-						.formatted(now.toLocalTime(), excessNotAfter));
-			} else {
-				notAfter = ConditionOutcome.match("Current time %s after excess power is allowed %s (not-after)"
-						.formatted(now.toLocalTime(), excessNotAfter));
-			}
+			ConditionOutcome notAfter = ConditionOutcome.of(!now.toLocalTime().isAfter(excessNotAfter),
+					PolicyReason.NOT_AFTER, now.toLocalTime(), excessNotAfter);
 
 			outcome = outcome == null ? notAfter : outcome.nested(notAfter);
 			if (!notAfter.isMatch()) {
@@ -254,11 +277,9 @@ public class SgReadyPolicy {
 			}
 		}
 
-		ConditionOutcome socBelowPvExcessOff = gte(soc, battery.pvExcessOff())
-				? ConditionOutcome
-						.match("Battery SoC %s above SoC for excess PV stop threshold %s".formatted(soc, battery.pvExcessOff()))
-				: ConditionOutcome
-						.noMatch("Battery SoC %s below SoC for excess PV stop threshold %s".formatted(soc, battery.pvExcessOff()));
+		ConditionOutcome socBelowPvExcessOff = stateOfCharge >= thresholds.pvExcessOff
+				? ConditionOutcome.of(true, PolicyReason.ABOVE_EXCESS_STOP, soc, battery.pvExcessOff())
+				: ConditionOutcome.of(false, PolicyReason.BELOW_EXCESS_STOP, soc, battery.pvExcessOff());
 
 		return outcome == null ? socBelowPvExcessOff : outcome.nested(socBelowPvExcessOff);
 	}
@@ -268,15 +289,109 @@ public class SgReadyPolicy {
 	}
 
 	/**
-	 * Compare two quantities after converting the left-hand value to the right-hand unit.
-	 *
-	 * @param <Q> the quantity dimension being compared.
-	 * @param a the left-hand quantity.
-	 * @param b the right-hand quantity.
-	 * @return {@literal true} if {@code a} is greater than or equal to {@code b}; {@literal false} otherwise.
+	 * Return the compiled thresholds, recompiling them if a policy-relevant property was replaced.
 	 */
-	static <Q extends Quantity<Q>> boolean gte(Quantity<Q> a, Quantity<Q> b) {
-		return a.to(b.getUnit()).getValue().doubleValue() >= b.getValue().doubleValue();
+	private PolicyThresholds thresholds() {
+
+		PolicyThresholds thresholds = this.thresholds;
+		if (thresholds == null || !thresholds.isCurrent(properties)) {
+			thresholds = PolicyThresholds.compile(properties);
+			this.thresholds = thresholds;
+		}
+
+		return thresholds;
+	}
+
+	private static boolean near(double value, double threshold, double margin) {
+		return Math.abs(value - threshold) <= Math.abs(threshold) * margin;
+	}
+
+	/**
+	 * Reasons recorded by the policy. Arguments are captured as-is and formatted only when the explanation is rendered.
+	 */
+	enum PolicyReason implements ConditionOutcome.Reason {
+
+		INGRESS_LIMIT("Ingress %s exceeds limit %s"),
+
+		GENERATOR_POWER_ABOVE("Generator power %s above heat pump consumption %s (hysteresis off %s)"),
+
+		BEFORE_NOT_BEFORE("Current time %s before excess power is allowed %s (not-before)"),
+
+		AFTER_NOT_BEFORE("Current time %s after excess power is allowed %s (not-before)"),
+
+		NOT_AFTER("Current time %s after excess power is allowed %s (not-after)"),
+
+		ABOVE_EXCESS_STOP("Battery SoC %s above SoC for excess PV stop threshold %s"),
+
+		BELOW_EXCESS_STOP("Battery SoC %s below SoC for excess PV stop threshold %s"),
+
+		ENOUGH_SUN("Enough remaining sunny time %s (Sunset: %s), starting at %s until %s") {
+
+			@Override
+			public String render(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d) {
+
+				WeatherService.Range range = (WeatherService.Range) a;
+				return super.render(format(range.remainingSunDuration()), TIME.format(range.sunset()),
+						TIMESTAMP.format(range.from()), TIMESTAMP.format(range.to()));
+			}
+		},
+
+		AFTER_SUNSET("After sunset (Sunset: %s)") {
+
+			@Override
+			public String render(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d) {
+				return super.render(TIME.format(((WeatherService.Range) a).sunset()), null, null, null);
+			}
+		},
+
+		AFTER_SUNSET_LIMIT("After sunset limit (Sunset: %s)") {
+
+			@Override
+			public String render(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d) {
+				return super.render(TIME.format(((WeatherService.Range) a).sunset()), null, null, null);
+			}
+		},
+
+		REMAINING_SUN("Using remaining %s sunny time") {
+
+			@Override
+			public String render(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d) {
+				return super.render(format(((WeatherService.Range) a).remainingSunDuration()), null, null, null);
+			}
+		},
+
+		EXCESS_COVERED(
+				"Battery SoC %s above excess PV start threshold %s and generator power %s covers heat element %s"),
+
+		EXCESS_NOT_COVERED(
+				"Battery SoC %s above excess PV start threshold %s but generator power %s below heat element draw %s, staying on compressor"),
+
+		BELOW_EXCESS_START("Battery SoC %s below excess PV start threshold %s, switching from normal to available"),
+
+		RETAINING_NOT_COVERED(
+				"Retaining within hysteresis but generator power %s below heat element draw %s, downgrading to available"),
+
+		RETAINING("Battery SoC %s retaining %s"),
+
+		ABOVE_REQUIRED_SOC("Battery SoC %s above required SoC threshold %s"),
+
+		BELOW_REQUIRED_SOC("Battery SoC %s below required SoC threshold %s"),
+
+		DISCHARGE_BLOCKS("Battery discharge %s blocks excess PV (limit %s, re-allow below %s)"),
+
+		DISCHARGE_WITHIN_LIMIT("Battery discharge %s within discharge limit %s");
+
+		private final String template;
+
+		PolicyReason(String template) {
+			this.template = template;
+		}
+
+		@Override
+		public String render(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d) {
+			return template.formatted(a, b, c, d);
+		}
+
 	}
 
 }
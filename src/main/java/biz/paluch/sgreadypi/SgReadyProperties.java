@@ -18,6 +18,7 @@ package biz.paluch.sgreadypi;
 import biz.paluch.sgreadypi.measure.Percent;
 import biz.paluch.sgreadypi.measure.Watt;
 import biz.paluch.sgreadypi.output.gpio.GpioProperties;
+import biz.paluch.sgreadypi.provider.Estimator;
 import biz.paluch.sgreadypi.weather.GeoPosition;
 
 import java.time.Duration;
@@ -31,6 +32,7 @@ import javax.measure.quantity.Power;
 import org.jspecify.annotations.Nullable;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.Assert;
 
 /**
  * Configuration properties for the SG Ready control application.
@@ -46,6 +48,11 @@ public class SgReadyProperties {
 	 */
 	long powerMeterId;
 
+	/**
+	 * Receiver for power meter multicast datagrams.
+	 */
+	PowerMeterReceiver powerMeterReceiver = PowerMeterReceiver.SPEEDWIRE;
+
 	/**
 	 * Collection of inverter hostnames/IP-adresses.
 	 */
@@ -61,11 +68,31 @@ public class SgReadyProperties {
 	 */
 	Duration queryInterval = Duration.ofSeconds(10);
 
+	/**
+	 * Timeout for a single inverter poll including all Modbus requests it is split into.
+	 */
+	Duration inverterTimeout = Duration.ofSeconds(5);
+
+	/**
+	 * Maximum number of Modbus requests pipelined on a single inverter connection.
+	 */
+	int inverterMaxInFlight = 2;
+
+	/**
+	 * Adaptive inverter polling between {@link #queryInterval} and {@link Polling#getMaxInterval()}.
+	 */
+	Polling polling = new Polling();
+
 	/**
 	 * Moving-average window applied to power readings to smooth out spikes.
 	 */
 	Duration averaging = Duration.ofSeconds(300);
 
+	/**
+	 * Estimators applied to each reading source over the {@link #averaging} window.
+	 */
+	Smoothing smoothing = new Smoothing();
+
 	/**
 	 * Power consumption of the heat pump in Watt. Used to gate any PV state: generator power must reach this value
 	 * (compressor draw) before {@link SgReadyState#AVAILABLE_PV} or {@link SgReadyState#EXCESS_PV} is considered.
@@ -133,6 +160,11 @@ public class SgReadyProperties {
 	 */
 	Duration debounce = Duration.ofMinutes(15);
 
+	/**
+	 * Control loop evaluation: fixed watchdog tick only or additionally triggered by fresh readings.
+	 */
+	Control control = new Control();
+
 	/**
 	 * Weather-based optimization configuration.
 	 */
@@ -144,6 +176,10 @@ public class SgReadyProperties {
 		return this.powerMeterId;
 	}
 
+	public PowerMeterReceiver getPowerMeterReceiver() {
+		return this.powerMeterReceiver;
+	}
+
 	public List<String> getInverterHosts() {
 		return this.inverterHosts;
 	}
@@ -156,10 +192,26 @@ public class SgReadyProperties {
 		return this.queryInterval;
 	}
 
+	public Duration getInverterTimeout() {
+		return this.inverterTimeout;
+	}
+
+	public int getInverterMaxInFlight() {
+		return this.inverterMaxInFlight;
+	}
+
+	public Polling getPolling() {
+		return this.polling;
+	}
+
 	public Duration getAveraging() {
 		return this.averaging;
 	}
 
+	public Smoothing getSmoothing() {
+		return this.smoothing;
+	}
+
 	public Quantity<Power> getHeatPumpPowerConsumption() {
 		return this.heatPumpPowerConsumption;
 	}
@@ -204,6 +256,10 @@ public class SgReadyProperties {
 		return this.debounce;
 	}
 
+	public Control getControl() {
+		return this.control;
+	}
+
 	public @Nullable Weather getWeather() {
 		return this.weather;
 	}
@@ -212,6 +268,10 @@ public class SgReadyProperties {
 		this.powerMeterId = powerMeterId;
 	}
 
+	public void setPowerMeterReceiver(PowerMeterReceiver powerMeterReceiver) {
+		this.powerMeterReceiver = powerMeterReceiver;
+	}
+
 	public void setInverterHosts(List<String> inverterHosts) {
 		this.inverterHosts = inverterHosts;
 	}
@@ -224,10 +284,26 @@ public class SgReadyProperties {
 		this.queryInterval = queryInterval;
 	}
 
+	public void setInverterTimeout(Duration inverterTimeout) {
+		this.inverterTimeout = inverterTimeout;
+	}
+
+	public void setInverterMaxInFlight(int inverterMaxInFlight) {
+		this.inverterMaxInFlight = inverterMaxInFlight;
+	}
+
+	public void setPolling(Polling polling) {
+		this.polling = polling;
+	}
+
 	public void setAveraging(Duration averaging) {
 		this.averaging = averaging;
 	}
 
+	public void setSmoothing(Smoothing smoothing) {
+		this.smoothing = smoothing;
+	}
+
 	public void setHeatPumpPowerConsumption(Quantity<Power> heatPumpPowerConsumption) {
 		this.heatPumpPowerConsumption = heatPumpPowerConsumption;
 	}
@@ -272,21 +348,46 @@ public class SgReadyProperties {
 		this.debounce = debounce;
 	}
 
+	public void setControl(Control control) {
+		this.control = control;
+	}
+
 	public void setWeather(@Nullable Weather weather) {
 		this.weather = weather;
 	}
 
 	public String toString() {
-		return "SgReadyProperties(powerMeterId=" + this.getPowerMeterId() + ", inverterHosts=" + this.getInverterHosts()
-				+ ", inverterPort=" + this.getInverterPort() + ", queryInterval=" + this.getQueryInterval() + ", averaging="
-				+ this.getAveraging() + ", heatPumpPowerConsumption=" + this.getHeatPumpPowerConsumption()
+		return "SgReadyProperties(powerMeterId=" + this.getPowerMeterId() + ", powerMeterReceiver="
+				+ this.getPowerMeterReceiver() + ", inverterHosts=" + this.getInverterHosts()
+				+ ", inverterPort=" + this.getInverterPort() + ", queryInterval=" + this.getQueryInterval() + ", inverterTimeout="
+				+ this.getInverterTimeout() + ", inverterMaxInFlight=" + this.getInverterMaxInFlight() + ", polling="
+				+ this.getPolling() + ", averaging="
+				+ this.getAveraging() + ", smoothing=" + this.getSmoothing() + ", heatPumpPowerConsumption="
+				+ this.getHeatPumpPowerConsumption()
 				+ ", heatElementPowerConsumption=" + this.getHeatElementPowerConsumption() + ", ingressLimit="
 				+ this.getIngressLimit() + ", dischargeLimit=" + this.getDischargeLimit() + ", excessNotBefore="
 				+ this.getExcessNotBefore() + ", excessNotAfter="
 				+ this.getExcessNotAfter() + ", battery=" + this.getBattery() + ", generatorPowerOffRatio="
 				+ this.getGeneratorPowerOffRatio() + ", availableSocOffMargin=" + this.getAvailableSocOffMargin() + ", gpio="
 				+ this.getGpio() + ", debounce="
-				+ this.getDebounce() + ", weather=" + this.getWeather() + ")";
+				+ this.getDebounce() + ", control=" + this.getControl() + ", weather=" + this.getWeather() + ")";
+	}
+
+	/**
+	 * Receiver implementations for power meter multicast datagrams.
+	 */
+	public enum PowerMeterReceiver {
+
+		/**
+		 * Speedwire library with its own blocking receive thread.
+		 */
+		SPEEDWIRE,
+
+		/**
+		 * Netty datagram channel sharing a single event loop with the Modbus client. Uses the native epoll transport
+		 * when available and no inverter is polled through Modbus, which requires NIO.
+		 */
+		NETTY
 	}
 
 	/**
@@ -301,6 +402,237 @@ public class SgReadyProperties {
 			Quantity<Dimensionless> pvExcessOff) {
 	}
 
+	/**
+	 * Configuration properties for adaptive inverter polling. Inverters are polled at the
+	 * {@link SgReadyProperties#getQueryInterval() query interval} while generator power changes quickly, the battery
+	 * is charging or discharging, or the control loop is close to a hysteresis threshold. Otherwise the interval backs
+	 * off up to {@link #maxInterval}, which is used right away while the sun is below the horizon and the inverters
+	 * produce no power.
+	 * <p>
+	 * The maximum interval is bounded by {@link #MAX_INTERVAL_LIMIT} so that backing off never lets inverter readings
+	 * age beyond {@link RecencyTracker#MAX_HEALTHY}, which would take the inverters out of service.
+	 */
+	public static class Polling {
+
+		/**
+		 * Upper bound for {@link #getMaxInterval()}. Half of {@link RecencyTracker#MAX_HEALTHY} leaves room for a poll
+		 * timeout or a single failed poll before readings turn stale.
+		 */
+		public static final Duration MAX_INTERVAL_LIMIT = RecencyTracker.MAX_HEALTHY.dividedBy(2);
+
+		/**
+		 * Whether to adapt the polling interval. Inverters are polled at the fixed query interval if disabled.
+		 */
+		private boolean adaptive = true;
+
+		/**
+		 * Longest interval between polls while readings are flat. Must not exceed {@link #MAX_INTERVAL_LIMIT}.
+		 */
+		private Duration maxInterval = Duration.ofSeconds(20);
+
+		/**
+		 * Generator power change in Watt per second at or above which inverters are polled at the query interval.
+		 */
+		private double powerRate = 10;
+
+		/**
+		 * Battery charge or discharge at or above which inverters are polled at the query interval.
+		 */
+		private Quantity<Power> batteryFlow = Watt.of(200);
+
+		/**
+		 * Distance to a hysteresis threshold, relative to the threshold, within which inverters are polled at the query
+		 * interval.
+		 */
+		private double thresholdMargin = 0.1;
+
+		public Polling() {}
+
+		public boolean isAdaptive() {
+			return this.adaptive;
+		}
+
+		public Duration getMaxInterval() {
+			return this.maxInterval;
+		}
+
+		public double getPowerRate() {
+			return this.powerRate;
+		}
+
+		public Quantity<Power> getBatteryFlow() {
+			return this.batteryFlow;
+		}
+
+		public double getThresholdMargin() {
+			return this.thresholdMargin;
+		}
+
+		public void setAdaptive(boolean adaptive) {
+			this.adaptive = adaptive;
+		}
+
+		public void setMaxInterval(Duration maxInterval) {
+
+			Assert.isTrue(maxInterval.isPositive(), "Max interval must be positive");
+			Assert.isTrue(maxInterval.compareTo(MAX_INTERVAL_LIMIT) <= 0,
+					() -> "Max interval %s exceeds %s, readings would turn stale between polls".formatted(maxInterval,
+							MAX_INTERVAL_LIMIT));
+			this.maxInterval = maxInterval;
+		}
+
+		public void setPowerRate(double powerRate) {
+			this.powerRate = powerRate;
+		}
+
+		public void setBatteryFlow(Quantity<Power> batteryFlow) {
+			this.batteryFlow = batteryFlow;
+		}
+
+		public void setThresholdMargin(double thresholdMargin) {
+			this.thresholdMargin = thresholdMargin;
+		}
+
+		public String toString() {
+			return "SgReadyProperties.Polling(adaptive=" + this.isAdaptive() + ", maxInterval=" + this.getMaxInterval()
+					+ ", powerRate=" + this.getPowerRate() + ", batteryFlow=" + this.getBatteryFlow() + ", thresholdMargin="
+					+ this.getThresholdMargin() + ")";
+		}
+	}
+
+	/**
+	 * Configuration properties for the control loop. The loop always runs on a fixed watchdog tick that detects stale
+	 * readings. In reactive mode, fresh power meter and inverter readings additionally trigger an evaluation, at most
+	 * once per {@link #minInterval} and only if a reading moved by more than its epsilon since the last evaluation.
+	 */
+	public static class Control {
+
+		/**
+		 * Whether fresh readings trigger an evaluation in addition to the watchdog tick.
+		 */
+		private boolean reactive = false;
+
+		/**
+		 * Minimum time between two reactive evaluations.
+		 */
+		private Duration minInterval = Duration.ofSeconds(1);
+
+		/**
+		 * Change of ingress, generator power or battery discharge that triggers a reactive evaluation.
+		 */
+		private Quantity<Power> powerEpsilon = Watt.of(20);
+
+		/**
+		 * Change of the battery state of charge that triggers a reactive evaluation.
+		 */
+		private Quantity<Dimensionless> socEpsilon = Percent.of(1);
+
+		public Control() {}
+
+		public boolean isReactive() {
+			return this.reactive;
+		}
+
+		public Duration getMinInterval() {
+			return this.minInterval;
+		}
+
+		public Quantity<Power> getPowerEpsilon() {
+			return this.powerEpsilon;
+		}
+
+		public Quantity<Dimensionless> getSocEpsilon() {
+			return this.socEpsilon;
+		}
+
+		public void setReactive(boolean reactive) {
+			this.reactive = reactive;
+		}
+
+		public void setMinInterval(Duration minInterval) {
+			this.minInterval = minInterval;
+		}
+
+		public void setPowerEpsilon(Quantity<Power> powerEpsilon) {
+			this.powerEpsilon = powerEpsilon;
+		}
+
+		public void setSocEpsilon(Quantity<Dimensionless> socEpsilon) {
+			this.socEpsilon = socEpsilon;
+		}
+
+		public String toString() {
+			return "SgReadyProperties.Control(reactive=" + this.isReactive() + ", minInterval=" + this.getMinInterval()
+					+ ", powerEpsilon=" + this.getPowerEpsilon() + ", socEpsilon=" + this.getSocEpsilon() + ")";
+		}
+	}
+
+	/**
+	 * Configuration properties selecting the {@link Estimator} per reading source. All sources default to
+	 * {@link Estimator#MEAN}.
+	 */
+	public static class Smoothing {
+
+		/**
+		 * Estimator for power meter ingress.
+		 */
+		private Estimator ingress = Estimator.MEAN;
+
+		/**
+		 * Estimator for power meter egress.
+		 */
+		private Estimator egress = Estimator.MEAN;
+
+		/**
+		 * Estimator for per-inverter generator power.
+		 */
+		private Estimator generatorPower = Estimator.MEAN;
+
+		/**
+		 * Estimator for per-inverter battery discharge.
+		 */
+		private Estimator batteryDischarge = Estimator.MEAN;
+
+		public Smoothing() {}
+
+		public Estimator getIngress() {
+			return this.ingress;
+		}
+
+		public Estimator getEgress() {
+			return this.egress;
+		}
+
+		public Estimator getGeneratorPower() {
+			return this.generatorPower;
+		}
+
+		public Estimator getBatteryDischarge() {
+			return this.batteryDischarge;
+		}
+
+		public void setIngress(Estimator ingress) {
+			this.ingress = ingress;
+		}
+
+		public void setEgress(Estimator egress) {
+			this.egress = egress;
+		}
+
+		public void setGeneratorPower(Estimator generatorPower) {
+			this.generatorPower = generatorPower;
+		}
+
+		public void setBatteryDischarge(Estimator batteryDischarge) {
+			this.batteryDischarge = batteryDischarge;
+		}
+
+		public String toString() {
+			return "SgReadyProperties.Smoothing(ingress=" + this.getIngress() + ", egress=" + this.getEgress()
+					+ ", generatorPower=" + this.getGeneratorPower() + ", batteryDischarge=" + this.getBatteryDischarge() + ")";
+		}
+	}
+
 	/**
 	 * Configuration properties to configure weather-based predications considering the sun position.
 	 */
@@ -15,6 +15,8 @@
  */
 package biz.paluch.sgreadypi.config;
 
+import biz.paluch.sgreadypi.measure.Percent;
+import biz.paluch.sgreadypi.measure.Watt;
 import tech.units.indriya.quantity.Quantities;
 import tech.units.indriya.unit.Units;
 
@@ -38,7 +40,8 @@ import org.springframework.stereotype.Component;
  * <Q>} dimension via {@link #DEFAULT_UNITS}, so a {@code Quantity<Power>} reads as watts and a
  * {@code Quantity<Dimensionless>} reads as percent. An unmapped dimension fails fast instead of guessing, and a value
  * that already carries a unit (for example {@code "2 kW"} or {@code "65 %"}) is parsed as-is and validated against the
- * expected dimension.
+ * expected dimension. Bare numbers in watts and percent are represented by the lightweight {@link Watt} and
+ * {@link Percent} quantities.
  * <p>
  * The dimension is read from {@link TypeDescriptor#getResolvableType()}, which carries the generic for both
  * setter-bound fields and constructor-bound record components (for example
@@ -88,7 +91,9 @@ public class QuantityConverter implements ConditionalGenericConverter {
 
 		Number number = parseNumber(value);
 		if (number != null) {
-			return Quantities.getQuantity(number, defaultUnit);
+
+			Quantity<?> quantity = primitiveQuantity(number, defaultUnit);
+			return quantity != null ? quantity : Quantities.getQuantity(number, defaultUnit);
 		}
 
 		// value carries an explicit unit, for example "2 kW" or "65 %"
@@ -100,6 +105,28 @@ public class QuantityConverter implements ConditionalGenericConverter {
 		return quantity;
 	}
 
+	/**
+	 * Represent a bare number in watts or percent by the lightweight {@link Watt} and {@link Percent} types.
+	 *
+	 * @return the quantity or {@literal null} if the number type or unit has no lightweight representation.
+	 */
+	private static @Nullable Quantity<?> primitiveQuantity(Number number, Unit<?> unit) {
+
+		if (!(number instanceof Integer) && !(number instanceof Double)) {
+			return null;
+		}
+
+		if (Units.WATT.equals(unit)) {
+			return number instanceof Integer i ? Watt.of(i) : Watt.of(number.doubleValue());
+		}
+
+		if (Units.PERCENT.equals(unit)) {
+			return number instanceof Integer i ? Percent.of(i) : Percent.of(number.doubleValue());
+		}
+
+		return null;
+	}
+
 	private static Class<?> resolveDimension(TypeDescriptor targetType, String value) {
 
 		Class<?> dimension = targetType.getResolvableType().getGeneric(0).resolve();
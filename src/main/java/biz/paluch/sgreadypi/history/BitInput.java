@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads bits most significant bit first from a region of a {@link ByteBuffer} using absolute access. Instances are
+ * reusable through {@link #reset(ByteBuffer, int)}.
+ *
+ * @author Mark Paluch
+ */
+final class BitInput {
+
+	private ByteBuffer buffer;
+
+	private int offset;
+
+	private long position;
+
+	BitInput(ByteBuffer buffer, int offset) {
+		this.buffer = buffer;
+		this.offset = offset;
+	}
+
+	void reset(ByteBuffer buffer, int offset) {
+		this.buffer = buffer;
+		this.offset = offset;
+		this.position = 0;
+	}
+
+	boolean readBit() {
+		return read(1) != 0;
+	}
+
+	/**
+	 * Read {@code count} bits.
+	 *
+	 * @param count number of bits, between 0 and 64.
+	 * @return the bits as the lowest bits of the result.
+	 */
+	long read(int count) {
+
+		long value = 0;
+		while (count > 0) {
+
+			int current = buffer.get(offset + (int) (position >>> 3)) & 0xFF;
+			int available = 8 - (int) (position & 7);
+			int n = Math.min(available, count);
+			int chunk = (current >>> (available - n)) & ((1 << n) - 1);
+
+			value = (value << n) | chunk;
+			position += n;
+			count -= n;
+		}
+
+		return value;
+	}
+
+}
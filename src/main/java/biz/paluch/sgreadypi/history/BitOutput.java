@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable buffer of bits written most significant bit first. Instances are reusable through {@link #reset()}.
+ *
+ * @author Mark Paluch
+ */
+final class BitOutput {
+
+	private byte[] buffer;
+
+	private long bits;
+
+	BitOutput(int initialCapacity) {
+		this.buffer = new byte[Math.max(8, initialCapacity)];
+	}
+
+	/**
+	 * Write a single bit.
+	 */
+	void writeBit(boolean bit) {
+		write(bit ? 1 : 0, 1);
+	}
+
+	/**
+	 * Write the {@code count} lowest bits of {@code value}.
+	 *
+	 * @param value the bits to write.
+	 * @param count number of bits, between 0 and 64.
+	 */
+	void write(long value, int count) {
+
+		ensureCapacity(bits + count);
+
+		while (count > 0) {
+
+			int index = (int) (bits >>> 3);
+			int free = 8 - (int) (bits & 7);
+			int n = Math.min(free, count);
+			int chunk = (int) ((value >>> (count - n)) & ((1 << n) - 1));
+
+			buffer[index] |= (byte) (chunk << (free - n));
+			bits += n;
+			count -= n;
+		}
+	}
+
+	private void ensureCapacity(long bits) {
+
+		int bytes = (int) ((bits + 7) >>> 3);
+		if (bytes > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(bytes, buffer.length * 2));
+		}
+	}
+
+	/**
+	 * Return the number of bytes holding the written bits.
+	 */
+	int byteLength() {
+		return (int) ((bits + 7) >>> 3);
+	}
+
+	/**
+	 * Copy the written bytes into {@code target} at its current position.
+	 */
+	void writeTo(ByteBuffer target) {
+		target.put(buffer, 0, byteLength());
+	}
+
+	void reset() {
+		Arrays.fill(buffer, 0, byteLength(), (byte) 0);
+		bits = 0;
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Iterates the samples of a block written by {@link BlockEncoder} without allocating. Instances are reusable through
+ * {@link #reset(ByteBuffer, int)}.
+ *
+ * @author Mark Paluch
+ */
+final class BlockDecoder {
+
+	private final BitInput timestamps;
+
+	private final BitInput values;
+
+	private int count;
+
+	private int index;
+
+	private long timestamp;
+
+	private long delta;
+
+	private int value;
+
+	private int leading;
+
+	private int trailing;
+
+	BlockDecoder(ByteBuffer buffer, int block) {
+		this.timestamps = new BitInput(buffer, block);
+		this.values = new BitInput(buffer, block);
+		reset(buffer, block);
+	}
+
+	/**
+	 * Position the decoder at the first sample of the block starting at {@code block}.
+	 */
+	void reset(ByteBuffer buffer, int block) {
+
+		int payload = block + BlockEncoder.HEADER_SIZE;
+		this.count = CompressedSegment.getCount(buffer, block);
+		this.index = 0;
+		this.delta = 0;
+		timestamps.reset(buffer, payload);
+		values.reset(buffer, payload + CompressedSegment.getTimestampBytes(buffer, block));
+	}
+
+	/**
+	 * Advance to the next sample.
+	 *
+	 * @return {@literal true} if a sample was decoded.
+	 */
+	boolean next() {
+
+		if (index == count) {
+			return false;
+		}
+
+		if (index == 0) {
+			timestamp = timestamps.read(64);
+			value = (int) values.read(32);
+		} else {
+			delta += readDeltaOfDelta();
+			timestamp += delta;
+			value ^= readXor();
+		}
+
+		index++;
+		return true;
+	}
+
+	private long readDeltaOfDelta() {
+
+		if (!timestamps.readBit()) {
+			return 0;
+		}
+		if (!timestamps.readBit()) {
+			return signExtend(timestamps.read(7), 7);
+		}
+		if (!timestamps.readBit()) {
+			return signExtend(timestamps.read(9), 9);
+		}
+		if (!timestamps.readBit()) {
+			return signExtend(timestamps.read(12), 12);
+		}
+		return timestamps.read(64);
+	}
+
+	private int readXor() {
+
+		if (!values.readBit()) {
+			return 0;
+		}
+
+		if (values.readBit()) {
+			leading = (int) values.read(5);
+			int length = (int) values.read(5) + 1;
+			trailing = 32 - leading - length;
+		}
+
+		return (int) values.read(32 - leading - trailing) << trailing;
+	}
+
+	private static long signExtend(long value, int bits) {
+		return (value << (64 - bits)) >> (64 - bits);
+	}
+
+	long timestamp() {
+		return timestamp;
+	}
+
+	float value() {
+		return Float.intBitsToFloat(value);
+	}
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes the samples of a single channel into a compressed block following the Gorilla scheme: timestamps as
+ * delta-of-delta with variable-length buckets, values as XOR against the previous value storing only the meaningful
+ * bits. Timestamps and values are written to separate bit streams so that each column stays contiguous.
+ * <p>
+ * Block layout (see {@link CompressedSegment} for the header accessors):
+ *
+ * <pre class="code">
+ * int channel | int count | long first | long last | float min | float max | double sum | float lastValue
+ * | int timestampBytes | int valueBytes | timestamp bits | value bits
+ * </pre>
+ *
+ * Instances are reusable through {@link #reset(int)}.
+ *
+ * @author Mark Paluch
+ */
+final class BlockEncoder {
+
+	static final int HEADER_SIZE = 52;
+
+	private final BitOutput timestamps = new BitOutput(512);
+
+	private final BitOutput values = new BitOutput(512);
+
+	private int channel;
+
+	private int count;
+
+	private long first;
+
+	private long previousTimestamp;
+
+	private long previousDelta;
+
+	private int previousValue;
+
+	private int leading;
+
+	private int trailing;
+
+	private float min;
+
+	private float max;
+
+	private double sum;
+
+	private float lastValue;
+
+	BlockEncoder(int channel) {
+		reset(channel);
+	}
+
+	void reset(int channel) {
+
+		this.channel = channel;
+		this.count = 0;
+		this.previousDelta = 0;
+		this.leading = -1;
+		this.trailing = 0;
+		this.min = Float.POSITIVE_INFINITY;
+		this.max = Float.NEGATIVE_INFINITY;
+		this.sum = 0;
+		timestamps.reset();
+		values.reset();
+	}
+
+	void add(long timestamp, float value) {
+
+		if (count == 0) {
+			first = timestamp;
+			timestamps.write(timestamp, 64);
+		} else {
+			long delta = timestamp - previousTimestamp;
+			writeDeltaOfDelta(delta - previousDelta);
+			previousDelta = delta;
+		}
+
+		int bits = Float.floatToRawIntBits(value);
+		if (count == 0) {
+			values.write(bits, 32);
+		} else {
+			writeXor(bits ^ previousValue);
+		}
+
+		previousTimestamp = timestamp;
+		previousValue = bits;
+		lastValue = value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+		sum += value;
+		count++;
+	}
+
+	private void writeDeltaOfDelta(long dod) {
+
+		if (dod == 0) {
+			timestamps.write(0, 1);
+		} else if (fits(dod, 7)) {
+			timestamps.write(0b10, 2);
+			timestamps.write(dod, 7);
+		} else if (fits(dod, 9)) {
+			timestamps.write(0b110, 3);
+			timestamps.write(dod, 9);
+		} else if (fits(dod, 12)) {
+			timestamps.write(0b1110, 4);
+			timestamps.write(dod, 12);
+		} else {
+			timestamps.write(0b1111, 4);
+			timestamps.write(dod, 64);
+		}
+	}
+
+	private void writeXor(int xor) {
+
+		if (xor == 0) {
+			values.write(0, 1);
+			return;
+		}
+
+		values.write(1, 1);
+
+		int lead = Integer.numberOfLeadingZeros(xor);
+		int trail = Integer.numberOfTrailingZeros(xor);
+
+		if (leading >= 0 && lead >= leading && trail >= trailing) {
+			// meaningful bits fit into the previous window
+			values.write(0, 1);
+			values.write(xor >>> trailing, 32 - leading - trailing);
+			return;
+		}
+
+		int length = 32 - lead - trail;
+		values.write(1, 1);
+		values.write(lead, 5);
+		values.write(length - 1, 5);
+		values.write(xor >>> trail, length);
+		leading = lead;
+		trailing = trail;
+	}
+
+	private static boolean fits(long value, int bits) {
+		return value >= -(1L << (bits - 1)) && value < (1L << (bits - 1));
+	}
+
+	int count() {
+		return count;
+	}
+
+	/**
+	 * Return the size of the encoded block including its header.
+	 */
+	int size() {
+		return HEADER_SIZE + timestamps.byteLength() + values.byteLength();
+	}
+
+	/**
+	 * Write the block at the current position of {@code target}.
+	 */
+	void writeTo(ByteBuffer target) {
+
+		target.putInt(channel);
+		target.putInt(count);
+		target.putLong(first);
+		target.putLong(previousTimestamp);
+		target.putFloat(min);
+		target.putFloat(max);
+		target.putDouble(sum);
+		target.putFloat(lastValue);
+		target.putInt(timestamps.byteLength());
+		target.putInt(values.byteLength());
+		timestamps.writeTo(target);
+		values.writeTo(target);
+	}
+
+}
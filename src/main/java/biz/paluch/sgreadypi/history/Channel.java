@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import biz.paluch.sgreadypi.SgReadyState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recorded time series. The {@code id} identifies records of the channel in segment files and must remain stable
+ * across restarts.
+ *
+ * @param id the channel id stored with each record.
+ * @param name the channel name used in query results.
+ * @param aggregation how samples are downsampled.
+ * @author Mark Paluch
+ */
+public record Channel(int id, String name, Aggregation aggregation) {
+
+	/**
+	 * Power drawn from the grid in Watt.
+	 */
+	public static final Channel INGRESS = new Channel(1, "ingress", Aggregation.MEAN);
+
+	/**
+	 * Power fed into the grid in Watt.
+	 */
+	public static final Channel EGRESS = new Channel(2, "egress", Aggregation.MEAN);
+
+	/**
+	 * Usable solar surplus of all inverters in Watt.
+	 */
+	public static final Channel GENERATOR_POWER = new Channel(3, "generatorPower", Aggregation.MEAN);
+
+	/**
+	 * Net battery discharge in Watt.
+	 */
+	public static final Channel BATTERY_DISCHARGE = new Channel(4, "batteryDischarge", Aggregation.MEAN);
+
+	/**
+	 * Battery state of charge in percent.
+	 */
+	public static final Channel SOC = new Channel(5, "soc", Aggregation.MEAN);
+
+	/**
+	 * SG Ready state transitions, see {@link #encode(SgReadyState)}.
+	 */
+	public static final Channel STATE = new Channel(6, "state", Aggregation.LAST);
+
+	private static final int INVERTER_BASE = 64;
+
+	/**
+	 * Create the channel recording the active power of an inverter.
+	 *
+	 * @param index index of the inverter in the configured inverter hosts.
+	 * @param host the inverter host.
+	 * @return the inverter channel.
+	 */
+	public static Channel inverter(int index, String host) {
+		return new Channel(INVERTER_BASE + index, "inverter." + host, Aggregation.MEAN);
+	}
+
+	/**
+	 * Return all channels for the given inverter hosts.
+	 *
+	 * @param inverterHosts the configured inverter hosts.
+	 * @return the channels.
+	 */
+	public static List<Channel> all(List<String> inverterHosts) {
+
+		List<Channel> channels = new ArrayList<>(
+				List.of(INGRESS, EGRESS, GENERATOR_POWER, BATTERY_DISCHARGE, SOC, STATE));
+		for (int i = 0; i < inverterHosts.size(); i++) {
+			channels.add(inverter(i, inverterHosts.get(i)));
+		}
+		return channels;
+	}
+
+	/**
+	 * Encode a state as its SG Ready signals, {@code A} as bit 1 and {@code B} as bit 0: {@code 0} for
+	 * {@link SgReadyState#NORMAL}, {@code 1} for {@link SgReadyState#AVAILABLE_PV}, {@code 2} for
+	 * {@link SgReadyState#BLOCKED} and {@code 3} for {@link SgReadyState#EXCESS_PV}.
+	 *
+	 * @param state the state to encode.
+	 * @return the encoded state.
+	 */
+	public static int encode(SgReadyState state) {
+		return (state.a() ? 2 : 0) | (state.b() ? 1 : 0);
+	}
+
+	/**
+	 * Downsampling of the samples within a step.
+	 */
+	public enum Aggregation {
+
+		/**
+		 * Mean of all samples within the step.
+		 */
+		MEAN,
+
+		/**
+		 * Most recent sample, carried forward into steps without samples. Queries start with the most recent sample
+		 * before their range.
+		 */
+		LAST
+	}
+
+}
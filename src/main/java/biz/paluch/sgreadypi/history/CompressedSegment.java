@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only, memory-mapped file of compressed blocks written by {@link Writer}. Each block holds up to
+ * {@link #BLOCK_SAMPLES} samples of a single channel along with a summary (first and last timestamp, min, max, sum and
+ * last value) so that range queries can use the summary instead of decompressing blocks that fall into a single step.
+ *
+ * @author Mark Paluch
+ */
+final class CompressedSegment implements Closeable {
+
+	/**
+	 * Maximum number of samples per block.
+	 */
+	static final int BLOCK_SAMPLES = 256;
+
+	private final FileChannel channel;
+
+	private final MappedByteBuffer buffer;
+
+	private final int[] blocks;
+
+	private CompressedSegment(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+
+		this.channel = channel;
+		this.buffer = buffer;
+
+		int[] blocks = new int[64];
+		int count = 0;
+		int offset = 0;
+		while (offset + BlockEncoder.HEADER_SIZE <= buffer.limit()) {
+
+			if (count == blocks.length) {
+				blocks = Arrays.copyOf(blocks, count * 2);
+			}
+			blocks[count++] = offset;
+			offset += BlockEncoder.HEADER_SIZE + getTimestampBytes(buffer, offset) + getValueBytes(buffer, offset);
+		}
+
+		if (offset != buffer.limit()) {
+			throw new IOException("Truncated compressed segment");
+		}
+
+		this.blocks = Arrays.copyOf(blocks, count);
+	}
+
+	/**
+	 * Open a compressed segment for reading.
+	 *
+	 * @param file the segment file.
+	 * @return the segment.
+	 */
+	static CompressedSegment open(Path file) throws IOException {
+
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			return new CompressedSegment(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	int getBlockCount() {
+		return blocks.length;
+	}
+
+	/**
+	 * Return the offset of the block at {@code index}.
+	 */
+	int getBlock(int index) {
+		return blocks[index];
+	}
+
+	static int getChannel(ByteBuffer buffer, int block) {
+		return buffer.getInt(block);
+	}
+
+	static int getCount(ByteBuffer buffer, int block) {
+		return buffer.getInt(block + 4);
+	}
+
+	static long getFirst(ByteBuffer buffer, int block) {
+		return buffer.getLong(block + 8);
+	}
+
+	static long getLast(ByteBuffer buffer, int block) {
+		return buffer.getLong(block + 16);
+	}
+
+	static float getMin(ByteBuffer buffer, int block) {
+		return buffer.getFloat(block + 24);
+	}
+
+	static float getMax(ByteBuffer buffer, int block) {
+		return buffer.getFloat(block + 28);
+	}
+
+	static double getSum(ByteBuffer buffer, int block) {
+		return buffer.getDouble(block + 32);
+	}
+
+	static float getLastValue(ByteBuffer buffer, int block) {
+		return buffer.getFloat(block + 40);
+	}
+
+	static int getTimestampBytes(ByteBuffer buffer, int block) {
+		return buffer.getInt(block + 44);
+	}
+
+	static int getValueBytes(ByteBuffer buffer, int block) {
+		return buffer.getInt(block + 48);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Writes samples into per-channel blocks. Blocks are written once they are full or when the writer is
+	 * {@link #finish() finished}. The file is written under a temporary name and moved into place on
+	 * {@link #finish()} so that readers never observe a partial file.
+	 */
+	static class Writer implements Closeable {
+
+		private final Path file;
+
+		private final Path temporary;
+
+		private final FileChannel channel;
+
+		private final Map<Integer, BlockEncoder> encoders = new LinkedHashMap<>();
+
+		private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+		private long size;
+
+		private boolean finished;
+
+		Writer(Path file) throws IOException {
+			this.file = file;
+			this.temporary = file.resolveSibling(file.getFileName() + ".tmp");
+			this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+		}
+
+		void add(int channelId, long timestamp, float value) throws IOException {
+
+			BlockEncoder encoder = encoders.computeIfAbsent(channelId, BlockEncoder::new);
+			encoder.add(timestamp, value);
+
+			if (encoder.count() == BLOCK_SAMPLES) {
+				flush(encoder, channelId);
+			}
+		}
+
+		private void flush(BlockEncoder encoder, int channelId) throws IOException {
+
+			if (buffer.capacity() < encoder.size()) {
+				buffer = ByteBuffer.allocate(Math.max(encoder.size(), buffer.capacity() * 2));
+			}
+
+			buffer.clear();
+			encoder.writeTo(buffer);
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				size += channel.write(buffer);
+			}
+			encoder.reset(channelId);
+		}
+
+		/**
+		 * Write pending blocks and move the file into place.
+		 *
+		 * @return the size of the written file in bytes.
+		 */
+		long finish() throws IOException {
+
+			for (Map.Entry<Integer, BlockEncoder> entry : encoders.entrySet()) {
+				if (entry.getValue().count() > 0) {
+					flush(entry.getValue(), entry.getKey());
+				}
+			}
+
+			channel.force(true);
+			channel.close();
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			finished = true;
+			return size;
+		}
+
+		@Override
+		public void close() throws IOException {
+
+			if (!finished) {
+				channel.close();
+				Files.deleteIfExists(temporary);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Downsampled history. Each series holds one value per step, {@link Double#NaN} for steps without samples.
+ *
+ * @param from start of the first step.
+ * @param step duration of a step.
+ * @param steps number of steps.
+ * @param series values per step by {@link Channel#name() channel name}.
+ * @author Mark Paluch
+ */
+public record History(Instant from, Duration step, int steps, Map<String, double[]> series) {
+
+	/**
+	 * Return the start of the step at {@code index}.
+	 *
+	 * @param index the step index.
+	 * @return the start of the step.
+	 */
+	public Instant getTimestamp(int index) {
+		return from.plus(step.multipliedBy(index));
+	}
+
+}
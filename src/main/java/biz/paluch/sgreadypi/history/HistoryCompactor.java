@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Periodically {@link HistoryStore#compact(LocalDate) compacts} past days on a dedicated {@code sg-history-compaction}
+ * thread. Compaction reads and rewrites whole daily segments and must not occupy the shared task scheduler that runs
+ * the control loop watchdog and inverter polling.
+ *
+ * @author Mark Paluch
+ */
+class HistoryCompactor implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory.getLogger(HistoryCompactor.class);
+
+	private final HistoryStore store;
+
+	private final Duration interval;
+
+	private final Clock clock;
+
+	private volatile @Nullable Thread worker;
+
+	HistoryCompactor(HistoryStore store, Duration interval, Clock clock) {
+		this.store = store;
+		this.interval = interval;
+		this.clock = clock;
+	}
+
+	private void run() {
+
+		long interval = this.interval.toNanos();
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				store.compact(LocalDate.now(clock));
+			} catch (RuntimeException e) {
+				log.error("Cannot compact history", e);
+			}
+			LockSupport.parkNanos(interval);
+		}
+	}
+
+	@Override
+	public void start() {
+		worker = Thread.ofVirtual().name("sg-history-compaction").start(this::run);
+	}
+
+	@Override
+	public void stop() {
+
+		Thread worker = this.worker;
+		this.worker = null;
+		if (worker == null) {
+			return;
+		}
+
+		worker.interrupt();
+		try {
+			worker.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return worker != null;
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import biz.paluch.sgreadypi.SgReadyControlLoop;
+import biz.paluch.sgreadypi.SgReadyProperties;
+import biz.paluch.sgreadypi.SgReadyState;
+import biz.paluch.sgreadypi.measure.Percent;
+import biz.paluch.sgreadypi.measure.Watt;
+import biz.paluch.sgreadypi.provider.SmaPowerGeneratorService;
+import biz.paluch.sgreadypi.provider.SunnyHomeManagerService;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * History configuration recording readings and state transitions.
+ *
+ * @author Mark Paluch
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(HistoryProperties.class)
+@ConditionalOnProperty(value = "sg.history.enabled", havingValue = "true")
+public class HistoryConfiguration {
+
+	@Bean(destroyMethod = "close")
+	HistoryStore historyStore(HistoryProperties properties, SgReadyProperties sgReady, Clock clock) {
+
+		return new HistoryStore(properties.getDirectory(), properties.getSegmentSize().toBytes(),
+				properties.getRetention(), properties.getRawRetention(), Channel.all(inverterHosts(sgReady)),
+				clock.getZone());
+	}
+
+	@Bean
+	HistoryCompactor historyCompactor(HistoryStore store, HistoryProperties properties, Clock clock) {
+		return new HistoryCompactor(store, properties.getCompactionInterval(), clock);
+	}
+
+	@Bean
+	HistoryRecorder historyRecorder(HistoryStore store, HistoryProperties properties, SgReadyProperties sgReady,
+			Clock clock, ObjectProvider<SunnyHomeManagerService> powerMeter,
+			ObjectProvider<SmaPowerGeneratorService> inverters, ObjectProvider<SgReadyControlLoop> controlLoop) {
+
+		HistoryRecorder recorder = new HistoryRecorder(store, properties.getBufferSize(),
+				properties.getFlushInterval());
+
+		powerMeter.ifAvailable(meter -> meter.onUpdate(() -> {
+			long now = clock.millis();
+			recorder.record(Channel.INGRESS, now, Watt.toWatts(meter.getIngress().getMostRecent()));
+			recorder.record(Channel.EGRESS, now, Watt.toWatts(meter.getEgress().getMostRecent()));
+		}));
+
+		inverters.ifAvailable(generator -> {
+
+			Map<String, Channel> channels = new HashMap<>();
+			List<String> hosts = inverterHosts(sgReady);
+			for (int i = 0; i < hosts.size(); i++) {
+				channels.put(hosts.get(i), Channel.inverter(i, hosts.get(i)));
+			}
+
+			generator.onInverterUpdate((host, state) -> {
+				Channel channel = channels.get(host);
+				if (channel != null) {
+					recorder.record(channel, clock.millis(), state.currentActivePower());
+				}
+			});
+			generator.onUpdate(() -> {
+				long now = clock.millis();
+				recorder.record(Channel.GENERATOR_POWER, now,
+						Watt.toWatts(generator.getGeneratorPower().getMostRecent()));
+				recorder.record(Channel.BATTERY_DISCHARGE, now,
+						Watt.toWatts(generator.getBatteryDischarge().getMostRecent()));
+				recorder.record(Channel.SOC, now, Percent.toPercent(generator.getBatteryStateOfCharge()));
+			});
+		});
+
+		AtomicReference<@Nullable SgReadyState> recorded = new AtomicReference<>();
+		controlLoop.ifAvailable(loop -> loop.onDecision(decision -> {
+			SgReadyState previous = recorded.getAndSet(decision.state());
+			if (!decision.state().equals(previous)) {
+				recorder.record(Channel.STATE, clock.millis(), Channel.encode(decision.state()));
+			}
+		}));
+
+		return recorder;
+	}
+
+	private static List<String> inverterHosts(SgReadyProperties properties) {
+
+		List<String> hosts = properties.getInverterHosts();
+		return hosts != null ? hosts : List.of();
+	}
+
+}
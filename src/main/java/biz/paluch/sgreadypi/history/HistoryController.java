@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST controller exposing the downsampled history. {@code from} and {@code to} are ISO-8601 instants defaulting to
+ * the last 24 hours, {@code step} is a duration such as {@code 5m} or {@code PT1H}.
+ *
+ * @author Mark Paluch
+ */
+@RestController
+@RequestMapping("api/history")
+@ConditionalOnProperty(value = "sg.history.enabled", havingValue = "true")
+class HistoryController {
+
+	private final HistoryStore store;
+
+	private final Clock clock;
+
+	public HistoryController(HistoryStore store, Clock clock) {
+		this.store = store;
+		this.clock = clock;
+	}
+
+	@GetMapping
+	public Map<String, Object> getHistory(@RequestParam(required = false) @Nullable Instant from,
+			@RequestParam(required = false) @Nullable Instant to, @RequestParam(defaultValue = "5m") String step) {
+
+		Instant end = to != null ? to : clock.instant();
+		Instant start = from != null ? from : end.minus(Duration.ofDays(1));
+
+		History history;
+		try {
+			history = store.query(start, end, DurationStyle.detectAndParse(step));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+
+		List<Long> timestamps = new ArrayList<>(history.steps());
+		for (int i = 0; i < history.steps(); i++) {
+			timestamps.add(history.getTimestamp(i).toEpochMilli());
+		}
+
+		Map<String, List<@Nullable Double>> series = new LinkedHashMap<>();
+		history.series().forEach((name, values) -> {
+
+			List<@Nullable Double> list = new ArrayList<>(values.length);
+			for (double value : values) {
+				list.add(Double.isNaN(value) ? null : value);
+			}
+			series.put(name, list);
+		});
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("from", history.from().toString());
+		result.put("step", history.step().toString());
+		result.put("timestamps", timestamps);
+		result.put("series", series);
+		return result;
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration properties for the reading history.
+ *
+ * @author Mark Paluch
+ */
+@ConfigurationProperties(prefix = "sg.history")
+public class HistoryProperties {
+
+	private boolean enabled = false;
+
+	/**
+	 * Directory holding the daily segment files.
+	 */
+	private Path directory = Path.of("history");
+
+	/**
+	 * Age after which segment files and rollups are deleted.
+	 */
+	private Duration retention = Duration.ofDays(90);
+
+	/**
+	 * Age after which compacted raw samples are deleted, keeping the 1-minute and 15-minute rollups.
+	 */
+	private Duration rawRetention = Duration.ofDays(14);
+
+	/**
+	 * Interval to compact the segments of past days.
+	 */
+	private Duration compactionInterval = Duration.ofHours(1);
+
+	/**
+	 * Size of a daily segment file. Records exceeding the segment capacity are dropped.
+	 */
+	private DataSize segmentSize = DataSize.ofMegabytes(16);
+
+	/**
+	 * Number of records buffered in memory between flushes to the segment file.
+	 */
+	private int bufferSize = 4096;
+
+	/**
+	 * Interval to flush buffered records to the segment file.
+	 */
+	private Duration flushInterval = Duration.ofSeconds(1);
+
+	public HistoryProperties() {}
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	public Duration getRetention() {
+		return this.retention;
+	}
+
+	public Duration getRawRetention() {
+		return this.rawRetention;
+	}
+
+	public Duration getCompactionInterval() {
+		return this.compactionInterval;
+	}
+
+	public DataSize getSegmentSize() {
+		return this.segmentSize;
+	}
+
+	public int getBufferSize() {
+		return this.bufferSize;
+	}
+
+	public Duration getFlushInterval() {
+		return this.flushInterval;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public void setDirectory(Path directory) {
+		this.directory = directory;
+	}
+
+	public void setRetention(Duration retention) {
+		this.retention = retention;
+	}
+
+	public void setRawRetention(Duration rawRetention) {
+		this.rawRetention = rawRetention;
+	}
+
+	public void setCompactionInterval(Duration compactionInterval) {
+		this.compactionInterval = compactionInterval;
+	}
+
+	public void setSegmentSize(DataSize segmentSize) {
+		this.segmentSize = segmentSize;
+	}
+
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	public void setFlushInterval(Duration flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	public String toString() {
+		return "HistoryProperties(enabled=" + this.isEnabled() + ", directory=" + this.getDirectory() + ", retention="
+				+ this.getRetention() + ", rawRetention=" + this.getRawRetention() + ", compactionInterval="
+				+ this.getCompactionInterval() + ", segmentSize=" + this.getSegmentSize() + ", bufferSize="
+				+ this.getBufferSize() + ", flushInterval=" + this.getFlushInterval() + ")";
+	}
+}
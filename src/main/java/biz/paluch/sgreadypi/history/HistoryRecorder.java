@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.Assert;
+
+/**
+ * Records samples into a {@link HistoryStore} without blocking the calling thread. Samples are buffered in a
+ * pre-allocated ring of primitive arrays and written by a dedicated {@code sg-history} thread once per flush
+ * interval, so ingestion threads never wait for I/O and {@link #record(Channel, long, double)} does not allocate.
+ * Samples arriving while the buffer is full are dropped and counted.
+ * <p>
+ * Timestamps are kept non-decreasing in recording order so that segments can be searched by timestamp. Callers should
+ * stamp samples from a single clock at record time; a sample stamped before its predecessor is recorded at the
+ * predecessor's timestamp.
+ *
+ * @author Mark Paluch
+ */
+public class HistoryRecorder implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory.getLogger(HistoryRecorder.class);
+
+	private final HistoryStore store;
+
+	private final Duration flushInterval;
+
+	private final int mask;
+
+	private final long[] timestamps;
+
+	private final int[] channels;
+
+	private final float[] values;
+
+	private final long[] drainTimestamps;
+
+	private final int[] drainChannels;
+
+	private final float[] drainValues;
+
+	private long head;
+
+	private long tail;
+
+	private long lastTimestamp = Long.MIN_VALUE;
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private volatile @Nullable Thread worker;
+
+	/**
+	 * Create a new recorder.
+	 *
+	 * @param store the store to write to.
+	 * @param bufferSize number of buffered samples, rounded up to the next power of two.
+	 * @param flushInterval interval to write buffered samples to the store.
+	 */
+	public HistoryRecorder(HistoryStore store, int bufferSize, Duration flushInterval) {
+
+		Assert.isTrue(bufferSize > 0 && bufferSize <= 1 << 24, "Buffer size must be between 1 and 2^24");
+
+		int capacity = bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+		this.store = store;
+		this.flushInterval = flushInterval;
+		this.mask = capacity - 1;
+		this.timestamps = new long[capacity];
+		this.channels = new int[capacity];
+		this.values = new float[capacity];
+		this.drainTimestamps = new long[capacity];
+		this.drainChannels = new int[capacity];
+		this.drainValues = new float[capacity];
+	}
+
+	/**
+	 * Record a sample.
+	 *
+	 * @param channel the channel.
+	 * @param timestamp the sample time in epoch millis, raised to the timestamp of the previous sample if earlier.
+	 * @param value the sample value.
+	 * @return {@literal true} if the sample was buffered, {@literal false} if the buffer is full.
+	 */
+	public boolean record(Channel channel, long timestamp, double value) {
+
+		synchronized (this) {
+			if (head - tail > mask) {
+				dropped.incrementAndGet();
+				return false;
+			}
+
+			// concurrent callers may enter in a different order than they took their timestamps
+			lastTimestamp = Math.max(lastTimestamp, timestamp);
+
+			int index = (int) (head & mask);
+			timestamps[index] = lastTimestamp;
+			channels[index] = channel.id();
+			values[index] = (float) value;
+			head++;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Write buffered samples to the store. Called by the worker thread only, exposed for testing.
+	 *
+	 * @return number of written samples.
+	 */
+	int flush() {
+
+		int count;
+		synchronized (this) {
+			count = (int) (head - tail);
+			for (int i = 0; i < count; i++) {
+				int index = (int) ((tail + i) & mask);
+				drainTimestamps[i] = timestamps[index];
+				drainChannels[i] = channels[index];
+				drainValues[i] = values[index];
+			}
+			tail = head;
+		}
+
+		for (int i = 0; i < count; i++) {
+			if (!store.append(drainTimestamps[i], drainChannels[i], drainValues[i])) {
+				dropped.incrementAndGet();
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Return the number of samples dropped because the buffer or the segment was full.
+	 *
+	 * @return the number of dropped samples.
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	private void run() {
+
+		long interval = flushInterval.toNanos();
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				flush();
+			} catch (RuntimeException e) {
+				log.error("Cannot write history", e);
+			}
+			LockSupport.parkNanos(interval);
+		}
+
+		flush();
+	}
+
+	@Override
+	public void start() {
+		worker = Thread.ofVirtual().name("sg-history").start(this::run);
+	}
+
+	@Override
+	public void stop() {
+
+		Thread worker = this.worker;
+		this.worker = null;
+		if (worker == null) {
+			return;
+		}
+
+		worker.interrupt();
+		try {
+			worker.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return worker != null;
+	}
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only file of fixed-width records, memory-mapped in full. A record is 16 bytes: the epoch millis timestamp
+ * ({@code long}), the {@link Channel#id() channel id} ({@code int}) and the value ({@code float}). The file starts
+ * with a 16 byte header carrying a magic number and the record size.
+ * <p>
+ * Unused space is zero-filled so the number of records is recovered on open by searching for the first record with a
+ * zero timestamp. Appends must be issued from a single thread; reads may happen concurrently and see all records
+ * appended before the {@link #size()} they read.
+ *
+ * @author Mark Paluch
+ */
+final class HistorySegment implements Closeable {
+
+	static final int HEADER_SIZE = 16;
+
+	static final int RECORD_SIZE = 16;
+
+	private static final int MAGIC = 0x53474831; // SGH1
+
+	private final Path file;
+
+	private final FileChannel channel;
+
+	private final MappedByteBuffer buffer;
+
+	private final int capacity;
+
+	private volatile int size;
+
+	private HistorySegment(Path file, FileChannel channel, MappedByteBuffer buffer) throws IOException {
+
+		this.file = file;
+		this.channel = channel;
+		this.buffer = buffer;
+		this.capacity = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+
+		int magic = buffer.getInt(0);
+		if (magic == 0 && buffer.getInt(4) == 0) {
+			if (!buffer.isReadOnly()) {
+				buffer.putInt(0, MAGIC);
+				buffer.putInt(4, RECORD_SIZE);
+			}
+		} else if (magic != MAGIC || buffer.getInt(4) != RECORD_SIZE) {
+			throw new IOException("Not a history segment: " + file);
+		}
+
+		this.size = recoverSize();
+	}
+
+	/**
+	 * Open or create a segment for appending.
+	 *
+	 * @param file the segment file.
+	 * @param fileSize size of the file, used when creating the file. Existing files keep their size.
+	 * @return the segment.
+	 */
+	static HistorySegment open(Path file, long fileSize) throws IOException {
+
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			long size = Math.max(channel.size(), fileSize);
+			return new HistorySegment(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Open an existing segment for reading.
+	 *
+	 * @param file the segment file.
+	 * @return the segment.
+	 */
+	static HistorySegment openReadOnly(Path file) throws IOException {
+
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			return new HistorySegment(file, channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private int recoverSize() {
+
+		int low = 0;
+		int high = capacity;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (getTimestamp(mid) != 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Append a record.
+	 *
+	 * @return {@literal true} if the record was appended, {@literal false} if the segment is full.
+	 */
+	boolean append(long timestamp, int channelId, float value) {
+
+		int size = this.size;
+		if (size == capacity) {
+			return false;
+		}
+
+		int offset = HEADER_SIZE + size * RECORD_SIZE;
+		buffer.putInt(offset + 8, channelId);
+		buffer.putFloat(offset + 12, value);
+		buffer.putLong(offset, timestamp);
+		this.size = size + 1;
+		return true;
+	}
+
+	/**
+	 * Return the index of the first record with a timestamp not before {@code timestamp}. Records are appended in
+	 * timestamp order, see {@link HistoryRecorder}.
+	 */
+	int search(long timestamp) {
+
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (getTimestamp(mid) < timestamp) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	long getTimestamp(int index) {
+		return buffer.getLong(HEADER_SIZE + index * RECORD_SIZE);
+	}
+
+	int getChannel(int index) {
+		return buffer.getInt(HEADER_SIZE + index * RECORD_SIZE + 8);
+	}
+
+	float getValue(int index) {
+		return buffer.getFloat(HEADER_SIZE + index * RECORD_SIZE + 12);
+	}
+
+	int size() {
+		return size;
+	}
+
+	int capacity() {
+		return capacity;
+	}
+
+	Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Close the file. The mapping is released once the segment is no longer referenced.
+	 */
+	@Override
+	public void close() throws IOException {
+
+		if (!buffer.isReadOnly()) {
+			buffer.force();
+		}
+		channel.close();
+	}
+
+}
@@ -0,0 +1,693 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * Append-only store of {@link Channel} samples in daily {@link HistorySegment segment files}. Appends roll over to a
+ * new segment at midnight and delete segments older than the retention. {@link #query(Instant, Instant, Duration)
+ * Queries} downsample samples into fixed steps while reading the memory-mapped segments directly.
+ * <p>
+ * {@link #compact(LocalDate) Compaction} rewrites the raw segments of past days into a {@link CompressedSegment} and
+ * into 1-minute and 15-minute rollups. Compressed raw data is kept for the raw retention, rollups for the retention.
+ * Queries read the coarsest source that still resolves the requested step.
+ * <p>
+ * Appends must be issued from a single thread and do not allocate except when rolling over. Queries and compaction
+ * are thread-safe.
+ *
+ * @author Mark Paluch
+ */
+public class HistoryStore implements Closeable {
+
+	/**
+	 * Maximum number of steps of a query.
+	 */
+	public static final int MAX_STEPS = 10_000;
+
+	private static final Logger log = LoggerFactory.getLogger(HistoryStore.class);
+
+	private static final String PREFIX = "history-";
+
+	private final Path directory;
+
+	private final long segmentSize;
+
+	private final Duration retention;
+
+	private final Duration rawRetention;
+
+	private final ZoneId zone;
+
+	private final List<Channel> channels;
+
+	private final int maxChannelId;
+
+	private volatile @Nullable Current current;
+
+	private boolean full;
+
+	/**
+	 * Create a new store.
+	 *
+	 * @param directory directory holding the segment files, created if it does not exist.
+	 * @param segmentSize size of a daily segment file in bytes.
+	 * @param retention age after which segment files are deleted.
+	 * @param channels the recorded channels.
+	 * @param zone time zone defining the day boundaries.
+	 */
+	public HistoryStore(Path directory, long segmentSize, Duration retention, List<Channel> channels, ZoneId zone) {
+		this(directory, segmentSize, retention, retention, channels, zone);
+	}
+
+	/**
+	 * Create a new store.
+	 *
+	 * @param directory directory holding the segment files, created if it does not exist.
+	 * @param segmentSize size of a daily segment file in bytes.
+	 * @param retention age after which segment files and rollups are deleted.
+	 * @param rawRetention age after which compacted raw samples are deleted, keeping the rollups.
+	 * @param channels the recorded channels.
+	 * @param zone time zone defining the day boundaries.
+	 */
+	public HistoryStore(Path directory, long segmentSize, Duration retention, Duration rawRetention,
+			List<Channel> channels, ZoneId zone) {
+
+		Assert.isTrue(segmentSize > HistorySegment.HEADER_SIZE, "Segment size must hold at least one record");
+
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.retention = retention;
+		this.rawRetention = rawRetention;
+		this.zone = zone;
+		this.channels = List.copyOf(channels);
+
+		int maxChannelId = 0;
+		for (Channel channel : channels) {
+			maxChannelId = Math.max(maxChannelId, channel.id());
+		}
+		this.maxChannelId = maxChannelId;
+
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot create history directory " + directory, e);
+		}
+	}
+
+	public List<Channel> getChannels() {
+		return channels;
+	}
+
+	/**
+	 * Append a sample. Samples older than the current segment are appended to the current segment.
+	 *
+	 * @param timestamp the sample time in epoch millis.
+	 * @param channelId the {@link Channel#id() channel id}.
+	 * @param value the sample value.
+	 * @return {@literal true} if the sample was appended, {@literal false} if the segment is full or cannot be opened.
+	 */
+	public boolean append(long timestamp, int channelId, float value) {
+
+		Current current = this.current;
+		if (current == null || timestamp >= current.end()) {
+			current = roll(timestamp);
+			if (current == null) {
+				return false;
+			}
+		}
+
+		if (current.segment().append(timestamp, channelId, value)) {
+			return true;
+		}
+
+		if (!full) {
+			full = true;
+			log.warn("History segment {} full, dropping samples until the next day", current.segment().getFile());
+		}
+		return false;
+	}
+
+	private @Nullable Current roll(long timestamp) {
+
+		LocalDate day = Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate();
+		closeCurrent();
+
+		try {
+			HistorySegment segment = HistorySegment.open(file(day, Source.RAW), segmentSize);
+			Current current = new Current(day, segment, day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+			this.current = current;
+			this.full = false;
+			purge(day);
+			return current;
+		} catch (IOException e) {
+			log.error("Cannot open history segment for {}", day, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Delete segment files older than the retention.
+	 *
+	 * @param today the current day.
+	 */
+	void purge(LocalDate today) {
+
+		LocalDate oldest = today.minusDays(retention.toDays());
+
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*.*")) {
+			for (Path file : files) {
+				LocalDate day = parseDay(file);
+				if (day != null && day.isBefore(oldest)) {
+					Files.deleteIfExists(file);
+					log.info("Deleted history segment {}", file);
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Cannot purge history segments in {}", directory, e);
+		}
+	}
+
+	/**
+	 * Downsample the samples between {@code from} (inclusive) and {@code to} (exclusive) into steps.
+	 *
+	 * @param from start of the range.
+	 * @param to end of the range.
+	 * @param step duration of a step.
+	 * @return the downsampled history.
+	 * @throws IllegalArgumentException if the range is empty or exceeds {@link #MAX_STEPS} steps.
+	 */
+	public History query(Instant from, Instant to, Duration step) {
+
+		Assert.isTrue(from.isBefore(to), "From must be before to");
+		Assert.isTrue(step.toMillis() > 0, "Step must be at least one millisecond");
+
+		long fromMillis = from.toEpochMilli();
+		long toMillis = to.toEpochMilli();
+		long stepMillis = step.toMillis();
+		long steps = (toMillis - fromMillis + stepMillis - 1) / stepMillis;
+		Assert.isTrue(steps <= MAX_STEPS, () -> "Query exceeds " + MAX_STEPS + " steps");
+
+		Accumulator[] accumulators = new Accumulator[maxChannelId + 1];
+		for (Channel channel : channels) {
+			accumulators[channel.id()] = new Accumulator(channel, (int) steps);
+		}
+
+		LocalDate last = to.atZone(zone).toLocalDate();
+		for (LocalDate day = from.atZone(zone).toLocalDate(); !day.isAfter(last); day = day.plusDays(1)) {
+			scan(day, fromMillis, toMillis, stepMillis, accumulators);
+		}
+
+		// carried-forward channels start with the sample in effect at the start of the range
+		for (Channel channel : channels) {
+			if (channel.aggregation() == Channel.Aggregation.LAST) {
+				accumulators[channel.id()].seed(findLast(channel.id(), fromMillis));
+			}
+		}
+
+		Map<String, double[]> series = new LinkedHashMap<>();
+		for (Channel channel : channels) {
+			series.put(channel.name(), accumulators[channel.id()].finish());
+		}
+
+		return new History(from, step, (int) steps, series);
+	}
+
+	private void scan(LocalDate day, long from, long to, long step, Accumulator[] accumulators) {
+
+		Current current = this.current;
+		if (current != null && current.day().equals(day)) {
+			scan(current.segment(), from, to, step, accumulators);
+			return;
+		}
+
+		// compaction replaces raw segments concurrently, resolve again if the file went away
+		for (int attempt = 0; attempt < 2; attempt++) {
+
+			Source source = resolve(day, from, step);
+			if (source == null) {
+				return;
+			}
+
+			Path file = file(day, source);
+			try {
+				if (source == Source.RAW) {
+					try (HistorySegment segment = HistorySegment.openReadOnly(file)) {
+						scan(segment, from, to, step, accumulators);
+					}
+				} else {
+					try (CompressedSegment segment = CompressedSegment.open(file)) {
+						scan(segment, from, to, step, accumulators);
+					}
+				}
+				return;
+			} catch (NoSuchFileException e) {
+				log.debug("History file {} removed while querying", file);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Cannot read history file " + file, e);
+			}
+		}
+	}
+
+	/**
+	 * Find the value of the most recent sample of a channel before {@code before}, looking back at most the retention.
+	 *
+	 * @return the sample value or {@link Float#NaN} if there is none.
+	 */
+	private float findLast(int channelId, long before) {
+
+		LocalDate first = Instant.ofEpochMilli(before).atZone(zone).toLocalDate();
+		LocalDate oldest = first.minusDays(retention.toDays());
+
+		for (LocalDate day = first; !day.isBefore(oldest); day = day.minusDays(1)) {
+
+			float value = findLast(day, channelId, before);
+			if (!Float.isNaN(value)) {
+				return value;
+			}
+		}
+
+		return Float.NaN;
+	}
+
+	private float findLast(LocalDate day, int channelId, long before) {
+
+		Current current = this.current;
+		if (current != null && current.day().equals(day)) {
+			return findLast(current.segment(), channelId, before);
+		}
+
+		for (Source source : Source.FINEST_FIRST) {
+
+			Path file = file(day, source);
+			if (!Files.exists(file)) {
+				continue;
+			}
+
+			try {
+				if (source == Source.RAW) {
+					try (HistorySegment segment = HistorySegment.openReadOnly(file)) {
+						return findLast(segment, channelId, before);
+					}
+				}
+				try (CompressedSegment segment = CompressedSegment.open(file)) {
+					return findLast(segment, channelId, before);
+				}
+			} catch (NoSuchFileException e) {
+				log.debug("History file {} removed while querying", file);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Cannot read history file " + file, e);
+			}
+		}
+
+		return Float.NaN;
+	}
+
+	private static float findLast(HistorySegment segment, int channelId, long before) {
+
+		for (int i = segment.search(before) - 1; i >= 0; i--) {
+			if (segment.getChannel(i) == channelId) {
+				return segment.getValue(i);
+			}
+		}
+
+		return Float.NaN;
+	}
+
+	private static float findLast(CompressedSegment segment, int channelId, long before) {
+
+		ByteBuffer buffer = segment.getBuffer();
+		BlockDecoder decoder = null;
+		long latest = Long.MIN_VALUE;
+		float value = Float.NaN;
+
+		for (int i = 0; i < segment.getBlockCount(); i++) {
+
+			int block = segment.getBlock(i);
+			if (CompressedSegment.getChannel(buffer, block) != channelId
+					|| CompressedSegment.getFirst(buffer, block) >= before) {
+				continue;
+			}
+
+			long last = CompressedSegment.getLast(buffer, block);
+			if (last < before) {
+				if (last >= latest) {
+					latest = last;
+					value = CompressedSegment.getLastValue(buffer, block);
+				}
+				continue;
+			}
+
+			if (decoder == null) {
+				decoder = new BlockDecoder(buffer, block);
+			} else {
+				decoder.reset(buffer, block);
+			}
+
+			while (decoder.next() && decoder.timestamp() < before) {
+				if (decoder.timestamp() >= latest) {
+					latest = decoder.timestamp();
+					value = decoder.value();
+				}
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Resolve the coarsest source of a day that resolves steps of {@code step} starting at {@code from}, falling back
+	 * to finer and then to coarser sources.
+	 */
+	private @Nullable Source resolve(LocalDate day, long from, long step) {
+
+		Source fallback = null;
+		for (Source source : Source.COARSEST_FIRST) {
+
+			if (!Files.exists(file(day, source))) {
+				continue;
+			}
+
+			if (source.resolves(from, step)) {
+				return source;
+			}
+			fallback = source;
+		}
+
+		return fallback;
+	}
+
+	private static void scan(HistorySegment segment, long from, long to, long step, Accumulator[] accumulators) {
+
+		int size = segment.size();
+		for (int i = segment.search(from); i < size; i++) {
+
+			long timestamp = segment.getTimestamp(i);
+			if (timestamp >= to) {
+				break;
+			}
+
+			int channelId = segment.getChannel(i);
+			if (channelId < 0 || channelId >= accumulators.length) {
+				continue;
+			}
+
+			Accumulator accumulator = accumulators[channelId];
+			if (accumulator != null) {
+				accumulator.add((int) ((timestamp - from) / step), timestamp, segment.getValue(i));
+			}
+		}
+	}
+
+	private static void scan(CompressedSegment segment, long from, long to, long step, Accumulator[] accumulators) {
+
+		ByteBuffer buffer = segment.getBuffer();
+		BlockDecoder decoder = null;
+
+		for (int i = 0; i < segment.getBlockCount(); i++) {
+
+			int block = segment.getBlock(i);
+			int channelId = CompressedSegment.getChannel(buffer, block);
+			if (channelId < 0 || channelId >= accumulators.length || accumulators[channelId] == null) {
+				continue;
+			}
+
+			long first = CompressedSegment.getFirst(buffer, block);
+			long last = CompressedSegment.getLast(buffer, block);
+			if (Math.max(first, last) < from || Math.min(first, last) >= to) {
+				continue;
+			}
+
+			Accumulator accumulator = accumulators[channelId];
+
+			// block within a single step: use its summary instead of decompressing
+			if (first >= from && last >= first && last < to && (first - from) / step == (last - from) / step) {
+				accumulator.addSummary((int) ((first - from) / step), last, CompressedSegment.getSum(buffer, block),
+						CompressedSegment.getCount(buffer, block), CompressedSegment.getLastValue(buffer, block));
+				continue;
+			}
+
+			if (decoder == null) {
+				decoder = new BlockDecoder(buffer, block);
+			} else {
+				decoder.reset(buffer, block);
+			}
+
+			while (decoder.next()) {
+				long timestamp = decoder.timestamp();
+				if (timestamp >= from && timestamp < to) {
+					accumulator.add((int) ((timestamp - from) / step), timestamp, decoder.value());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compact the raw segments of days before {@code today} into compressed segments and rollups, and delete compacted
+	 * raw data older than the raw retention. The day of the current segment is never compacted.
+	 *
+	 * @param today the current day.
+	 */
+	public void compact(LocalDate today) {
+
+		Current current = this.current;
+		LocalDate oldestRaw = today.minusDays(rawRetention.toDays());
+
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*.*")) {
+			for (Path file : files) {
+
+				LocalDate day = parseDay(file);
+				if (day == null || !day.isBefore(today) || (current != null && current.day().equals(day))) {
+					continue;
+				}
+
+				boolean raw = file.equals(file(day, Source.RAW));
+				if (raw) {
+					compact(day, file);
+				}
+
+				Path compressed = file(day, Source.COMPRESSED);
+				if ((raw || file.equals(compressed)) && day.isBefore(oldestRaw) && Files.deleteIfExists(compressed)) {
+					log.info("Deleted compressed raw history {}", compressed);
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Cannot compact history segments in {}", directory, e);
+		}
+	}
+
+	private void compact(LocalDate day, Path raw) throws IOException {
+
+		Map<Integer, Channel.Aggregation> aggregations = new HashMap<>();
+		for (Channel channel : channels) {
+			aggregations.put(channel.id(), channel.aggregation());
+		}
+
+		try (HistorySegment segment = HistorySegment.openReadOnly(raw);
+				CompressedSegment.Writer compressed = new CompressedSegment.Writer(file(day, Source.COMPRESSED));
+				RollupWriter minute = new RollupWriter(file(day, Source.MINUTE),
+						Duration.ofMillis(Source.MINUTE.resolution), aggregations);
+				RollupWriter quarter = new RollupWriter(file(day, Source.QUARTER),
+						Duration.ofMillis(Source.QUARTER.resolution), aggregations)) {
+
+			for (int i = 0; i < segment.size(); i++) {
+
+				long timestamp = segment.getTimestamp(i);
+				int channelId = segment.getChannel(i);
+				float value = segment.getValue(i);
+
+				compressed.add(channelId, timestamp, value);
+				minute.add(channelId, timestamp, value);
+				quarter.add(channelId, timestamp, value);
+			}
+
+			long rawSize = (long) segment.size() * HistorySegment.RECORD_SIZE;
+			long compressedSize = compressed.finish();
+			long rollupSize = minute.finish() + quarter.finish();
+			log.info("Compacted {} samples of {}: {} bytes raw, {} bytes compressed, {} bytes rollups", segment.size(),
+					day, rawSize, compressedSize, rollupSize);
+		}
+
+		Files.delete(raw);
+	}
+
+	private Path file(LocalDate day, Source source) {
+		return directory.resolve(PREFIX + day + source.suffix);
+	}
+
+	private static @Nullable LocalDate parseDay(Path file) {
+
+		String name = file.getFileName().toString();
+		try {
+			return LocalDate.parse(name.substring(PREFIX.length(), PREFIX.length() + 10));
+		} catch (DateTimeParseException | IndexOutOfBoundsException e) {
+			return null;
+		}
+	}
+
+	private void closeCurrent() {
+
+		Current current = this.current;
+		if (current == null) {
+			return;
+		}
+
+		this.current = null;
+		try {
+			current.segment().close();
+		} catch (IOException e) {
+			log.warn("Cannot close history segment {}", current.segment().getFile(), e);
+		}
+	}
+
+	/**
+	 * Close the current segment. Must not be called concurrently with {@link #append(long, int, float)}.
+	 */
+	@Override
+	public void close() {
+		closeCurrent();
+	}
+
+	record Current(LocalDate day, HistorySegment segment, long end) {
+	}
+
+	/**
+	 * Files holding the samples of a day.
+	 */
+	enum Source {
+
+		RAW(".bin", 0), COMPRESSED(".sgz", 0), MINUTE("-1m.sgz", 60_000), QUARTER("-15m.sgz", 900_000);
+
+		static final Source[] COARSEST_FIRST = { QUARTER, MINUTE, COMPRESSED, RAW };
+
+		static final Source[] FINEST_FIRST = { RAW, COMPRESSED, MINUTE, QUARTER };
+
+		private final String suffix;
+
+		private final long resolution;
+
+		Source(String suffix, long resolution) {
+			this.suffix = suffix;
+			this.resolution = resolution;
+		}
+
+		/**
+		 * Return whether each bucket of this source falls into a single step. Rollup buckets are aligned to the epoch
+		 * and stamped with their start, so {@code from} and {@code step} must both be multiples of the resolution.
+		 */
+		boolean resolves(long from, long step) {
+			return resolution == 0 || (step % resolution == 0 && Math.floorMod(from, resolution) == 0);
+		}
+	}
+
+	/**
+	 * Per-channel downsampling state.
+	 */
+	static class Accumulator {
+
+		private final Channel channel;
+
+		private final double[] values;
+
+		private final int[] counts;
+
+		private final long[] timestamps;
+
+		private double seed = Double.NaN;
+
+		Accumulator(Channel channel, int steps) {
+			this.channel = channel;
+			this.values = new double[steps];
+			this.counts = new int[steps];
+			this.timestamps = new long[steps];
+		}
+
+		void add(int step, long timestamp, float value) {
+
+			if (channel.aggregation() == Channel.Aggregation.MEAN) {
+				values[step] += value;
+			} else if (counts[step] == 0 || timestamp >= timestamps[step]) {
+				values[step] = value;
+				timestamps[step] = timestamp;
+			}
+			counts[step]++;
+		}
+
+		void addSummary(int step, long last, double sum, int count, float lastValue) {
+
+			if (channel.aggregation() == Channel.Aggregation.MEAN) {
+				values[step] += sum;
+			} else if (counts[step] == 0 || last >= timestamps[step]) {
+				values[step] = lastValue;
+				timestamps[step] = last;
+			}
+			counts[step] += count;
+		}
+
+		/**
+		 * Set the value carried into the first steps without samples.
+		 */
+		void seed(double value) {
+			this.seed = value;
+		}
+
+		double[] finish() {
+
+			double[] result = new double[values.length];
+			Arrays.fill(result, Double.NaN);
+			double last = seed;
+
+			for (int i = 0; i < values.length; i++) {
+				if (channel.aggregation() == Channel.Aggregation.MEAN) {
+					if (counts[i] > 0) {
+						result[i] = values[i] / counts[i];
+					}
+				} else {
+					if (counts[i] > 0) {
+						last = values[i];
+					}
+					result[i] = last;
+				}
+			}
+
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Downsamples samples into fixed steps per channel and writes one sample per step, stamped with the start of the
+ * step, into a {@link CompressedSegment}. Steps are aligned to the epoch. Channels aggregate according to their
+ * {@link Channel.Aggregation}, unknown channels use the mean.
+ *
+ * @author Mark Paluch
+ */
+final class RollupWriter implements Closeable {
+
+	private final CompressedSegment.Writer writer;
+
+	private final long step;
+
+	private final Map<Integer, Channel.Aggregation> aggregations;
+
+	private final Map<Integer, Bucket> buckets = new LinkedHashMap<>();
+
+	RollupWriter(Path file, Duration step, Map<Integer, Channel.Aggregation> aggregations) throws IOException {
+		this.writer = new CompressedSegment.Writer(file);
+		this.step = step.toMillis();
+		this.aggregations = aggregations;
+	}
+
+	void add(int channelId, long timestamp, float value) throws IOException {
+
+		Bucket bucket = buckets.computeIfAbsent(channelId,
+				it -> new Bucket(aggregations.getOrDefault(it, Channel.Aggregation.MEAN)));
+		long start = timestamp - Math.floorMod(timestamp, step);
+
+		if (bucket.count > 0 && bucket.start != start) {
+			writer.add(channelId, bucket.start, bucket.value());
+			bucket.count = 0;
+		}
+
+		bucket.add(start, value);
+	}
+
+	/**
+	 * Write pending steps and move the file into place.
+	 *
+	 * @return the size of the written file in bytes.
+	 */
+	long finish() throws IOException {
+
+		for (Map.Entry<Integer, Bucket> entry : buckets.entrySet()) {
+			Bucket bucket = entry.getValue();
+			if (bucket.count > 0) {
+				writer.add(entry.getKey(), bucket.start, bucket.value());
+			}
+		}
+
+		return writer.finish();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	static class Bucket {
+
+		private final Channel.Aggregation aggregation;
+
+		long start;
+
+		int count;
+
+		double sum;
+
+		float last;
+
+		Bucket(Channel.Aggregation aggregation) {
+			this.aggregation = aggregation;
+		}
+
+		void add(long start, float value) {
+
+			if (count == 0) {
+				this.start = start;
+				this.sum = 0;
+			}
+			sum += value;
+			last = value;
+			count++;
+		}
+
+		float value() {
+			return aggregation == Channel.Aggregation.MEAN ? (float) (sum / count) : last;
+		}
+	}
+
+}
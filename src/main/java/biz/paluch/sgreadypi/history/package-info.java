@@ -0,0 +1,5 @@
+/**
+ * Embedded time-series history of readings and SG Ready state transitions.
+ */
+@org.jspecify.annotations.NullMarked
+package biz.paluch.sgreadypi.history;
@@ -15,20 +15,25 @@
  */
 package biz.paluch.sgreadypi.measure;
 
-import tech.units.indriya.quantity.Quantities;
 import tech.units.indriya.unit.Units;
 
 import javax.measure.Quantity;
+import javax.measure.Unit;
 import javax.measure.quantity.Dimensionless;
 
 /**
- * Percent quantity factory.
+ * Dimensionless {@link Quantity} in percent carrying a primitive value. Use {@link #percent()} or
+ * {@link #toPercent(Quantity)} to read a percentage without boxing or unit conversion.
  *
  * @author Mark Paluch
  */
-public class Percent {
+public final class Percent extends ScalarQuantity<Dimensionless> {
 
-	private static final Quantity<Dimensionless> ZERO = of(0);
+	private static final Percent ZERO = of(0);
+
+	private Percent(double percent, boolean integral) {
+		super(percent, integral);
+	}
 
 	/**
 	 * Create a dimensionless percentage {@link Quantity} from the given {@code value}.
@@ -36,8 +41,18 @@ public class Percent {
 	 * @param value the percentage value, for example {@code 80} for 80%.
 	 * @return the percentage quantity.
 	 */
-	public static Quantity<Dimensionless> of(Number value) {
-		return Quantities.getQuantity(value, Units.PERCENT);
+	public static Percent of(int value) {
+		return new Percent(value, true);
+	}
+
+	/**
+	 * Create a dimensionless percentage {@link Quantity} from the given fractional {@code value}.
+	 *
+	 * @param value the percentage value, for example {@code 80.5} for 80.5%.
+	 * @return the percentage quantity.
+	 */
+	public static Percent of(double value) {
+		return new Percent(value, false);
 	}
 
 	/**
@@ -45,7 +60,50 @@ public class Percent {
 	 *
 	 * @return the zero-percent quantity.
 	 */
-	public static Quantity<Dimensionless> zero() {
+	public static Percent zero() {
 		return ZERO;
 	}
+
+	/**
+	 * Adapt a dimensionless {@link Quantity} to {@link Percent}. Instances of {@link Percent} are returned as-is, other
+	 * quantities are converted to percent.
+	 *
+	 * @param quantity the dimensionless quantity.
+	 * @return the quantity in percent.
+	 */
+	public static Percent from(Quantity<Dimensionless> quantity) {
+		return quantity instanceof Percent percent ? percent : of(toPercent(quantity));
+	}
+
+	/**
+	 * Return the value of a dimensionless {@link Quantity} in percent. Neither boxes nor converts for {@link Percent}
+	 * instances and quantities already expressed in percent.
+	 *
+	 * @param quantity the dimensionless quantity.
+	 * @return the value in percent.
+	 */
+	public static double toPercent(Quantity<Dimensionless> quantity) {
+
+		if (quantity instanceof Percent percent) {
+			return percent.percent();
+		}
+
+		Quantity<Dimensionless> percent = quantity.getUnit() == Units.PERCENT ? quantity : quantity.to(Units.PERCENT);
+		return percent.getValue().doubleValue();
+	}
+
+	/**
+	 * Return the value in percent.
+	 *
+	 * @return the value in percent.
+	 */
+	public double percent() {
+		return doubleValue();
+	}
+
+	@Override
+	public Unit<Dimensionless> getUnit() {
+		return Units.PERCENT;
+	}
+
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.measure;
+
+import tech.units.indriya.quantity.Quantities;
+
+import java.util.Objects;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Base class for absolute quantities carrying a primitive value in a fixed unit. Readers on hot paths use the primitive
+ * value directly. Arithmetic, unit conversion to other units, and formatting are delegated to an equivalent Indriya
+ * quantity created on demand, so results and string representations are the same as for
+ * {@link Quantities#getQuantity(Number, Unit)}.
+ * <p>
+ * {@link #getValue()} reports an {@link Integer} for values created from an {@code int} and a {@link Double} otherwise,
+ * matching the number type of the equivalent Indriya quantity. Equality follows the Indriya contract of unit, scale
+ * and value, so instances compare equal to Indriya quantities of the same value.
+ *
+ * @author Mark Paluch
+ */
+abstract class ScalarQuantity<Q extends Quantity<Q>> implements Quantity<Q> {
+
+	private final double value;
+
+	private final boolean integral;
+
+	ScalarQuantity(double value, boolean integral) {
+		this.value = value;
+		this.integral = integral;
+	}
+
+	double doubleValue() {
+		return value;
+	}
+
+	@Override
+	public Number getValue() {
+
+		// no conditional expression: it would promote the Integer to a Double
+		if (integral) {
+			return Integer.valueOf((int) value);
+		}
+
+		return Double.valueOf(value);
+	}
+
+	@Override
+	public Scale getScale() {
+		return Scale.ABSOLUTE;
+	}
+
+	@Override
+	public Quantity<Q> to(Unit<Q> unit) {
+		return getUnit().equals(unit) ? this : toQuantity().to(unit);
+	}
+
+	@Override
+	public Quantity<Q> add(Quantity<Q> addend) {
+		return toQuantity().add(addend);
+	}
+
+	@Override
+	public Quantity<Q> subtract(Quantity<Q> subtrahend) {
+		return toQuantity().subtract(subtrahend);
+	}
+
+	@Override
+	public Quantity<?> divide(Quantity<?> divisor) {
+		return toQuantity().divide(divisor);
+	}
+
+	@Override
+	public Quantity<Q> divide(Number divisor) {
+		return toQuantity().divide(divisor);
+	}
+
+	@Override
+	public Quantity<?> multiply(Quantity<?> multiplier) {
+		return toQuantity().multiply(multiplier);
+	}
+
+	@Override
+	public Quantity<Q> multiply(Number multiplier) {
+		return toQuantity().multiply(multiplier);
+	}
+
+	@Override
+	public Quantity<?> inverse() {
+		return toQuantity().inverse();
+	}
+
+	@Override
+	public Quantity<Q> negate() {
+		return toQuantity().negate();
+	}
+
+	@Override
+	public <T extends Quantity<T>> Quantity<T> asType(Class<T> type) throws ClassCastException {
+		return toQuantity().asType(type);
+	}
+
+	@Override
+	public boolean isEquivalentTo(Quantity<Q> that) {
+		return toQuantity().isEquivalentTo(that);
+	}
+
+	/**
+	 * Return the equivalent Indriya quantity.
+	 *
+	 * @return a new Indriya quantity with the same value and unit.
+	 */
+	public Quantity<Q> toQuantity() {
+		return Quantities.getQuantity(getValue(), getUnit());
+	}
+
+	@Override
+	public boolean equals(@Nullable Object obj) {
+
+		if (this == obj) {
+			return true;
+		}
+
+		if (obj instanceof ScalarQuantity<?> that) {
+			return integral == that.integral && Double.compare(value, that.value) == 0
+					&& getUnit().equals(that.getUnit());
+		}
+
+		return obj instanceof Quantity<?> that && getUnit().equals(that.getUnit()) && getScale() == that.getScale()
+				&& getValue().equals(that.getValue());
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(getUnit(), getScale(), getValue());
+	}
+
+	@Override
+	public String toString() {
+		return toQuantity().toString();
+	}
+
+}
@@ -15,20 +15,25 @@
  */
 package biz.paluch.sgreadypi.measure;
 
-import tech.units.indriya.quantity.Quantities;
 import tech.units.indriya.unit.Units;
 
 import javax.measure.Quantity;
+import javax.measure.Unit;
 import javax.measure.quantity.Power;
 
 /**
- * Watt quantity factory.
+ * Power {@link Quantity} in watts carrying a primitive value. Use {@link #watts()} or {@link #toWatts(Quantity)} to
+ * read power without boxing or unit conversion.
  *
  * @author Mark Paluch
  */
-public class Watt {
+public final class Watt extends ScalarQuantity<Power> {
 
-	private static final Quantity<Power> ZERO = of(0);
+	private static final Watt ZERO = of(0);
+
+	private Watt(double watts, boolean integral) {
+		super(watts, integral);
+	}
 
 	/**
 	 * Create a power {@link Quantity} in watts from the given {@code watts} value.
@@ -36,8 +41,18 @@ public class Watt {
 	 * @param watts the power in watts.
 	 * @return the power quantity.
 	 */
-	public static Quantity<Power> of(int watts) {
-		return Quantities.getQuantity(watts, Units.WATT);
+	public static Watt of(int watts) {
+		return new Watt(watts, true);
+	}
+
+	/**
+	 * Create a power {@link Quantity} in watts from the given fractional {@code watts} value.
+	 *
+	 * @param watts the power in watts.
+	 * @return the power quantity.
+	 */
+	public static Watt of(double watts) {
+		return new Watt(watts, false);
 	}
 
 	/**
@@ -45,7 +60,50 @@ public class Watt {
 	 *
 	 * @return the zero-watt quantity.
 	 */
-	public static Quantity<Power> zero() {
+	public static Watt zero() {
 		return ZERO;
 	}
+
+	/**
+	 * Adapt a power {@link Quantity} to {@link Watt}. Instances of {@link Watt} are returned as-is, other quantities
+	 * are converted to watts.
+	 *
+	 * @param power the power quantity.
+	 * @return the power in watts.
+	 */
+	public static Watt from(Quantity<Power> power) {
+		return power instanceof Watt watt ? watt : of(toWatts(power));
+	}
+
+	/**
+	 * Return the value of a power {@link Quantity} in watts. Neither boxes nor converts for {@link Watt} instances and
+	 * quantities already expressed in watts.
+	 *
+	 * @param power the power quantity.
+	 * @return the power in watts.
+	 */
+	public static double toWatts(Quantity<Power> power) {
+
+		if (power instanceof Watt watt) {
+			return watt.watts();
+		}
+
+		Quantity<Power> watts = power.getUnit() == Units.WATT ? power : power.to(Units.WATT);
+		return watts.getValue().doubleValue();
+	}
+
+	/**
+	 * Return the power in watts.
+	 *
+	 * @return the power in watts.
+	 */
+	public double watts() {
+		return doubleValue();
+	}
+
+	@Override
+	public Unit<Power> getUnit() {
+		return Units.WATT;
+	}
+
 }
@@ -1,5 +1,6 @@
 /**
- * Factories for unit-of-measurement quantities such as watts and percent.
+ * Lightweight quantities for watts and percent that carry primitive values and interoperate with
+ * {@link javax.measure.Quantity}.
  */
 @org.jspecify.annotations.NullMarked
 package biz.paluch.sgreadypi.measure;
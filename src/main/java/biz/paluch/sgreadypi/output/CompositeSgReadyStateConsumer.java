@@ -15,30 +15,110 @@
  */
 package biz.paluch.sgreadypi.output;
 
+import biz.paluch.sgreadypi.DecisionLatency;
 import biz.paluch.sgreadypi.SgReadyState;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
-import org.springframework.cache.CacheManager;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jspecify.annotations.Nullable;
 
 /**
- * Composite {@link SgReadyStateConsumer} implementation that iterates over a given collection of delegate
- * {@link SgReadyStateConsumer} instances.
- * 
+ * Composite {@link SgReadyStateConsumer} implementation that dispatches states to a given collection of delegate
+ * {@link SgReadyStateConsumer} instances according to their {@link SgReadyStateConsumer#getDispatchPolicy() dispatch
+ * policy}. Inline delegates are called first, one after another on the calling thread. Asynchronous delegates are
+ * decoupled through bounded queues drained on virtual threads so a slow delegate cannot delay the control loop or
+ * other delegates. The time each delegate takes is recorded as {@code sg.output.latency}. Once the inline delegates,
+ * which include the relay, applied a state, the time since its reading is recorded as
+ * {@link DecisionLatency.Stage#END_TO_END end-to-end} latency. {@link #close() Closing} the composite stops pending
+ * asynchronous deliveries.
+ *
  * @author Mark Paluch
  */
-public class CompositeSgReadyStateConsumer implements SgReadyStateConsumer {
+public class CompositeSgReadyStateConsumer implements SgReadyStateConsumer, AutoCloseable {
+
+	private final List<SgReadyStateConsumer> inline = new ArrayList<>();
+
+	private final List<SgReadyStateConsumer> async = new ArrayList<>();
 
-	private final Collection<SgReadyStateConsumer> consumers;
+	private final DecisionLatency latency = DecisionLatency.global();
+
+	private final @Nullable ExecutorService executor;
 
 	public CompositeSgReadyStateConsumer(Collection<SgReadyStateConsumer> consumers) {
-		this.consumers = consumers;
+		this(consumers, Metrics.globalRegistry);
+	}
+
+	/**
+	 * Create a new {@link CompositeSgReadyStateConsumer}.
+	 *
+	 * @param consumers the delegates.
+	 * @param meterRegistry registry for queue, drop and timeout metrics of asynchronous delegates.
+	 */
+	public CompositeSgReadyStateConsumer(Collection<SgReadyStateConsumer> consumers, MeterRegistry meterRegistry) {
+
+		ExecutorService executor = null;
+		for (SgReadyStateConsumer consumer : consumers) {
+
+			DispatchPolicy policy = consumer.getDispatchPolicy();
+			if (policy.async()) {
+
+				if (executor == null) {
+					executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sg-output-", 0).factory());
+				}
+				async.add(new QueuedStateConsumer(consumer, getName(consumer), policy, executor, meterRegistry));
+			} else {
+				inline.add(consumer);
+			}
+		}
+
+		this.executor = executor;
 	}
 
 	@Override
 	public void onState(SgReadyState state) {
-		for (SgReadyStateConsumer consumer : consumers) {
+		onState(state, Instant.MIN);
+	}
+
+	@Override
+	public void onState(SgReadyState state, Instant readingTime) {
+
+		for (SgReadyStateConsumer consumer : inline) {
+
+			long start = latency.start();
+			consumer.onState(state, readingTime);
+			latency.recordOutput(getName(consumer), start);
+		}
+
+		if (readingTime != Instant.MIN) {
+			latency.record(DecisionLatency.Stage.END_TO_END, Duration.between(readingTime, Instant.now()));
+		}
+
+		for (SgReadyStateConsumer consumer : async) {
 			consumer.onState(state);
 		}
 	}
 
+	/**
+	 * Stop the executor of asynchronous delegates and interrupt calls that are still running.
+	 */
+	@Override
+	public void close() {
+
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	private static String getName(SgReadyStateConsumer consumer) {
+		return consumer.getClass().getSimpleName();
+	}
+
 }
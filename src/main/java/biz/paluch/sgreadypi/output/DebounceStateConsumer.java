@@ -15,6 +15,7 @@
  */
 package biz.paluch.sgreadypi.output;
 
+import biz.paluch.sgreadypi.DecisionLatency;
 import biz.paluch.sgreadypi.SgReadyState;
 
 import java.time.Clock;
@@ -27,11 +28,12 @@ import org.slf4j.Logger;
 import org.springframework.scheduling.TaskScheduler;
 
 /**
- * Debouncing {@link SgReadyStateConsumer} to avoid state flickering and reduce wear on the output.
+ * Debouncing {@link SgReadyStateConsumer} to avoid state flickering and reduce wear on the output. Closing the
+ * consumer closes its delegate if it is {@link AutoCloseable}.
  *
  * @author Mark Paluch
  */
-public class DebounceStateConsumer implements SgReadyStateConsumer {
+public class DebounceStateConsumer implements SgReadyStateConsumer, AutoCloseable {
 
 	private static final Logger log = org.slf4j.LoggerFactory.getLogger(DebounceStateConsumer.class);
 	private final SgReadyStateConsumer delegate;
@@ -44,8 +46,11 @@ public class DebounceStateConsumer implements SgReadyStateConsumer {
 
 	private final Clock clock = Clock.systemDefaultZone();
 
+	private final DecisionLatency latency = DecisionLatency.global();
+
 	volatile SgReadyState current = SgReadyState.NORMAL;
 	volatile SgReadyState next = SgReadyState.NORMAL;
+	volatile Instant nextReadingTime = Instant.MIN;
 
 	volatile Instant lastUpdate = Instant.MIN;
 
@@ -57,9 +62,16 @@ public class DebounceStateConsumer implements SgReadyStateConsumer {
 
 	@Override
 	public void onState(SgReadyState state) {
+		onState(state, Instant.MIN);
+	}
 
+	@Override
+	public void onState(SgReadyState state, Instant readingTime) {
+
+		long start = latency.start();
 		Instant now = clock.instant();
 		Instant nextUpdate = getNextUpdate();
+		nextReadingTime = readingTime;
 		next = state;
 
 		if (current.equals(state)) {
@@ -67,7 +79,8 @@ public class DebounceStateConsumer implements SgReadyStateConsumer {
 		}
 
 		if (now.isAfter(nextUpdate)) {
-			doUpdate(state);
+			latency.record(DecisionLatency.Stage.DEBOUNCE, start);
+			doUpdate(state, readingTime);
 		} else {
 
 			if (debounceActive.compareAndSet(false, true)) {
@@ -79,7 +92,7 @@ public class DebounceStateConsumer implements SgReadyStateConsumer {
 					SgReadyState nextState = next;
 					if (nextState != null && !nextState.equals(current)) {
 						log.info("Applying debounced state {}", nextState);
-						doUpdate(nextState);
+						doUpdate(nextState, nextReadingTime);
 					} else {
 						log.info("Skipping debounced state {}", nextState);
 					}
@@ -90,10 +103,18 @@ public class DebounceStateConsumer implements SgReadyStateConsumer {
 		}
 	}
 
-	private void doUpdate(SgReadyState nextState) {
+	private void doUpdate(SgReadyState nextState, Instant readingTime) {
 		lastUpdate = clock.instant();
 		current = nextState;
-		delegate.onState(nextState);
+		delegate.onState(nextState, readingTime);
+	}
+
+	@Override
+	public void close() throws Exception {
+
+		if (delegate instanceof AutoCloseable closeable) {
+			closeable.close();
+		}
 	}
 
 	boolean isSynchronized() {
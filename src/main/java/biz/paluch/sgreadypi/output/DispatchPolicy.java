@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.output;
+
+import java.time.Duration;
+
+import org.springframework.util.Assert;
+
+/**
+ * Policy how {@link CompositeSgReadyStateConsumer} dispatches states to a {@link SgReadyStateConsumer}. Latency-critical
+ * consumers such as relays are called {@link #inline() inline} on the control loop thread. Slow consumers such as
+ * notifications are called {@link #async(int, Overflow, Duration) asynchronously} from a bounded queue on a virtual
+ * thread so they cannot delay the control loop or other consumers.
+ *
+ * @param async whether to dispatch through a queue.
+ * @param capacity queue capacity.
+ * @param overflow what to do with a state if the queue is full.
+ * @param timeout time after which a consumer call is interrupted.
+ * @author Mark Paluch
+ */
+public record DispatchPolicy(boolean async, int capacity, Overflow overflow, Duration timeout) {
+
+	private static final DispatchPolicy INLINE = new DispatchPolicy(false, 0, Overflow.DROP_NEWEST, Duration.ZERO);
+
+	/**
+	 * Call the consumer on the calling thread.
+	 *
+	 * @return the inline dispatch policy.
+	 */
+	public static DispatchPolicy inline() {
+		return INLINE;
+	}
+
+	/**
+	 * Call the consumer from a bounded queue on a virtual thread.
+	 *
+	 * @param capacity queue capacity, must be greater than zero.
+	 * @param overflow what to do with a state if the queue is full.
+	 * @param timeout time after which a consumer call is interrupted.
+	 * @return the asynchronous dispatch policy.
+	 */
+	public static DispatchPolicy async(int capacity, Overflow overflow, Duration timeout) {
+
+		Assert.isTrue(capacity > 0, "Capacity must be greater than zero");
+		Assert.isTrue(timeout.isPositive(), "Timeout must be positive");
+
+		return new DispatchPolicy(true, overflow == Overflow.COALESCE ? 1 : capacity, overflow, timeout);
+	}
+
+	/**
+	 * Call the consumer asynchronously with only the most recent pending state.
+	 *
+	 * @param timeout time after which a consumer call is interrupted.
+	 * @return the coalescing dispatch policy.
+	 */
+	public static DispatchPolicy coalescing(Duration timeout) {
+		return async(1, Overflow.COALESCE, timeout);
+	}
+
+	/**
+	 * Strategies for states that do not fit into the queue.
+	 */
+	public enum Overflow {
+
+		/**
+		 * Drop the new state and keep the queued ones.
+		 */
+		DROP_NEWEST,
+
+		/**
+		 * Drop the oldest queued state to make room for the new one.
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Replace all pending states with the new one. The consumer sees only the most recent state.
+		 */
+		COALESCE
+	}
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.output;
+
+import biz.paluch.sgreadypi.DecisionLatency;
+import biz.paluch.sgreadypi.SgReadyState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link SgReadyStateConsumer} decoupling a delegate through a bounded queue according to its {@link DispatchPolicy}.
+ * States are delivered in order by a single drain task at a time. A call exceeding the {@link DispatchPolicy#timeout()
+ * timeout} is interrupted and the drain task moves on with only the most recent pending state, so a hung delegate
+ * cannot block the queue. Calls overlap only if a delegate ignores the interrupt.
+ *
+ * @author Mark Paluch
+ */
+class QueuedStateConsumer implements SgReadyStateConsumer {
+
+	private static final Logger log = org.slf4j.LoggerFactory.getLogger(QueuedStateConsumer.class);
+
+	private final SgReadyStateConsumer delegate;
+
+	private final String name;
+
+	private final DispatchPolicy policy;
+
+	private final ExecutorService executor;
+
+	private final DecisionLatency latency = DecisionLatency.global();
+
+	private final Deque<SgReadyState> queue = new ArrayDeque<>();
+
+	private boolean draining;
+
+	private final Counter dropped;
+
+	private final Counter timeouts;
+
+	private final Counter failures;
+
+	QueuedStateConsumer(SgReadyStateConsumer delegate, String name, DispatchPolicy policy, ExecutorService executor,
+			MeterRegistry meterRegistry) {
+
+		this.delegate = delegate;
+		this.name = name;
+		this.policy = policy;
+		this.executor = executor;
+
+		this.dropped = Counter.builder("sg.output.dropped").description("States dropped or coalesced before delivery")
+				.tag("consumer", name).register(meterRegistry);
+		this.timeouts = Counter.builder("sg.output.timeouts").description("Output calls interrupted after the timeout")
+				.tag("consumer", name).register(meterRegistry);
+		this.failures = Counter.builder("sg.output.failures").description("Output calls that failed")
+				.tag("consumer", name).register(meterRegistry);
+		Gauge.builder("sg.output.queue.size", this, QueuedStateConsumer::getQueueSize)
+				.description("States waiting for delivery").tag("consumer", name).register(meterRegistry);
+	}
+
+	@Override
+	public void onState(SgReadyState state) {
+
+		boolean drain;
+		synchronized (queue) {
+
+			if (!enqueue(state)) {
+				return;
+			}
+
+			drain = !draining;
+			draining = true;
+		}
+
+		if (drain) {
+			executor.execute(this::drain);
+		}
+	}
+
+	private boolean enqueue(SgReadyState state) {
+
+		switch (policy.overflow()) {
+			case COALESCE -> {
+				dropped.increment(queue.size());
+				queue.clear();
+			}
+			case DROP_OLDEST -> {
+				if (queue.size() >= policy.capacity()) {
+					queue.pollFirst();
+					dropped.increment();
+				}
+			}
+			case DROP_NEWEST -> {
+				if (queue.size() >= policy.capacity()) {
+					log.debug("Queue of {} full, dropping state {}", name, state);
+					dropped.increment();
+					return false;
+				}
+			}
+		}
+
+		queue.addLast(state);
+		return true;
+	}
+
+	private void drain() {
+
+		while (true) {
+
+			SgReadyState state;
+			synchronized (queue) {
+				state = queue.pollFirst();
+				if (state == null) {
+					draining = false;
+					return;
+				}
+			}
+
+			Delivery delivery = deliver(state);
+			if (delivery == Delivery.INTERRUPTED) {
+				return;
+			}
+
+			if (delivery == Delivery.TIMED_OUT) {
+				skipStale();
+			}
+		}
+	}
+
+	/**
+	 * Deliver a state to the delegate and wait for the call at most for the timeout.
+	 */
+	private Delivery deliver(SgReadyState state) {
+
+		long start = latency.start();
+		Future<?> call = executor.submit(() -> delegate.onState(state));
+
+		try {
+			call.get(policy.timeout().toNanos(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+
+			call.cancel(true);
+			timeouts.increment();
+			log.warn("{} did not apply state {} within {}, interrupting", name, state, policy.timeout());
+			return Delivery.TIMED_OUT;
+		} catch (ExecutionException e) {
+			failures.increment();
+			log.warn("{} failed to apply state {}", name, state, e.getCause());
+		} catch (InterruptedException e) {
+
+			call.cancel(true);
+			Thread.currentThread().interrupt();
+			synchronized (queue) {
+				draining = false;
+			}
+			return Delivery.INTERRUPTED;
+		} finally {
+			latency.recordOutput(name, start);
+		}
+
+		return Delivery.APPLIED;
+	}
+
+	/**
+	 * Drop all but the most recent pending state as states queued during a timed out call are outdated.
+	 */
+	private void skipStale() {
+
+		synchronized (queue) {
+			while (queue.size() > 1) {
+				queue.pollFirst();
+				dropped.increment();
+			}
+		}
+	}
+
+	int getQueueSize() {
+		synchronized (queue) {
+			return queue.size();
+		}
+	}
+
+	private enum Delivery {
+		APPLIED, TIMED_OUT, INTERRUPTED
+	}
+
+}
@@ -17,6 +17,8 @@ package biz.paluch.sgreadypi.output;
 
 import biz.paluch.sgreadypi.SgReadyState;
 
+import java.time.Instant;
+
 /**
  * SG Ready state consumer to apply the state.
  *
@@ -28,11 +30,34 @@ public interface SgReadyStateConsumer {
 	/**
 	 * Apply a new SG Ready state to the underlying output.
 	 * <p>
-	 * Implementations may be invoked repeatedly with the same state and should be idempotent. Implementations should not
-	 * block; long-running work should be dispatched elsewhere.
+	 * Implementations may be invoked repeatedly with the same state and should be idempotent. Implementations called
+	 * inline should not block; long-running work should use an asynchronous {@link #getDispatchPolicy() dispatch
+	 * policy}.
 	 *
 	 * @param state the state to apply.
 	 */
 	void onState(SgReadyState state);
 
+	/**
+	 * Apply a new SG Ready state that was decided from readings taken at {@code readingTime}. Consumers passing states
+	 * on to other consumers should propagate the reading time so that the end-to-end latency from reading to relay
+	 * write can be recorded where the state is actually applied.
+	 *
+	 * @param state the state to apply.
+	 * @param readingTime time of the most recent reading the state was decided from, {@link Instant#MIN} if unknown.
+	 */
+	default void onState(SgReadyState state, Instant readingTime) {
+		onState(state);
+	}
+
+	/**
+	 * Return how {@link CompositeSgReadyStateConsumer} dispatches states to this consumer. Consumers are called inline
+	 * by default; consumers performing blocking I/O should return an {@link DispatchPolicy#async asynchronous} policy.
+	 *
+	 * @return the dispatch policy.
+	 */
+	default DispatchPolicy getDispatchPolicy() {
+		return DispatchPolicy.inline();
+	}
+
 }
@@ -90,11 +90,12 @@ public class GpioConfiguration {
 	@Bean
 	@Primary
 	DebounceStateConsumer debounce(ObjectProvider<SgReadyStateConsumer> stateConsumers, TaskScheduler scheduler,
-			SgReadyProperties properties) {
+			SgReadyProperties properties, MeterRegistry meterRegistry) {
 
 		List<SgReadyStateConsumer> list = stateConsumers.stream().toList();
 
-		return new DebounceStateConsumer(new CompositeSgReadyStateConsumer(list), scheduler, properties.getDebounce());
+		return new DebounceStateConsumer(new CompositeSgReadyStateConsumer(list, meterRegistry), scheduler,
+				properties.getDebounce());
 	}
 
 	@Configuration(proxyBeanMethods = false)
@@ -15,6 +15,7 @@
  */
 package biz.paluch.sgreadypi.output.gpio;
 
+import biz.paluch.sgreadypi.DecisionLatency;
 import biz.paluch.sgreadypi.SgReadyState;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
@@ -119,9 +120,15 @@ public class PiRelHat3Ch implements Relay {
 
 	@Override
 	public void setState(SgReadyState state) {
+
+		DecisionLatency latency = DecisionLatency.global();
+		long start = latency.start();
+
 		setState(this.ch1, state.a());
 		setState(this.ch2, state.b());
 		setState(this.ch3, state.a() && state.b());
+
+		latency.record(DecisionLatency.Stage.RELAY, start);
 	}
 
 	private void setState(DigitalOutput output, boolean state) {
@@ -15,9 +15,9 @@
  */
 package biz.paluch.sgreadypi.output.telegram;
 
-import biz.paluch.sgreadypi.PowerGeneratorService;
-import biz.paluch.sgreadypi.PowerMeter;
+import biz.paluch.sgreadypi.SgReadyControlLoop;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -34,9 +34,12 @@ import org.springframework.context.annotation.Configuration;
 public class TelegramConfiguration {
 
 	@Bean
-	TelegramService telegramService(TelegramProperties properties, PowerGeneratorService powerGeneratorService,
-			PowerMeter powerMeter) {
-		return new TelegramService(properties.getToken(), properties.getChatId(), powerGeneratorService, powerMeter,
-				properties.getLocale());
+	TelegramService telegramService(TelegramProperties properties, ObjectProvider<SgReadyControlLoop> controlLoop) {
+
+		// resolved lazily as the control loop depends on the state consumers
+		return new TelegramService(properties, () -> {
+			SgReadyControlLoop loop = controlLoop.getIfAvailable();
+			return loop != null ? loop.getDecision() : null;
+		});
 	}
 }
@@ -15,6 +15,7 @@
  */
 package biz.paluch.sgreadypi.output.telegram;
 
+import java.time.Duration;
 import java.util.Locale;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -34,6 +35,36 @@ public class TelegramProperties {
 
 	private Locale locale = Locale.getDefault();
 
+	/**
+	 * Time after which a call to the Telegram API is aborted.
+	 */
+	private Duration timeout = Duration.ofSeconds(30);
+
+	/**
+	 * Window within which state transitions are merged into one summary message.
+	 */
+	private Duration window = Duration.ofSeconds(30);
+
+	/**
+	 * Number of messages that can be sent in a burst.
+	 */
+	private int burst = 3;
+
+	/**
+	 * Period to regain the capacity for one message after a burst.
+	 */
+	private Duration refillPeriod = Duration.ofSeconds(20);
+
+	/**
+	 * Maximum number of attempts to send a message.
+	 */
+	private int maxAttempts = 3;
+
+	/**
+	 * Delay before the first retry, doubled with each further retry. A delay requested by Telegram takes precedence.
+	 */
+	private Duration backoff = Duration.ofSeconds(2);
+
 	public TelegramProperties() {}
 
 	public String getToken() {
@@ -48,6 +79,30 @@ public class TelegramProperties {
 		return this.locale;
 	}
 
+	public Duration getTimeout() {
+		return this.timeout;
+	}
+
+	public Duration getWindow() {
+		return this.window;
+	}
+
+	public int getBurst() {
+		return this.burst;
+	}
+
+	public Duration getRefillPeriod() {
+		return this.refillPeriod;
+	}
+
+	public int getMaxAttempts() {
+		return this.maxAttempts;
+	}
+
+	public Duration getBackoff() {
+		return this.backoff;
+	}
+
 	public void setToken(String token) {
 		this.token = token;
 	}
@@ -60,8 +115,34 @@ public class TelegramProperties {
 		this.locale = locale;
 	}
 
+	public void setTimeout(Duration timeout) {
+		this.timeout = timeout;
+	}
+
+	public void setWindow(Duration window) {
+		this.window = window;
+	}
+
+	public void setBurst(int burst) {
+		this.burst = burst;
+	}
+
+	public void setRefillPeriod(Duration refillPeriod) {
+		this.refillPeriod = refillPeriod;
+	}
+
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	public void setBackoff(Duration backoff) {
+		this.backoff = backoff;
+	}
+
 	public String toString() {
 		return "TelegramProperties(token=" + this.getToken() + ", chatId=" + this.getChatId() + ", locale="
-				+ this.getLocale() + ")";
+				+ this.getLocale() + ", timeout=" + this.getTimeout() + ", window=" + this.getWindow() + ", burst="
+				+ this.getBurst() + ", refillPeriod=" + this.getRefillPeriod() + ", maxAttempts=" + this.getMaxAttempts()
+				+ ", backoff=" + this.getBackoff() + ")";
 	}
 }
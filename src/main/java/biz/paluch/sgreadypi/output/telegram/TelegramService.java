@@ -15,30 +15,43 @@
  */
 package biz.paluch.sgreadypi.output.telegram;
 
-import biz.paluch.sgreadypi.PowerGeneratorService;
-import biz.paluch.sgreadypi.PowerMeter;
+import biz.paluch.sgreadypi.Conditions;
+import biz.paluch.sgreadypi.Decision;
 import biz.paluch.sgreadypi.SgReadyState;
 import biz.paluch.sgreadypi.output.SgReadyStateConsumer;
 import jakarta.annotation.PreDestroy;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Formatter;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
-import javax.measure.Quantity;
-import javax.measure.quantity.Dimensionless;
-import javax.measure.quantity.Power;
-
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 
 import com.pengrad.telegrambot.TelegramBot;
 import com.pengrad.telegrambot.model.request.ParseMode;
 import com.pengrad.telegrambot.request.SendMessage;
+import com.pengrad.telegrambot.response.ResponseParameters;
 import com.pengrad.telegrambot.response.SendResponse;
 
+import okhttp3.OkHttpClient;
+
 /**
  * {@link SgReadyStateConsumer} sending Telegram notifications to a specified chatId.
+ * <p>
+ * State transitions are queued and sent by a virtual thread: transitions within a {@link TelegramProperties#getWindow()
+ * window} are merged into one summary message, messages are rate limited through a token bucket, and failed sends are
+ * retried with exponential backoff. Messages render the {@link Decision} snapshot taken at the time of the transition
+ * instead of re-reading live statistics.
  *
  * @author Mark Paluch
  */
@@ -49,53 +62,193 @@ public class TelegramService implements SgReadyStateConsumer {
 			SgReadyState.AVAILABLE_PV, "⚡️",
 			SgReadyState.EXCESS_PV, "🔋");
 	private static final Logger log = org.slf4j.LoggerFactory.getLogger(TelegramService.class);
+	private static final int QUEUE_CAPACITY = 64;
+	private static final String UNKNOWN = "-";
 
 	private final TelegramBot bot;
 	private final long chatId;
+	private final Supplier<@Nullable Decision> decision;
+
+	private final Map<SgReadyState, String> stateNames = new HashMap<>();
+	private final String messageTemplate;
+	private final String transitionsTemplate;
+	private final StringBuilder buffer = new StringBuilder();
+	private final Formatter formatter;
+
+	private final Duration window;
+	private final TokenBucket rateLimit;
+	private final int maxAttempts;
+	private final Duration backoff;
+
+	private final BlockingQueue<Transition> transitions = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+	private final Thread worker;
+	private @Nullable SgReadyState notified;
+
+	/**
+	 * Create a new {@link TelegramService}.
+	 *
+	 * @param properties the Telegram configuration.
+	 * @param decision supplier of the most recent {@link Decision} to render notifications from.
+	 */
+	public TelegramService(TelegramProperties properties, Supplier<@Nullable Decision> decision) {
+		this(new TelegramBot.Builder(properties.getToken())
+				.okHttpClient(new OkHttpClient.Builder().callTimeout(properties.getTimeout()).build()).build(), properties,
+				decision);
+	}
+
+	TelegramService(TelegramBot bot, TelegramProperties properties, Supplier<@Nullable Decision> decision) {
+
+		this.bot = bot;
+		this.chatId = properties.getChatId();
+		this.decision = decision;
+
+		ResourceBundle resourceBundle = ResourceBundle.getBundle("telegram", properties.getLocale());
+		for (SgReadyState state : ICONS.keySet()) {
+			stateNames.put(state, resourceBundle.getString("state." + state.name()));
+		}
+		this.messageTemplate = resourceBundle.getString("message");
+		this.transitionsTemplate = resourceBundle.getString("transitions");
+		this.formatter = new Formatter(buffer, properties.getLocale());
 
-	private final PowerGeneratorService inverters;
-	private final PowerMeter powerMeter;
-	private final ResourceBundle resourceBundle;
-	private final Locale locale;
-
-	public TelegramService(String token, long chatId, PowerGeneratorService inverters, PowerMeter powerMeter,
-			Locale locale) {
-		this.bot = new TelegramBot(token);
-		this.chatId = chatId;
-		this.inverters = inverters;
-		this.powerMeter = powerMeter;
-		this.resourceBundle = ResourceBundle.getBundle("telegram", locale);
-		this.locale = locale;
+		this.window = properties.getWindow();
+		this.rateLimit = new TokenBucket(properties.getBurst(), properties.getRefillPeriod());
+		this.maxAttempts = properties.getMaxAttempts();
+		this.backoff = properties.getBackoff();
+
+		this.worker = Thread.ofVirtual().name("sg-telegram").start(this::run);
 	}
 
 	@PreDestroy
 	public void preDestroy() {
+		worker.interrupt();
 		bot.shutdown();
 	}
 
 	@Override
 	public void onState(SgReadyState state) {
 
-		Quantity<Power> generatorPower = inverters.getGeneratorPower().getAverage();
-		Quantity<Power> ingress = powerMeter.getIngress().getAverage();
-		Quantity<Dimensionless> soc = inverters.getBatteryStateOfCharge();
-
-		String stateName = resourceBundle.getString("state." + state.name());
-		String messageTemplate = resourceBundle.getString("message");
-		Formatter formatter = new Formatter(this.locale);
-		String message = formatter.format(messageTemplate, ICONS.get(state), stateName, ingress, generatorPower, soc)
-				.toString();
+		if (!transitions.offer(new Transition(state, decision.get()))) {
+			log.warn("Telegram notification queue full, dropping state {}", state);
+		}
+	}
 
-		SendMessage sendMessage = new SendMessage(chatId, message);
-		sendMessage.parseMode(ParseMode.HTML);
+	private void run() {
 
 		try {
-			SendResponse response = bot.execute(sendMessage);
-			if (!response.isOk()) {
+			while (!Thread.currentThread().isInterrupted()) {
+				notify(collect());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Wait for a transition and collect all further transitions arriving within the window.
+	 */
+	private List<Transition> collect() throws InterruptedException {
+
+		List<Transition> batch = new ArrayList<>();
+		batch.add(transitions.take());
+
+		long deadline = System.nanoTime() + window.toNanos();
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0) {
+
+			Transition next = transitions.poll(remaining, TimeUnit.NANOSECONDS);
+			if (next == null) {
+				break;
+			}
+			batch.add(next);
+		}
+
+		return batch;
+	}
+
+	private void notify(List<Transition> batch) throws InterruptedException {
+
+		SgReadyState state = batch.get(batch.size() - 1).state();
+		if (state == notified) {
+			log.debug("Skipping Telegram notification, state {} unchanged after {} transitions", state, batch.size());
+			return;
+		}
+
+		if (send(render(batch))) {
+			notified = state;
+		}
+	}
+
+	private String render(List<Transition> batch) {
+
+		Transition last = batch.get(batch.size() - 1);
+		Decision decision = last.decision();
+		Conditions conditions = decision != null ? decision.conditions() : null;
+
+		buffer.setLength(0);
+		formatter.format(messageTemplate, ICONS.get(last.state()), stateNames.get(last.state()),
+				conditions != null ? conditions.ingress() : UNKNOWN,
+				conditions != null ? conditions.generatorPower() : UNKNOWN, conditions != null ? conditions.soc() : UNKNOWN);
+
+		if (batch.size() > 1) {
+
+			StringBuilder states = new StringBuilder();
+			for (Transition transition : batch) {
+				if (!states.isEmpty()) {
+					states.append(" → ");
+				}
+				states.append(stateNames.get(transition.state()));
+			}
+			formatter.format(transitionsTemplate, states);
+		}
+
+		return buffer.toString();
+	}
+
+	/**
+	 * Send a message honoring the rate limit and retrying failed attempts.
+	 *
+	 * @return {@literal true} if the message was sent.
+	 */
+	private boolean send(String message) throws InterruptedException {
+
+		for (int attempt = 1;; attempt++) {
+
+			rateLimit.acquire();
+
+			Duration retryAfter = null;
+			try {
+
+				SendResponse response = bot.execute(new SendMessage(chatId, message).parseMode(ParseMode.HTML));
+				if (response.isOk()) {
+					return true;
+				}
+
 				log.warn("Cannot send Telegram message: %s".formatted(response.description()));
+
+				ResponseParameters parameters = response.parameters();
+				if (parameters != null && parameters.retryAfter() != null) {
+					retryAfter = Duration.ofSeconds(parameters.retryAfter());
+				} else if (response.errorCode() >= 400 && response.errorCode() < 500 && response.errorCode() != 429) {
+					// client errors other than rate limiting do not recover on retry
+					return false;
+				}
+			} catch (RuntimeException e) {
+				log.warn("Cannot send Telegram message", e);
 			}
-		} catch (Exception e) {
-			log.warn("Cannot send Telegram message", e);
+
+			if (attempt >= maxAttempts) {
+				log.warn("Giving up sending Telegram message after {} attempts", attempt);
+				return false;
+			}
+
+			Thread.sleep(retryAfter != null ? retryAfter : backoff.multipliedBy(1L << (attempt - 1)));
 		}
 	}
+
+	/**
+	 * A state transition together with the {@link Decision} snapshot at the time of the transition.
+	 */
+	record Transition(SgReadyState state, @Nullable Decision decision) {
+	}
+
 }
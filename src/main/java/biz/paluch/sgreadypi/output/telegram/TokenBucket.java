@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.output.telegram;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket rate limiter. The bucket holds up to {@code capacity} tokens and regains one token per
+ * {@code refillPeriod}; each acquisition takes one token.
+ *
+ * @author Mark Paluch
+ */
+class TokenBucket {
+
+	private final int capacity;
+
+	private final long refillNanos;
+
+	private final LongSupplier nanoTime;
+
+	private long tokens;
+
+	private long lastRefill;
+
+	TokenBucket(int capacity, Duration refillPeriod) {
+		this(capacity, refillPeriod, System::nanoTime);
+	}
+
+	TokenBucket(int capacity, Duration refillPeriod, LongSupplier nanoTime) {
+		this.capacity = capacity;
+		this.refillNanos = refillPeriod.toNanos();
+		this.nanoTime = nanoTime;
+		this.tokens = capacity;
+		this.lastRefill = nanoTime.getAsLong();
+	}
+
+	/**
+	 * Take a token if available.
+	 *
+	 * @return {@code 0} if a token was taken; otherwise the time in nanoseconds until the next token is available.
+	 */
+	synchronized long tryAcquire() {
+
+		long now = nanoTime.getAsLong();
+		long refills = (now - lastRefill) / refillNanos;
+
+		if (refills > 0) {
+			tokens = Math.min(capacity, tokens + refills);
+			// a full bucket does not accumulate progress towards the next token
+			lastRefill = tokens == capacity ? now : lastRefill + refills * refillNanos;
+		}
+
+		if (tokens > 0) {
+			tokens--;
+			return 0;
+		}
+
+		return lastRefill + refillNanos - now;
+	}
+
+	/**
+	 * Take a token, waiting until one is available.
+	 */
+	void acquire() throws InterruptedException {
+
+		long wait;
+		while ((wait = tryAcquire()) > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import java.time.Duration;
+
+/**
+ * Adaptive polling interval driven by signal volatility.
+ * <p>
+ * Returns the minimum interval while generator power changes at or above {@code powerRate} (Watt per second), the
+ * absolute battery flow reaches {@code batteryFlow}, or the control loop is close to a hysteresis threshold. Flat
+ * readings double the interval up to the maximum, which is used right away at night when no power is generated.
+ *
+ * @author Mark Paluch
+ */
+class AdaptivePollingInterval {
+
+	private final long minMillis;
+	private final long maxMillis;
+	private final double powerRate;
+	private final double batteryFlow;
+
+	private long intervalMillis;
+	private long lastTimestamp = -1;
+	private double lastPower;
+
+	AdaptivePollingInterval(Duration minInterval, Duration maxInterval, double powerRate, double batteryFlow) {
+
+		this.minMillis = minInterval.toMillis();
+		this.maxMillis = Math.max(minMillis, maxInterval.toMillis());
+		this.powerRate = powerRate;
+		this.batteryFlow = batteryFlow;
+		this.intervalMillis = minMillis;
+	}
+
+	Duration getMinInterval() {
+		return Duration.ofMillis(minMillis);
+	}
+
+	/**
+	 * Return the current interval.
+	 */
+	synchronized Duration getInterval() {
+		return Duration.ofMillis(intervalMillis);
+	}
+
+	/**
+	 * Compute the interval until the next poll from the most recent readings.
+	 *
+	 * @param timestamp time of the readings in milliseconds.
+	 * @param generatorPower aggregate generator power in Watt.
+	 * @param batteryFlow net battery discharge in Watt, negative while charging.
+	 * @param daylight whether the sun is above the horizon.
+	 * @param nearThreshold whether the control loop is close to a hysteresis threshold.
+	 * @return the interval until the next poll.
+	 */
+	synchronized Duration next(long timestamp, double generatorPower, double batteryFlow, boolean daylight,
+			boolean nearThreshold) {
+
+		double rate = lastTimestamp < 0 || timestamp <= lastTimestamp ? 0
+				: Math.abs(generatorPower - lastPower) * 1000 / (timestamp - lastTimestamp);
+		lastTimestamp = timestamp;
+		lastPower = generatorPower;
+
+		if (nearThreshold || rate >= powerRate || Math.abs(batteryFlow) >= this.batteryFlow) {
+			intervalMillis = minMillis;
+		} else if (!daylight && generatorPower <= 0) {
+			intervalMillis = maxMillis;
+		} else {
+			intervalMillis = Math.min(intervalMillis * 2, maxMillis);
+		}
+
+		return Duration.ofMillis(intervalMillis);
+	}
+
+}
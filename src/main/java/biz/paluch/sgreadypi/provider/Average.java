@@ -16,58 +16,125 @@
 package biz.paluch.sgreadypi.provider;
 
 import java.time.Duration;
-import java.time.Instant;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.concurrent.atomic.DoubleAdder;
 
 /**
  * Utility to calculate a moving average for a {@link Duration time window} of data points.
- * 
+ * <p>
+ * Samples are kept in parallel primitive ring arrays (timestamps and values) together with a running sum. Adding a
+ * sample evicts expired samples from the head of the ring in amortized constant time and {@link #getAverage()} reads
+ * the running sum without iterating or allocating. The ring grows when the window holds more samples than its
+ * capacity.
+ * <p>
+ * This class is not thread-safe. Callers must serialize access, see {@link DefaultStatistics}.
+ *
  * @author Mark Paluch
  */
-class Average {
+class Average implements RollingEstimator {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final long windowMillis;
+
+	private long[] timestamps = new long[INITIAL_CAPACITY];
 
-	private final LinkedList<DataPoint> dataPoints = new LinkedList<>();
+	private double[] values = new double[INITIAL_CAPACITY];
 
-	private final Duration window;
+	private int head;
+
+	private int size;
+
+	private double sum;
 
 	public Average(Duration window) {
-		this.window = window;
+		this.windowMillis = window.toMillis();
 	}
 
 	public void add(double value) {
-		synchronized (dataPoints) {
-			Instant now = Instant.now();
-			Instant limit = now.minus(window);
-			dataPoints.add(new DataPoint(now, value));
+		add(System.currentTimeMillis(), value);
+	}
 
-			Iterator<DataPoint> di = dataPoints.descendingIterator();
+	/**
+	 * Add a {@code value} sampled at {@code timestamp} and evict all samples that fell out of the window.
+	 *
+	 * @param timestamp sample time in milliseconds since the epoch. Timestamps are expected to be non-decreasing.
+	 * @param value the sample value.
+	 */
+	@Override
+	public void add(long timestamp, double value) {
 
-			while (di.hasNext()) {
-				DataPoint dp = di.next();
+		evictBefore(timestamp - windowMillis);
 
-				if (dp.time.isBefore(limit)) {
-					di.remove();
-				}
-			}
+		if (size == timestamps.length) {
+			grow();
 		}
+
+		int tail = index(size);
+		timestamps[tail] = timestamp;
+		values[tail] = value;
+		size++;
+		sum += value;
 	}
 
 	public double getAverage() {
+		return size == 0 ? 0 : sum / size;
+	}
+
+	@Override
+	public double getValue() {
+		return getAverage();
+	}
+
+	int size() {
+		return size;
+	}
 
-		synchronized (dataPoints) {
-			if (dataPoints.isEmpty()) {
-				return 0;
+	private void evictBefore(long limit) {
+
+		while (size > 0 && timestamps[head] < limit) {
+
+			sum -= values[head];
+			head = index(1);
+			size--;
+
+			if (head == 0) {
+				// re-base the running sum once per ring cycle to keep floating-point drift bounded
+				recalculateSum();
 			}
+		}
+
+		if (size == 0) {
+			head = 0;
+			sum = 0;
+		}
+	}
 
-			DoubleAdder adder = new DoubleAdder();
-			dataPoints.forEach(it -> adder.add(it.value));
-			return adder.doubleValue() / dataPoints.size();
+	private void recalculateSum() {
+
+		double sum = 0;
+		for (int i = 0; i < size; i++) {
+			sum += values[index(i)];
 		}
+		this.sum = sum;
 	}
 
-	record DataPoint(Instant time, double value) {
+	private void grow() {
+
+		int capacity = timestamps.length * 2;
+		long[] timestamps = new long[capacity];
+		double[] values = new double[capacity];
+
+		for (int i = 0; i < size; i++) {
+			timestamps[i] = this.timestamps[index(i)];
+			values[i] = this.values[index(i)];
+		}
 
+		this.timestamps = timestamps;
+		this.values = values;
+		this.head = 0;
 	}
+
+	private int index(int offset) {
+		return (head + offset) & (timestamps.length - 1);
+	}
+
 }
@@ -15,45 +15,124 @@
  */
 package biz.paluch.sgreadypi.provider;
 
+import biz.paluch.sgreadypi.measure.Watt;
 import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.unit.Units;
 
 import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
 
-import org.jspecify.annotations.Nullable;
-
 /**
- * Default {@link MutableStatistics} backed by a moving {@link Average}.
+ * Default {@link MutableStatistics} backed by a {@link RollingEstimator} such as a moving {@link Average}.
+ * <p>
+ * Designed for a single writer (the ingestion callback) and many readers (control loop, health indicators, REST API).
+ * Each {@link #update(Quantity)} computes an immutable {@link Snapshot} that is published through a volatile field so
+ * readers never acquire a lock and never block ingestion. Writers are serialized by a lock that is uncontended in the
+ * single-writer case; contended updates are recorded through {@link StatisticsContention}. Percentiles are estimated
+ * by a fixed-memory {@link QuantileSketch} over the same window. Power statistics publish {@link Watt} values.
  *
  * @author Mark Paluch
  */
 class DefaultStatistics<Q extends Quantity<Q>> implements MutableStatistics<Q> {
 
-	private final Average average;
+	private final ReentrantLock writeLock = new ReentrantLock();
+	private final RollingEstimator estimator;
+	private final QuantileSketch sketch;
 	private final Unit<Q> unit;
+	private final boolean watts;
+	private final StatisticsContention contention;
 
-	private volatile @Nullable Quantity<Q> mostRecent;
+	private volatile Snapshot<Q> snapshot;
 
 	public DefaultStatistics(Duration duration, Unit<Q> unit) {
-		average = new Average(duration);
+		this(duration, unit, Estimator.MEAN);
+	}
+
+	public DefaultStatistics(Duration duration, Unit<Q> unit, Estimator estimator) {
+		this(duration, estimator.create(duration), unit, StatisticsContention.global());
+	}
+
+	DefaultStatistics(Duration duration, Unit<Q> unit, StatisticsContention contention) {
+		this(duration, Estimator.MEAN.create(duration), unit, contention);
+	}
+
+	DefaultStatistics(Duration duration, RollingEstimator estimator, Unit<Q> unit, StatisticsContention contention) {
+		this.estimator = estimator;
+		this.sketch = new QuantileSketch(duration);
 		this.unit = unit;
+		this.watts = Units.WATT.equals(unit);
+		this.contention = contention;
+
+		Quantity<Q> zero = quantity(0);
+		this.snapshot = new Snapshot<>(zero, zero, Percentiles.just(zero));
 	}
 
 	@Override
 	public Quantity<Q> getAverage() {
-		return Quantities.getQuantity(Math.round(average.getAverage()), unit);
+		contention.recordRead();
+		return snapshot.average();
 	}
 
 	@Override
 	public Quantity<Q> getMostRecent() {
-		return mostRecent == null ? Quantities.getQuantity(0, unit) : mostRecent;
+		contention.recordRead();
+		return snapshot.mostRecent();
+	}
+
+	@Override
+	public Percentiles<Q> getPercentiles() {
+		contention.recordRead();
+		return snapshot.percentiles();
+	}
+
+	/**
+	 * Return the average, most recent value and percentiles published by the same update.
+	 *
+	 * @return the current snapshot.
+	 */
+	Snapshot<Q> getSnapshot() {
+		contention.recordRead();
+		return snapshot;
 	}
 
 	@Override
 	public void update(Quantity<Q> value) {
-		mostRecent = value;
-		average.add(value.getValue().doubleValue());
+
+		boolean contended = !writeLock.tryLock();
+		if (contended) {
+			writeLock.lock();
+		}
+
+		try {
+			long timestamp = System.currentTimeMillis();
+			double sample = value instanceof Watt watt ? watt.watts() : value.getValue().doubleValue();
+
+			estimator.add(timestamp, sample);
+			sketch.add(timestamp, sample);
+
+			Percentiles<Q> percentiles = new Percentiles<>(quantity(sketch.quantile(0.1)), quantity(sketch.quantile(0.5)),
+					quantity(sketch.quantile(0.9)));
+			snapshot = new Snapshot<>(quantity(estimator.getValue()), value, percentiles);
+		} finally {
+			writeLock.unlock();
+		}
+
+		contention.recordUpdate(contended);
 	}
+
+	@SuppressWarnings("unchecked")
+	private Quantity<Q> quantity(double value) {
+		return watts ? (Quantity<Q>) Watt.of((int) Math.round(value)) : Quantities.getQuantity(Math.round(value), unit);
+	}
+
+	/**
+	 * Immutable view of the statistics published after each update.
+	 */
+	record Snapshot<Q extends Quantity<Q>>(Quantity<Q> average, Quantity<Q> mostRecent, Percentiles<Q> percentiles) {
+
+	}
+
 }
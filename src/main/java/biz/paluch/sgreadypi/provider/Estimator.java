@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import java.time.Duration;
+
+/**
+ * Estimators available to compute {@link Statistics#getAverage()} over the averaging window.
+ *
+ * @author Mark Paluch
+ */
+public enum Estimator {
+
+	/**
+	 * Arithmetic mean of all samples within the window.
+	 */
+	MEAN {
+		@Override
+		RollingEstimator create(Duration window) {
+			return new Average(window);
+		}
+	},
+
+	/**
+	 * Exponentially weighted moving average with a time constant of half the window. Reacts faster to recent changes
+	 * than {@link #MEAN} while keeping constant memory.
+	 */
+	EWMA {
+		@Override
+		RollingEstimator create(Duration window) {
+			return new ExponentialAverage(window.dividedBy(2));
+		}
+	},
+
+	/**
+	 * Median of all samples within the window. Robust against single spikes.
+	 */
+	MEDIAN {
+		@Override
+		RollingEstimator create(Duration window) {
+			return SortedWindow.median(window);
+		}
+	},
+
+	/**
+	 * Mean of all samples within the window after discarding the lowest and highest 10% of samples.
+	 */
+	TRIMMED_MEAN {
+		@Override
+		RollingEstimator create(Duration window) {
+			return SortedWindow.trimmedMean(window, 0.1);
+		}
+	};
+
+	abstract RollingEstimator create(Duration window);
+
+}
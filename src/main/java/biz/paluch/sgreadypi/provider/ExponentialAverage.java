@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import java.time.Duration;
+
+/**
+ * Time-aware exponentially weighted moving average. Each sample is weighted with {@code 1 - exp(-dt/tau)} where
+ * {@code dt} is the time since the previous sample so that irregular sampling intervals do not skew the estimate.
+ * Requires constant time and memory per sample.
+ *
+ * @author Mark Paluch
+ */
+class ExponentialAverage implements RollingEstimator {
+
+	private final double timeConstantMillis;
+
+	private boolean initialized;
+
+	private long lastTimestamp;
+
+	private double value;
+
+	public ExponentialAverage(Duration timeConstant) {
+		this.timeConstantMillis = Math.max(1, timeConstant.toMillis());
+	}
+
+	@Override
+	public void add(long timestamp, double value) {
+
+		if (!initialized) {
+			this.value = value;
+			this.lastTimestamp = timestamp;
+			this.initialized = true;
+			return;
+		}
+
+		long elapsed = Math.max(1, timestamp - lastTimestamp);
+		double alpha = 1 - Math.exp(-elapsed / timeConstantMillis);
+
+		this.value += alpha * (value - this.value);
+		this.lastTimestamp = Math.max(lastTimestamp, timestamp);
+	}
+
+	@Override
+	public double getValue() {
+		return value;
+	}
+
+}
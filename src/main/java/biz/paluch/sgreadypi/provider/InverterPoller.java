@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import cat.joanpujol.smasolar.modbus.ModbusReadPlan;
+import cat.joanpujol.smasolar.modbus.ModbusReadResponse;
+import cat.joanpujol.smasolar.modbus.SmaModbusClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+
+/**
+ * Polls a single inverter over its persistent {@link SmaModbusClient} connection.
+ * <p>
+ * The atomic Modbus requests of a precompiled {@link ModbusReadPlan} are pipelined on the connection with at most
+ * {@code maxInFlight} outstanding requests and decoded into a single reused {@link ModbusReadResponse}. A poll is
+ * skipped while the previous one is still outstanding so a slow inverter cannot pile up overlapping reads and the
+ * response is never written concurrently. A poll remains outstanding after a timeout until every request it issued
+ * completed or failed, as cancelling the poll does not cancel requests already sent on the connection. The Modbus
+ * client's own request timeout bounds how long that takes. Each atomic request is recorded in the
+ * {@code sg.modbus.round-trip} timer, skipped polls in {@code sg.modbus.polls.skipped}, both tagged with the inverter
+ * host.
+ *
+ * @author Mark Paluch
+ */
+class InverterPoller {
+
+	private static final Logger log = org.slf4j.LoggerFactory.getLogger(InverterPoller.class);
+
+	private final String host;
+	private final SmaModbusClient client;
+	private final ModbusReadPlan plan;
+	private final ModbusReadResponse response;
+	private final int maxInFlight;
+	private final Duration timeout;
+	// the running poll and each of its requests that was sent and did not complete yet
+	private final AtomicInteger outstanding = new AtomicInteger();
+
+	private final Timer roundTrip;
+	private final Counter skipped;
+
+	InverterPoller(String host, SmaModbusClient client, ModbusReadPlan plan, int maxInFlight, Duration timeout,
+			MeterRegistry registry) {
+
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("Max in-flight requests must be greater than zero");
+		}
+
+		this.host = host;
+		this.client = client;
+		this.plan = plan;
+		this.response = plan.newResponse();
+		this.maxInFlight = maxInFlight;
+		this.timeout = timeout;
+		this.roundTrip = Timer.builder("sg.modbus.round-trip").description("Round-trip time of Modbus requests")
+				.tag("host", host).publishPercentileHistogram().register(registry);
+		this.skipped = Counter.builder("sg.modbus.polls.skipped")
+				.description("Number of polls skipped because the previous poll was still outstanding").tag("host", host)
+				.register(registry);
+	}
+
+	/**
+	 * Poll the inverter.
+	 *
+	 * @return the response, valid until the next poll, or an empty {@link Mono} if the previous poll is still
+	 *         outstanding.
+	 */
+	Mono<ModbusReadResponse> poll() {
+
+		return Mono.defer(() -> {
+
+			if (!outstanding.compareAndSet(0, 1)) {
+				skipped.increment();
+				log.debug("Skipping poll of {}, previous poll still outstanding", host);
+				return Mono.empty();
+			}
+
+			response.clear();
+			AtomicBoolean released = new AtomicBoolean();
+			Runnable releasePoll = () -> {
+				if (released.compareAndSet(false, true)) {
+					release();
+				}
+			};
+
+			return Flux.range(0, plan.getRequestCount()).flatMap(this::read, maxInFlight).then(Mono.just(response))
+					.timeout(timeout)
+					// release after the response was consumed, failed polls release before signalling the error
+					.doOnError(e -> releasePoll.run()).doFinally(signal -> releasePoll.run());
+		});
+	}
+
+	private void release() {
+		outstanding.decrementAndGet();
+	}
+
+	boolean isOutstanding() {
+		return outstanding.get() != 0;
+	}
+
+	/**
+	 * Send a request and complete it independently of the poll so a cancelled poll keeps the request accounted until
+	 * its response arrived.
+	 */
+	private Mono<ModbusReadResponse> read(int request) {
+
+		return Mono.defer(() -> {
+
+			Sinks.One<ModbusReadResponse> result = Sinks.one();
+			long start = System.nanoTime();
+
+			outstanding.incrementAndGet();
+			client.read(plan, request, response)
+					.doOnSuccess(it -> roundTrip.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+					.doFinally(signal -> release())
+					.subscribe(result::tryEmitValue, result::tryEmitError, result::tryEmitEmpty);
+
+			return result.asMono();
+		});
+	}
+
+}
@@ -39,6 +39,19 @@ public interface MutableStatistics<Q extends Quantity<Q>> extends Statistics<Q>
 		return new DefaultStatistics<>(duration, unit);
 	}
 
+	/**
+	 * Create a new {@link MutableStatistics} using the given {@link Estimator} to compute {@link #getAverage()}.
+	 *
+	 * @param <Q> the quantity type.
+	 * @param duration the averaging window.
+	 * @param unit the unit of the tracked quantity.
+	 * @param estimator the estimator to apply.
+	 * @return a new mutable statistics instance.
+	 */
+	static <Q extends Quantity<Q>> MutableStatistics<Q> create(Duration duration, Unit<Q> unit, Estimator estimator) {
+		return new DefaultStatistics<>(duration, unit, estimator);
+	}
+
 	/**
 	 * Provide a new {@code value} to the average.
 	 * 
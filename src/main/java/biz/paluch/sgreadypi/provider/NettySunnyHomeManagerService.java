@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import biz.paluch.sgreadypi.PowerMeter;
+import biz.paluch.sgreadypi.measure.Watt;
+import cat.joanpujol.smasolar.emeter.EMeterConfig;
+import cat.joanpujol.smasolar.emeter.EMeterLecture;
+import cat.joanpujol.smasolar.emeter.EMeterReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+
+/**
+ * {@link PowerMeter} implementation for Sunny Home Manager 2.0 receiving multicast datagrams through a Netty
+ * {@link io.netty.channel.socket.DatagramChannel} instead of the blocking Speedwire receive thread. Datagrams of other
+ * devices are dropped by serial number before decoding and counted as {@code emeter.datagrams}.
+ *
+ * @author Mark Paluch
+ * @see NettyTransport
+ */
+public class NettySunnyHomeManagerService extends SunnyHomeManagerService {
+
+	private static final Logger log = org.slf4j.LoggerFactory.getLogger(NettySunnyHomeManagerService.class);
+
+	private final EMeterReader reader;
+
+	private volatile @Nullable Disposable subscription;
+
+	public NettySunnyHomeManagerService(long powerMeterId, Duration averaging, Estimator ingress, Estimator egress,
+			EventLoopGroup eventLoopGroup, MeterRegistry meterRegistry) {
+		super(powerMeterId, averaging, ingress, egress);
+
+		EMeterConfig config = EMeterConfig.newBuilder().eventLoopGroup(eventLoopGroup)
+				.channelFactory(NettyTransport.datagramChannelFactory(eventLoopGroup)).serialNumbers(powerMeterId)
+				.meterRegistry(meterRegistry).build();
+		this.reader = new EMeterReader(config);
+	}
+
+	@Override
+	public void start() {
+
+		log.info("Starting NettySunnyHomeManagerService");
+
+		this.subscription = reader.create().subscribe(this::onLecture, e -> log.error("Power meter receiver error", e));
+	}
+
+	/**
+	 * Return the reader providing the shared stream of power meter lectures. Additional subscribers do not open further
+	 * sockets.
+	 *
+	 * @return the reader.
+	 */
+	public EMeterReader getReader() {
+		return reader;
+	}
+
+	void onLecture(EMeterLecture lecture) {
+
+		EMeterLecture.Data sum = lecture.getCurrentSum();
+		onReading(Watt.of((int) Math.round(sum.getActivePower())),
+				Watt.of((int) Math.round(sum.getNegativeActivePower())));
+	}
+
+	@Override
+	public void stop() {
+
+		Disposable subscription = this.subscription;
+		this.subscription = null;
+
+		if (subscription != null) {
+			subscription.dispose();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+
+		Disposable subscription = this.subscription;
+		return subscription != null && !subscription.isDisposed();
+	}
+
+}
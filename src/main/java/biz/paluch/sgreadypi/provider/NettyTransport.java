@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import io.netty.channel.ChannelFactory;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.InternetProtocolFamily;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import org.slf4j.Logger;
+
+/**
+ * Netty transport selection for the SMA integration. The power meter receiver and the Modbus client share a single
+ * event loop group. Uses the native epoll transport when available and falls back to NIO.
+ * <p>
+ * The Modbus client ({@code modbus-master-tcp}) is bound to NIO socket channels and can therefore only share a NIO
+ * event loop group. If Modbus is used, the shared group runs NIO and the receiver uses NIO datagram channels.
+ *
+ * @author Mark Paluch
+ */
+@SuppressWarnings("deprecation")
+class NettyTransport {
+
+	private static final Logger log = org.slf4j.LoggerFactory.getLogger(NettyTransport.class);
+
+	/**
+	 * Create a single-threaded event loop group shared by all SMA channels. Prefers epoll if available unless the group
+	 * is shared with the Modbus client.
+	 *
+	 * @param modbus whether the Modbus client uses the group and therefore requires NIO.
+	 * @return the event loop group.
+	 */
+	static EventLoopGroup createEventLoopGroup(boolean modbus) {
+
+		DefaultThreadFactory threadFactory = new DefaultThreadFactory("sma-netty", true);
+
+		if (modbus) {
+			log.debug("Using NIO transport shared with Modbus");
+		} else if (Epoll.isAvailable()) {
+			log.debug("Using epoll transport");
+			return new EpollEventLoopGroup(1, threadFactory);
+		} else {
+			log.debug("Epoll not available ({}), using NIO transport", Epoll.unavailabilityCause().toString());
+		}
+
+		return new NioEventLoopGroup(1, threadFactory);
+	}
+
+	/**
+	 * Return a IPv4 datagram channel factory matching the transport of {@code group}.
+	 *
+	 * @param group the event loop group.
+	 * @return the channel factory.
+	 */
+	static ChannelFactory<? extends DatagramChannel> datagramChannelFactory(EventLoopGroup group) {
+
+		if (group instanceof EpollEventLoopGroup) {
+			return () -> new EpollDatagramChannel(InternetProtocolFamily.IPv4);
+		}
+
+		return () -> new NioDatagramChannel(InternetProtocolFamily.IPv4);
+	}
+
+	/**
+	 * @param group the event loop group.
+	 * @return {@literal true} if {@code group} runs NIO channels.
+	 */
+	static boolean isNio(EventLoopGroup group) {
+		return group instanceof NioEventLoopGroup;
+	}
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import javax.measure.Quantity;
+
+/**
+ * Percentiles of a quantity over the averaging window.
+ *
+ * @param p10 the 10th percentile.
+ * @param p50 the 50th percentile (median).
+ * @param p90 the 90th percentile.
+ * @author Mark Paluch
+ */
+public record Percentiles<Q extends Quantity<Q>>(Quantity<Q> p10, Quantity<Q> p50, Quantity<Q> p90) {
+
+	/**
+	 * Create percentiles that report {@code q} for all percentiles.
+	 *
+	 * @param <Q> the quantity type.
+	 * @param q the fixed value to report.
+	 * @return percentiles reporting {@code q}.
+	 */
+	public static <Q extends Quantity<Q>> Percentiles<Q> just(Quantity<Q> q) {
+		return new Percentiles<>(q, q, q);
+	}
+
+}
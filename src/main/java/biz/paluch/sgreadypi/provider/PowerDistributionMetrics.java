@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import biz.paluch.sgreadypi.PowerGeneratorService;
+import biz.paluch.sgreadypi.PowerMeter;
+import biz.paluch.sgreadypi.measure.Watt;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.function.Function;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Power;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * {@link MeterBinder} publishing {@link Percentiles} of ingress and generator power as gauges tagged with
+ * {@code phi}. Gauges read the published statistics snapshot and do not compute anything on their own.
+ *
+ * @author Mark Paluch
+ */
+class PowerDistributionMetrics implements MeterBinder {
+
+	private final @Nullable PowerMeter powerMeter;
+
+	private final @Nullable PowerGeneratorService powerGenerator;
+
+	public PowerDistributionMetrics(@Nullable PowerMeter powerMeter, @Nullable PowerGeneratorService powerGenerator) {
+		this.powerMeter = powerMeter;
+		this.powerGenerator = powerGenerator;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		if (powerMeter != null) {
+			register(registry, "sg.power.ingress", "Ingress power distribution", powerMeter, PowerMeter::getIngress);
+		}
+
+		if (powerGenerator != null) {
+			register(registry, "sg.power.generator", "Generator power distribution", powerGenerator,
+					PowerGeneratorService::getGeneratorPower);
+		}
+	}
+
+	private static <T> void register(MeterRegistry registry, String name, String description, T source,
+			Function<T, Statistics<Power>> statistics) {
+
+		gauge(registry, name, description, "0.1", source, it -> statistics.apply(it).getPercentiles().p10());
+		gauge(registry, name, description, "0.5", source, it -> statistics.apply(it).getPercentiles().p50());
+		gauge(registry, name, description, "0.9", source, it -> statistics.apply(it).getPercentiles().p90());
+	}
+
+	private static <T> void gauge(MeterRegistry registry, String name, String description, String phi, T source,
+			Function<T, Quantity<Power>> value) {
+
+		Gauge.builder(name, source, it -> Watt.toWatts(value.apply(it))).tag("phi", phi)
+				.baseUnit("watts").description(description).register(registry);
+	}
+
+}
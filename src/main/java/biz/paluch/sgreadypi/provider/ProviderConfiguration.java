@@ -15,12 +15,23 @@
  */
 package biz.paluch.sgreadypi.provider;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.netty.channel.EventLoopGroup;
+
+import java.util.function.BooleanSupplier;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.CollectionUtils;
 
+import biz.paluch.sgreadypi.PowerGeneratorService;
+import biz.paluch.sgreadypi.PowerMeter;
 import biz.paluch.sgreadypi.SgReadyProperties;
+import biz.paluch.sgreadypi.weather.WeatherService;
 
 /**
  * Configuration for SMA components.
@@ -30,16 +41,59 @@ import biz.paluch.sgreadypi.SgReadyProperties;
 @Configuration(proxyBeanMethods = false)
 public class ProviderConfiguration {
 
+	/**
+	 * Single event loop group for the power meter receiver and the Modbus client. Runs NIO if inverters are polled
+	 * through Modbus.
+	 */
+	@Bean(destroyMethod = "shutdownGracefully")
+	EventLoopGroup smaEventLoopGroup(SgReadyProperties properties) {
+		return NettyTransport.createEventLoopGroup(!CollectionUtils.isEmpty(properties.getInverterHosts()));
+	}
+
 	@Bean
 	@ConditionalOnProperty("sg.power-meter-id")
-	SunnyHomeManagerService sunnyHomeManagerService(SgReadyProperties properties) {
-		return new SunnyHomeManagerService(properties.getPowerMeterId(), properties.getAveraging());
+	SunnyHomeManagerService sunnyHomeManagerService(SgReadyProperties properties, EventLoopGroup smaEventLoopGroup,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+
+		SgReadyProperties.Smoothing smoothing = properties.getSmoothing();
+
+		return switch (properties.getPowerMeterReceiver()) {
+			case SPEEDWIRE -> new SunnyHomeManagerService(properties.getPowerMeterId(), properties.getAveraging(),
+					smoothing.getIngress(), smoothing.getEgress());
+			case NETTY -> new NettySunnyHomeManagerService(properties.getPowerMeterId(), properties.getAveraging(),
+					smoothing.getIngress(), smoothing.getEgress(), smaEventLoopGroup,
+					meterRegistry.getIfUnique(() -> Metrics.globalRegistry));
+		};
 	}
 
 	@Bean
 	@ConditionalOnProperty("sg.inverter-hosts")
-	SmaPowerGeneratorService smaPowerGeneratorService(SgReadyProperties properties, TaskScheduler executorService) {
-		return new SmaPowerGeneratorService(properties, executorService);
+	SmaPowerGeneratorService smaPowerGeneratorService(SgReadyProperties properties, TaskScheduler executorService,
+			EventLoopGroup smaEventLoopGroup, ObjectProvider<MeterRegistry> meterRegistry,
+			ObjectProvider<WeatherService> weatherService) {
+
+		SgReadyProperties.Weather weather = properties.getWeather();
+		BooleanSupplier daylight = () -> true;
+		if (weather != null && weather.isEnabled()) {
+			WeatherService sun = weatherService.getIfUnique();
+			if (sun != null) {
+				daylight = () -> sun.getSunPosition().elevation() > 0;
+			}
+		}
+
+		return new SmaPowerGeneratorService(properties, executorService, smaEventLoopGroup,
+				meterRegistry.getIfUnique(() -> Metrics.globalRegistry), daylight);
+	}
+
+	@Bean
+	PowerDistributionMetrics powerDistributionMetrics(ObjectProvider<PowerMeter> powerMeter,
+			ObjectProvider<PowerGeneratorService> powerGenerator) {
+		return new PowerDistributionMetrics(powerMeter.getIfUnique(), powerGenerator.getIfUnique());
+	}
+
+	@Bean
+	StatisticsMetrics statisticsMetrics() {
+		return new StatisticsMetrics(StatisticsContention.global());
 	}
 
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Fixed-memory streaming quantile sketch over a sliding {@link Duration time window}.
+ * <p>
+ * Values are mapped to logarithmically sized buckets so that each bucket spans a relative range of
+ * {@link #RELATIVE_ACCURACY} (values below {@code 1} in magnitude fall into a single zero bucket, negative values into
+ * mirrored buckets). The window is divided into {@link #SLICES} time slices, each holding its own bucket counts. When
+ * time advances past a slice, its counts are subtracted from the window totals and the slice is reused. Memory is
+ * therefore constant regardless of the sample rate and window length, and the effective window spans between
+ * {@code (SLICES - 1) / SLICES} and the full window duration.
+ *
+ * @author Mark Paluch
+ */
+class QuantileSketch {
+
+	static final double RELATIVE_ACCURACY = 0.02;
+
+	static final int SLICES = 10;
+
+	/**
+	 * Number of buckets per sign. Covers magnitudes up to {@code gamma^320}, roughly 350 kW.
+	 */
+	private static final int BUCKETS = 320;
+
+	private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+
+	private static final double LOG_GAMMA = Math.log(GAMMA);
+
+	private final long sliceMillis;
+
+	private final int[][] slices = new int[SLICES][2 * BUCKETS + 1];
+
+	private final long[] totals = new long[2 * BUCKETS + 1];
+
+	private long count;
+
+	private long currentSlice = Long.MIN_VALUE;
+
+	public QuantileSketch(Duration window) {
+		this.sliceMillis = Math.max(1, window.toMillis() / SLICES);
+	}
+
+	/**
+	 * Add a {@code value} sampled at {@code timestamp}.
+	 *
+	 * @param timestamp sample time in milliseconds since the epoch. Timestamps are expected to be non-decreasing.
+	 * @param value the sample value.
+	 */
+	public void add(long timestamp, double value) {
+
+		advance(timestamp / sliceMillis);
+
+		int bucket = bucket(value);
+		slices[Math.floorMod(currentSlice, SLICES)][bucket]++;
+		totals[bucket]++;
+		count++;
+	}
+
+	/**
+	 * Estimate the value at the given {@code quantile}.
+	 *
+	 * @param quantile the quantile within {@code [0, 1]}.
+	 * @return the estimated value or {@code 0} if the window holds no samples.
+	 */
+	public double quantile(double quantile) {
+
+		if (count == 0) {
+			return 0;
+		}
+
+		long rank = (long) (quantile * (count - 1));
+		long cumulative = 0;
+
+		for (int i = 0; i < totals.length; i++) {
+
+			cumulative += totals[i];
+			if (cumulative > rank) {
+				return value(i);
+			}
+		}
+
+		return value(totals.length - 1);
+	}
+
+	long count() {
+		return count;
+	}
+
+	private void advance(long slice) {
+
+		if (currentSlice == Long.MIN_VALUE) {
+			currentSlice = slice;
+			return;
+		}
+
+		long steps = Math.min(slice - currentSlice, SLICES);
+		for (long i = 1; i <= steps; i++) {
+			clear(Math.floorMod(currentSlice + i, SLICES));
+		}
+
+		if (slice > currentSlice) {
+			currentSlice = slice;
+		}
+	}
+
+	private void clear(int slice) {
+
+		int[] counts = slices[slice];
+		for (int i = 0; i < counts.length; i++) {
+			totals[i] -= counts[i];
+			count -= counts[i];
+		}
+		Arrays.fill(counts, 0);
+	}
+
+	private static int bucket(double value) {
+
+		double magnitude = Math.abs(value);
+		if (!(magnitude >= 1)) {
+			return BUCKETS;
+		}
+
+		int index = Math.min(BUCKETS, Math.max(1, (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA)));
+		return value > 0 ? BUCKETS + index : BUCKETS - index;
+	}
+
+	private static double value(int bucket) {
+
+		int index = bucket - BUCKETS;
+		if (index == 0) {
+			return 0;
+		}
+
+		double magnitude = 2 * Math.pow(GAMMA, Math.abs(index)) / (GAMMA + 1);
+		return index > 0 ? magnitude : -magnitude;
+	}
+
+}
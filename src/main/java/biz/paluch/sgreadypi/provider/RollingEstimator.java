@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+/**
+ * Incrementally maintained estimate over a stream of timestamped samples. Implementations are not thread-safe, callers
+ * must serialize access.
+ *
+ * @author Mark Paluch
+ * @see Estimator
+ */
+interface RollingEstimator {
+
+	/**
+	 * Add a {@code value} sampled at {@code timestamp}.
+	 *
+	 * @param timestamp sample time in milliseconds since the epoch. Timestamps are expected to be non-decreasing.
+	 * @param value the sample value.
+	 */
+	void add(long timestamp, double value);
+
+	/**
+	 * @return the current estimate or {@code 0} if no samples were added yet.
+	 */
+	double getValue();
+
+}
@@ -15,24 +15,33 @@
  */
 package biz.paluch.sgreadypi.provider;
 
+import biz.paluch.sgreadypi.DecisionLatency;
 import biz.paluch.sgreadypi.PowerGeneratorService;
 import biz.paluch.sgreadypi.RecencyTracker;
 import biz.paluch.sgreadypi.SgReadyProperties;
 import biz.paluch.sgreadypi.measure.Percent;
 import biz.paluch.sgreadypi.measure.Watt;
+import cat.joanpujol.smasolar.modbus.ModbusReadPlan;
+import cat.joanpujol.smasolar.modbus.ModbusReadResponse;
 import cat.joanpujol.smasolar.modbus.ModbusRegister;
 import cat.joanpujol.smasolar.modbus.SmaModbusClient;
-import cat.joanpujol.smasolar.modbus.SmaModbusRequest;
-import cat.joanpujol.smasolar.modbus.SmaModbusResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.netty.channel.EventLoopGroup;
 import tech.units.indriya.unit.Units;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 
 import javax.measure.Quantity;
@@ -45,6 +54,7 @@ import org.slf4j.Logger;
 import org.springframework.context.SmartLifecycle;
 import org.springframework.scheduling.TaskScheduler;
 
+import com.digitalpetri.modbus.master.ModbusTcpMasterConfig;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
@@ -55,27 +65,113 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 public class SmaPowerGeneratorService implements SmartLifecycle, PowerGeneratorService {
 
 	private static final Logger log = org.slf4j.LoggerFactory.getLogger(SmaPowerGeneratorService.class);
+
+	// slots of READ_PLAN
+	private static final int ACTIVE_POWER = 0;
+	private static final int BATTERY_DISCHARGING = 1;
+	private static final int BATTERY_CHARGING = 2;
+	private static final int STATE_OF_CHARGE = 3;
+	private static final int BATTERY_CAPACITY = 4;
+
+	private static final ModbusReadPlan READ_PLAN = ModbusReadPlan.compile(null, ModbusRegister.CURRENT_ACTIVE_POWER,
+			ModbusRegister.BATTERY_CURRENT_DISCHARGING, ModbusRegister.BATTERY_CURRENT_CHARGING,
+			ModbusRegister.CURRENT_BATTERY_STATE_OF_CHARGE, ModbusRegister.CURRENT_BATTERY_CAPACITY);
+
 	private final AtomicBoolean running = new AtomicBoolean(false);
 
 	private final Map<String, SmaModbusClient> clients = new LinkedHashMap<>();
+	private final Map<String, InverterPoller> pollers = new LinkedHashMap<>();
 	private final Map<String, InverterState> stateMap = new ConcurrentHashMap<>();
 
 	private final Map<String, MutableStatistics<Power>> solarStats = new ConcurrentHashMap<>();
 	private final Map<String, MutableStatistics<Power>> dischargeStats = new ConcurrentHashMap<>();
 
+	// sum of the most recent per-inverter readings to track the distribution of the aggregate
+	private final MutableStatistics<Power> totalSolar;
+	private final MutableStatistics<Power> totalDischarge;
+
 	private final SgReadyProperties properties;
 	private final TaskScheduler executorService;
+	private final @Nullable AdaptivePollingInterval pollingInterval;
+	private final BooleanSupplier daylight;
+	private final List<Runnable> updateListeners = new CopyOnWriteArrayList<>();
+	private final List<BiConsumer<String, InverterState>> inverterListeners = new CopyOnWriteArrayList<>();
+
+	private final Object scheduleLock = new Object();
 	private volatile @Nullable ScheduledFuture<?> schedule;
+	private volatile @Nullable Instant nextPoll;
+	private volatile boolean nearThreshold;
+	private volatile Instant reading = Instant.MIN;
 
 	public SmaPowerGeneratorService(SgReadyProperties properties, TaskScheduler executorService) {
+		this(properties, executorService, null);
+	}
+
+	/**
+	 * Create a new {@link SmaPowerGeneratorService}.
+	 *
+	 * @param properties the configuration properties.
+	 * @param executorService scheduler used to poll the inverters.
+	 * @param eventLoopGroup NIO event loop group shared with the Modbus clients. Uses the Modbus library default event
+	 *          loop if {@literal null}.
+	 */
+	public SmaPowerGeneratorService(SgReadyProperties properties, TaskScheduler executorService,
+			@Nullable EventLoopGroup eventLoopGroup) {
+		this(properties, executorService, eventLoopGroup, Metrics.globalRegistry, () -> true);
+	}
+
+	/**
+	 * Create a new {@link SmaPowerGeneratorService}.
+	 *
+	 * @param properties the configuration properties.
+	 * @param executorService scheduler used to poll the inverters.
+	 * @param eventLoopGroup NIO event loop group shared with the Modbus clients. Uses the Modbus library default event
+	 *          loop if {@literal null}.
+	 * @param meterRegistry registry for per-inverter round-trip timers.
+	 * @param daylight whether the sun is above the horizon, used to back off polling at night.
+	 */
+	public SmaPowerGeneratorService(SgReadyProperties properties, TaskScheduler executorService,
+			@Nullable EventLoopGroup eventLoopGroup, MeterRegistry meterRegistry, BooleanSupplier daylight) {
 		this.properties = properties;
 		this.executorService = executorService;
+		this.daylight = daylight;
+
+		SgReadyProperties.Polling polling = properties.getPolling();
+		this.pollingInterval = polling.isAdaptive()
+				? new AdaptivePollingInterval(properties.getQueryInterval(), polling.getMaxInterval(),
+						polling.getPowerRate(), polling.getBatteryFlow().to(Units.WATT).getValue().doubleValue())
+				: null;
+		if (pollingInterval != null) {
+			Gauge.builder("sg.modbus.poll.interval", pollingInterval, it -> it.getInterval().toMillis() / 1000d)
+					.description("Current adaptive inverter polling interval").baseUnit("seconds").register(meterRegistry);
+		}
+		this.totalSolar = MutableStatistics.create(properties.getAveraging(), Units.WATT);
+		this.totalDischarge = MutableStatistics.create(properties.getAveraging(), Units.WATT);
 
 		for (String inverterHost : properties.getInverterHosts()) {
-			clients.put(inverterHost, new SmaModbusClient(inverterHost, properties.getInverterPort(), registerReader -> 3));
+
+			SmaModbusClient client = createClient(inverterHost, eventLoopGroup);
+			clients.put(inverterHost, client);
+			pollers.put(inverterHost, new InverterPoller(inverterHost, client, READ_PLAN,
+					properties.getInverterMaxInFlight(), properties.getInverterTimeout(), meterRegistry));
 		}
 	}
 
+	private SmaModbusClient createClient(String host, @Nullable EventLoopGroup eventLoopGroup) {
+
+		return new SmaModbusClient(host, properties.getInverterPort(), registerReader -> 3) {
+
+			@Override
+			protected void customizeModbusConfiguration(ModbusTcpMasterConfig.Builder builder) {
+
+				builder.setTimeout(properties.getInverterTimeout());
+				if (eventLoopGroup != null) {
+					builder.setEventLoop(eventLoopGroup);
+				}
+			}
+		};
+	}
+
 	@Override
 	public void start() {
 		if (running.compareAndSet(false, true)) {
@@ -84,62 +180,160 @@ public class SmaPowerGeneratorService implements SmartLifecycle, PowerGeneratorS
 					.doOnError(err -> log.error("InverterService failed to connect to " + host, err)).subscribe());
 			readInverters();
 
-			schedule = executorService.scheduleAtFixedRate(this::readInverters, properties.getQueryInterval());
+			if (pollingInterval != null) {
+				scheduleNext(pollingInterval.getMinInterval());
+			} else {
+				schedule = executorService.scheduleAtFixedRate(this::readInverters, properties.getQueryInterval());
+			}
+		}
+	}
+
+	/**
+	 * Poll the inverters for adaptive polling and schedule the next poll based on the most recent readings.
+	 */
+	private void poll() {
+
+		try {
+			readInverters();
+		} finally {
+
+			// reads complete asynchronously, the interval follows the readings of the previous poll
+			AdaptivePollingInterval pollingInterval = this.pollingInterval;
+			if (pollingInterval != null) {
+				scheduleNext(pollingInterval.next(System.currentTimeMillis(),
+						Watt.toWatts(totalSolar.getMostRecent()),
+						Watt.toWatts(totalDischarge.getMostRecent()), isDaylight(), nearThreshold));
+			}
+		}
+	}
+
+	private void scheduleNext(Duration delay) {
+
+		synchronized (scheduleLock) {
+			if (!running.get()) {
+				return;
+			}
+
+			Instant next = Instant.now().plus(delay);
+			this.nextPoll = next;
+			this.schedule = executorService.schedule(this::poll, next);
+		}
+	}
+
+	private boolean isDaylight() {
+
+		try {
+			return daylight.getAsBoolean();
+		} catch (RuntimeException e) {
+			log.debug("Cannot determine sun position, assuming daylight", e);
+			return true;
+		}
+	}
+
+	/**
+	 * Snap back to polling at the query interval when the control loop gets close to a hysteresis threshold while
+	 * polling backed off.
+	 */
+	@Override
+	public void setNearThreshold(boolean nearThreshold) {
+
+		boolean snapBack = nearThreshold && !this.nearThreshold;
+		this.nearThreshold = nearThreshold;
+
+		AdaptivePollingInterval pollingInterval = this.pollingInterval;
+		if (!snapBack || pollingInterval == null) {
+			return;
+		}
+
+		synchronized (scheduleLock) {
+
+			ScheduledFuture<?> schedule = this.schedule;
+			Instant nextPoll = this.nextPoll;
+			if (schedule == null || nextPoll == null
+					|| !nextPoll.isAfter(Instant.now().plus(pollingInterval.getMinInterval()))) {
+				return;
+			}
+
+			if (schedule.cancel(false)) {
+				log.debug("Readings close to a threshold, polling inverters now");
+				scheduleNext(Duration.ZERO);
+			}
 		}
 	}
 
 	private void readInverters() {
 
-		clients.forEach((host, client) -> client.read(createRequest())
+		pollers.forEach((host, poller) -> poller.poll()
 
 				.doOnError(err -> log.error("InverterService failed to read from " + host, err)).subscribe(response -> {
 
-					int currentActivePower = getIntRegister(response, ModbusRegister.CURRENT_ACTIVE_POWER);
-					int batteryCharging = getIntRegister(response, ModbusRegister.BATTERY_CURRENT_CHARGING);
-					int batteryDischarging = getIntRegister(response, ModbusRegister.BATTERY_CURRENT_DISCHARGING);
-					int stateOfCharge = getIntRegister(response, ModbusRegister.CURRENT_BATTERY_STATE_OF_CHARGE);
-					Number capacity = response.getRegisterValue(ModbusRegister.CURRENT_BATTERY_CAPACITY);
-
-					InverterState state = new InverterState(currentActivePower, capacity != null && capacity.intValue() > 0,
-							batteryCharging, batteryDischarging, stateOfCharge, Instant.now());
+					InverterState state = toState(response);
 
 					log.debug("Inverter at {} state {}", host, state);
 
+					DecisionLatency latency = DecisionLatency.global();
+					long start = latency.start();
+
 					stateMap.put(host, state);
-					statistics(solarStats, host).update(state.getSolarPower());
-					statistics(dischargeStats, host).update(state.getBatteryDischarge());
+					SgReadyProperties.Smoothing smoothing = properties.getSmoothing();
+					statistics(solarStats, host, smoothing.getGeneratorPower()).update(state.getSolarPower());
+					statistics(dischargeStats, host, smoothing.getBatteryDischarge()).update(state.getBatteryDischarge());
+					totalSolar.update(sum(solarStats, Statistics::getMostRecent));
+					totalDischarge.update(sum(dischargeStats, Statistics::getMostRecent));
+					latency.record(DecisionLatency.Stage.STATISTICS, start);
+					reading = state.timestamp();
+					notifyListeners(host, state);
+					notifyListeners();
 				}));
 	}
 
-	private static SmaModbusRequest createRequest() {
-		return new SmaModbusRequest.Builder(SmaModbusRequest.Type.READ).addRegister(ModbusRegister.CURRENT_ACTIVE_POWER)
-				.addRegister(ModbusRegister.BATTERY_CURRENT_DISCHARGING).addRegister(ModbusRegister.BATTERY_CURRENT_CHARGING)
-				.addRegister(ModbusRegister.CURRENT_BATTERY_STATE_OF_CHARGE)
-				.addRegister(ModbusRegister.CURRENT_BATTERY_CAPACITY).build();
-	}
+	private void notifyListeners(String host, InverterState state) {
 
-	private MutableStatistics<Power> statistics(Map<String, MutableStatistics<Power>> stats, String host) {
-		return stats.computeIfAbsent(host, it -> MutableStatistics.create(properties.getAveraging(), Units.WATT));
+		for (BiConsumer<String, InverterState> listener : inverterListeners) {
+			try {
+				listener.accept(host, state);
+			} catch (RuntimeException e) {
+				log.error("Inverter listener failed", e);
+			}
+		}
 	}
 
-	private static int getIntRegister(SmaModbusResponse response, ModbusRegister<Number> register) {
-		Number value = response.getRegisterValue(register);
+	private void notifyListeners() {
 
-		if (value == null) {
-			return 0;
+		for (Runnable listener : updateListeners) {
+			try {
+				listener.run();
+			} catch (RuntimeException e) {
+				log.error("Update listener failed", e);
+			}
 		}
+	}
 
-		return value.intValue();
+	private static InverterState toState(ModbusReadResponse response) {
+
+		// values reported as NaN read as zero
+		return new InverterState(response.getInt(ACTIVE_POWER), response.getLong(BATTERY_CAPACITY) > 0,
+				response.getInt(BATTERY_CHARGING), response.getInt(BATTERY_DISCHARGING), response.getInt(STATE_OF_CHARGE),
+				Instant.now());
+	}
+
+	private MutableStatistics<Power> statistics(Map<String, MutableStatistics<Power>> stats, String host,
+			Estimator estimator) {
+		return stats.computeIfAbsent(host,
+				it -> MutableStatistics.create(properties.getAveraging(), Units.WATT, estimator));
 	}
 
 	@Override
 	public void stop() {
 		if (running.compareAndSet(true, false)) {
 
-			ScheduledFuture<?> schedule = this.schedule;
-			this.schedule = null;
-			if (schedule != null) {
-				schedule.cancel(false);
+			synchronized (scheduleLock) {
+				ScheduledFuture<?> schedule = this.schedule;
+				this.schedule = null;
+				this.nextPoll = null;
+				if (schedule != null) {
+					schedule.cancel(false);
+				}
 			}
 
 			clients.forEach((host, client) -> client.disconnect().subscribe());
@@ -160,15 +354,15 @@ public class SmaPowerGeneratorService implements SmartLifecycle, PowerGeneratorS
 
 	@Override
 	public Statistics<Power> getGeneratorPower() {
-		return aggregate(solarStats);
+		return aggregate(solarStats, totalSolar);
 	}
 
 	@Override
 	public Statistics<Power> getBatteryDischarge() {
-		return aggregate(dischargeStats);
+		return aggregate(dischargeStats, totalDischarge);
 	}
 
-	private static Statistics<Power> aggregate(Map<String, MutableStatistics<Power>> stats) {
+	private static Statistics<Power> aggregate(Map<String, MutableStatistics<Power>> stats, Statistics<Power> total) {
 		return new Statistics<>() {
 			@Override
 			public Quantity<Power> getAverage() {
@@ -179,18 +373,49 @@ public class SmaPowerGeneratorService implements SmartLifecycle, PowerGeneratorS
 			public Quantity<Power> getMostRecent() {
 				return sum(stats, Statistics::getMostRecent);
 			}
+
+			@Override
+			public Percentiles<Power> getPercentiles() {
+				return total.getPercentiles();
+			}
 		};
 	}
 
 	private static Quantity<Power> sum(Map<String, MutableStatistics<Power>> stats,
 			Function<Statistics<Power>, Quantity<Power>> value) {
-		return Watt.of(stats.values().stream().mapToInt(it -> value.apply(it).getValue().intValue()).sum());
+
+		int watts = 0;
+		for (MutableStatistics<Power> statistics : stats.values()) {
+			watts += (int) Watt.toWatts(value.apply(statistics));
+		}
+
+		return Watt.of(watts);
 	}
 
 	public Map<String, InverterState> getStateMap() {
 		return new LinkedHashMap<>(stateMap);
 	}
 
+	@Override
+	public Instant getReading() {
+		return reading;
+	}
+
+	@Override
+	public void onUpdate(Runnable listener) {
+		updateListeners.add(listener);
+	}
+
+	/**
+	 * Register a listener notified with the state of each inverter after it was read. Listeners are called on the
+	 * reading thread and must not block.
+	 *
+	 * @param listener the listener accepting the inverter host and its state.
+	 */
+	public void onInverterUpdate(BiConsumer<String, InverterState> listener) {
+		inverterListeners.add(listener);
+	}
+
 	@Override
 	public boolean hasData() {
 		return !stateMap.isEmpty();
@@ -216,7 +441,7 @@ public class SmaPowerGeneratorService implements SmartLifecycle, PowerGeneratorS
 		 * rather than power pulled out of the battery (ADR-0004).
 		 */
 		@JsonIgnore
-		public Quantity<Power> getSolarPower() {
+		public Watt getSolarPower() {
 			return Watt.of(currentActivePower - dischargeWatts());
 		}
 
@@ -224,7 +449,7 @@ public class SmaPowerGeneratorService implements SmartLifecycle, PowerGeneratorS
 		 * Net battery discharge: power drawn from the battery minus power charging it. Negative while charging dominates.
 		 */
 		@JsonIgnore
-		public Quantity<Power> getBatteryDischarge() {
+		public Watt getBatteryDischarge() {
 			return Watt.of(dischargeWatts());
 		}
 
@@ -0,0 +1,393 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import java.time.Duration;
+
+/**
+ * Order statistics (median, trimmed mean) over a {@link Duration time window} of data points.
+ * <p>
+ * Samples are kept in arrival order within primitive ring arrays to evict expired samples from the head. Each sample
+ * additionally belongs to one of three bands by value: the lower and upper band hold the samples to discard (a max-heap
+ * and a min-heap), the middle band holds the remaining samples in a min-heap and a max-heap along with their running
+ * sum. The heaps index samples by their ring slot so that evicting a sample removes it in {@code O(log n)}. Adding a
+ * sample moves at most a constant number of samples between bands, so an update costs {@code O(log n)} and
+ * {@link #getValue()} reads heap tops or the running sum in {@code O(1)}. The median is the special case of trimming
+ * all but the middle one or two samples.
+ * <p>
+ * The number of retained samples is capped at {@link #MAX_CAPACITY} so memory stays bounded regardless of the window
+ * length; when the cap is reached the oldest sample is evicted.
+ *
+ * @author Mark Paluch
+ */
+class SortedWindow implements RollingEstimator {
+
+	static final int MAX_CAPACITY = 8192;
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final byte LOWER = 0;
+
+	private static final byte MIDDLE = 1;
+
+	private static final byte UPPER = 2;
+
+	private final long windowMillis;
+
+	private final double trimRatio;
+
+	private final boolean median;
+
+	private long[] timestamps = new long[INITIAL_CAPACITY];
+
+	private double[] values = new double[INITIAL_CAPACITY];
+
+	private byte[] bands = new byte[INITIAL_CAPACITY];
+
+	private final Heap lower = new Heap(true);
+
+	private final Heap middleMin = new Heap(false);
+
+	private final Heap middleMax = new Heap(true);
+
+	private final Heap upper = new Heap(false);
+
+	private int head;
+
+	private int size;
+
+	private double middleSum;
+
+	private SortedWindow(Duration window, double trimRatio, boolean median) {
+		this.windowMillis = window.toMillis();
+		this.trimRatio = trimRatio;
+		this.median = median;
+	}
+
+	/**
+	 * Create a window computing the median of its samples.
+	 *
+	 * @param window the time window.
+	 * @return the median window.
+	 */
+	static SortedWindow median(Duration window) {
+		return new SortedWindow(window, 0, true);
+	}
+
+	/**
+	 * Create a window computing the mean of its samples after discarding {@code trimRatio} of the samples at each end.
+	 *
+	 * @param window the time window.
+	 * @param trimRatio ratio of samples to discard at each end, must be within {@code [0, 0.5)}.
+	 * @return the trimmed mean window.
+	 */
+	static SortedWindow trimmedMean(Duration window, double trimRatio) {
+
+		if (trimRatio < 0 || trimRatio >= 0.5) {
+			throw new IllegalArgumentException("Trim ratio must be within [0, 0.5)");
+		}
+
+		return new SortedWindow(window, trimRatio, false);
+	}
+
+	@Override
+	public void add(long timestamp, double value) {
+
+		long limit = timestamp - windowMillis;
+		while (size > 0 && timestamps[head] < limit) {
+			evictHead();
+		}
+
+		if (size == MAX_CAPACITY) {
+			evictHead();
+		} else if (size == timestamps.length) {
+			grow();
+		}
+
+		int slot = index(size);
+		timestamps[slot] = timestamp;
+		values[slot] = value;
+		size++;
+
+		addMiddle(slot);
+		rebalance();
+	}
+
+	@Override
+	public double getValue() {
+
+		if (size == 0) {
+			return 0;
+		}
+
+		if (median) {
+			return size % 2 == 1 ? values[middleMin.peek()]
+					: (values[middleMin.peek()] + values[middleMax.peek()]) / 2;
+		}
+
+		return middleSum / middleMin.size();
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Restore the band invariants after adding a sample to the middle band: no lower sample exceeds a middle sample, no
+	 * middle sample exceeds an upper sample, and the lower and upper band hold exactly the number of samples to trim.
+	 */
+	private void rebalance() {
+
+		if (lower.size() > 0 && values[lower.peek()] > values[middleMin.peek()]) {
+			int slot = middleMin.peek();
+			removeMiddle(slot);
+			addMiddle(lower.poll());
+			addLower(slot);
+		}
+
+		if (upper.size() > 0 && values[upper.peek()] < values[middleMax.peek()]) {
+			int slot = middleMax.peek();
+			removeMiddle(slot);
+			addMiddle(upper.poll());
+			addUpper(slot);
+		}
+
+		int trim = median ? (size - 1) / 2 : (int) (size * trimRatio);
+
+		while (lower.size() > trim) {
+			addMiddle(lower.poll());
+		}
+
+		while (upper.size() > trim) {
+			addMiddle(upper.poll());
+		}
+
+		while (lower.size() < trim) {
+			int slot = middleMin.peek();
+			removeMiddle(slot);
+			addLower(slot);
+		}
+
+		while (upper.size() < trim) {
+			int slot = middleMax.peek();
+			removeMiddle(slot);
+			addUpper(slot);
+		}
+	}
+
+	private void evictHead() {
+
+		int slot = head;
+		switch (bands[slot]) {
+			case LOWER -> lower.remove(slot);
+			case UPPER -> upper.remove(slot);
+			default -> removeMiddle(slot);
+		}
+
+		head = index(1);
+		size--;
+
+		if (size == 0) {
+			head = 0;
+			middleSum = 0;
+		} else if (head == 0) {
+			// re-base the running sum once per ring cycle to keep floating-point drift bounded
+			recalculateMiddleSum();
+		}
+	}
+
+	private void addLower(int slot) {
+		bands[slot] = LOWER;
+		lower.push(slot);
+	}
+
+	private void addUpper(int slot) {
+		bands[slot] = UPPER;
+		upper.push(slot);
+	}
+
+	private void addMiddle(int slot) {
+		bands[slot] = MIDDLE;
+		middleMin.push(slot);
+		middleMax.push(slot);
+		middleSum += values[slot];
+	}
+
+	private void removeMiddle(int slot) {
+		middleMin.remove(slot);
+		middleMax.remove(slot);
+		middleSum -= values[slot];
+	}
+
+	private void recalculateMiddleSum() {
+
+		double sum = 0;
+		for (int i = 0; i < size; i++) {
+			int slot = index(i);
+			if (bands[slot] == MIDDLE) {
+				sum += values[slot];
+			}
+		}
+		this.middleSum = sum;
+	}
+
+	private void grow() {
+
+		int capacity = timestamps.length * 2;
+		long[] timestamps = new long[capacity];
+		double[] values = new double[capacity];
+		byte[] bands = new byte[capacity];
+
+		for (int i = 0; i < size; i++) {
+			timestamps[i] = this.timestamps[index(i)];
+			values[i] = this.values[index(i)];
+			bands[i] = this.bands[index(i)];
+		}
+
+		this.timestamps = timestamps;
+		this.values = values;
+		this.bands = bands;
+		this.head = 0;
+
+		// slots moved, rebuild the heaps from the re-based ring
+		lower.clear(capacity);
+		middleMin.clear(capacity);
+		middleMax.clear(capacity);
+		upper.clear(capacity);
+
+		for (int slot = 0; slot < size; slot++) {
+			switch (bands[slot]) {
+				case LOWER -> lower.push(slot);
+				case UPPER -> upper.push(slot);
+				default -> {
+					middleMin.push(slot);
+					middleMax.push(slot);
+				}
+			}
+		}
+	}
+
+	private int index(int offset) {
+		return (head + offset) & (timestamps.length - 1);
+	}
+
+	/**
+	 * Binary heap of ring slots ordered by their sample value. Tracks the heap position of each slot so that arbitrary
+	 * slots can be removed in {@code O(log n)}.
+	 */
+	private final class Heap {
+
+		private final boolean max;
+
+		private int[] heap = new int[INITIAL_CAPACITY];
+
+		private int[] positions = new int[INITIAL_CAPACITY];
+
+		private int size;
+
+		Heap(boolean max) {
+			this.max = max;
+		}
+
+		int size() {
+			return size;
+		}
+
+		int peek() {
+			return heap[0];
+		}
+
+		void push(int slot) {
+			heap[size] = slot;
+			siftUp(size++);
+		}
+
+		int poll() {
+
+			int slot = heap[0];
+			remove(slot);
+			return slot;
+		}
+
+		void remove(int slot) {
+
+			int position = positions[slot];
+			int last = heap[--size];
+
+			if (position != size) {
+				heap[position] = last;
+				siftDown(position);
+				siftUp(positions[last]);
+			}
+		}
+
+		void clear(int capacity) {
+			this.heap = new int[capacity];
+			this.positions = new int[capacity];
+			this.size = 0;
+		}
+
+		private void siftUp(int position) {
+
+			int slot = heap[position];
+			while (position > 0) {
+
+				int parent = (position - 1) >>> 1;
+				if (!precedes(slot, heap[parent])) {
+					break;
+				}
+
+				move(heap[parent], position);
+				position = parent;
+			}
+
+			move(slot, position);
+		}
+
+		private void siftDown(int position) {
+
+			int slot = heap[position];
+			int half = size >>> 1;
+			while (position < half) {
+
+				int child = 2 * position + 1;
+				if (child + 1 < size && precedes(heap[child + 1], heap[child])) {
+					child++;
+				}
+
+				if (!precedes(heap[child], slot)) {
+					break;
+				}
+
+				move(heap[child], position);
+				position = child;
+			}
+
+			move(slot, position);
+		}
+
+		private void move(int slot, int position) {
+			heap[position] = slot;
+			positions[slot] = position;
+		}
+
+		private boolean precedes(int a, int b) {
+			return max ? values[a] > values[b] : values[a] < values[b];
+		}
+
+	}
+
+}
@@ -46,7 +46,8 @@ public interface Statistics<Q extends Quantity<Q>> {
 	}
 
 	/**
-	 * @return the average value.
+	 * @return the average value. Depending on the {@link Estimator}, the average is a smoothed value such as the mean,
+	 *         an exponentially weighted average, the median or a trimmed mean.
 	 */
 	Quantity<Q> getAverage();
 
@@ -54,4 +55,14 @@ public interface Statistics<Q extends Quantity<Q>> {
 	 * @return the most recent value.
 	 */
 	Quantity<Q> getMostRecent();
+
+	/**
+	 * Return the 10th, 50th and 90th percentile over the averaging window. Defaults to the {@link #getAverage() average}
+	 * for statistics that do not track the value distribution.
+	 *
+	 * @return the percentiles.
+	 */
+	default Percentiles<Q> getPercentiles() {
+		return Percentiles.just(getAverage());
+	}
 }
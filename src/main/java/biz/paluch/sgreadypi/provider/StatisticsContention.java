@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters tracking how {@link DefaultStatistics} instances are accessed. Updates that had to wait for another writer
+ * are counted as contended. Reads never wait and are counted to relate contention to the overall load.
+ *
+ * @author Mark Paluch
+ */
+class StatisticsContention {
+
+	private static final StatisticsContention GLOBAL = new StatisticsContention();
+
+	private final LongAdder updates = new LongAdder();
+
+	private final LongAdder contendedUpdates = new LongAdder();
+
+	private final LongAdder reads = new LongAdder();
+
+	/**
+	 * @return the shared instance used by {@link MutableStatistics#create(java.time.Duration, javax.measure.Unit)}.
+	 */
+	static StatisticsContention global() {
+		return GLOBAL;
+	}
+
+	void recordUpdate(boolean contended) {
+
+		updates.increment();
+		if (contended) {
+			contendedUpdates.increment();
+		}
+	}
+
+	void recordRead() {
+		reads.increment();
+	}
+
+	long getUpdates() {
+		return updates.sum();
+	}
+
+	long getContendedUpdates() {
+		return contendedUpdates.sum();
+	}
+
+	long getReads() {
+		return reads.sum();
+	}
+
+}
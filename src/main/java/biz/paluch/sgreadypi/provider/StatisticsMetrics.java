@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * {@link MeterBinder} exposing {@link StatisticsContention} counters. {@code sg.statistics.updates.contended} is
+ * expected to remain zero as each statistic is written by a single ingestion thread.
+ *
+ * @author Mark Paluch
+ */
+class StatisticsMetrics implements MeterBinder {
+
+	private final StatisticsContention contention;
+
+	public StatisticsMetrics(StatisticsContention contention) {
+		this.contention = contention;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		FunctionCounter.builder("sg.statistics.updates", contention, StatisticsContention::getUpdates)
+				.description("Number of statistics updates").register(registry);
+
+		FunctionCounter.builder("sg.statistics.updates.contended", contention, StatisticsContention::getContendedUpdates)
+				.description("Number of statistics updates that had to wait for a concurrent writer").register(registry);
+
+		FunctionCounter.builder("sg.statistics.reads", contention, StatisticsContention::getReads)
+				.description("Number of non-blocking statistics reads").register(registry);
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package biz.paluch.sgreadypi.provider;
 
+import biz.paluch.sgreadypi.DecisionLatency;
 import biz.paluch.sgreadypi.PowerMeter;
 import biz.paluch.sgreadypi.RecencyTracker;
 import io.github.joblo2213.sma.speedwire.Speedwire;
@@ -26,6 +27,8 @@ import tech.units.indriya.unit.Units;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.measure.Quantity;
 import javax.measure.quantity.Power;
@@ -49,15 +52,20 @@ public class SunnyHomeManagerService implements SmartLifecycle, PowerMeter, Rece
 	private @Nullable Speedwire speedwire;
 	private final long powerMeterId;
 
-	private MutableStatistics<Power> ingress;
-	private MutableStatistics<Power> egress;
+	private final MutableStatistics<Power> ingress;
+	private final MutableStatistics<Power> egress;
+	private final List<Runnable> updateListeners = new CopyOnWriteArrayList<>();
 
 	protected volatile Instant reading = Instant.MIN;
 
 	public SunnyHomeManagerService(long powerMeterId, Duration averaging) {
+		this(powerMeterId, averaging, Estimator.MEAN, Estimator.MEAN);
+	}
+
+	public SunnyHomeManagerService(long powerMeterId, Duration averaging, Estimator ingress, Estimator egress) {
 		this.powerMeterId = powerMeterId;
-		this.ingress = MutableStatistics.create(averaging, Units.WATT);
-		this.egress = MutableStatistics.create(averaging, Units.WATT);
+		this.ingress = MutableStatistics.create(averaging, Units.WATT, ingress);
+		this.egress = MutableStatistics.create(averaging, Units.WATT, egress);
 	}
 
 	@Override
@@ -70,6 +78,11 @@ public class SunnyHomeManagerService implements SmartLifecycle, PowerMeter, Rece
 		return egress;
 	}
 
+	@Override
+	public void onUpdate(Runnable listener) {
+		updateListeners.add(listener);
+	}
+
 	@Override
 	public void start() {
 
@@ -94,11 +107,8 @@ public class SunnyHomeManagerService implements SmartLifecycle, PowerMeter, Rece
 					if (powerMeterId == this.powerMeterId) {
 
 						Quantity<Power> in = em.getData(EnergyMeterChannels.TOTAL_P_IN).to(Units.WATT);
-						ingress.update(in);
-
 						Quantity<Power> out = em.getData(EnergyMeterChannels.TOTAL_P_OUT).to(Units.WATT);
-						egress.update(out);
-						reading = Instant.now();
+						onReading(in, out);
 					}
 				}
 			});
@@ -110,6 +120,35 @@ public class SunnyHomeManagerService implements SmartLifecycle, PowerMeter, Rece
 		}
 	}
 
+	/**
+	 * Record a power meter reading.
+	 *
+	 * @param in power drawn from the grid.
+	 * @param out power fed into the grid.
+	 */
+	protected void onReading(Quantity<Power> in, Quantity<Power> out) {
+
+		DecisionLatency latency = DecisionLatency.global();
+		long start = latency.start();
+
+		ingress.update(in);
+		egress.update(out);
+		latency.record(DecisionLatency.Stage.STATISTICS, start);
+		reading = Instant.now();
+		notifyListeners();
+	}
+
+	private void notifyListeners() {
+
+		for (Runnable listener : updateListeners) {
+			try {
+				listener.run();
+			} catch (RuntimeException e) {
+				log.error("Update listener failed", e);
+			}
+		}
+	}
+
 	@Override
 	public void stop() {
 		if (this.speedwire != null) {
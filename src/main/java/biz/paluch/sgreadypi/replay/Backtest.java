@@ -0,0 +1,236 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.replay;
+
+import biz.paluch.sgreadypi.SgReadyPolicy;
+import biz.paluch.sgreadypi.SgReadyProperties;
+import biz.paluch.sgreadypi.SgReadyState;
+import biz.paluch.sgreadypi.measure.Watt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic replay of a {@link ConditionSeries} through the {@link SgReadyPolicy}. Each sample is evaluated like a
+ * control loop tick: the policy decides from the previously decided state, and the decided state is applied to the
+ * relays subject to the {@link SgReadyProperties#getDebounce() debounce}, mirroring the debouncing output.
+ * <p>
+ * The replay attributes the time until the next sample to the relay state. It models the heat pump drawing its
+ * {@link SgReadyProperties#getHeatPumpPowerConsumption() compressor consumption} while signalling
+ * {@link SgReadyState#AVAILABLE_PV} and its {@link SgReadyProperties#getHeatElementPowerConsumption() heat element
+ * consumption} while signalling {@link SgReadyState#EXCESS_PV}, the same draws the policy gates these states on. The
+ * draw is covered by the recorded generator power first and by the grid otherwise. Weather deferral is not replayed.
+ * <p>
+ * Instances are immutable and can run replays concurrently.
+ *
+ * <pre class="code">
+ * BacktestResult result = new Backtest(properties, ZoneId.systemDefault()).run(ConditionSeries.from(history));
+ * </pre>
+ *
+ * @author Mark Paluch
+ * @see ConditionSeries
+ * @see BacktestResult
+ */
+public class Backtest {
+
+	private static final List<SgReadyState> STATES = List.of(SgReadyState.NORMAL, SgReadyState.AVAILABLE_PV,
+			SgReadyState.EXCESS_PV, SgReadyState.BLOCKED);
+
+	private static final double MILLIS_PER_HOUR = 3_600_000;
+
+	private final SgReadyPolicy policy;
+
+	private final ZoneRules zone;
+
+	private final long debounce;
+
+	private final double heatPumpDraw;
+
+	private final double heatElementDraw;
+
+	/**
+	 * Create a new backtest.
+	 *
+	 * @param properties the configuration to replay.
+	 * @param zone time zone to evaluate local time gates in.
+	 */
+	public Backtest(SgReadyProperties properties, ZoneId zone) {
+		this.policy = new SgReadyPolicy(properties);
+		this.zone = zone.getRules();
+		this.debounce = properties.getDebounce().toMillis();
+		this.heatPumpDraw = Watt.toWatts(properties.getHeatPumpPowerConsumption());
+		this.heatElementDraw = Watt.toWatts(properties.getHeatElementPowerConsumption());
+	}
+
+	/**
+	 * Replay {@code series} starting in {@link SgReadyState#NORMAL}.
+	 *
+	 * @param series the conditions to replay.
+	 * @return the backtest result.
+	 */
+	public BacktestResult run(ConditionSeries series) {
+		return run(series, SgReadyState.NORMAL);
+	}
+
+	/**
+	 * Replay {@code series} starting in {@code initial}.
+	 *
+	 * @param series the conditions to replay.
+	 * @param initial the state signalled before the first sample.
+	 * @return the backtest result.
+	 */
+	public BacktestResult run(ConditionSeries series, SgReadyState initial) {
+
+		Replay replay = new Replay(initial);
+
+		for (int i = 0; i < series.size(); i++) {
+
+			long timestamp = series.getTimestamp(i);
+			replay.decide(policy.decide(replay.state, series.getConditions(i), null, localTime(timestamp)).state(),
+					timestamp);
+
+			if (i + 1 < series.size()) {
+				replay.advance(series, i, series.getTimestamp(i + 1));
+			}
+		}
+
+		long duration = series.size() > 0 ? series.getTimestamp(series.size() - 1) - series.getTimestamp(0) : 0;
+		return replay.toResult(series.size(), duration);
+	}
+
+	private LocalDateTime localTime(long timestamp) {
+
+		long seconds = Math.floorDiv(timestamp, 1000);
+		return LocalDateTime.ofEpochSecond(seconds, (int) Math.floorMod(timestamp, 1000) * 1_000_000,
+				zone.getOffset(Instant.ofEpochSecond(seconds)));
+	}
+
+	/**
+	 * Mutable state of a single replay.
+	 */
+	private class Replay {
+
+		private final long[] runtime = new long[STATES.size()];
+
+		SgReadyState state;
+
+		SgReadyState relay;
+
+		long lastSwitch = Long.MIN_VALUE / 2;
+
+		boolean pending;
+
+		int transitions;
+
+		int relaySwitches;
+
+		double boostEnergy;
+
+		double selfConsumption;
+
+		double gridEnergy;
+
+		Replay(SgReadyState initial) {
+			this.state = initial;
+			this.relay = initial;
+		}
+
+		/**
+		 * Offer a decided state to the debounced relay output.
+		 */
+		void decide(SgReadyState decided, long timestamp) {
+
+			state = decided;
+			if (!decided.equals(relay)) {
+				if (timestamp > lastSwitch + debounce) {
+					apply(timestamp);
+				} else {
+					pending = true;
+				}
+			}
+		}
+
+		/**
+		 * Advance from sample {@code index} to {@code until}, applying a pending debounced state when it is due.
+		 */
+		void advance(ConditionSeries series, int index, long until) {
+
+			long from = series.getTimestamp(index);
+			long due = lastSwitch + debounce;
+
+			if (pending && due < until) {
+
+				account(series, index, due - from);
+				pending = false;
+				if (!state.equals(relay)) {
+					apply(due);
+				}
+				from = due;
+			}
+
+			account(series, index, until - from);
+		}
+
+		private void apply(long timestamp) {
+
+			transitions++;
+			relaySwitches += (relay.a() != state.a() ? 1 : 0) + (relay.b() != state.b() ? 1 : 0);
+			relay = state;
+			lastSwitch = timestamp;
+		}
+
+		private void account(ConditionSeries series, int index, long millis) {
+
+			runtime[index(relay)] += millis;
+
+			double draw = relay.isExcessPv() ? heatElementDraw : relay.isAvailablePv() ? heatPumpDraw : 0;
+			if (draw == 0) {
+				return;
+			}
+
+			double hours = millis / MILLIS_PER_HOUR;
+			double covered = series.isOutOfService(index) ? 0
+					: Math.min(draw, Math.max(0, series.getGeneratorPower(index)));
+
+			boostEnergy += draw * hours;
+			selfConsumption += covered * hours;
+			gridEnergy += (draw - covered) * hours;
+		}
+
+		BacktestResult toResult(int steps, long duration) {
+
+			Map<SgReadyState, Duration> runtimes = new LinkedHashMap<>();
+			for (SgReadyState state : STATES) {
+				runtimes.put(state, Duration.ofMillis(runtime[index(state)]));
+			}
+
+			return new BacktestResult(steps, Duration.ofMillis(duration), runtimes, transitions, relaySwitches,
+					boostEnergy, selfConsumption, gridEnergy);
+		}
+
+	}
+
+	private static int index(SgReadyState state) {
+		return STATES.indexOf(state);
+	}
+
+}
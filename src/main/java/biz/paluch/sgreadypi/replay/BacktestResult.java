@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.replay;
+
+import biz.paluch.sgreadypi.SgReadyState;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Outcome of a {@link Backtest} replay. Energies are in watt-hours.
+ *
+ * @param steps number of replayed samples.
+ * @param duration time between the first and the last sample.
+ * @param runtime time the relays signalled each {@link SgReadyState}.
+ * @param transitions number of applied state changes.
+ * @param relaySwitches number of individual relay toggles, one or two per transition.
+ * @param boostEnergy energy drawn by the heat pump while signalling a PV state.
+ * @param selfConsumption share of {@code boostEnergy} covered by generator power.
+ * @param gridEnergy share of {@code boostEnergy} drawn from the grid.
+ * @author Mark Paluch
+ */
+public record BacktestResult(int steps, Duration duration, Map<SgReadyState, Duration> runtime, int transitions,
+		int relaySwitches, double boostEnergy, double selfConsumption, double gridEnergy) {
+
+	/**
+	 * Return the time the relays signalled {@code state}.
+	 *
+	 * @param state the SG Ready state.
+	 * @return the runtime, {@link Duration#ZERO} if the state was never signalled.
+	 */
+	public Duration getRuntime(SgReadyState state) {
+		return runtime.getOrDefault(state, Duration.ZERO);
+	}
+
+	/**
+	 * Return the grid ingress avoided by shifting heat pump consumption into PV surplus. Conservatively assumes that
+	 * energy drawn from the grid while boosting is additional ingress rather than shifted consumption.
+	 *
+	 * @return avoided ingress in watt-hours, negative if boosting drew more from the grid than it self-consumed.
+	 */
+	public double ingressAvoided() {
+		return selfConsumption - gridEnergy;
+	}
+
+	/**
+	 * Return the fraction of {@code boostEnergy} covered by generator power.
+	 *
+	 * @return the self-consumption ratio between {@code 0} and {@code 1}, {@code 0} if the heat pump was not boosted.
+	 */
+	public double selfConsumptionRatio() {
+		return boostEnergy > 0 ? selfConsumption / boostEnergy : 0;
+	}
+
+	@Override
+	public String toString() {
+		return ("Backtest: %d steps over %s, runtime %s, %d transitions, %d relay switches, boost %.0f Wh "
+				+ "(self-consumed %.0f Wh, grid %.0f Wh, ingress avoided %.0f Wh)").formatted(steps, duration, runtime,
+						transitions, relaySwitches, boostEnergy, selfConsumption, gridEnergy, ingressAvoided());
+	}
+
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.replay;
+
+import biz.paluch.sgreadypi.Conditions;
+import biz.paluch.sgreadypi.history.Channel;
+import biz.paluch.sgreadypi.history.History;
+import biz.paluch.sgreadypi.measure.Percent;
+import biz.paluch.sgreadypi.measure.Watt;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Immutable, time-ordered series of condition samples stored in primitive columns. Power values are in Watt, the
+ * battery state of charge in percent. A sample with any missing reading is out of service.
+ * <p>
+ * Series are obtained from a downsampled {@link History} through {@link #from(History)}, from CSV through
+ * {@link #read(Reader)} or built programmatically using {@link #builder()}. Series are safe to replay concurrently.
+ *
+ * @author Mark Paluch
+ */
+public final class ConditionSeries {
+
+	private static final String[] COLUMNS = { "timestamp", "ingress", "generatorPower", "soc", "batteryDischarge",
+			"outOfService" };
+
+	private final long[] timestamps;
+
+	private final double[] ingress;
+
+	private final double[] generatorPower;
+
+	private final double[] soc;
+
+	private final double[] batteryDischarge;
+
+	private final boolean[] outOfService;
+
+	private ConditionSeries(long[] timestamps, double[] ingress, double[] generatorPower, double[] soc,
+			double[] batteryDischarge, boolean[] outOfService) {
+		this.timestamps = timestamps;
+		this.ingress = ingress;
+		this.generatorPower = generatorPower;
+		this.soc = soc;
+		this.batteryDischarge = batteryDischarge;
+		this.outOfService = outOfService;
+	}
+
+	/**
+	 * Create a new {@link Builder}.
+	 *
+	 * @return a new builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Create a series from a downsampled {@link History}, one sample per step. Steps without a reading for ingress,
+	 * generator power, state of charge or battery discharge are out of service.
+	 *
+	 * @param history the history to replay.
+	 * @return the condition series.
+	 */
+	public static ConditionSeries from(History history) {
+		return new Builder(history.steps()).add(history).build();
+	}
+
+	private static double[] series(History history, Channel channel) {
+
+		double[] values = history.series().get(channel.name());
+		if (values != null) {
+			return values;
+		}
+
+		double[] missing = new double[history.steps()];
+		Arrays.fill(missing, Double.NaN);
+		return missing;
+	}
+
+	/**
+	 * Read a series from CSV. The first line is a header naming the columns {@code timestamp}, {@code ingress},
+	 * {@code generatorPower}, {@code soc}, {@code batteryDischarge} and optionally {@code outOfService} in any order.
+	 * Timestamps are ISO-8601 instants or epoch milliseconds. Empty values are missing readings. Blank lines and lines
+	 * starting with {@code #} are ignored.
+	 *
+	 * @param reader the CSV source.
+	 * @return the condition series.
+	 * @throws IOException if the source cannot be read.
+	 * @throws IllegalArgumentException if the header lacks a column or a line cannot be parsed.
+	 */
+	public static ConditionSeries read(Reader reader) throws IOException {
+
+		BufferedReader lines = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+		int[] columns = null;
+		Builder builder = new Builder();
+		int lineNumber = 0;
+
+		for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+
+			lineNumber++;
+			if (line.isBlank() || line.startsWith("#")) {
+				continue;
+			}
+
+			String[] values = line.split(",", -1);
+			if (columns == null) {
+				columns = columns(values);
+				continue;
+			}
+
+			try {
+				builder.add(timestamp(value(values, columns[0])), number(value(values, columns[1])),
+						number(value(values, columns[2])), number(value(values, columns[3])),
+						number(value(values, columns[4])), Boolean.parseBoolean(value(values, columns[5])));
+			} catch (DateTimeParseException | NumberFormatException e) {
+				throw new IllegalArgumentException("Cannot parse line %d: %s".formatted(lineNumber, line), e);
+			}
+		}
+
+		return builder.build();
+	}
+
+	private static int[] columns(String[] header) {
+
+		Map<String, Integer> indexes = new HashMap<>();
+		for (int i = 0; i < header.length; i++) {
+			indexes.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+		}
+
+		int[] columns = new int[COLUMNS.length];
+		for (int i = 0; i < COLUMNS.length; i++) {
+
+			Integer index = indexes.get(COLUMNS[i].toLowerCase(Locale.ROOT));
+			if (index == null && i < COLUMNS.length - 1) {
+				throw new IllegalArgumentException("CSV header %s lacks column %s".formatted(String.join(",", header),
+						COLUMNS[i]));
+			}
+			columns[i] = index != null ? index : -1;
+		}
+
+		return columns;
+	}
+
+	private static @Nullable String value(String[] values, int column) {
+
+		if (column < 0 || column >= values.length) {
+			return null;
+		}
+
+		String value = values[column].trim();
+		return value.isEmpty() ? null : value;
+	}
+
+	private static long timestamp(@Nullable String value) {
+
+		if (value == null) {
+			throw new NumberFormatException("Timestamp is missing");
+		}
+
+		return value.chars().allMatch(Character::isDigit) ? Long.parseLong(value) : Instant.parse(value).toEpochMilli();
+	}
+
+	private static double number(@Nullable String value) {
+		return value != null ? Double.parseDouble(value) : Double.NaN;
+	}
+
+	/**
+	 * @return the number of samples.
+	 */
+	public int size() {
+		return timestamps.length;
+	}
+
+	/**
+	 * @param index the sample index.
+	 * @return the sample timestamp in epoch milliseconds.
+	 */
+	public long getTimestamp(int index) {
+		return timestamps[index];
+	}
+
+	public double getIngress(int index) {
+		return ingress[index];
+	}
+
+	public double getGeneratorPower(int index) {
+		return generatorPower[index];
+	}
+
+	public double getSoc(int index) {
+		return soc[index];
+	}
+
+	public double getBatteryDischarge(int index) {
+		return batteryDischarge[index];
+	}
+
+	public boolean isOutOfService(int index) {
+		return outOfService[index];
+	}
+
+	/**
+	 * Materialize the {@link Conditions} of a sample. Out-of-service samples report zero readings.
+	 *
+	 * @param index the sample index.
+	 * @return the conditions.
+	 */
+	public Conditions getConditions(int index) {
+
+		if (outOfService[index]) {
+			return new Conditions(Watt.zero(), Watt.zero(), Percent.zero(), Watt.zero(), true,
+					Instant.ofEpochMilli(timestamps[index]));
+		}
+
+		return new Conditions(Watt.of(ingress[index]), Watt.of(generatorPower[index]), Percent.of(soc[index]),
+				Watt.of(batteryDischarge[index]), false, Instant.ofEpochMilli(timestamps[index]));
+	}
+
+	/**
+	 * Builder for a {@link ConditionSeries}. Samples must be added in timestamp order.
+	 */
+	public static class Builder {
+
+		private long[] timestamps;
+
+		private double[] ingress;
+
+		private double[] generatorPower;
+
+		private double[] soc;
+
+		private double[] batteryDischarge;
+
+		private boolean[] outOfService;
+
+		private int size;
+
+		Builder() {
+			this(1024);
+		}
+
+		Builder(int capacity) {
+
+			int initial = Math.max(capacity, 16);
+			this.timestamps = new long[initial];
+			this.ingress = new double[initial];
+			this.generatorPower = new double[initial];
+			this.soc = new double[initial];
+			this.batteryDischarge = new double[initial];
+			this.outOfService = new boolean[initial];
+		}
+
+		/**
+		 * Add a sample. The sample is out of service if {@code outOfService} is set or any reading is
+		 * {@link Double#NaN}.
+		 *
+		 * @param timestamp epoch milliseconds, not before the previous sample.
+		 * @param ingress power drawn from the grid in Watt.
+		 * @param generatorPower usable solar surplus in Watt.
+		 * @param soc battery state of charge in percent.
+		 * @param batteryDischarge net battery discharge in Watt.
+		 * @param outOfService whether the readings are stale.
+		 * @return this builder.
+		 * @throws IllegalArgumentException if {@code timestamp} precedes the previous sample.
+		 */
+		public Builder add(long timestamp, double ingress, double generatorPower, double soc, double batteryDischarge,
+				boolean outOfService) {
+
+			if (size > 0 && timestamp < timestamps[size - 1]) {
+				throw new IllegalArgumentException("Timestamp %s precedes previous sample %s"
+						.formatted(Instant.ofEpochMilli(timestamp), Instant.ofEpochMilli(timestamps[size - 1])));
+			}
+
+			if (size == timestamps.length) {
+				grow();
+			}
+
+			this.timestamps[size] = timestamp;
+			this.ingress[size] = ingress;
+			this.generatorPower[size] = generatorPower;
+			this.soc[size] = soc;
+			this.batteryDischarge[size] = batteryDischarge;
+			this.outOfService[size] = outOfService || Double.isNaN(ingress) || Double.isNaN(generatorPower)
+					|| Double.isNaN(soc) || Double.isNaN(batteryDischarge);
+			size++;
+			return this;
+		}
+
+		/**
+		 * Add all steps of a downsampled {@link History} as samples, see {@link ConditionSeries#from(History)}.
+		 *
+		 * @param history the history to add, starting not before the previous sample.
+		 * @return this builder.
+		 */
+		public Builder add(History history) {
+
+			double[] ingress = series(history, Channel.INGRESS);
+			double[] generatorPower = series(history, Channel.GENERATOR_POWER);
+			double[] soc = series(history, Channel.SOC);
+			double[] batteryDischarge = series(history, Channel.BATTERY_DISCHARGE);
+
+			long from = history.from().toEpochMilli();
+			long step = history.step().toMillis();
+			for (int i = 0; i < history.steps(); i++) {
+				add(from + i * step, ingress[i], generatorPower[i], soc[i], batteryDischarge[i], false);
+			}
+
+			return this;
+		}
+
+		private void grow() {
+
+			int capacity = timestamps.length * 2;
+			timestamps = Arrays.copyOf(timestamps, capacity);
+			ingress = Arrays.copyOf(ingress, capacity);
+			generatorPower = Arrays.copyOf(generatorPower, capacity);
+			soc = Arrays.copyOf(soc, capacity);
+			batteryDischarge = Arrays.copyOf(batteryDischarge, capacity);
+			outOfService = Arrays.copyOf(outOfService, capacity);
+		}
+
+		public ConditionSeries build() {
+			return new ConditionSeries(Arrays.copyOf(timestamps, size), Arrays.copyOf(ingress, size),
+					Arrays.copyOf(generatorPower, size), Arrays.copyOf(soc, size),
+					Arrays.copyOf(batteryDischarge, size), Arrays.copyOf(outOfService, size));
+		}
+
+	}
+
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.replay;
+
+import biz.paluch.sgreadypi.SgReadyProperties;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+
+import org.springframework.util.Assert;
+
+/**
+ * Grid or random search over the policy configuration space. Each {@link Candidate} overrides some
+ * {@link SweepParameter parameters} of a base configuration and is {@link Backtest backtested} against the same
+ * {@link ConditionSeries}. Candidates are evaluated in parallel on a {@link ForkJoinPool} and ranked by a
+ * {@link SweepCost}.
+ *
+ * <pre class="code">
+ * ParameterSweep sweep = new ParameterSweep(properties, zone, series, SweepCost.selfConsumption(0.5));
+ * List&lt;ParameterSweep.Result&gt; ranking = sweep.run(ParameterSweep.grid(ranges), ForkJoinPool.commonPool());
+ * </pre>
+ *
+ * @author Mark Paluch
+ * @see ParameterSweepRunner
+ */
+public class ParameterSweep {
+
+	/**
+	 * Maximum number of candidates of a {@link #grid(List) grid}.
+	 */
+	public static final int MAX_CANDIDATES = 1_000_000;
+
+	private final SgReadyProperties base;
+
+	private final ZoneId zone;
+
+	private final ConditionSeries series;
+
+	private final SweepCost cost;
+
+	/**
+	 * Create a new sweep.
+	 *
+	 * @param base the configuration candidates override, not modified by the sweep.
+	 * @param zone time zone to evaluate local time gates in.
+	 * @param series the conditions to replay for each candidate.
+	 * @param cost the cost function to rank candidates by.
+	 */
+	public ParameterSweep(SgReadyProperties base, ZoneId zone, ConditionSeries series, SweepCost cost) {
+		this.base = base;
+		this.zone = zone;
+		this.series = series;
+		this.cost = cost;
+	}
+
+	/**
+	 * Create the cartesian product of all range values.
+	 *
+	 * @param ranges the parameter ranges.
+	 * @return the candidates.
+	 * @throws IllegalArgumentException if the grid exceeds {@link #MAX_CANDIDATES}.
+	 */
+	public static List<Candidate> grid(List<Range> ranges) {
+
+		long size = 1;
+		for (Range range : ranges) {
+			size *= range.size();
+			Assert.isTrue(size <= MAX_CANDIDATES,
+					() -> "Grid exceeds %d candidates, use random sampling instead".formatted(MAX_CANDIDATES));
+		}
+
+		List<Candidate> candidates = new ArrayList<>((int) size);
+		int[] indexes = new int[ranges.size()];
+		for (int i = 0; i < size; i++) {
+
+			Map<SweepParameter, Double> values = new EnumMap<>(SweepParameter.class);
+			for (int r = 0; r < ranges.size(); r++) {
+				values.put(ranges.get(r).parameter(), ranges.get(r).value(indexes[r]));
+			}
+			candidates.add(new Candidate(values));
+
+			for (int r = ranges.size() - 1; r >= 0 && ++indexes[r] == ranges.get(r).size(); r--) {
+				indexes[r] = 0;
+			}
+		}
+
+		return candidates;
+	}
+
+	/**
+	 * Draw candidates with uniformly distributed range values. Sampling is reproducible for the same {@code seed}.
+	 *
+	 * @param ranges the parameter ranges.
+	 * @param samples number of candidates to draw.
+	 * @param seed the random seed.
+	 * @return the candidates.
+	 */
+	public static List<Candidate> random(List<Range> ranges, int samples, long seed) {
+
+		SplittableRandom random = new SplittableRandom(seed);
+		List<Candidate> candidates = new ArrayList<>(samples);
+		for (int i = 0; i < samples; i++) {
+
+			Map<SweepParameter, Double> values = new EnumMap<>(SweepParameter.class);
+			for (Range range : ranges) {
+				values.put(range.parameter(), range.value(random.nextInt(range.size())));
+			}
+			candidates.add(new Candidate(values));
+		}
+
+		return candidates;
+	}
+
+	/**
+	 * Backtest all candidates in parallel and rank them by cost. Candidates with equal cost retain their order.
+	 *
+	 * @param candidates the candidates to evaluate.
+	 * @param pool the pool to evaluate candidates on.
+	 * @return the results ordered by ascending cost.
+	 */
+	public List<Result> run(List<Candidate> candidates, ForkJoinPool pool) {
+
+		Result[] results = new Result[candidates.size()];
+		pool.invoke(new Evaluation(candidates, results, 0, results.length));
+
+		List<Result> ranking = Arrays.asList(results);
+		ranking.sort(Comparator.comparingDouble(Result::cost));
+		return Collections.unmodifiableList(ranking);
+	}
+
+	/**
+	 * Backtest a single candidate.
+	 *
+	 * @param candidate the candidate to evaluate.
+	 * @return the result.
+	 */
+	public Result evaluate(Candidate candidate) {
+
+		BacktestResult result = new Backtest(configure(candidate), zone).run(series);
+		return new Result(candidate, result, cost.cost(result));
+	}
+
+	/**
+	 * Create a copy of the base configuration with the candidate values applied.
+	 *
+	 * @param candidate the candidate.
+	 * @return the configuration of the candidate.
+	 */
+	SgReadyProperties configure(Candidate candidate) {
+
+		SgReadyProperties properties = new SgReadyProperties();
+		properties.setHeatPumpPowerConsumption(base.getHeatPumpPowerConsumption());
+		properties.setHeatElementPowerConsumption(base.getHeatElementPowerConsumption());
+		properties.setIngressLimit(base.getIngressLimit());
+		properties.setDischargeLimit(base.getDischargeLimit());
+		properties.setExcessNotBefore(base.getExcessNotBefore());
+		properties.setExcessNotAfter(base.getExcessNotAfter());
+		properties.setBattery(base.getBattery());
+		properties.setGeneratorPowerOffRatio(base.getGeneratorPowerOffRatio());
+		properties.setAvailableSocOffMargin(base.getAvailableSocOffMargin());
+		properties.setDebounce(base.getDebounce());
+
+		candidate.values().forEach((parameter, value) -> parameter.apply(properties, value));
+		return properties;
+	}
+
+	/**
+	 * Evaluation of a slice of candidates, split in halves until a single candidate remains.
+	 */
+	private class Evaluation extends RecursiveAction {
+
+		private final List<Candidate> candidates;
+
+		private final Result[] results;
+
+		private final int from;
+
+		private final int to;
+
+		Evaluation(List<Candidate> candidates, Result[] results, int from, int to) {
+			this.candidates = candidates;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (to - from <= 1) {
+				for (int i = from; i < to; i++) {
+					results[i] = evaluate(candidates.get(i));
+				}
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new Evaluation(candidates, results, from, middle),
+					new Evaluation(candidates, results, middle, to));
+		}
+
+	}
+
+	/**
+	 * Inclusive range of values of a {@link SweepParameter} spaced by {@code step}.
+	 *
+	 * @param parameter the parameter.
+	 * @param from the first value.
+	 * @param to the last value, included if it lies on a step.
+	 * @param step distance between values, {@code 0} for a single value.
+	 */
+	public record Range(SweepParameter parameter, double from, double to, double step) {
+
+		public Range {
+			Assert.isTrue(to >= from, "Range end must not be before its start");
+			Assert.isTrue(step > 0 || (step == 0 && from == to), "Step must be positive");
+		}
+
+		/**
+		 * Create a range holding a single value.
+		 *
+		 * @param parameter the parameter.
+		 * @param value the value.
+		 * @return the range.
+		 */
+		public static Range of(SweepParameter parameter, double value) {
+			return new Range(parameter, value, value, 0);
+		}
+
+		/**
+		 * Parse a range from {@code from:to:step} or a single value.
+		 *
+		 * @param parameter the parameter.
+		 * @param value the range expression.
+		 * @return the range.
+		 * @throws IllegalArgumentException if {@code value} is not a range expression.
+		 */
+		public static Range parse(SweepParameter parameter, String value) {
+
+			String[] parts = value.split(":");
+			try {
+				return switch (parts.length) {
+					case 1 -> of(parameter, Double.parseDouble(parts[0]));
+					case 3 -> new Range(parameter, Double.parseDouble(parts[0]), Double.parseDouble(parts[1]),
+							Double.parseDouble(parts[2]));
+					default -> throw new IllegalArgumentException(
+							"Range %s of %s must be from:to:step or a single value".formatted(value,
+									parameter.getPropertyName()));
+				};
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(
+						"Cannot parse range %s of %s".formatted(value, parameter.getPropertyName()), e);
+			}
+		}
+
+		/**
+		 * @return the number of values.
+		 */
+		public int size() {
+			return step == 0 ? 1 : (int) Math.floor((to - from) / step + 1e-9) + 1;
+		}
+
+		/**
+		 * @param index the value index.
+		 * @return the value at {@code index}.
+		 */
+		public double value(int index) {
+			return from + index * step;
+		}
+
+	}
+
+	/**
+	 * Parameter values overriding the base configuration.
+	 *
+	 * @param values values by parameter.
+	 */
+	public record Candidate(Map<SweepParameter, Double> values) {
+
+		@Override
+		public String toString() {
+			return values.entrySet().stream().map(it -> it.getKey().getPropertyName() + "=" + it.getValue())
+					.collect(Collectors.joining(", "));
+		}
+
+	}
+
+	/**
+	 * Backtest outcome of a candidate.
+	 *
+	 * @param candidate the candidate.
+	 * @param backtest the backtest result.
+	 * @param cost the cost of the result.
+	 */
+	public record Result(Candidate candidate, BacktestResult backtest, double cost) {
+
+	}
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.replay;
+
+import biz.paluch.sgreadypi.SgReadyProperties;
+import biz.paluch.sgreadypi.SgReadyState;
+import biz.paluch.sgreadypi.config.QuantityConverter;
+import biz.paluch.sgreadypi.history.Channel;
+import biz.paluch.sgreadypi.history.HistoryProperties;
+import biz.paluch.sgreadypi.history.HistoryStore;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Command line entry point running a {@link ParameterSweep} offline, without starting the application. Conditions are
+ * read from CSV or from a {@link HistoryStore history directory}, the base configuration from a properties file using
+ * the {@code sg} prefix of the application. Parameters are passed as {@code --<property>=<from>:<to>:<step>} or a
+ * single value using the {@link SweepParameter#getPropertyName() parameter property names}:
+ *
+ * <pre class="code">
+ * --config=application.properties --history=/var/lib/sg-ready-pi/history --from=2026-04-01 --to=2026-10-01
+ * --heat-pump-power-consumption=800:1600:200 --battery.pv-available=20:50:5 --samples=5000 --top=20
+ * </pre>
+ *
+ * Further options are {@code --csv=<file>} instead of {@code --history}, {@code --step} (history resolution, default
+ * {@code 1m}), {@code --zone}, {@code --samples} and {@code --seed} (random search instead of a grid), {@code --cost}
+ * ({@code self-consumption} or {@code ingress-avoided}), {@code --switch-penalty} (kWh per relay switch, default
+ * {@code 0.5}), {@code --top} and {@code --parallelism}.
+ *
+ * @author Mark Paluch
+ */
+public class ParameterSweepRunner {
+
+	private static final List<String> OPTIONS = List.of("config", "csv", "history", "from", "to", "step", "zone",
+			"samples", "seed", "cost", "switch-penalty", "top", "parallelism");
+
+	public static void main(String[] args) throws IOException {
+
+		Map<String, String> options = new LinkedHashMap<>();
+		List<ParameterSweep.Range> ranges = new ArrayList<>();
+		parse(args, options, ranges);
+
+		if (ranges.isEmpty()) {
+			throw new IllegalArgumentException("No parameter range given, use --<property>=<from>:<to>:<step>");
+		}
+
+		ZoneId zone = options.containsKey("zone") ? ZoneId.of(options.get("zone")) : ZoneId.systemDefault();
+		SgReadyProperties properties = loadProperties(options.get("config"));
+		ConditionSeries series = loadSeries(options, zone);
+
+		int samples = Integer.parseInt(options.getOrDefault("samples", "0"));
+		List<ParameterSweep.Candidate> candidates = samples > 0
+				? ParameterSweep.random(ranges, samples,
+						Long.parseLong(options.getOrDefault("seed", Long.toString(System.nanoTime()))))
+				: ParameterSweep.grid(ranges);
+
+		double switchPenalty = Double.parseDouble(options.getOrDefault("switch-penalty", "0.5"));
+		SweepCost cost = switch (options.getOrDefault("cost", "self-consumption")) {
+			case "self-consumption" -> SweepCost.selfConsumption(switchPenalty);
+			case "ingress-avoided" -> SweepCost.ingressAvoided(switchPenalty);
+			default -> throw new IllegalArgumentException("Unknown cost " + options.get("cost"));
+		};
+
+		int parallelism = Integer.parseInt(
+				options.getOrDefault("parallelism", Integer.toString(Runtime.getRuntime().availableProcessors())));
+
+		System.out.printf(Locale.ROOT, "Replaying %d samples for %d candidates on %d threads%n", series.size(),
+				candidates.size(), parallelism);
+
+		long start = System.nanoTime();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		List<ParameterSweep.Result> ranking;
+		try {
+			ranking = new ParameterSweep(properties, zone, series, cost).run(candidates, pool);
+		} finally {
+			pool.shutdown();
+		}
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+		System.out.printf(Locale.ROOT, "Completed %d backtests in %s (%.1f M steps/s)%n%n", candidates.size(), elapsed,
+				(double) series.size() * candidates.size() / Math.max(1, elapsed.toNanos()) * 1000);
+		System.out.printf(Locale.ROOT, "%4s %10s %10s %10s %8s %10s %10s  %s%n", "#", "cost", "self kWh", "grid kWh",
+				"switches", "avail h", "excess h", "parameters");
+
+		int top = Math.min(ranking.size(), Integer.parseInt(options.getOrDefault("top", "10")));
+		for (int i = 0; i < top; i++) {
+
+			ParameterSweep.Result result = ranking.get(i);
+			BacktestResult backtest = result.backtest();
+			System.out.printf(Locale.ROOT, "%4d %10.2f %10.2f %10.2f %8d %10.1f %10.1f  %s%n", i + 1, result.cost(),
+					backtest.selfConsumption() / 1000, backtest.gridEnergy() / 1000, backtest.relaySwitches(),
+					hours(backtest.getRuntime(SgReadyState.AVAILABLE_PV)),
+					hours(backtest.getRuntime(SgReadyState.EXCESS_PV)), result.candidate());
+		}
+	}
+
+	/**
+	 * Parse {@code --key=value} arguments into options and parameter ranges.
+	 */
+	static void parse(String[] args, Map<String, String> options, List<ParameterSweep.Range> ranges) {
+
+		for (String arg : args) {
+
+			int separator = arg.indexOf('=');
+			if (!arg.startsWith("--") || separator < 0) {
+				throw new IllegalArgumentException("Argument %s must be --<name>=<value>".formatted(arg));
+			}
+
+			String name = arg.substring(2, separator);
+			String value = arg.substring(separator + 1);
+			if (OPTIONS.contains(name)) {
+				options.put(name, value);
+			} else {
+				ranges.add(ParameterSweep.Range.parse(SweepParameter.fromPropertyName(name), value));
+			}
+		}
+	}
+
+	/**
+	 * Bind {@code sg.*} properties from a properties file like the application does.
+	 */
+	static SgReadyProperties loadProperties(@Nullable String file) throws IOException {
+
+		Properties properties = new Properties();
+		if (file != null) {
+			try (Reader reader = Files.newBufferedReader(Path.of(file))) {
+				properties.load(reader);
+			}
+		}
+
+		ApplicationConversionService conversionService = new ApplicationConversionService();
+		conversionService.addConverter(new QuantityConverter());
+
+		Binder binder = new Binder(List.of(new MapConfigurationPropertySource(properties)), null, conversionService);
+		return binder.bindOrCreate("sg", SgReadyProperties.class);
+	}
+
+	private static ConditionSeries loadSeries(Map<String, String> options, ZoneId zone) throws IOException {
+
+		String csv = options.get("csv");
+		if (csv != null) {
+			try (Reader reader = Files.newBufferedReader(Path.of(csv))) {
+				return ConditionSeries.read(reader);
+			}
+		}
+
+		String directory = options.get("history");
+		String from = options.get("from");
+		String to = options.get("to");
+		if (directory == null || from == null || to == null) {
+			throw new IllegalArgumentException("Either --csv or --history with --from and --to is required");
+		}
+
+		Instant start = LocalDate.parse(from).atStartOfDay(zone).toInstant();
+		Instant end = LocalDate.parse(to).atStartOfDay(zone).toInstant();
+		Duration step = DurationStyle.detectAndParse(options.getOrDefault("step", "1m"));
+		Duration window = step.multipliedBy(HistoryStore.MAX_STEPS);
+
+		HistoryProperties defaults = new HistoryProperties();
+		ConditionSeries.Builder builder = ConditionSeries.builder();
+		try (HistoryStore store = new HistoryStore(Path.of(directory), defaults.getSegmentSize().toBytes(),
+				defaults.getRetention(), Channel.all(List.of()), zone)) {
+
+			for (Instant chunk = start; chunk.isBefore(end); chunk = chunk.plus(window)) {
+				Instant chunkEnd = chunk.plus(window);
+				builder.add(store.query(chunk, chunkEnd.isBefore(end) ? chunkEnd : end, step));
+			}
+		}
+
+		return builder.build();
+	}
+
+	private static double hours(Duration duration) {
+		return duration.toMillis() / 3_600_000d;
+	}
+
+}
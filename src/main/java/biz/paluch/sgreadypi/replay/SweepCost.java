@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.replay;
+
+/**
+ * Cost function ranking {@link BacktestResult backtest results} of a {@link ParameterSweep}. Lower costs rank first.
+ *
+ * @author Mark Paluch
+ */
+@FunctionalInterface
+public interface SweepCost {
+
+	/**
+	 * Compute the cost of a backtest result.
+	 *
+	 * @param result the backtest result.
+	 * @return the cost, lower is better.
+	 */
+	double cost(BacktestResult result);
+
+	/**
+	 * Trade self-consumed PV energy against relay wear: each relay switch costs {@code switchPenalty} kWh of
+	 * self-consumption. Energy drawn from the grid while boosting is not considered.
+	 *
+	 * @param switchPenalty self-consumed kWh a single relay switch is worth.
+	 * @return the cost function.
+	 */
+	static SweepCost selfConsumption(double switchPenalty) {
+		return result -> switchPenalty * result.relaySwitches() - result.selfConsumption() / 1000;
+	}
+
+	/**
+	 * Trade {@link BacktestResult#ingressAvoided() avoided grid ingress} against relay wear: each relay switch costs
+	 * {@code switchPenalty} kWh. Unlike {@link #selfConsumption(double)}, boosting from the grid is penalized.
+	 *
+	 * @param switchPenalty avoided ingress in kWh a single relay switch is worth.
+	 * @return the cost function.
+	 */
+	static SweepCost ingressAvoided(double switchPenalty) {
+		return result -> switchPenalty * result.relaySwitches() - result.ingressAvoided() / 1000;
+	}
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.replay;
+
+import biz.paluch.sgreadypi.SgReadyProperties;
+import biz.paluch.sgreadypi.measure.Percent;
+import biz.paluch.sgreadypi.measure.Watt;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Locale;
+
+/**
+ * Policy configuration parameters a {@link ParameterSweep} can vary. Each parameter maps a plain {@code double} onto
+ * {@link SgReadyProperties}: power in Watt, state of charge in percent, local times in minutes of the day and the
+ * debounce in minutes. Negative local times disable the time gate.
+ *
+ * @author Mark Paluch
+ */
+public enum SweepParameter {
+
+	HEAT_PUMP_POWER_CONSUMPTION("heat-pump-power-consumption") {
+		@Override
+		void apply(SgReadyProperties properties, double value) {
+			properties.setHeatPumpPowerConsumption(Watt.of(value));
+		}
+	},
+
+	HEAT_ELEMENT_POWER_CONSUMPTION("heat-element-power-consumption") {
+		@Override
+		void apply(SgReadyProperties properties, double value) {
+			properties.setHeatElementPowerConsumption(Watt.of(value));
+		}
+	},
+
+	INGRESS_LIMIT("ingress-limit") {
+		@Override
+		void apply(SgReadyProperties properties, double value) {
+			properties.setIngressLimit(Watt.of(value));
+		}
+	},
+
+	DISCHARGE_LIMIT("discharge-limit") {
+		@Override
+		void apply(SgReadyProperties properties, double value) {
+			properties.setDischargeLimit(Watt.of(value));
+		}
+	},
+
+	PV_AVAILABLE("battery.pv-available") {
+		@Override
+		void apply(SgReadyProperties properties, double value) {
+			SgReadyProperties.Levels battery = properties.getBattery();
+			properties.setBattery(new SgReadyProperties.Levels(Percent.of(value), battery.pvExcessOn(),
+					battery.pvExcessOff()));
+		}
+	},
+
+	PV_EXCESS_ON("battery.pv-excess-on") {
+		@Override
+		void apply(SgReadyProperties properties, double value) {
+			SgReadyProperties.Levels battery = properties.getBattery();
+			properties.setBattery(new SgReadyProperties.Levels(battery.pvAvailable(), Percent.of(value),
+					battery.pvExcessOff()));
+		}
+	},
+
+	PV_EXCESS_OFF("battery.pv-excess-off") {
+		@Override
+		void apply(SgReadyProperties properties, double value) {
+			SgReadyProperties.Levels battery = properties.getBattery();
+			properties.setBattery(new SgReadyProperties.Levels(battery.pvAvailable(), battery.pvExcessOn(),
+					Percent.of(value)));
+		}
+	},
+
+	AVAILABLE_SOC_OFF_MARGIN("available-soc-off-margin") {
+		@Override
+		void apply(SgReadyProperties properties, double value) {
+			properties.setAvailableSocOffMargin(Percent.of(value));
+		}
+	},
+
+	GENERATOR_POWER_OFF_RATIO("generator-power-off-ratio") {
+		@Override
+		void apply(SgReadyProperties properties, double value) {
+			properties.setGeneratorPowerOffRatio(value);
+		}
+	},
+
+	EXCESS_NOT_BEFORE("excess-not-before") {
+		@Override
+		void apply(SgReadyProperties properties, double value) {
+			properties.setExcessNotBefore(value < 0 ? null : time(value));
+		}
+	},
+
+	EXCESS_NOT_AFTER("excess-not-after") {
+		@Override
+		void apply(SgReadyProperties properties, double value) {
+			properties.setExcessNotAfter(value < 0 ? null : time(value));
+		}
+	},
+
+	DEBOUNCE("debounce") {
+		@Override
+		void apply(SgReadyProperties properties, double value) {
+			properties.setDebounce(Duration.ofSeconds(Math.round(value * 60)));
+		}
+	};
+
+	private final String propertyName;
+
+	SweepParameter(String propertyName) {
+		this.propertyName = propertyName;
+	}
+
+	/**
+	 * Return the name of the parameter as configuration property relative to the {@code sg} prefix.
+	 *
+	 * @return the property name, for example {@code battery.pv-excess-on}.
+	 */
+	public String getPropertyName() {
+		return propertyName;
+	}
+
+	/**
+	 * Apply {@code value} to {@code properties}.
+	 *
+	 * @param properties the properties to configure.
+	 * @param value the parameter value.
+	 */
+	abstract void apply(SgReadyProperties properties, double value);
+
+	/**
+	 * Resolve a parameter from its {@link #getPropertyName() property name}.
+	 *
+	 * @param propertyName the property name.
+	 * @return the matching parameter.
+	 * @throws IllegalArgumentException if {@code propertyName} does not name a parameter.
+	 */
+	public static SweepParameter fromPropertyName(String propertyName) {
+
+		String name = propertyName.toLowerCase(Locale.ROOT);
+		for (SweepParameter parameter : values()) {
+			if (parameter.propertyName.equals(name)) {
+				return parameter;
+			}
+		}
+
+		throw new IllegalArgumentException("Cannot resolve " + propertyName + " to a SweepParameter");
+	}
+
+	private static LocalTime time(double minutes) {
+		return LocalTime.ofSecondOfDay(Math.floorMod(Math.round(minutes * 60), 86400));
+	}
+
+}
@@ -0,0 +1,5 @@
+/**
+ * Deterministic replay of recorded or imported conditions through the SG Ready policy for backtesting.
+ */
+@org.jspecify.annotations.NullMarked
+package biz.paluch.sgreadypi.replay;
@@ -1,16 +1,34 @@
 package cat.joanpujol.smasolar.emeter;
 
 import cat.joanpujol.smasolar.SmaSolarDefaultResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.netty.channel.ChannelFactory;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.InternetProtocolFamily;
+import io.netty.channel.socket.nio.NioDatagramChannel;
 import java.net.InetSocketAddress;
+import reactor.core.publisher.BufferOverflowStrategy;
 
 public class EMeterConfig {
   private InetSocketAddress address = new InetSocketAddress("239.12.255.254", 9522);
   private String networkInterface;
   private EventLoopGroup eventLoopGroup;
+  private long[] serialNumbers = new long[0];
+  private ChannelFactory<? extends DatagramChannel> channelFactory =
+      () -> new NioDatagramChannel(InternetProtocolFamily.IPv4);
+  private int bufferSize = 16;
+  private BufferOverflowStrategy overflowStrategy = BufferOverflowStrategy.DROP_OLDEST;
+  private MeterRegistry meterRegistry = Metrics.globalRegistry;
 
   private EMeterConfig(Builder builder) {
+    if (builder.bufferSize != null) setBufferSize(builder.bufferSize);
+    if (builder.overflowStrategy != null) setOverflowStrategy(builder.overflowStrategy);
     if (builder.address != null) setAddress(builder.address);
+    if (builder.channelFactory != null) setChannelFactory(builder.channelFactory);
+    if (builder.serialNumbers != null) setSerialNumbers(builder.serialNumbers);
+    if (builder.meterRegistry != null) setMeterRegistry(builder.meterRegistry);
     setNetworkInterface(builder.multicastOutputInterface);
     setEventLoopGroup(
         builder.eventLoopGroup != null
@@ -46,10 +64,56 @@ public class EMeterConfig {
     this.eventLoopGroup = eventLoopGroup;
   }
 
+  public long[] getSerialNumbers() {
+    return serialNumbers.clone();
+  }
+
+  private void setSerialNumbers(long[] serialNumbers) {
+    this.serialNumbers = serialNumbers.clone();
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  private void setBufferSize(int bufferSize) {
+    if (bufferSize < 1) throw new IllegalArgumentException("Buffer size must be greater than zero");
+    this.bufferSize = bufferSize;
+  }
+
+  public BufferOverflowStrategy getOverflowStrategy() {
+    return overflowStrategy;
+  }
+
+  private void setOverflowStrategy(BufferOverflowStrategy overflowStrategy) {
+    this.overflowStrategy = overflowStrategy;
+  }
+
+  public ChannelFactory<? extends DatagramChannel> getChannelFactory() {
+    return channelFactory;
+  }
+
+  private void setChannelFactory(ChannelFactory<? extends DatagramChannel> channelFactory) {
+    this.channelFactory = channelFactory;
+  }
+
+  public MeterRegistry getMeterRegistry() {
+    return meterRegistry;
+  }
+
+  private void setMeterRegistry(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
 	public static class Builder {
     private InetSocketAddress address;
     private String multicastOutputInterface;
     private EventLoopGroup eventLoopGroup;
+    private long[] serialNumbers;
+    private ChannelFactory<? extends DatagramChannel> channelFactory;
+    private Integer bufferSize;
+    private BufferOverflowStrategy overflowStrategy;
+    private MeterRegistry meterRegistry;
 
     private Builder() {}
 
@@ -86,6 +150,66 @@ public class EMeterConfig {
       return this;
     }
 
+    /**
+     * Number of lectures buffered per subscriber of {@link EMeterReader#create()}. If none
+     * specified default value is 16
+     *
+     * @param val buffer size
+     * @return
+     */
+    public Builder bufferSize(int val) {
+      bufferSize = val;
+      return this;
+    }
+
+    /**
+     * Strategy applied when a subscriber's buffer is full. If none specified the oldest buffered
+     * lecture is dropped ({@link BufferOverflowStrategy#DROP_OLDEST})
+     *
+     * @param val overflow strategy
+     * @return
+     */
+    public Builder overflowStrategy(BufferOverflowStrategy val) {
+      overflowStrategy = val;
+      return this;
+    }
+
+    /**
+     * Factory for the datagram channel. Must match the transport of the {@link EventLoopGroup}. If
+     * none specified an IPv4 {@link NioDatagramChannel} is used
+     *
+     * @param val channel factory
+     * @return
+     */
+    public Builder channelFactory(ChannelFactory<? extends DatagramChannel> val) {
+      channelFactory = val;
+      return this;
+    }
+
+    /**
+     * Serial numbers of meters to receive lectures from. Datagrams of other devices are dropped
+     * before decoding. If none specified lectures of all meters are received
+     *
+     * @param val serial numbers
+     * @return
+     */
+    public Builder serialNumbers(long... val) {
+      serialNumbers = val;
+      return this;
+    }
+
+    /**
+     * Registry for the datagram counters of the serial number filter. If none specified {@link
+     * Metrics#globalRegistry} is used
+     *
+     * @param val meter registry
+     * @return
+     */
+    public Builder meterRegistry(MeterRegistry val) {
+      meterRegistry = val;
+      return this;
+    }
+
     /**
      * Build configuration
      *
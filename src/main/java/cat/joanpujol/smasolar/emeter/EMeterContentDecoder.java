@@ -6,21 +6,153 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.socket.DatagramPacket;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import io.netty.util.CharsetUtil;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Decoder for EMeter messages */
+/**
+ * Decoder for EMeter messages.
+ *
+ * <p>The decoder operates in one of two modes:
+ *
+ * <ul>
+ *   <li>Full mode (default constructor) decodes every datagram into an {@link EMeterLecture}.
+ *   <li>Table mode ({@link #EMeterContentDecoder(long...)}) reads the serial number as raw integer
+ *       at its fixed offset and drops datagrams from meters that are not subscribed before any
+ *       object is created. Channels of subscribed meters are dispatched through a precomputed
+ *       OBIS-index lookup table into a reusable {@code double[]} and an {@link EMeterLecture} is
+ *       materialized only afterwards. The formatted device serial is cached per subscribed meter,
+ *       keyed by its packed SUSy ID and serial number.
+ * </ul>
+ *
+ * <p>Decoders in table mode hold mutable state and must not be shared across channels.
+ */
 public class EMeterContentDecoder extends MessageToMessageDecoder<DatagramPacket> {
   private static final int TYPE_COUNTER = 8;
   private static final int TYPE_MEASURE = 4;
 
+  static final int OFFSET_SUSY_ID = 18;
+  static final int OFFSET_SERIAL_NUMBER = 20;
+  static final int OFFSET_TICKER = 24;
+  static final int OFFSET_CHANNELS = 28;
+
+  // Value slots: 8 Data groups (current sum/L1/L2/L3, counter sum/L1/L2/L3) times 9 fields
+  private static final int FIELDS = 9;
+  private static final int FIELD_ACTIVE = 0;
+  private static final int FIELD_NEGATIVE_ACTIVE = 1;
+  private static final int FIELD_REACTIVE = 2;
+  private static final int FIELD_NEGATIVE_REACTIVE = 3;
+  private static final int FIELD_APPARENT = 4;
+  private static final int FIELD_NEGATIVE_APPARENT = 5;
+  private static final int FIELD_POWER_FACTOR = 6;
+  private static final int FIELD_CURRENT = 7;
+  private static final int FIELD_VOLTAGE = 8;
+  private static final int GROUP_COUNTER = 4;
+  static final int SLOTS = 8 * FIELDS;
+
+  // OBIS index -> slot (or -1) and scale factor, one table per value type
+  private static final int[] MEASURE_SLOTS = new int[256];
+  private static final double[] MEASURE_FACTORS = new double[256];
+  private static final int[] COUNTER_SLOTS = new int[256];
+  private static final double[] COUNTER_FACTORS = new double[256];
+
+  static {
+    Arrays.fill(MEASURE_SLOTS, -1);
+    Arrays.fill(COUNTER_SLOTS, -1);
+
+    for (int phase = 0; phase < 4; phase++) {
+      int base = phase * 20;
+      measure(base + 1, phase, FIELD_ACTIVE, 0.1d);
+      measure(base + 2, phase, FIELD_NEGATIVE_ACTIVE, 0.1d);
+      measure(base + 3, phase, FIELD_REACTIVE, 0.1d);
+      measure(base + 4, phase, FIELD_NEGATIVE_REACTIVE, 0.1d);
+      measure(base + 9, phase, FIELD_APPARENT, 0.1d);
+      measure(base + 10, phase, FIELD_NEGATIVE_APPARENT, 0.1d);
+
+      counter(base + 1, phase, FIELD_ACTIVE);
+      counter(base + 2, phase, FIELD_NEGATIVE_ACTIVE);
+      counter(base + 3, phase, FIELD_REACTIVE);
+      counter(base + 4, phase, FIELD_NEGATIVE_REACTIVE);
+      counter(base + 9, phase, FIELD_APPARENT);
+      counter(base + 10, phase, FIELD_NEGATIVE_APPARENT);
+
+      if (phase == 0) {
+        measure(13, phase, FIELD_POWER_FACTOR, 0.001d);
+      } else {
+        measure(base + 11, phase, FIELD_CURRENT, 1 / 1000d);
+        measure(base + 12, phase, FIELD_VOLTAGE, 1 / 1000d);
+      }
+    }
+  }
+
   private static final Logger logger = LoggerFactory.getLogger(EMeterContentDecoder.class);
 
+  private final long[] subscribedSerials;
+  private final long[] serialKeys;
+  private final String[] serials;
+  private final double[] values;
+
+  /** Creates a decoder that decodes all messages into {@link EMeterLecture}. */
+  public EMeterContentDecoder() {
+    this.subscribedSerials = null;
+    this.serialKeys = null;
+    this.serials = null;
+    this.values = null;
+  }
+
+  /**
+   * Creates a table-driven decoder that only emits {@link EMeterLecture} for the given meter
+   * serial numbers.
+   *
+   * @param subscribedSerials serial numbers of meters to decode
+   */
+  public EMeterContentDecoder(long... subscribedSerials) {
+    this.subscribedSerials = subscribedSerials.clone();
+    this.serialKeys = new long[subscribedSerials.length];
+    this.serials = new String[subscribedSerials.length];
+    this.values = new double[SLOTS];
+  }
+
+  private static void measure(int idx, int group, int field, double factor) {
+    MEASURE_SLOTS[idx] = group * FIELDS + field;
+    MEASURE_FACTORS[idx] = factor;
+  }
+
+  private static void counter(int idx, int group, int field) {
+    COUNTER_SLOTS[idx] = (GROUP_COUNTER + group) * FIELDS + field;
+    COUNTER_FACTORS[idx] = 1 / 3600000d;
+  }
+
+  /**
+   * Reads the SUSy ID of the sending device without changing the buffer indexes.
+   *
+   * @param content datagram content positioned at the SMA header
+   * @return the SUSy ID
+   */
+  public static int peekSusyId(ByteBuf content) {
+    return content.getUnsignedShort(content.readerIndex() + OFFSET_SUSY_ID);
+  }
+
+  /**
+   * Reads the serial number of the sending device without changing the buffer indexes.
+   *
+   * @param content datagram content positioned at the SMA header
+   * @return the serial number
+   */
+  public static long peekSerialNumber(ByteBuf content) {
+    return content.getUnsignedInt(content.readerIndex() + OFFSET_SERIAL_NUMBER);
+  }
+
   @Override
   protected void decode(ChannelHandlerContext ctx, DatagramPacket msg, List<Object> out)
       throws Exception {
+    if (subscribedSerials != null) {
+      decodeSubscribed(msg.content(), out);
+      return;
+    }
+
     var content = msg.content();
 
     EMeterLecture lecture = new EMeterLecture();
@@ -53,6 +185,100 @@ public class EMeterContentDecoder extends MessageToMessageDecoder<DatagramPacket
     out.add(lecture);
   }
 
+  private void decodeSubscribed(ByteBuf content, List<Object> out) {
+    if (content.readableBytes() < OFFSET_CHANNELS) {
+      return;
+    }
+
+    long serialNumber = peekSerialNumber(content);
+    int subscription = indexOf(serialNumber);
+    if (subscription == -1) {
+      return;
+    }
+
+    int start = content.readerIndex();
+    int end = content.writerIndex();
+    double[] values = this.values;
+    Arrays.fill(values, 0);
+
+    int position = start + OFFSET_CHANNELS;
+    while (position + 4 <= end) {
+      int idx = content.getUnsignedByte(position + 1);
+      int typ = content.getUnsignedByte(position + 2);
+      position += 4;
+
+      if (typ == TYPE_COUNTER) {
+        if (position + 8 > end) {
+          break;
+        }
+        int slot = COUNTER_SLOTS[idx];
+        if (slot != -1) {
+          long val =
+              content.getUnsignedInt(position) * 65536 + content.getUnsignedInt(position + 4);
+          values[slot] = val * COUNTER_FACTORS[idx];
+        }
+        position += 8;
+      } else if (typ == TYPE_MEASURE) {
+        if (position + 4 > end) {
+          break;
+        }
+        int slot = MEASURE_SLOTS[idx];
+        if (slot != -1) {
+          values[slot] = content.getUnsignedInt(position) * MEASURE_FACTORS[idx];
+        }
+        position += 4;
+      }
+    }
+
+    EMeterLecture lecture = new EMeterLecture();
+    lecture.setDeviceServiceNumber(serial(subscription, peekSusyId(content), serialNumber));
+    lecture.setTicker(content.getUnsignedInt(start + OFFSET_TICKER));
+    copy(values, 0, lecture.getCurrentSum());
+    copy(values, 1, lecture.getCurrentPhase1());
+    copy(values, 2, lecture.getCurrentPhase2());
+    copy(values, 3, lecture.getCurrentPhase3());
+    copy(values, GROUP_COUNTER, lecture.getCounterSum());
+    copy(values, GROUP_COUNTER + 1, lecture.getCounterPhase1());
+    copy(values, GROUP_COUNTER + 2, lecture.getCounterPhase2());
+    copy(values, GROUP_COUNTER + 3, lecture.getCounterPhase3());
+
+    out.add(lecture);
+  }
+
+  private int indexOf(long serialNumber) {
+    for (int i = 0; i < subscribedSerials.length; i++) {
+      if (subscribedSerials[i] == serialNumber) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private String serial(int subscription, int susy, long serialNumber) {
+    // SUSy ID is an unsigned short and the serial number an unsigned int, so the key is unique
+    long key = ((long) susy << 32) | serialNumber;
+    String serial = serials[subscription];
+    if (serial == null || serialKeys[subscription] != key) {
+      serial = String.format("%05d%010d", susy, serialNumber);
+      serialKeys[subscription] = key;
+      serials[subscription] = serial;
+    }
+    return serial;
+  }
+
+  private static void copy(double[] values, int group, EMeterLecture.Data data) {
+    int base = group * FIELDS;
+    data.setActivePower(values[base + FIELD_ACTIVE]);
+    data.setNegativeActivePower(values[base + FIELD_NEGATIVE_ACTIVE]);
+    data.setReactivePower(values[base + FIELD_REACTIVE]);
+    data.setNegativeReactivePower(values[base + FIELD_NEGATIVE_REACTIVE]);
+    data.setApparentPower(values[base + FIELD_APPARENT]);
+    data.setNegativeApparentPower(values[base + FIELD_NEGATIVE_APPARENT]);
+    data.setPowerFactor(values[base + FIELD_POWER_FACTOR]);
+    data.setElectricCurrent(values[base + FIELD_CURRENT]);
+    data.setVoltage(values[base + FIELD_VOLTAGE]);
+  }
+
   private void parseMeasure(ByteBuf obis, EMeterLecture reading) {
     var channel = obis.readUnsignedByte();
     var idx = obis.readUnsignedByte();
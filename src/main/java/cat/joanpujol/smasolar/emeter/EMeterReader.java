@@ -1,15 +1,19 @@
 package cat.joanpujol.smasolar.emeter;
 
 import cat.joanpujol.smasolar.emeter.impl.EMeterCreateObservableImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 
-import java.util.Observable;
-
 /** Provides an interface to cotinously observe emeter lectures by joining Emeter multicast group */
 public class EMeterReader {
 
+	private static final Logger logger = LoggerFactory.getLogger(EMeterReader.class);
+
 	private EMeterConfig config;
 
+	private volatile Flux<EMeterLecture> lectures;
+
 	/** Creates an instance using default configuration */
 	public EMeterReader() {
 		this(EMeterConfig.newBuilder().build());
@@ -25,14 +29,33 @@ public class EMeterReader {
 	}
 
 	/**
-	 * Creates a cold observable that starts to listens to EMeter lectures on first subscription. The observable can be
-	 * shared to multiple subscribers that will receive same results without creating multiple sockets.
+	 * Returns a hot observable of EMeter lectures. The datagram channel is opened on first subscription
+	 * and shared by all subscribers, so each datagram is received and decoded once. Late subscribers
+	 * receive the latest lecture first. The channel is closed when the last subscriber cancels.
 	 * <p>
-	 * Subscribed observers should not do blocking operations or must use it's own scheduler using
-	 * {@link Observable#observeOn(Scheduler)}}
+	 * Each subscriber gets its own buffer bounded by {@link EMeterConfig#getBufferSize()}. A slow
+	 * subscriber does not hold back others, lectures exceeding its buffer are handled according to
+	 * {@link EMeterConfig#getOverflowStrategy()}. Subscribers should not do blocking operations or
+	 * must publish on their own scheduler.
 	 */
 	public final Flux<EMeterLecture> create() {
-		return create().share();
+		return getLectures().onBackpressureBuffer(config.getBufferSize(),
+				dropped -> logger.debug("Dropping lecture of slow subscriber {}", dropped.getTicker()),
+				config.getOverflowStrategy());
+	}
+
+	private Flux<EMeterLecture> getLectures() {
+		Flux<EMeterLecture> lectures = this.lectures;
+		if (lectures == null) {
+			synchronized (this) {
+				lectures = this.lectures;
+				if (lectures == null) {
+					lectures = createObservable().create().replay(1).refCount();
+					this.lectures = lectures;
+				}
+			}
+		}
+		return lectures;
 	}
 
 	// Exposed only for testing purpouses
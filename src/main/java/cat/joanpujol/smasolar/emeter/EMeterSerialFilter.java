@@ -0,0 +1,187 @@
+package cat.joanpujol.smasolar.emeter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.socket.DatagramPacket;
+import io.netty.util.ReferenceCountUtil;
+import java.net.InetAddress;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtering stage placed ahead of {@link EMeterContentDecoder}. Peeks at the SMA header, the
+ * protocol ID, the SUSy ID and the serial number at their fixed offsets in the raw datagram and
+ * drops datagrams that do not originate from a subscribed meter before anything is decoded.
+ *
+ * <p>Accepted and dropped datagrams are counted per origin address and registered as {@code
+ * emeter.datagrams} counters tagged by {@code origin} and {@code outcome}. Only the first {@link
+ * #MAX_ORIGINS} origins are tracked individually, datagrams of further origins are counted
+ * together under the origin {@code other}.
+ */
+@ChannelHandler.Sharable
+public class EMeterSerialFilter extends ChannelInboundHandlerAdapter {
+  static final int OFFSET_PROTOCOL_ID = 16;
+  static final int PROTOCOL_EMETER = 0x6069;
+
+  /** Value for {@code susyId} to accept any SUSy ID. */
+  public static final int ANY_SUSY_ID = -1;
+
+  /** Maximum number of origin addresses that are counted individually. */
+  public static final int MAX_ORIGINS = 16;
+
+  private final int susyId;
+  private final long[] serialNumbers;
+  private final MeterRegistry meterRegistry;
+  private final ConcurrentMap<InetAddress, Counters> counters = new ConcurrentHashMap<>();
+  private final Counters other;
+
+  /**
+   * Creates a filter accepting datagrams of the given meters regardless of their SUSy ID.
+   *
+   * @param serialNumbers serial numbers of meters to accept
+   */
+  public EMeterSerialFilter(long... serialNumbers) {
+    this(ANY_SUSY_ID, serialNumbers);
+  }
+
+  /**
+   * Creates a filter accepting datagrams of the given meters.
+   *
+   * @param susyId SUSy ID of meters to accept or {@link #ANY_SUSY_ID}
+   * @param serialNumbers serial numbers of meters to accept
+   */
+  public EMeterSerialFilter(int susyId, long... serialNumbers) {
+    this(Metrics.globalRegistry, susyId, serialNumbers);
+  }
+
+  /**
+   * Creates a filter accepting datagrams of the given meters and registering its counters with
+   * {@code meterRegistry}.
+   *
+   * @param meterRegistry registry for the per-origin datagram counters
+   * @param susyId SUSy ID of meters to accept or {@link #ANY_SUSY_ID}
+   * @param serialNumbers serial numbers of meters to accept
+   */
+  public EMeterSerialFilter(MeterRegistry meterRegistry, int susyId, long... serialNumbers) {
+    this.susyId = susyId;
+    this.serialNumbers = serialNumbers.clone();
+    this.meterRegistry = meterRegistry;
+    this.other = new Counters(meterRegistry, "other");
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    if (!(msg instanceof DatagramPacket packet)) {
+      ctx.fireChannelRead(msg);
+      return;
+    }
+
+    Counters counters = counters(packet.sender().getAddress());
+    if (accept(packet.content())) {
+      counters.accepted.increment();
+      ctx.fireChannelRead(msg);
+    } else {
+      counters.dropped.increment();
+      ReferenceCountUtil.release(msg);
+    }
+  }
+
+  private boolean accept(ByteBuf content) {
+    if (content.readableBytes() < EMeterContentDecoder.OFFSET_CHANNELS) {
+      return false;
+    }
+
+    int start = content.readerIndex();
+    // "SMA\0"
+    if (content.getInt(start) != 0x534D4100) {
+      return false;
+    }
+
+    if (content.getUnsignedShort(start + OFFSET_PROTOCOL_ID) != PROTOCOL_EMETER) {
+      return false;
+    }
+
+    if (susyId != ANY_SUSY_ID && EMeterContentDecoder.peekSusyId(content) != susyId) {
+      return false;
+    }
+
+    long serialNumber = EMeterContentDecoder.peekSerialNumber(content);
+    for (long candidate : serialNumbers) {
+      if (candidate == serialNumber) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Counters counters(InetAddress origin) {
+    Counters counters = this.counters.get(origin);
+    if (counters != null) {
+      return counters;
+    }
+
+    // Bound the number of meters, foreign devices on the multicast group are not under our control
+    if (this.counters.size() >= MAX_ORIGINS) {
+      return other;
+    }
+
+    return this.counters.computeIfAbsent(
+        origin, it -> new Counters(meterRegistry, it.getHostAddress()));
+  }
+
+  /** @return origin addresses that are counted individually */
+  public Set<InetAddress> getOrigins() {
+    return counters.keySet();
+  }
+
+  /**
+   * @param origin the origin address
+   * @return number of datagrams from {@code origin} passed on to the decoder
+   */
+  public long getAccepted(InetAddress origin) {
+    Counters counters = this.counters.get(origin);
+    return counters != null ? counters.accepted.sum() : 0;
+  }
+
+  /**
+   * @param origin the origin address
+   * @return number of datagrams from {@code origin} dropped before decoding
+   */
+  public long getDropped(InetAddress origin) {
+    Counters counters = this.counters.get(origin);
+    return counters != null ? counters.dropped.sum() : 0;
+  }
+
+  /**
+   * @return number of datagrams dropped before decoding from origins beyond {@link #MAX_ORIGINS}
+   */
+  public long getDroppedFromOtherOrigins() {
+    return other.dropped.sum();
+  }
+
+  private static class Counters {
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    Counters(MeterRegistry meterRegistry, String origin) {
+      register(meterRegistry, origin, "accepted", accepted);
+      register(meterRegistry, origin, "dropped", dropped);
+    }
+
+    private static void register(
+        MeterRegistry meterRegistry, String origin, String outcome, LongAdder counter) {
+      FunctionCounter.builder("emeter.datagrams", counter, LongAdder::sum)
+          .description("EMeter datagrams passed on to or dropped before decoding")
+          .tag("origin", origin)
+          .tag("outcome", outcome)
+          .register(meterRegistry);
+    }
+  }
+}
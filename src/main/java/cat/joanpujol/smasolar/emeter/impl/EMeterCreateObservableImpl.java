@@ -3,49 +3,75 @@ package cat.joanpujol.smasolar.emeter.impl;
 import cat.joanpujol.smasolar.emeter.EMeterConfig;
 import cat.joanpujol.smasolar.emeter.EMeterContentDecoder;
 import cat.joanpujol.smasolar.emeter.EMeterLecture;
+import cat.joanpujol.smasolar.emeter.EMeterSerialFilter;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.*;
-import io.netty.channel.socket.InternetProtocolFamily;
-import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.DatagramChannel;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import java.net.NetworkInterface;
 import java.net.SocketException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 
 /**
- * Create an observable that provides Emeter lectures. This observable is cold and can only be
- * subscribed once. When observable is subscribed a datagram channel is created that listens to
- * Emeter multicast group
+ * Create an observable that provides Emeter lectures. When the observable is subscribed a datagram
+ * channel is created that listens to Emeter multicast group. Concurrent subscribers share the same
+ * channel, which is closed once the last subscriber cancels. A later subscription opens a new
+ * channel.
  */
 public class EMeterCreateObservableImpl {
   private static final Logger logger = LoggerFactory.getLogger(EMeterCreateObservableImpl.class);
 
   private EMeterConfig config;
-  private boolean initialized = false;
-  private AbstractChannel channel;
+  private final AtomicBoolean initialized = new AtomicBoolean();
+  private volatile Channel channel;
+  private final EMeterSerialFilter serialFilter;
+  private final Flux<EMeterLecture> lectures;
 
   public EMeterCreateObservableImpl(EMeterConfig config) {
     this.config = config;
+    long[] serialNumbers = config.getSerialNumbers();
+    this.serialFilter =
+        serialNumbers.length > 0
+            ? new EMeterSerialFilter(
+                config.getMeterRegistry(), EMeterSerialFilter.ANY_SUSY_ID, serialNumbers)
+            : null;
+    this.lectures = Flux.create(this::subscribe).share();
   }
 
-  public Flux<EMeterLecture> create() {
-    return Flux.create(sink -> {
+  /**
+   * Returns the filter that drops datagrams of non-configured meters before decoding.
+   *
+   * @return the filter or {@code null} if no serial numbers are configured
+   */
+  public EMeterSerialFilter getSerialFilter() {
+    return serialFilter;
+  }
 
+  public Flux<EMeterLecture> create() {
+    return lectures;
+  }
 
-        if (initialized)
-      throw new IllegalStateException(
-          "Can't subscribe twice, it's observable is expected to be shared");
+  private void subscribe(FluxSink<EMeterLecture> sink) {
+    // share() subscribes upstream once, this guards against a channel leak if that ever changes
+    if (!initialized.compareAndSet(false, true)) {
+      sink.error(new IllegalStateException("Datagram channel already open"));
+      return;
+    }
 
-    sink.onCancel(
+    sink.onDispose(
         () -> {
-          // Close channel when subscriber is unsubscribed
+          // Close channel when the last subscriber is unsubscribed or the stream terminates
+          Channel channel = this.channel;
+          this.channel = null;
           if (channel != null) channel.close();
+          initialized.set(false);
         });
-    initialized = true;
 
     // Processor that simply sends received lectures to observer
     var processor =
@@ -57,7 +83,6 @@ public class EMeterCreateObservableImpl {
           }
         };
     startMulticastChannelReceiver(processor, sink);
-    });
   }
 
 
@@ -69,7 +94,7 @@ public class EMeterCreateObservableImpl {
    */
   private void startMulticastChannelReceiver(SimpleChannelInboundHandler<EMeterLecture> processor, FluxSink<EMeterLecture> sink) {
     try {
-      AbstractChannel datagramChannel = createChannel(config, processor);
+      Channel datagramChannel = createChannel(config, processor);
       this.channel = datagramChannel;
       datagramChannel
           .closeFuture()
@@ -89,7 +114,7 @@ public class EMeterCreateObservableImpl {
    *
    * <p>Visibility increased for testing to be able to provide a mocked channel
    */
-  protected AbstractChannel createChannel(
+  protected Channel createChannel(
       EMeterConfig config, SimpleChannelInboundHandler<EMeterLecture> processor)
       throws SocketException, InterruptedException {
     NetworkInterface networkInterface =
@@ -98,17 +123,24 @@ public class EMeterCreateObservableImpl {
     Bootstrap b =
         new Bootstrap()
             .group(config.getEventLoopGroup())
-            .channelFactory(
-                (ChannelFactory<NioDatagramChannel>)
-                    () -> new NioDatagramChannel(InternetProtocolFamily.IPv4))
+            .channelFactory(config.getChannelFactory())
             .option(ChannelOption.IP_MULTICAST_IF, networkInterface)
             .option(ChannelOption.SO_REUSEADDR, true)
+            // Pooled direct buffers sized for EMeter datagrams (~600 bytes)
+            .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+            .option(ChannelOption.RCVBUF_ALLOCATOR, new FixedRecvByteBufAllocator(2048))
             .handler(
-                new ChannelInitializer<NioDatagramChannel>() {
+                new ChannelInitializer<DatagramChannel>() {
                   @Override
-                  public void initChannel(NioDatagramChannel ch) {
+                  public void initChannel(DatagramChannel ch) {
+                    if (serialFilter != null) {
+                      ch.pipeline().addLast(serialFilter);
+                    }
                     ch.pipeline()
-                        .addLast(new EMeterContentDecoder())
+                        .addLast(
+                            serialFilter != null
+                                ? new EMeterContentDecoder(config.getSerialNumbers())
+                                : new EMeterContentDecoder())
                         .addLast(processor)
                         // Next processors apply only for incorrect messaages that aren't handled by
                         // processor
@@ -126,8 +158,7 @@ public class EMeterCreateObservableImpl {
                   }
                 });
 
-    NioDatagramChannel channel =
-        (NioDatagramChannel) b.bind(config.getAddress().getPort()).sync().channel();
+    DatagramChannel channel = (DatagramChannel) b.bind(config.getAddress().getPort()).sync().channel();
     channel.joinGroup(config.getAddress(), networkInterface).sync();
     return channel;
   }
@@ -51,16 +51,18 @@ public class ModbusDataFormat<T> {
 
   private static class DecimalFormatDecoder implements FormatDecoder<BigDecimal> {
     private final int numDecimals;
+    private final BigDecimal divisor;
 
     public DecimalFormatDecoder(int numDecimals) {
       this.numDecimals = numDecimals;
+      this.divisor = BigDecimal.TEN.pow(numDecimals);
     }
 
     @Override
     public Number format(Object value) {
       if (value instanceof Number) {
         Number num = (Number) value;
-        return new BigDecimal(num.longValue()).divide(new BigDecimal(10).pow(numDecimals));
+        return new BigDecimal(num.longValue()).divide(divisor);
       } else if (value == null) {
         return null;
       } else
@@ -189,6 +191,15 @@ public class ModbusDataFormat<T> {
     return formatDecoder;
   }
 
+  /**
+   * Returns the number of decimal places of fixed point formats
+   *
+   * @return decimal places or {@code 0} for formats without decimal places
+   */
+  public int getDecimals() {
+    return formatDecoder instanceof DecimalFormatDecoder decimal ? decimal.numDecimals : 0;
+  }
+
   interface FormatDecoder<TD> {
     <TD> TD format(Object value);
   }
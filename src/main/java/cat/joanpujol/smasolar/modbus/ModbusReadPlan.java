@@ -0,0 +1,125 @@
+package cat.joanpujol.smasolar.modbus;
+
+import com.digitalpetri.modbus.requests.ReadInputRegistersRequest;
+import io.netty.buffer.ByteBuf;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, precompiled plan to read a fixed set of numeric registers. The plan is built once and
+ * reused for every read: registers are split into atomic requests and each register gets a slot
+ * (its position in {@link #compile(Integer, ModbusRegister[])}) with a precomputed byte offset in
+ * the response of its atomic request. Values are decoded straight from the response buffer into a
+ * {@link ModbusReadResponse} without boxing.
+ *
+ * <p>Use {@link SmaModbusRequest} and {@link SmaModbusResponse} for ad-hoc reads and non numeric
+ * registers.
+ */
+public final class ModbusReadPlan {
+  private final Integer unitId;
+  private final ModbusRegister<?>[] registers;
+  private final ModbusDataType[] dataTypes;
+  private final int[] offsets;
+  private final int[] firstRegisters;
+  private final int[] registerCounts;
+  private final int[][] slotsByRequest;
+
+  private ModbusReadPlan(Integer unitId, ModbusRegister<?>[] registers) {
+    this.unitId = unitId;
+    this.registers = registers.clone();
+    this.dataTypes = new ModbusDataType[registers.length];
+    this.offsets = new int[registers.length];
+
+    var builder = SmaModbusRequest.newBuilder(SmaModbusRequest.Type.READ).unitId(unitId);
+    for (ModbusRegister<?> register : registers) {
+      if (register.getDataType() == ModbusDataType.STR32) {
+        throw new IllegalArgumentException(
+            "Register " + register.getName() + " is not numeric, use SmaModbusRequest instead");
+      }
+      builder.addRegister(register);
+    }
+
+    List<SmaModbusRequest> requests = builder.build().subdivideInAtomicRequests();
+    this.firstRegisters = new int[requests.size()];
+    this.registerCounts = new int[requests.size()];
+    this.slotsByRequest = new int[requests.size()][];
+
+    int[] requestOfSlot = new int[registers.length];
+    for (int request = 0; request < requests.size(); request++) {
+      SmaModbusRequest atomic = requests.get(request);
+      firstRegisters[request] = atomic.getFirstRegisterNumber();
+      registerCounts[request] = atomic.calculateNumberOfRegistersToReadInAtomicRequest();
+
+      int count = 0;
+      int[] slots = new int[registers.length];
+      for (int slot = 0; slot < registers.length; slot++) {
+        if (atomic.getRegisters().contains(registers[slot])) {
+          requestOfSlot[slot] = request;
+          slots[count++] = slot;
+        }
+      }
+      slotsByRequest[request] = Arrays.copyOf(slots, count);
+    }
+
+    for (int slot = 0; slot < registers.length; slot++) {
+      dataTypes[slot] = registers[slot].getDataType();
+      offsets[slot] =
+          (registers[slot].getRegisterNumber() - firstRegisters[requestOfSlot[slot]]) * 2;
+    }
+  }
+
+  /**
+   * Compiles a plan reading the given registers
+   *
+   * @param unitId unit id to read from or {@code null} to use the device main unit id
+   * @param registers numeric registers, the index of each register is its slot in {@link
+   *     ModbusReadResponse}
+   * @return the compiled plan
+   */
+  public static ModbusReadPlan compile(Integer unitId, ModbusRegister<?>... registers) {
+    return new ModbusReadPlan(unitId, registers);
+  }
+
+  public Integer getUnitId() {
+    return unitId;
+  }
+
+  /** Returns the number of slots, one per register */
+  public int getSlotCount() {
+    return registers.length;
+  }
+
+  public ModbusRegister<?> getRegister(int slot) {
+    return registers[slot];
+  }
+
+  /** Returns the number of atomic requests needed to execute this plan */
+  public int getRequestCount() {
+    return firstRegisters.length;
+  }
+
+  /** Creates a response sized for this plan that can be reused across reads */
+  public ModbusReadResponse newResponse() {
+    return new ModbusReadResponse(registers.length);
+  }
+
+  ReadInputRegistersRequest createModbusRequest(int request) {
+    return new ReadInputRegistersRequest(firstRegisters[request], registerCounts[request]);
+  }
+
+  /**
+   * Decodes the registers of an atomic request into their slots using absolute reads. The reader
+   * index of {@code registers} is not modified.
+   *
+   * @param request index of the atomic request
+   * @param registers response registers of the atomic request
+   * @param into response to write values to
+   */
+  public void decode(int request, ByteBuf registers, ModbusReadResponse into) {
+    int base = registers.readerIndex();
+    for (int slot : slotsByRequest[request]) {
+      long raw = ModbusValueReader.getRaw(registers, base + offsets[slot], dataTypes[slot]);
+      into.set(slot, raw, !ModbusValueReader.isNaN(dataTypes[slot], raw));
+    }
+  }
+}
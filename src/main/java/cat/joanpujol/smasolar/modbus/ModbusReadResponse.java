@@ -0,0 +1,49 @@
+package cat.joanpujol.smasolar.modbus;
+
+import java.util.Arrays;
+
+/**
+ * Primitive, slot-indexed values read by a {@link ModbusReadPlan}. Instances are reusable: a read
+ * {@link #clear() clears} the response before decoding into it. Not thread-safe, a response must
+ * not be shared by concurrent reads.
+ *
+ * <p>Registers reporting the SMA NaN value are not present and read as {@code 0}.
+ */
+public final class ModbusReadResponse {
+  private final long[] values;
+  private final boolean[] present;
+
+  ModbusReadResponse(int slots) {
+    this.values = new long[slots];
+    this.present = new boolean[slots];
+  }
+
+  void set(int slot, long value, boolean isPresent) {
+    values[slot] = isPresent ? value : 0;
+    present[slot] = isPresent;
+  }
+
+  /** Resets all slots to not present */
+  public void clear() {
+    Arrays.fill(values, 0);
+    Arrays.fill(present, false);
+  }
+
+  /** Returns whether the slot has a value */
+  public boolean isPresent(int slot) {
+    return present[slot];
+  }
+
+  /** Returns the value of the slot narrowed to an int or {@code 0} if not present */
+  public int getInt(int slot) {
+    return (int) values[slot];
+  }
+
+  /**
+   * Returns the value of the slot or {@code 0} if not present. {@link ModbusDataType#U64} values are
+   * returned as their signed bit pattern.
+   */
+  public long getLong(int slot) {
+    return values[slot];
+  }
+}
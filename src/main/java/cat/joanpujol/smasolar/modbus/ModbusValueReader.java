@@ -1,61 +1,164 @@
 package cat.joanpujol.smasolar.modbus;
 
-import static cat.joanpujol.smasolar.modbus.ModbusDataType.U64;
-
 import io.netty.buffer.ByteBuf;
 import io.netty.util.ByteProcessor;
 import io.netty.util.CharsetUtil;
 import java.math.BigInteger;
 
+/**
+ * Reads register values from Modbus responses. {@link #read(ByteBuf, ModbusDataType,
+ * ModbusDataFormat)} returns formatted objects, {@link #readInt}, {@link #readLong} and {@link
+ * #readScaledDouble} decode numeric values without boxing. All methods advance the reader index by
+ * the length of the data type. Instances are stateless and can be shared.
+ */
 public class ModbusValueReader {
 
+  private static final BigInteger TWO_POW_64 = BigInteger.ONE.shiftLeft(64);
+
+  private static final double[] POW10 = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
   public <T> T read(ByteBuf from, ModbusDataType dataType, ModbusDataFormat<T> format) {
     Object value = readValue(from, dataType);
     return formatValue(value, format);
   }
 
+  /**
+   * Reads a value of a data type fitting into an int ({@code S16}, {@code U16}, {@code S32} and
+   * {@code U32_STATUS})
+   *
+   * @param nanValue value to return if the register reports NaN
+   * @return the value or {@code nanValue}
+   */
+  public int readInt(ByteBuf from, ModbusDataType dataType, int nanValue) {
+    switch (dataType) {
+      case S16:
+      case U16:
+      case S32:
+      case U32_STATUS:
+        long raw = readRaw(from, dataType);
+        return isNaN(dataType, raw) ? nanValue : (int) raw;
+      default:
+        throw new IllegalArgumentException(dataType + " does not fit into an int");
+    }
+  }
+
+  /**
+   * Reads a numeric value. {@code U64} values are returned as their signed bit pattern.
+   *
+   * @param nanValue value to return if the register reports NaN
+   * @return the value or {@code nanValue}
+   */
+  public long readLong(ByteBuf from, ModbusDataType dataType, long nanValue) {
+    long raw = readRaw(from, dataType);
+    return isNaN(dataType, raw) ? nanValue : raw;
+  }
+
+  /**
+   * Reads a numeric value with fixed decimal places, such as {@link ModbusDataFormat#FIX2}
+   *
+   * @param decimals number of decimal places, see {@link ModbusDataFormat#getDecimals()}
+   * @return the scaled value or {@link Double#NaN} if the register reports NaN
+   */
+  public double readScaledDouble(ByteBuf from, ModbusDataType dataType, int decimals) {
+    long raw = readRaw(from, dataType);
+    if (isNaN(dataType, raw)) {
+      return Double.NaN;
+    }
+    double value =
+        dataType == ModbusDataType.U64 && raw < 0
+            ? (double) (raw >>> 1) * 2 + (raw & 1)
+            : (double) raw;
+    return decimals == 0 ? value : value / POW10[decimals];
+  }
+
+  private static long readRaw(ByteBuf from, ModbusDataType dataType) {
+    long raw = getRaw(from, from.readerIndex(), dataType);
+    from.skipBytes(dataType.getLength());
+    return raw;
+  }
+
+  /**
+   * Reads a numeric value at an absolute index without changing the reader index. Unsigned types
+   * are zero extended, signed types sign extended.
+   */
+  static long getRaw(ByteBuf from, int index, ModbusDataType dataType) {
+    switch (dataType) {
+      case S16:
+        return from.getShort(index);
+      case U16:
+        return from.getUnsignedShort(index);
+      case S32:
+        return from.getInt(index);
+      case U32:
+      case U32_STATUS:
+        return from.getUnsignedInt(index);
+      case U64:
+        return from.getLong(index);
+      default:
+        throw new IllegalArgumentException(dataType + " is not numeric");
+    }
+  }
+
+  /** Returns whether a raw value read by {@link #getRaw} is the SMA NaN value of its data type */
+  static boolean isNaN(ModbusDataType dataType, long raw) {
+    switch (dataType) {
+      case S16:
+        return raw == Short.MIN_VALUE;
+      case U16:
+        return raw == 0xFFFF;
+      case S32:
+        return raw == Integer.MIN_VALUE;
+      case U32:
+        return raw == 0xFFFFFFFFL;
+      case U32_STATUS:
+        return raw == 0xFFFFFD;
+      case U64:
+        return raw == ModbusDataType.U64.getNullValue();
+      default:
+        throw new IllegalArgumentException(dataType + " is not numeric");
+    }
+  }
+
   private Object readValue(ByteBuf from, ModbusDataType dataType) {
+    if (dataType == ModbusDataType.STR32) {
+      return readString(from);
+    }
+
+    long raw = readRaw(from, dataType);
+    if (isNaN(dataType, raw)) {
+      return null;
+    }
+
     switch (dataType) {
       case S16:
-        short s16value = from.readShort();
-        return s16value != Short.MIN_VALUE ? s16value : null;
+        return (short) raw;
       case U16:
-        int u16value = from.readUnsignedShort();
-        return u16value != 0xFFFF ? u16value : null;
       case S32:
-        int s32value = from.readInt();
-        return s32value != Integer.MIN_VALUE ? s32value : null;
+        return (int) raw;
       case U32:
-        long u32value = from.readUnsignedInt();
-        return u32value != 0xFFFFFFFFL ? u32value : null;
       case U32_STATUS:
-        long u32svalue = from.readUnsignedInt();
-        return u32svalue != 0xFFFFFD ? u32svalue : null;
+        return raw;
       case U64:
-        long u64value = from.readLong();
-        if (u64value != U64.getNullValue()) {
-          String slong = Long.toUnsignedString(u64value);
-          return new BigInteger(slong);
-        } else {
-          return null;
-        }
-      case STR32:
-				int readerIndex = from.readerIndex();
-				int firstNull = from.forEachByte(readerIndex, 32, ByteProcessor.FIND_NUL);
-				String strvalue;
-				if (firstNull == readerIndex) {
-					strvalue = null;
-				} else {
-					int length = firstNull == -1 ? 32 : firstNull - readerIndex;
-					strvalue = from.toString(readerIndex, length, CharsetUtil.UTF_8);
-				}
-				from.skipBytes(32);
-				return strvalue;
+        return raw >= 0 ? BigInteger.valueOf(raw) : BigInteger.valueOf(raw).add(TWO_POW_64);
       default:
         throw new IllegalArgumentException("Unrecognized " + dataType);
     }
   }
 
+  private static String readString(ByteBuf from) {
+    int readerIndex = from.readerIndex();
+    int firstNull = from.forEachByte(readerIndex, 32, ByteProcessor.FIND_NUL);
+    String strvalue;
+    if (firstNull == readerIndex) {
+      strvalue = null;
+    } else {
+      int length = firstNull == -1 ? 32 : firstNull - readerIndex;
+      strvalue = from.toString(readerIndex, length, CharsetUtil.UTF_8);
+    }
+    from.skipBytes(32);
+    return strvalue;
+  }
+
   private <T> T formatValue(Object value, ModbusDataFormat<T> format) {
     return format.getFormatDecoder().format(value);
   }
@@ -16,6 +16,7 @@ import java.util.stream.Collectors;
 /** Client to read modbus registers on SMA devices */
 public class SmaModbusClient implements ModbusRegisterReader {
   private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+  private static final ModbusValueReader VALUE_READER = new ModbusValueReader();
   private String address;
   private int port;
   private SmaModbusDevice device;
@@ -70,7 +71,7 @@ public class SmaModbusClient implements ModbusRegisterReader {
 						modbusResponse -> {
 							try {
 								ByteBuf registers = ((ReadInputRegistersResponse) modbusResponse).getRegisters();
-								return new ModbusValueReader().read(registers, reg.getDataType(), reg.getDataFormat());
+								return VALUE_READER.read(registers, reg.getDataType(), reg.getDataFormat());
 							} finally {
 								ReferenceCountUtil.release(modbusResponse);
 							}
@@ -99,14 +100,58 @@ public class SmaModbusClient implements ModbusRegisterReader {
     }
   }
 
+  /**
+   * Reads all registers of a compiled plan into a reusable response. The response is cleared
+   * before reading and must not be shared by concurrent reads.
+   *
+   * @param plan compiled read plan
+   * @param into response to decode values into
+   * @return {@code into} once all atomic requests of the plan completed
+   */
+  public Mono<ModbusReadResponse> read(ModbusReadPlan plan, ModbusReadResponse into) {
+    return Mono.defer(
+        () -> {
+          into.clear();
+          return Flux.range(0, plan.getRequestCount())
+              .flatMap(request -> read(plan, request, into))
+              .then(Mono.just(into));
+        });
+  }
+
+  /**
+   * Reads a single atomic request of a compiled plan into a response without clearing it. The
+   * request is sent on subscription.
+   *
+   * @param plan compiled read plan
+   * @param request index of the atomic request in the plan
+   * @param into response to decode values into
+   * @return {@code into} once the request completed
+   */
+  public Mono<ModbusReadResponse> read(ModbusReadPlan plan, int request, ModbusReadResponse into) {
+    int unitId =
+        plan.getUnitId() != null ? plan.getUnitId() : device.calculateMainUnitId(null);
+    return Mono.fromFuture(
+            () -> ensureModbusClient().sendRequest(plan.createModbusRequest(request), unitId))
+        .map(
+            modbusResponse -> {
+              try {
+                ByteBuf registers = ((ReadInputRegistersResponse) modbusResponse).getRegisters();
+                plan.decode(request, registers, into);
+                return into;
+              } finally {
+                ReferenceCountUtil.release(modbusResponse);
+              }
+            });
+  }
+
+  /** Sends the request on subscription so callers can bound the number of requests in flight */
   private Mono<SmaModbusResponse> readAtomicRequest(SmaModbusRequest request) {
     var modbusreq =
         new ReadInputRegistersRequest(
             request.getFirstRegisterNumber(),
             request.calculateNumberOfRegistersToReadInAtomicRequest());
-    var futureResult =
-        ensureModbusClient().sendRequest(modbusreq, getUnitIdToUseForRequest(request));
-    return Mono.fromFuture(futureResult)
+    return Mono.fromFuture(
+            () -> ensureModbusClient().sendRequest(modbusreq, getUnitIdToUseForRequest(request)))
         .map(
             modbusResponse -> {
 							try {
@@ -130,13 +175,12 @@ public class SmaModbusClient implements ModbusRegisterReader {
   private SmaModbusResponse createRequestResponse(SmaModbusRequest request, ByteBuf registers) {
     int firstRegister = request.getFirstRegisterNumber();
     var response = new SmaModbusResponse();
-    var modbusValueReader = new ModbusValueReader();
     int currentPos = 0;
     for (ModbusRegister register : request.getRegisters()) {
       int pos = register.getRegisterNumber() - firstRegister;
       if (pos != currentPos) registers.skipBytes((pos - currentPos) * 2);
       var value =
-          modbusValueReader.read(registers, register.getDataType(), register.getDataFormat());
+          VALUE_READER.read(registers, register.getDataType(), register.getDataFormat());
       response.setRegisterValue(register, value);
       currentPos =
           pos
@@ -3,9 +3,12 @@ package cat.joanpujol.smasolar.modbus;
 import cat.joanpujol.smasolar.error.UnnexpectedCodition;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SmaModbusRequest {
   public enum Type {
@@ -67,6 +70,15 @@ public class SmaModbusRequest {
     atomicRequestsCalculated = true;
   }
 
+  /**
+   * Returns the index of the first register of each atomic request
+   *
+   * <p>Visibility increased for testing
+   */
+  static int[] planAtomicRequests(SmaModbusRequest request) {
+    return AtomicRequestsCalculator.cachedPlan(request);
+  }
+
   private SmaModbusRequest createCopyWithoutRegisters() {
     SmaModbusRequest copy = new SmaModbusRequest();
     copy.requestType = requestType;
@@ -123,7 +135,23 @@ public class SmaModbusRequest {
     }
   }
 
+  /**
+   * Plans the atomic requests needed to read all registers. Every request costs {@link
+   * #ROUND_TRIP_COST} plus the number of registers it reads, including unused registers in gaps.
+   * The cheapest split of the sorted registers into contiguous requests within the register limit
+   * is computed once per register layout and cached.
+   */
   private static class AtomicRequestsCalculator {
+    /**
+     * Cost of an additional round-trip expressed in registers. SMA inverters answer a request in
+     * roughly the time it takes them to serve this many additional registers, so gaps wider than
+     * this are read in a separate request.
+     */
+    static final int ROUND_TRIP_COST = 32;
+
+    private static final int MAX_CACHED_PLANS = 256;
+    private static final Map<PlanKey, int[]> plans = new ConcurrentHashMap<>();
+
     private SmaModbusRequest originalRequest;
 
     public AtomicRequestsCalculator(SmaModbusRequest originalRequest) {
@@ -134,22 +162,69 @@ public class SmaModbusRequest {
       List<ModbusRegister> registers = originalRequest.registers;
       if (registers.size() <= 1) {
         return List.of(originalRequest);
-      } else {
-        Collections.sort(registers, Comparator.comparing(ModbusRegister::getRegisterNumber));
-        ModbusRegister last = registers.get(registers.size() - 1);
-        ModbusRegister first = registers.get(0);
-        int numberOfRegistersToRead =
-            last.getRegisterNumber()
-                - first.getRegisterNumber()
-                + last.getDataType().getLength() / 2;
-        int maxNumberOfregisters;
-        maxNumberOfregisters = getMaxNumberOfRegisters(originalRequest);
-        if (numberOfRegistersToRead > maxNumberOfregisters) {
-          return divideIntoAtomicRequests();
-        } else {
-          return List.of(originalRequest);
+      }
+
+      int[] starts = cachedPlan(originalRequest);
+      if (starts.length == 1) {
+        return List.of(originalRequest);
+      }
+      return divideIntoAtomicRequests(starts);
+    }
+
+    /**
+     * Sorts the registers of the request and returns the plan for its register layout
+     *
+     * @return index of the first register of each request
+     */
+    static int[] cachedPlan(SmaModbusRequest request) {
+      List<ModbusRegister> registers = request.registers;
+      Collections.sort(registers, Comparator.comparing(ModbusRegister::getRegisterNumber));
+      PlanKey key = new PlanKey(request.getRequestType(), registers);
+      int[] starts = plans.get(key);
+      if (starts == null) {
+        starts = plan(registers, getMaxNumberOfRegisters(request));
+        if (plans.size() < MAX_CACHED_PLANS) plans.putIfAbsent(key, starts);
+      }
+      return starts;
+    }
+
+    /**
+     * Calculates the cheapest split of sorted registers into atomic requests
+     *
+     * @return index of the first register of each request
+     */
+    static int[] plan(List<ModbusRegister> registers, int maxNumberOfRegisters) {
+      int n = registers.size();
+      // cost[k]: cheapest plan reading the first k registers, from[k]: first register of its last
+      // request
+      long[] cost = new long[n + 1];
+      int[] from = new int[n + 1];
+      for (int k = 1; k <= n; k++) {
+        cost[k] = Long.MAX_VALUE;
+        ModbusRegister last = registers.get(k - 1);
+        for (int i = k - 1; i >= 0; i--) {
+          int registersToRead = registerCount(registers.get(i), last);
+          // a single register always needs its own request, even if it exceeds the limit
+          if (registersToRead > maxNumberOfRegisters && i < k - 1) break;
+          long candidate = cost[i] + ROUND_TRIP_COST + registersToRead;
+          if (candidate < cost[k]) {
+            cost[k] = candidate;
+            from[k] = i;
+          }
         }
       }
+
+      int requests = 0;
+      for (int k = n; k > 0; k = from[k]) requests++;
+      int[] starts = new int[requests];
+      for (int k = n; k > 0; k = from[k]) starts[--requests] = from[k];
+      return starts;
+    }
+
+    private static int registerCount(ModbusRegister first, ModbusRegister last) {
+      return last.getRegisterNumber()
+          - first.getRegisterNumber()
+          + last.getDataType().getLength() / 2;
     }
 
     private static int getMaxNumberOfRegisters(SmaModbusRequest request) {
@@ -167,39 +242,49 @@ public class SmaModbusRequest {
       return maxNumberOfregisters;
     }
 
-    private List<SmaModbusRequest> divideIntoAtomicRequests() {
-      List<SmaModbusRequest> requests = new ArrayList<>();
-      SmaModbusRequest current = originalRequest.createCopyWithoutRegisters();
-      requests.add(current);
-
-      for (ModbusRegister register : originalRequest.getRegisters()) {
-        if (!isAtomicIfIAdd(current, register)) {
-          current = originalRequest.createCopyWithoutRegisters();
-          requests.add(current);
-        }
-        current.registers.add(register);
+    private List<SmaModbusRequest> divideIntoAtomicRequests(int[] starts) {
+      List<ModbusRegister> registers = originalRequest.registers;
+      List<SmaModbusRequest> requests = new ArrayList<>(starts.length);
+
+      for (int i = 0; i < starts.length; i++) {
+        int to = i + 1 < starts.length ? starts[i + 1] : registers.size();
+        SmaModbusRequest request = originalRequest.createCopyWithoutRegisters();
+        request.registers.addAll(registers.subList(starts[i], to));
+        request.atomicRequestsCalculated = true;
+        request.atomicRequests = List.of(request);
+        requests.add(request);
       }
 
-      requests.forEach(
-          r -> {
-            r.atomicRequestsCalculated = true;
-            r.atomicRequests = List.of(r);
-          });
-
       return requests;
     }
+  }
 
-    private boolean isAtomicIfIAdd(SmaModbusRequest request, ModbusRegister registerToAdd) {
-      if (request.getRegisters().isEmpty()) {
-        return true;
-      } else {
-        ModbusRegister first = request.getRegisters().get(0);
-        int registerCount =
-            registerToAdd.getRegisterNumber()
-                - first.getRegisterNumber()
-                + registerToAdd.getDataType().getLength() / 2;
-        return registerCount <= getMaxNumberOfRegisters(request);
+  /** Register layout of a request, plans only depend on register positions and lengths */
+  private static final class PlanKey {
+    private final Type requestType;
+    private final int[] layout;
+    private final int hashCode;
+
+    PlanKey(Type requestType, List<ModbusRegister> registers) {
+      this.requestType = requestType;
+      this.layout = new int[registers.size() * 2];
+      for (int i = 0; i < registers.size(); i++) {
+        layout[i * 2] = registers.get(i).getRegisterNumber();
+        layout[i * 2 + 1] = registers.get(i).getDataType().getLength();
       }
+      this.hashCode = 31 * requestType.hashCode() + Arrays.hashCode(layout);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof PlanKey other
+          && requestType == other.requestType
+          && Arrays.equals(layout, other.layout);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
     }
   }
 }
@@ -17,6 +17,8 @@ package biz.paluch.sgreadypi;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 
 /**
@@ -62,4 +64,59 @@ class ConditionOutcomeUnitTests {
 				"Did not match: SoC below excess stop threshold", //
 				"Did match: SoC above available threshold");
 	}
+
+	@Test
+	void shouldRenderReasonOnFirstAccessOnly() {
+
+		AtomicInteger renderings = new AtomicInteger();
+		ConditionOutcome.Reason reason = (a, b, c, d) -> {
+			renderings.incrementAndGet();
+			return "SoC %s below %s".formatted(a, b);
+		};
+
+		ConditionOutcome outcome = ConditionOutcome.match("Generator power above consumption").nested(false, reason, 10,
+				20);
+
+		assertThat(renderings).hasValue(0);
+		assertThat(outcome.isMatch()).isFalse();
+		assertThat(outcome.getReason()).isSameAs(reason);
+
+		assertThat(outcome.explain()).containsExactly("Did match: Generator power above consumption",
+				"Did not match: SoC 10 below 20");
+		assertThat(outcome).hasToString("Match: Generator power above consumption -> No match: SoC 10 below 20");
+		assertThat(renderings).hasValue(1);
+	}
+
+	@Test
+	void shouldPreserveReasonWhenNesting() {
+
+		ConditionOutcome.Reason reason = (a, b, c, d) -> "%s after %s".formatted(a, b);
+		ConditionOutcome timeGate = ConditionOutcome.of(true, reason, "10:15", "10:00");
+
+		ConditionOutcome outcome = ConditionOutcome.match("Generator power above consumption").nested(timeGate);
+
+		assertThat(outcome.getReason()).isSameAs(reason);
+		assertThat(outcome.getMessage()).isEqualTo("10:15 after 10:00");
+	}
+
+	@Test
+	void shouldCompareReasonsWithoutRendering() {
+
+		ConditionOutcome.Reason reason = (a, b, c, d) -> {
+			throw new AssertionError("Must not render");
+		};
+		ConditionOutcome.Reason other = (a, b, c, d) -> "other";
+		ConditionOutcome root = ConditionOutcome.match("Generator power above consumption");
+
+		ConditionOutcome outcome = root.nested(false, reason, 10, 20);
+
+		assertThat(outcome.hasSameReasons(root.nested(false, reason, 15, 20))).isTrue();
+		assertThat(outcome.hasSameReasons(ConditionOutcome.match("Generator power above consumption").nested(false,
+				reason, 10, 20))).isTrue();
+		assertThat(outcome.hasSameReasons(root.nested(true, reason, 10, 20))).isFalse();
+		assertThat(outcome.hasSameReasons(root.nested(false, other, 10, 20))).isFalse();
+		assertThat(outcome.hasSameReasons(ConditionOutcome.match("Out of service").nested(false, reason, 10, 20)))
+				.isFalse();
+		assertThat(outcome.hasSameReasons(ConditionOutcome.of(false, reason, 10, 20))).isFalse();
+	}
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link DecisionLatency}.
+ *
+ * @author Mark Paluch
+ */
+class DecisionLatencyUnitTests {
+
+	DecisionLatency latency = new DecisionLatency();
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void shouldRecordStagesOnceBound() {
+
+		latency.record(DecisionLatency.Stage.POLICY, latency.start());
+		latency.bindTo(registry);
+		latency.record(DecisionLatency.Stage.INGEST, Duration.ofMillis(1500));
+
+		Timer ingest = registry.get("sg.decision.latency").tag("stage", "ingest").timer();
+		assertThat(ingest.count()).isOne();
+		assertThat(ingest.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(1500);
+		assertThat(registry.get("sg.decision.latency").tag("stage", "policy").timer().count()).isZero();
+	}
+
+	@Test
+	void shouldRegisterAllStages() {
+
+		latency.bindTo(registry);
+
+		assertThat(registry.get("sg.decision.latency").timers()).hasSize(DecisionLatency.Stage.values().length);
+	}
+
+	@Test
+	void shouldRecordOutputsPerConsumer() {
+
+		latency.bindTo(registry);
+
+		latency.recordOutput("TelegramService", latency.start());
+		latency.recordOutput("TelegramService", latency.start());
+		latency.recordOutput("PiRelHat3Ch", latency.start());
+
+		assertThat(registry.get("sg.output.latency").tag("consumer", "TelegramService").timer().count()).isEqualTo(2);
+		assertThat(registry.get("sg.output.latency").tag("consumer", "PiRelHat3Ch").timer().count()).isOne();
+		assertThat(registry.get("sg.decision.latency").tag("stage", "output").timer().count()).isEqualTo(3);
+		assertThat(registry.get("sg.decision.latency").tag("stage", "relay").timer().count()).isZero();
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi;
+
+import static org.assertj.core.api.Assertions.*;
+
+import biz.paluch.sgreadypi.measure.Percent;
+import biz.paluch.sgreadypi.measure.Watt;
+import tech.units.indriya.AbstractUnit;
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.unit.Units;
+
+import javax.measure.MetricPrefix;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PolicyThresholds}.
+ *
+ * @author Mark Paluch
+ */
+class PolicyThresholdsUnitTests {
+
+	SgReadyProperties properties = new SgReadyProperties();
+
+	@BeforeEach
+	void setUp() {
+		properties.setHeatPumpPowerConsumption(Watt.of(1000));
+		properties.setHeatElementPowerConsumption(Quantities.getQuantity(3, MetricPrefix.KILO(Units.WATT)));
+		properties.setGeneratorPowerOffRatio(0.5);
+		properties.setDischargeLimit(Watt.of(400));
+		properties.setBattery(new SgReadyProperties.Levels(Percent.of(20),
+				Quantities.getQuantity(0.8, AbstractUnit.ONE), Percent.of(60)));
+	}
+
+	@Test
+	void shouldNormalizeToWattsAndPercent() {
+
+		PolicyThresholds thresholds = PolicyThresholds.compile(properties);
+
+		assertThat(thresholds.ingressLimit).isEqualTo(200);
+		assertThat(thresholds.elementOn).isEqualTo(3000);
+		assertThat(thresholds.pvExcessOn).isCloseTo(80, within(1e-9));
+		assertThat(thresholds.pvExcessOff).isEqualTo(60);
+	}
+
+	@Test
+	void shouldDeriveOffThresholds() {
+
+		PolicyThresholds thresholds = PolicyThresholds.compile(properties);
+
+		assertThat(thresholds.generatorOff).isEqualTo(500);
+		assertThat(thresholds.elementOff).isEqualTo(1500);
+		assertThat(thresholds.dischargeReAllow).isEqualTo(200);
+		assertThat(thresholds.pvAvailableOff).isEqualTo(15);
+	}
+
+	@Test
+	void shouldDetectReplacedProperties() {
+
+		PolicyThresholds thresholds = PolicyThresholds.compile(properties);
+
+		assertThat(thresholds.isCurrent(properties)).isTrue();
+
+		properties.setIngressLimit(Watt.of(200));
+		assertThat(thresholds.isCurrent(properties)).isFalse();
+
+		thresholds = PolicyThresholds.compile(properties);
+		properties.setGeneratorPowerOffRatio(0.7);
+		assertThat(thresholds.isCurrent(properties)).isFalse();
+	}
+}
@@ -23,15 +23,21 @@ import biz.paluch.sgreadypi.measure.Watt;
 import biz.paluch.sgreadypi.output.SgReadyStateConsumer;
 import biz.paluch.sgreadypi.provider.Statistics;
 import biz.paluch.sgreadypi.provider.SunnyHomeManagerService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import java.time.Clock;
+import java.time.Instant;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import org.springframework.scheduling.TaskScheduler;
+
 /**
  * Unit tests for {@link SgReadyControlLoop}.
  *
@@ -46,6 +52,8 @@ class SgReadyControlLoopUnitTests {
 
 	@Mock SgReadyStateConsumer stateConsumer;
 
+	@Mock TaskScheduler scheduler;
+
 	SgReadyProperties properties = new SgReadyProperties();
 
 	SgReadyControlLoop controller;
@@ -66,6 +74,8 @@ class SgReadyControlLoopUnitTests {
 		when(inverters.getBatteryDischarge()).thenReturn(Statistics.just(Watt.zero()));
 		when(inverters.getBatteryStateOfCharge()).thenReturn(Percent.zero());
 		when(powerMeter.getIngress()).thenReturn(Statistics.just(Watt.zero()));
+		when(powerMeter.getReading()).thenReturn(Instant.MIN);
+		when(inverters.getReading()).thenReturn(Instant.MIN);
 	}
 
 	@Test
@@ -77,7 +87,7 @@ class SgReadyControlLoopUnitTests {
 		controller.control();
 
 		assertThat(controller.getState()).isEqualTo(SgReadyState.EXCESS_PV);
-		verify(stateConsumer).onState(SgReadyState.EXCESS_PV);
+		verify(stateConsumer).onState(eq(SgReadyState.EXCESS_PV), any());
 	}
 
 	@Test
@@ -101,7 +111,7 @@ class SgReadyControlLoopUnitTests {
 		controller.control();
 
 		assertThat(controller.getState()).isEqualTo(SgReadyState.NORMAL);
-		verify(stateConsumer).onState(SgReadyState.NORMAL);
+		verify(stateConsumer).onState(eq(SgReadyState.NORMAL), any());
 	}
 
 	@Test
@@ -120,4 +130,115 @@ class SgReadyControlLoopUnitTests {
 		assertThat(controller.getState()).isEqualTo(SgReadyState.EXCESS_PV);
 	}
 
+	@Test
+	void shouldRecordIngestOnlyForNewReadings() {
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		DecisionLatency.global().bindTo(registry);
+		Timer ingest = registry.get("sg.decision.latency").tag("stage", "ingest").timer();
+		long before = ingest.count();
+
+		Instant reading = Instant.now();
+		when(powerMeter.getReading()).thenReturn(reading);
+
+		controller.control();
+		controller.control();
+
+		assertThat(ingest.count()).isEqualTo(before + 1);
+
+		when(powerMeter.getReading()).thenReturn(reading.plusSeconds(1));
+		controller.control();
+
+		assertThat(ingest.count()).isEqualTo(before + 2);
+	}
+
+	@Test
+	void shouldCarryMostRecentReadingTimestampIntoDecision() {
+
+		Instant meterReading = Instant.parse("2007-12-03T10:15:30Z");
+		Instant generatorReading = Instant.parse("2007-12-03T10:15:25Z");
+		when(powerMeter.getReading()).thenReturn(meterReading);
+		when(inverters.getReading()).thenReturn(generatorReading);
+
+		controller.control();
+
+		Decision decision = controller.getDecision();
+		assertThat(decision).isNotNull();
+		assertThat(decision.readingTimestamp()).isEqualTo(meterReading);
+		assertThat(decision.timestamp()).isAfter(meterReading);
+		verify(stateConsumer).onState(any(), eq(meterReading));
+	}
+
+	@Test
+	void shouldEvaluateOnFreshReadingsInReactiveMode() {
+
+		Runnable listener = reactiveListener();
+
+		when(inverters.getGeneratorPower()).thenReturn(Statistics.just(Watt.of(100)));
+		when(inverters.getBatteryStateOfCharge()).thenReturn(Percent.of(80));
+
+		listener.run();
+		scheduledEvaluation().run();
+
+		assertThat(controller.getState()).isEqualTo(SgReadyState.EXCESS_PV);
+		verify(stateConsumer).onState(eq(SgReadyState.EXCESS_PV), any());
+	}
+
+	@Test
+	void shouldCoalescePendingEvaluations() {
+
+		Runnable listener = reactiveListener();
+
+		listener.run();
+		listener.run();
+
+		verify(scheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+	}
+
+	@Test
+	void shouldSkipEvaluationWhenReadingsDidNotMove() {
+
+		Runnable listener = reactiveListener();
+
+		when(inverters.getGeneratorPower()).thenReturn(Statistics.just(Watt.of(100)));
+		when(inverters.getBatteryStateOfCharge()).thenReturn(Percent.of(80));
+		controller.control();
+
+		// within the default 20 W epsilon
+		when(inverters.getGeneratorPower()).thenReturn(Statistics.just(Watt.of(110)));
+		listener.run();
+		scheduledEvaluation().run();
+
+		verify(stateConsumer, times(1)).onState(any(), any());
+	}
+
+	@Test
+	void shouldNotRegisterListenersWithoutReactiveMode() {
+
+		new SgReadyControlLoop(inverters, powerMeter, stateConsumer, properties, null, Clock.systemDefaultZone(),
+				scheduler);
+
+		verify(inverters, never()).onUpdate(any());
+		verify(powerMeter, never()).onUpdate(any());
+	}
+
+	private Runnable reactiveListener() {
+
+		properties.getControl().setReactive(true);
+		controller = new SgReadyControlLoop(inverters, powerMeter, stateConsumer, properties, null,
+				Clock.systemDefaultZone(), scheduler);
+
+		ArgumentCaptor<Runnable> listener = ArgumentCaptor.forClass(Runnable.class);
+		verify(powerMeter).onUpdate(listener.capture());
+		verify(inverters).onUpdate(any());
+		return listener.getValue();
+	}
+
+	private Runnable scheduledEvaluation() {
+
+		ArgumentCaptor<Runnable> evaluation = ArgumentCaptor.forClass(Runnable.class);
+		verify(scheduler).schedule(evaluation.capture(), any(Instant.class));
+		return evaluation.getValue();
+	}
+
 }
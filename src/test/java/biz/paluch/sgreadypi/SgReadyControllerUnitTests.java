@@ -20,12 +20,19 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import biz.paluch.sgreadypi.output.gpio.Relay;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 /**
@@ -37,12 +44,15 @@ class SgReadyControllerUnitTests {
 
 	TestRelay relay;
 
+	SgReadyEventStream events;
+
 	MockMvc mockMvc;
 
 	@BeforeEach
 	void setUp() {
 		relay = new TestRelay();
-		mockMvc = MockMvcBuilders.standaloneSetup(new SgReadyController(null, relay)).build();
+		events = new SgReadyEventStream(relay, Duration.ofHours(1), Schedulers.immediate());
+		mockMvc = MockMvcBuilders.standaloneSetup(new SgReadyController(null, relay, events)).build();
 	}
 
 	@Test
@@ -78,6 +88,30 @@ class SgReadyControllerUnitTests {
 		assertThat(relay.state).isEqualTo(SgReadyState.AVAILABLE_PV);
 	}
 
+	@Test
+	void shouldPublishOverrideToEventStream() throws Exception {
+
+		List<ServerSentEvent<String>> received = new CopyOnWriteArrayList<>();
+		events.stream().subscribe(received::add);
+
+		mockMvc.perform(post("/api/sg-ready").contentType(MediaType.TEXT_PLAIN).content("EXCESS_PV"))
+				.andExpect(status().isOk());
+
+		assertThat(received).hasSize(2);
+		assertThat(received.get(1).event()).isEqualTo("delta");
+		assertThat(received.get(1).data()).isEqualTo("{\"state\":\"EXCESS_PV\",\"a\":true,\"b\":true}");
+	}
+
+	@Test
+	void shouldStreamWithoutAsyncTimeout() throws Exception {
+
+		MvcResult result = mockMvc.perform(get("/api/sg-ready/stream").accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		assertThat(result.getRequest().getAsyncContext().getTimeout()).isZero();
+		assertThat(result.getResponse().getContentAsString()).startsWith("event:snapshot\ndata:{\"state\":\"NORMAL\"");
+	}
+
 	@Test
 	void shouldRejectInvalidBooleanRequestBody() throws Exception {
 
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import biz.paluch.sgreadypi.SgReadyControllerUnitTests.TestRelay;
+import biz.paluch.sgreadypi.measure.Percent;
+import biz.paluch.sgreadypi.measure.Watt;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.scheduler.Schedulers;
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.unit.Units;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import org.springframework.boot.json.BasicJsonParser;
+import org.springframework.boot.json.JsonParser;
+import org.springframework.http.codec.ServerSentEvent;
+
+/**
+ * Unit tests for {@link SgReadyEventStream}.
+ *
+ * @author Mark Paluch
+ */
+class SgReadyEventStreamUnitTests {
+
+	static final JsonParser JSON = new BasicJsonParser();
+
+	TestRelay relay;
+
+	SgReadyEventStream events;
+
+	@BeforeEach
+	void setUp() {
+		relay = new TestRelay();
+		events = new SgReadyEventStream(relay, Duration.ofHours(1), Schedulers.immediate());
+	}
+
+	@Test
+	void shouldStartWithSnapshot() {
+
+		events.publish(decision(SgReadyState.NORMAL, "No excess", 150.4, 80.6));
+
+		List<ServerSentEvent<String>> received = subscribe();
+
+		assertThat(received).hasSize(1);
+		assertThat(received.get(0).event()).isEqualTo("snapshot");
+		assertThat(received.get(0).data()).isEqualTo(
+				"{\"state\":\"NORMAL\",\"a\":false,\"b\":false,\"decision\":[\"Did not match: No excess\"],\"ingress\":150,\"generatorPower\":0,\"soc\":81,\"batteryDischarge\":0,\"outOfService\":false}");
+	}
+
+	@Test
+	void shouldPublishChangedFieldsOnly() {
+
+		events.publish(decision(SgReadyState.NORMAL, "No excess", 150, 80));
+		List<ServerSentEvent<String>> received = subscribe();
+
+		events.publish(decision(SgReadyState.NORMAL, "No excess", 120, 80));
+
+		assertThat(received).hasSize(2);
+		assertThat(received.get(1).event()).isEqualTo("delta");
+		assertThat(received.get(1).data()).isEqualTo("{\"ingress\":120}");
+	}
+
+	@Test
+	void shouldSkipUnchangedReadings() {
+
+		events.publish(decision(SgReadyState.NORMAL, "No excess", 150, 80));
+		List<ServerSentEvent<String>> received = subscribe();
+
+		events.publish(decision(SgReadyState.NORMAL, "No excess", 150.2, 80));
+		events.refresh();
+
+		assertThat(received).hasSize(1);
+	}
+
+	@Test
+	void shouldPublishDecisionOnlyWhenReasonsChange() {
+
+		AtomicInteger renderings = new AtomicInteger();
+		ConditionOutcome.Reason ingress = (a, b, c, d) -> {
+			renderings.incrementAndGet();
+			return "Ingress %s exceeds limit".formatted(a);
+		};
+		ConditionOutcome.Reason soc = (a, b, c, d) -> "SoC %s below limit".formatted(a);
+
+		events.publish(decision(SgReadyState.NORMAL, ConditionOutcome.of(false, ingress, 150, null), 150, 80));
+		List<ServerSentEvent<String>> received = subscribe();
+
+		events.publish(decision(SgReadyState.NORMAL, ConditionOutcome.of(false, ingress, 120, null), 120, 80));
+		events.publish(decision(SgReadyState.NORMAL, ConditionOutcome.of(false, soc, 40, null), 120, 40));
+
+		assertThat(renderings).hasValue(1);
+		assertThat(received).hasSize(3);
+		assertThat(received.get(1).data()).isEqualTo("{\"ingress\":120}");
+		assertThat(received.get(2).data())
+				.isEqualTo("{\"decision\":[\"Did not match: SoC 40 below limit\"],\"soc\":40}");
+	}
+
+	@Test
+	void shouldShareDeltasAcrossSubscribers() {
+
+		List<ServerSentEvent<String>> first = subscribe();
+		List<ServerSentEvent<String>> second = subscribe();
+
+		relay.state = SgReadyState.AVAILABLE_PV;
+		events.refresh();
+
+		assertThat(first).hasSize(2);
+		assertThat(second).hasSize(2);
+		assertThat(first.get(1)).isSameAs(second.get(1));
+	}
+
+	@Test
+	void shouldCoalesceDeltasForSlowSubscriber() {
+
+		events.publish(decision(SgReadyState.NORMAL, "No excess", 150, 80));
+
+		List<ServerSentEvent<String>> received = new CopyOnWriteArrayList<>();
+		BaseSubscriber<ServerSentEvent<String>> slow = new BaseSubscriber<>() {
+
+			@Override
+			protected void hookOnSubscribe(Subscription subscription) {
+				request(1);
+			}
+
+			@Override
+			protected void hookOnNext(ServerSentEvent<String> value) {
+				received.add(value);
+			}
+		};
+		events.stream().subscribe(slow);
+
+		for (int i = 1; i <= 10; i++) {
+			events.publish(decision(SgReadyState.NORMAL, "No excess", 150 + i, 80 - (i % 3)));
+		}
+		events.publish(decision(SgReadyState.NORMAL, "Low SoC", 100, 40));
+		slow.request(Long.MAX_VALUE);
+
+		Map<String, Object> client = new LinkedHashMap<>();
+		received.forEach(event -> client.putAll(JSON.parseMap(event.data())));
+
+		assertThat(received).hasSizeLessThan(12);
+		assertThat(client).isEqualTo(JSON.parseMap(subscribe().get(0).data()));
+	}
+
+	@Test
+	void shouldNotBlockPublisherOnStalledSubscriber() throws InterruptedException {
+
+		SgReadyEventStream events = new SgReadyEventStream(relay, Duration.ofHours(1));
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch delivered = new CountDownLatch(1);
+
+		events.stream().subscribe(event -> {
+			delivered.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			for (int i = 0; i < 100; i++) {
+				events.publish(decision(SgReadyState.NORMAL, "No excess", i, 80));
+			}
+		});
+
+		release.countDown();
+	}
+
+	List<ServerSentEvent<String>> subscribe() {
+
+		List<ServerSentEvent<String>> received = new CopyOnWriteArrayList<>();
+		events.stream().subscribe(received::add);
+		return received;
+	}
+
+	static Decision decision(SgReadyState state, String reason, double ingress, double soc) {
+		return decision(state, ConditionOutcome.noMatch(reason), ingress, soc);
+	}
+
+	static Decision decision(SgReadyState state, ConditionOutcome outcome, double ingress, double soc) {
+
+		Conditions conditions = new Conditions(Quantities.getQuantity(ingress, Units.WATT), Watt.zero(), Percent.of(soc),
+				Watt.zero(), false);
+		return new Decision(state, outcome).at(conditions, Instant.EPOCH);
+	}
+
+}
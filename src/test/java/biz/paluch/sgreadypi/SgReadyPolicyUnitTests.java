@@ -20,19 +20,11 @@ import static org.assertj.core.api.Assertions.*;
 import biz.paluch.sgreadypi.measure.Percent;
 import biz.paluch.sgreadypi.measure.Watt;
 import biz.paluch.sgreadypi.weather.WeatherService;
-import tech.units.indriya.AbstractUnit;
-import tech.units.indriya.quantity.Quantities;
-import tech.units.indriya.unit.Units;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 
-import javax.measure.MetricPrefix;
-import javax.measure.Quantity;
-import javax.measure.quantity.Dimensionless;
-import javax.measure.quantity.Power;
-
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -194,6 +186,24 @@ class SgReadyPolicyUnitTests {
 		assertThat(decision.conditionOutcome().getMessage()).isEqualTo("Inverters or power meter out of service");
 	}
 
+	@Test
+	void shouldRecordReasonAndRenderMessageOnDemand() {
+
+		Decision decision = decide(SgReadyState.NORMAL, conditions(300, 100, 80));
+
+		assertThat(decision.conditionOutcome().getReason()).isEqualTo(SgReadyPolicy.PolicyReason.INGRESS_LIMIT);
+		assertThat(decision.conditionOutcome().getMessage()).isEqualTo("Ingress 300 W exceeds limit 200 W");
+	}
+
+	@Test
+	void shouldExplainWeatherDeferral() {
+
+		Decision decision = policy.decide(SgReadyState.NORMAL, powered(80), range(true, false, false), now);
+
+		assertThat(decision.conditionOutcome().explain()).contains(
+				"Did not match: Enough remaining sunny time 02:00:00 (Sunset: 18:00), starting at 16:00 (2007-12-03) until 17:00 (2007-12-03)");
+	}
+
 	@Test // ADR-0003
 	void shouldDeferExcessWhenEnoughSunRemains() {
 
@@ -272,22 +282,22 @@ class SgReadyPolicyUnitTests {
 	}
 
 	@Test
-	void shouldComparePowerQuantitiesInCommonUnits() {
+	void shouldDetectReadingsNearThresholds() {
 
-		Quantity<Power> twoKw = Quantities.getQuantity(2, MetricPrefix.KILO(Units.WATT));
-
-		assertThat(SgReadyPolicy.gte(Watt.of(1000), twoKw)).isFalse();
-		assertThat(SgReadyPolicy.gte(Watt.of(2000), twoKw)).isTrue();
+		assertThat(policy.isNearThreshold(conditions(0, 1000, 40), 0.1)).isFalse();
+		assertThat(policy.isNearThreshold(conditions(0, 1000, 78), 0.1)).isTrue();
+		assertThat(policy.isNearThreshold(conditions(0, 95, 40), 0.1)).isTrue();
+		assertThat(policy.isNearThreshold(conditions(190, 1000, 40), 0.1)).isTrue();
 	}
 
 	@Test
-	void shouldCompareDimensionlessQuantitiesInCommonUnits() {
+	void shouldConsiderDischargeLimitOnlyWhenEnabled() {
+
+		assertThat(policy.isNearThreshold(conditions(0, 1000, 40, 195), 0.1)).isFalse();
 
-		Quantity<Dimensionless> eightyPercent = Quantities.getQuantity(0.8, AbstractUnit.ONE);
-		Quantity<Dimensionless> seventyNinePercent = Quantities.getQuantity(0.79, AbstractUnit.ONE);
+		properties.setDischargeLimit(Watt.of(200));
 
-		assertThat(SgReadyPolicy.gte(eightyPercent, Percent.of(80))).isTrue();
-		assertThat(SgReadyPolicy.gte(seventyNinePercent, Percent.of(80))).isFalse();
+		assertThat(policy.isNearThreshold(conditions(0, 1000, 40, 195), 0.1)).isTrue();
 	}
 
 	@Test
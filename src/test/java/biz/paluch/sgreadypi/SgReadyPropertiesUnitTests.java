@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SgReadyProperties}.
+ *
+ * @author Mark Paluch
+ */
+class SgReadyPropertiesUnitTests {
+
+	@Test
+	void defaultPollingShouldKeepInverterReadingsHealthy() {
+
+		SgReadyProperties properties = new SgReadyProperties();
+		SgReadyProperties.Polling polling = properties.getPolling();
+
+		// a failed poll at the longest interval must not let readings reach the staleness limit
+		Duration worstCase = polling.getMaxInterval().multipliedBy(2).plus(properties.getInverterTimeout());
+
+		assertThat(polling.getMaxInterval()).isLessThanOrEqualTo(SgReadyProperties.Polling.MAX_INTERVAL_LIMIT);
+		assertThat(worstCase).isLessThan(RecencyTracker.MAX_HEALTHY);
+	}
+
+	@Test
+	void shouldRejectMaxIntervalBeyondLimit() {
+
+		SgReadyProperties.Polling polling = new SgReadyProperties.Polling();
+
+		assertThatIllegalArgumentException().isThrownBy(() -> polling.setMaxInterval(RecencyTracker.MAX_HEALTHY));
+		assertThatIllegalArgumentException().isThrownBy(() -> polling.setMaxInterval(Duration.ZERO));
+
+		polling.setMaxInterval(SgReadyProperties.Polling.MAX_INTERVAL_LIMIT);
+
+		assertThat(polling.getMaxInterval()).isEqualTo(SgReadyProperties.Polling.MAX_INTERVAL_LIMIT);
+	}
+
+}
@@ -52,6 +52,14 @@ class QuantityConverterUnitTests {
 		assertThat(convert("100", Power.class)).isEqualTo(Watt.of(100));
 	}
 
+	@Test
+	void shouldRepresentBareNumbersByLightweightQuantities() {
+
+		assertThat(convert("100", Power.class)).isInstanceOf(Watt.class);
+		assertThat(convert("1.5", Power.class)).isEqualTo(Watt.of(1.5));
+		assertThat(convert("60", Dimensionless.class)).isInstanceOf(Percent.class);
+	}
+
 	@Test
 	void shouldConvertValueWithExplicitUnit() {
 
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for {@link CompressedSegment}, {@link BlockEncoder} and {@link BlockDecoder}.
+ *
+ * @author Mark Paluch
+ */
+class CompressedSegmentUnitTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void shouldRoundtripSamples() {
+
+		Random random = new Random(42);
+		long[] timestamps = new long[CompressedSegment.BLOCK_SAMPLES];
+		float[] values = new float[timestamps.length];
+
+		long timestamp = 1_780_000_000_000L;
+		float value = 500;
+		for (int i = 0; i < timestamps.length; i++) {
+
+			// regular ticks with jitter, gaps and out of order samples
+			timestamp += switch (i % 5) {
+				case 0 -> 1000;
+				case 1 -> 1000 + random.nextInt(40) - 20;
+				case 2 -> -random.nextInt(2000);
+				case 3 -> random.nextInt(100_000_000);
+				default -> 5000;
+			};
+			value = switch (i % 6) {
+				case 0 -> value;
+				case 1 -> value + random.nextInt(20) - 10;
+				case 2 -> Float.NaN;
+				case 3 -> -random.nextFloat() * 1e6f;
+				case 4 -> Float.intBitsToFloat(random.nextInt());
+				default -> random.nextFloat();
+			};
+			timestamps[i] = timestamp;
+			values[i] = value;
+		}
+
+		BlockEncoder encoder = new BlockEncoder(1);
+		for (int i = 0; i < timestamps.length; i++) {
+			encoder.add(timestamps[i], values[i]);
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(encoder.size());
+		encoder.writeTo(buffer);
+		assertThat(buffer.position()).isEqualTo(encoder.size());
+
+		BlockDecoder decoder = new BlockDecoder(buffer, 0);
+		for (int i = 0; i < timestamps.length; i++) {
+			assertThat(decoder.next()).isTrue();
+			assertThat(decoder.timestamp()).isEqualTo(timestamps[i]);
+			assertThat(Float.floatToRawIntBits(decoder.value())).isEqualTo(Float.floatToRawIntBits(values[i]));
+		}
+		assertThat(decoder.next()).isFalse();
+	}
+
+	@Test
+	void shouldCompressRegularSamples() {
+
+		BlockEncoder encoder = new BlockEncoder(1);
+		for (int i = 0; i < CompressedSegment.BLOCK_SAMPLES; i++) {
+			encoder.add(1_780_000_000_000L + i * 1000L, 500);
+		}
+
+		// about two bits per sample instead of a 16 byte record
+		assertThat(encoder.size()).isLessThan(CompressedSegment.BLOCK_SAMPLES * HistorySegment.RECORD_SIZE / 25);
+	}
+
+	@Test
+	void shouldWriteBlocksWithSummary() throws Exception {
+
+		Path file = directory.resolve("history-2026-06-01.sgz");
+		try (CompressedSegment.Writer writer = new CompressedSegment.Writer(file)) {
+
+			for (int i = 0; i < CompressedSegment.BLOCK_SAMPLES + 10; i++) {
+				writer.add(1, 1000L * (i + 1), i);
+			}
+			writer.add(2, 5000, 42);
+			writer.finish();
+		}
+
+		assertThat(directory.resolve("history-2026-06-01.sgz.tmp")).doesNotExist();
+
+		try (CompressedSegment segment = CompressedSegment.open(file)) {
+
+			ByteBuffer buffer = segment.getBuffer();
+			assertThat(segment.getBlockCount()).isEqualTo(3);
+
+			int full = segment.getBlock(0);
+			assertThat(CompressedSegment.getChannel(buffer, full)).isEqualTo(1);
+			assertThat(CompressedSegment.getCount(buffer, full)).isEqualTo(CompressedSegment.BLOCK_SAMPLES);
+			assertThat(CompressedSegment.getFirst(buffer, full)).isEqualTo(1000);
+			assertThat(CompressedSegment.getLast(buffer, full)).isEqualTo(256_000);
+			assertThat(CompressedSegment.getMin(buffer, full)).isZero();
+			assertThat(CompressedSegment.getMax(buffer, full)).isEqualTo(255);
+			assertThat(CompressedSegment.getSum(buffer, full)).isEqualTo(255 * 256 / 2);
+			assertThat(CompressedSegment.getLastValue(buffer, full)).isEqualTo(255);
+
+			assertThat(CompressedSegment.getChannel(buffer, segment.getBlock(1))).isEqualTo(1);
+			assertThat(CompressedSegment.getCount(buffer, segment.getBlock(1))).isEqualTo(10);
+			assertThat(CompressedSegment.getChannel(buffer, segment.getBlock(2))).isEqualTo(2);
+		}
+	}
+
+	@Test
+	void shouldDiscardUnfinishedFile() throws Exception {
+
+		Path file = directory.resolve("history-2026-06-01.sgz");
+		try (CompressedSegment.Writer writer = new CompressedSegment.Writer(file)) {
+			writer.add(1, 1000, 1);
+		}
+
+		assertThat(file).doesNotExist();
+		assertThat(directory.resolve("history-2026-06-01.sgz.tmp")).doesNotExist();
+	}
+
+}
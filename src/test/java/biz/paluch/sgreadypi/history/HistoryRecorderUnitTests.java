@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for {@link HistoryRecorder}.
+ *
+ * @author Mark Paluch
+ */
+class HistoryRecorderUnitTests {
+
+	static final Instant DAY = Instant.parse("2026-06-01T00:00:00Z");
+
+	@TempDir
+	Path directory;
+
+	HistoryStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new HistoryStore(directory, 1024 * 1024, Duration.ofDays(2), List.of(Channel.INGRESS), ZoneOffset.UTC);
+	}
+
+	@AfterEach
+	void tearDown() {
+		store.close();
+	}
+
+	@Test
+	void shouldWriteBufferedSamplesOnFlush() {
+
+		HistoryRecorder recorder = new HistoryRecorder(store, 16, Duration.ofSeconds(1));
+
+		recorder.record(Channel.INGRESS, DAY.toEpochMilli(), 100);
+		recorder.record(Channel.INGRESS, DAY.toEpochMilli() + 1000, 300);
+
+		assertThat(recorder.flush()).isEqualTo(2);
+		assertThat(recorder.flush()).isZero();
+		assertThat(store.query(DAY, DAY.plusSeconds(60), Duration.ofMinutes(1)).series().get("ingress"))
+				.containsExactly(200);
+	}
+
+	@Test
+	void shouldKeepTimestampsInRecordingOrder() {
+
+		HistoryRecorder recorder = new HistoryRecorder(store, 16, Duration.ofSeconds(1));
+
+		recorder.record(Channel.INGRESS, DAY.toEpochMilli() + 61_000, 100);
+		recorder.record(Channel.INGRESS, DAY.toEpochMilli() + 59_000, 300);
+		recorder.flush();
+
+		assertThat(store.query(DAY, DAY.plusSeconds(120), Duration.ofMinutes(1)).series().get("ingress"))
+				.containsExactly(Double.NaN, 200);
+	}
+
+	@Test
+	void shouldDropSamplesWhenBufferFull() {
+
+		HistoryRecorder recorder = new HistoryRecorder(store, 3, Duration.ofSeconds(1));
+
+		for (int i = 0; i < 4; i++) {
+			assertThat(recorder.record(Channel.INGRESS, DAY.toEpochMilli() + i, i)).isTrue();
+		}
+
+		assertThat(recorder.record(Channel.INGRESS, DAY.toEpochMilli() + 4, 4)).isFalse();
+		assertThat(recorder.getDropped()).isOne();
+
+		assertThat(recorder.flush()).isEqualTo(4);
+		assertThat(recorder.record(Channel.INGRESS, DAY.toEpochMilli() + 5, 5)).isTrue();
+	}
+
+	@Test
+	void shouldFlushOnStop() {
+
+		HistoryRecorder recorder = new HistoryRecorder(store, 16, Duration.ofHours(1));
+		recorder.start();
+
+		recorder.record(Channel.INGRESS, DAY.toEpochMilli(), 100);
+		recorder.stop();
+
+		assertThat(recorder.isRunning()).isFalse();
+		assertThat(store.query(DAY, DAY.plusSeconds(60), Duration.ofMinutes(1)).series().get("ingress"))
+				.containsExactly(100);
+	}
+
+}
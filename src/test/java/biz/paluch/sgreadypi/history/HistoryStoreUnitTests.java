@@ -0,0 +1,261 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.history;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for {@link HistoryStore}.
+ *
+ * @author Mark Paluch
+ */
+class HistoryStoreUnitTests {
+
+	static final Instant DAY = Instant.parse("2026-06-01T00:00:00Z");
+
+	@TempDir
+	Path directory;
+
+	HistoryStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = create();
+	}
+
+	@AfterEach
+	void tearDown() {
+		store.close();
+	}
+
+	@Test
+	void shouldDownsampleToMean() {
+
+		append(DAY.plusSeconds(10), Channel.INGRESS, 100);
+		append(DAY.plusSeconds(20), Channel.INGRESS, 200);
+		append(DAY.plusSeconds(70), Channel.INGRESS, 400);
+
+		History history = store.query(DAY, DAY.plusSeconds(180), Duration.ofMinutes(1));
+
+		assertThat(history.steps()).isEqualTo(3);
+		assertThat(history.getTimestamp(1)).isEqualTo(DAY.plusSeconds(60));
+		assertThat(history.series().get("ingress")).containsExactly(150, 400, Double.NaN);
+		assertThat(history.series().get("egress")).containsExactly(Double.NaN, Double.NaN, Double.NaN);
+	}
+
+	@Test
+	void shouldCarryStateForward() {
+
+		append(DAY.plusSeconds(10), Channel.STATE, 0);
+		append(DAY.plusSeconds(20), Channel.STATE, 3);
+		append(DAY.plusSeconds(130), Channel.STATE, 1);
+
+		History history = store.query(DAY, DAY.plusSeconds(240), Duration.ofMinutes(1));
+
+		assertThat(history.series().get("state")).containsExactly(3, 3, 1, 1);
+	}
+
+	@Test
+	void shouldCarryStateIntoRange() {
+
+		append(DAY.minusSeconds(30), Channel.STATE, 1);
+		append(DAY.plusSeconds(10), Channel.INGRESS, 100);
+		append(DAY.plusSeconds(130), Channel.STATE, 3);
+
+		History history = store.query(DAY.plusSeconds(60), DAY.plusSeconds(240), Duration.ofMinutes(1));
+
+		assertThat(history.series().get("state")).containsExactly(1, 3, 3);
+	}
+
+	@Test
+	void shouldCarryCompactedStateIntoRange() {
+
+		append(DAY.plusSeconds(10), Channel.STATE, 2);
+		append(DAY.plusSeconds(20), Channel.INGRESS, 100);
+		append(DAY.plus(Duration.ofDays(1)), Channel.INGRESS, 1);
+		store.compact(LocalDate.of(2026, 6, 2));
+
+		Instant from = DAY.plus(Duration.ofDays(1));
+		History history = store.query(from, from.plusSeconds(120), Duration.ofMinutes(1));
+
+		assertThat(history.series().get("state")).containsExactly(2, 2);
+	}
+
+	@Test
+	void shouldExcludeSamplesOutsideRange() {
+
+		append(DAY.plusSeconds(10), Channel.SOC, 50);
+		append(DAY.plusSeconds(70), Channel.SOC, 60);
+		append(DAY.plusSeconds(130), Channel.SOC, 70);
+
+		History history = store.query(DAY.plusSeconds(60), DAY.plusSeconds(120), Duration.ofMinutes(1));
+
+		assertThat(history.series().get("soc")).containsExactly(60);
+	}
+
+	@Test
+	void shouldRollOverDaily() {
+
+		append(DAY.minusSeconds(30), Channel.INGRESS, 100);
+		append(DAY.plusSeconds(30), Channel.INGRESS, 200);
+
+		assertThat(directory.resolve("history-2026-05-31.bin")).exists();
+		assertThat(directory.resolve("history-2026-06-01.bin")).exists();
+
+		History history = store.query(DAY.minusSeconds(60), DAY.plusSeconds(60), Duration.ofMinutes(1));
+
+		assertThat(history.series().get("ingress")).containsExactly(100, 200);
+	}
+
+	@Test
+	void shouldRecoverRecordsAfterReopen() {
+
+		append(DAY.plusSeconds(10), Channel.INGRESS, 100);
+		store.close();
+
+		store = create();
+		append(DAY.plusSeconds(20), Channel.INGRESS, 200);
+
+		History history = store.query(DAY, DAY.plusSeconds(60), Duration.ofMinutes(1));
+
+		assertThat(history.series().get("ingress")).containsExactly(150);
+	}
+
+	@Test
+	void shouldDropSamplesWhenSegmentFull() {
+
+		store.close();
+		store = new HistoryStore(directory, HistorySegment.HEADER_SIZE + 2 * HistorySegment.RECORD_SIZE,
+				Duration.ofDays(2), List.of(Channel.INGRESS), ZoneOffset.UTC);
+
+		assertThat(store.append(DAY.toEpochMilli(), Channel.INGRESS.id(), 1)).isTrue();
+		assertThat(store.append(DAY.toEpochMilli() + 1, Channel.INGRESS.id(), 2)).isTrue();
+		assertThat(store.append(DAY.toEpochMilli() + 2, Channel.INGRESS.id(), 3)).isFalse();
+	}
+
+	@Test
+	void shouldPurgeSegmentsOutsideRetention() throws Exception {
+
+		Path old = Files.createFile(directory.resolve("history-2026-05-01.bin"));
+		Path recent = Files.createFile(directory.resolve("history-2026-05-30.bin"));
+
+		store.purge(LocalDate.of(2026, 6, 1));
+
+		assertThat(old).doesNotExist();
+		assertThat(recent).exists();
+	}
+
+	@Test
+	void shouldCompactPastDays() {
+
+		for (int i = 0; i < 3600; i++) {
+			append(DAY.plusSeconds(i), Channel.INGRESS, i % 60);
+		}
+		append(DAY.plusSeconds(600), Channel.STATE, 3);
+		History raw = store.query(DAY, DAY.plus(Duration.ofHours(1)), Duration.ofSeconds(30));
+
+		append(DAY.plus(Duration.ofDays(1)), Channel.INGRESS, 1);
+		store.compact(LocalDate.of(2026, 6, 2));
+
+		assertThat(directory.resolve("history-2026-06-01.bin")).doesNotExist();
+		assertThat(directory.resolve("history-2026-06-01.sgz")).exists();
+		assertThat(directory.resolve("history-2026-06-01-1m.sgz")).exists();
+		assertThat(directory.resolve("history-2026-06-01-15m.sgz")).exists();
+		assertThat(directory.resolve("history-2026-06-02.bin")).exists();
+
+		History compacted = store.query(DAY, DAY.plus(Duration.ofHours(1)), Duration.ofSeconds(30));
+		assertThat(compacted.series().get("ingress")).containsExactly(raw.series().get("ingress"));
+		assertThat(compacted.series().get("state")).containsExactly(raw.series().get("state"));
+	}
+
+	@Test
+	void shouldQueryRollups() {
+
+		for (int i = 0; i < 3600; i++) {
+			append(DAY.plusSeconds(i), Channel.INGRESS, i < 1800 ? 100 : 300);
+		}
+		append(DAY.plus(Duration.ofDays(1)), Channel.INGRESS, 1);
+		store.compact(LocalDate.of(2026, 6, 2));
+
+		History history = store.query(DAY, DAY.plus(Duration.ofHours(1)), Duration.ofMinutes(15));
+
+		assertThat(history.series().get("ingress")).containsExactly(100, 100, 300, 300);
+	}
+
+	@Test
+	void shouldNotQueryRollupsForUnalignedRange() {
+
+		for (int i = 0; i < 3600; i++) {
+			append(DAY.plusSeconds(i), Channel.INGRESS, i < 1800 ? 100 : 300);
+		}
+		append(DAY.plus(Duration.ofDays(1)), Channel.INGRESS, 1);
+		store.compact(LocalDate.of(2026, 6, 2));
+
+		Instant from = DAY.plusSeconds(90);
+		History history = store.query(from, from.plus(Duration.ofMinutes(30)), Duration.ofMinutes(15));
+
+		// second step covers 810 samples of 100 and 90 samples of 300
+		assertThat(history.series().get("ingress")).containsExactly(100, 120);
+	}
+
+	@Test
+	void shouldFallBackToRollupsAfterRawRetention() {
+
+		store.close();
+		store = new HistoryStore(directory, 1024 * 1024, Duration.ofDays(30), Duration.ofDays(1), List.of(Channel.INGRESS),
+				ZoneOffset.UTC);
+
+		append(DAY.plusSeconds(10), Channel.INGRESS, 100);
+		append(DAY.plusSeconds(20), Channel.INGRESS, 200);
+		append(DAY.plus(Duration.ofDays(3)), Channel.INGRESS, 1);
+		store.compact(LocalDate.of(2026, 6, 4));
+
+		assertThat(directory.resolve("history-2026-06-01.sgz")).doesNotExist();
+
+		History history = store.query(DAY, DAY.plus(Duration.ofMinutes(2)), Duration.ofSeconds(30));
+
+		assertThat(history.series().get("ingress")).containsExactly(150, Double.NaN, Double.NaN, Double.NaN);
+	}
+
+	@Test
+	void shouldRejectTooManySteps() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> store.query(DAY, DAY.plus(Duration.ofDays(30)), Duration.ofSeconds(1)));
+	}
+
+	HistoryStore create() {
+		return new HistoryStore(directory, 1024 * 1024, Duration.ofDays(2), Channel.all(List.of("inverter1")),
+				ZoneOffset.UTC);
+	}
+
+	void append(Instant timestamp, Channel channel, float value) {
+		assertThat(store.append(timestamp.toEpochMilli(), channel.id(), value)).isTrue();
+	}
+
+}
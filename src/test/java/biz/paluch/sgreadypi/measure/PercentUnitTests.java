@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.measure;
+
+import static org.assertj.core.api.Assertions.*;
+
+import tech.units.indriya.AbstractUnit;
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.unit.Units;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link Percent}.
+ *
+ * @author Mark Paluch
+ */
+class PercentUnitTests {
+
+	@Test
+	void shouldEqualIndriyaQuantityOfSameValue() {
+
+		assertThat(Percent.of(80)).isEqualTo(Quantities.getQuantity(80, Units.PERCENT));
+		assertThat(Percent.of(52.5)).isEqualTo(Quantities.getQuantity(52.5, Units.PERCENT));
+		assertThat(Percent.of(80)).isNotEqualTo(Watt.of(80));
+	}
+
+	@Test
+	void shouldReadPercent() {
+
+		assertThat(Percent.toPercent(Percent.of(80))).isEqualTo(80);
+		assertThat(Percent.toPercent(Quantities.getQuantity(0.5, AbstractUnit.ONE))).isCloseTo(50, within(1e-9));
+		assertThat(Percent.from(Quantities.getQuantity(0.25, AbstractUnit.ONE)).percent()).isCloseTo(25, within(1e-9));
+	}
+}
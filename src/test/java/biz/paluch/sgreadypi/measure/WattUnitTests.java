@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.measure;
+
+import static org.assertj.core.api.Assertions.*;
+
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.unit.Units;
+
+import javax.measure.MetricPrefix;
+import javax.measure.Quantity;
+import javax.measure.quantity.Power;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link Watt}.
+ *
+ * @author Mark Paluch
+ */
+class WattUnitTests {
+
+	@Test
+	void shouldReportValueLikeIndriyaQuantity() {
+
+		assertThat(Watt.of(1500).getValue()).isEqualTo(1500);
+		assertThat(Watt.of(1500.5).getValue()).isEqualTo(1500.5);
+		assertThat(Watt.of(1500).getUnit()).isEqualTo(Units.WATT);
+		assertThat(Watt.of(1500)).hasToString(Quantities.getQuantity(1500, Units.WATT).toString());
+	}
+
+	@Test
+	void shouldEqualIndriyaQuantityOfSameValue() {
+
+		Quantity<Power> indriya = Quantities.getQuantity(1500, Units.WATT);
+
+		assertThat(Watt.of(1500)).isEqualTo(indriya);
+		assertThat(indriya).isEqualTo(Watt.of(1500));
+		assertThat(Watt.of(1500)).isNotEqualTo(Watt.of(1500.0));
+	}
+
+	@Test
+	void shouldReadWattsWithoutConversion() {
+
+		assertThat(Watt.toWatts(Watt.of(1500))).isEqualTo(1500);
+		assertThat(Watt.toWatts(Quantities.getQuantity(1500, Units.WATT))).isEqualTo(1500);
+		assertThat(Watt.toWatts(Quantities.getQuantity(1.5, MetricPrefix.KILO(Units.WATT)))).isCloseTo(1500,
+				within(1e-9));
+	}
+
+	@Test
+	void shouldAdaptQuantities() {
+
+		Watt watt = Watt.of(200);
+
+		assertThat(Watt.from(watt)).isSameAs(watt);
+		assertThat(Watt.from(Quantities.getQuantity(2, MetricPrefix.KILO(Units.WATT))).watts()).isCloseTo(2000,
+				within(1e-9));
+		assertThat(watt.to(Units.WATT)).isSameAs(watt);
+	}
+
+	@Test
+	void shouldDelegateArithmetic() {
+
+		Quantity<Power> off = Watt.of(1000).multiply(0.7);
+
+		assertThat(off.getValue().doubleValue()).isCloseTo(700, within(1e-9));
+		assertThat(Watt.of(1000).subtract(Watt.of(300)).getValue().intValue()).isEqualTo(700);
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.output;
+
+import static org.assertj.core.api.Assertions.*;
+
+import biz.paluch.sgreadypi.DecisionLatency;
+import biz.paluch.sgreadypi.SgReadyState;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CompositeSgReadyStateConsumer}.
+ *
+ * @author Mark Paluch
+ */
+class CompositeSgReadyStateConsumerUnitTests {
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void shouldNotDelayInlineConsumersBySlowAsyncConsumers() throws InterruptedException {
+
+		CountDownLatch release = new CountDownLatch(1);
+		BlockingQueue<SgReadyState> slowStates = new LinkedBlockingQueue<>();
+		BlockingQueue<SgReadyState> relayStates = new LinkedBlockingQueue<>();
+
+		SlowConsumer slow = new SlowConsumer(DispatchPolicy.coalescing(Duration.ofSeconds(10)), release, slowStates);
+		SgReadyStateConsumer relay = relayStates::add;
+
+		CompositeSgReadyStateConsumer composite = new CompositeSgReadyStateConsumer(List.of(slow, relay), registry);
+
+		composite.onState(SgReadyState.EXCESS_PV);
+
+		assertThat(relayStates).containsExactly(SgReadyState.EXCESS_PV);
+		assertThat(slowStates.poll(5, TimeUnit.SECONDS)).isEqualTo(SgReadyState.EXCESS_PV);
+
+		release.countDown();
+	}
+
+	@Test
+	void shouldRecordEndToEndLatencyOnceInlineConsumersApplied() {
+
+		DecisionLatency.global().bindTo(registry);
+		List<SgReadyState> states = new ArrayList<>();
+		SgReadyStateConsumer relay = states::add;
+
+		CompositeSgReadyStateConsumer composite = new CompositeSgReadyStateConsumer(List.of(relay), registry);
+
+		composite.onState(SgReadyState.EXCESS_PV);
+		composite.onState(SgReadyState.NORMAL, Instant.now().minusSeconds(2));
+
+		Timer endToEnd = registry.get("sg.decision.latency").tag("stage", "end-to-end").timer();
+		assertThat(states).containsExactly(SgReadyState.EXCESS_PV, SgReadyState.NORMAL);
+		assertThat(endToEnd.count()).isOne();
+		assertThat(endToEnd.totalTime(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(2);
+	}
+
+	@Test
+	void shouldCoalescePendingStates() throws InterruptedException {
+
+		CountDownLatch release = new CountDownLatch(1);
+		BlockingQueue<SgReadyState> states = new LinkedBlockingQueue<>();
+		SlowConsumer slow = new SlowConsumer(DispatchPolicy.coalescing(Duration.ofSeconds(10)), release, states);
+
+		CompositeSgReadyStateConsumer composite = new CompositeSgReadyStateConsumer(List.of(slow), registry);
+
+		composite.onState(SgReadyState.EXCESS_PV);
+		assertThat(states.poll(5, TimeUnit.SECONDS)).isEqualTo(SgReadyState.EXCESS_PV);
+
+		composite.onState(SgReadyState.AVAILABLE_PV);
+		composite.onState(SgReadyState.NORMAL);
+		release.countDown();
+
+		assertThat(states.poll(5, TimeUnit.SECONDS)).isEqualTo(SgReadyState.NORMAL);
+		assertThat(states.poll(100, TimeUnit.MILLISECONDS)).isNull();
+		assertThat(registry.get("sg.output.dropped").tag("consumer", "SlowConsumer").counter().count()).isOne();
+	}
+
+	@Test
+	void shouldDropNewestWhenQueueIsFull() throws InterruptedException {
+
+		CountDownLatch release = new CountDownLatch(1);
+		BlockingQueue<SgReadyState> states = new LinkedBlockingQueue<>();
+		SlowConsumer slow = new SlowConsumer(
+				DispatchPolicy.async(1, DispatchPolicy.Overflow.DROP_NEWEST, Duration.ofSeconds(10)), release, states);
+
+		CompositeSgReadyStateConsumer composite = new CompositeSgReadyStateConsumer(List.of(slow), registry);
+
+		composite.onState(SgReadyState.EXCESS_PV);
+		assertThat(states.poll(5, TimeUnit.SECONDS)).isEqualTo(SgReadyState.EXCESS_PV);
+
+		composite.onState(SgReadyState.AVAILABLE_PV);
+		composite.onState(SgReadyState.NORMAL);
+		release.countDown();
+
+		assertThat(states.poll(5, TimeUnit.SECONDS)).isEqualTo(SgReadyState.AVAILABLE_PV);
+		assertThat(states.poll(100, TimeUnit.MILLISECONDS)).isNull();
+	}
+
+	@Test
+	void shouldInterruptCallAfterTimeoutAndDeliverLatest() throws InterruptedException {
+
+		CountDownLatch release = new CountDownLatch(1);
+		BlockingQueue<SgReadyState> states = new LinkedBlockingQueue<>();
+		SlowConsumer slow = new SlowConsumer(
+				DispatchPolicy.async(3, DispatchPolicy.Overflow.DROP_OLDEST, Duration.ofMillis(200)), release, states);
+
+		CompositeSgReadyStateConsumer composite = new CompositeSgReadyStateConsumer(List.of(slow), registry);
+
+		composite.onState(SgReadyState.EXCESS_PV);
+		assertThat(states.poll(5, TimeUnit.SECONDS)).isEqualTo(SgReadyState.EXCESS_PV);
+
+		composite.onState(SgReadyState.AVAILABLE_PV);
+		composite.onState(SgReadyState.NORMAL);
+
+		assertThat(slow.interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(states.poll(5, TimeUnit.SECONDS)).isEqualTo(SgReadyState.NORMAL);
+		assertThat(registry.get("sg.output.timeouts").tag("consumer", "SlowConsumer").counter().count())
+				.isGreaterThanOrEqualTo(1);
+
+		release.countDown();
+		composite.close();
+	}
+
+	@Test
+	void shouldNotBlockQueueOnDelegateThatNeverReturns() throws InterruptedException {
+
+		BlockingQueue<SgReadyState> states = new LinkedBlockingQueue<>();
+		AtomicBoolean hung = new AtomicBoolean(true);
+		class HungConsumer implements SgReadyStateConsumer {
+
+			@Override
+			public DispatchPolicy getDispatchPolicy() {
+				return DispatchPolicy.coalescing(Duration.ofMillis(50));
+			}
+
+			@Override
+			public void onState(SgReadyState state) {
+
+				states.add(state);
+				// swallows interrupts like a blocking socket call
+				while (hung.get() && state == SgReadyState.EXCESS_PV) {
+					Thread.interrupted();
+					LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+				}
+			}
+		}
+
+		CompositeSgReadyStateConsumer composite = new CompositeSgReadyStateConsumer(List.of(new HungConsumer()),
+				registry);
+
+		composite.onState(SgReadyState.EXCESS_PV);
+		assertThat(states.poll(5, TimeUnit.SECONDS)).isEqualTo(SgReadyState.EXCESS_PV);
+
+		composite.onState(SgReadyState.NORMAL);
+
+		assertThat(states.poll(5, TimeUnit.SECONDS)).isEqualTo(SgReadyState.NORMAL);
+		assertThat(registry.get("sg.output.timeouts").tag("consumer", "HungConsumer").counter().count()).isOne();
+
+		hung.set(false);
+		composite.close();
+	}
+
+	@Test
+	void shouldInterruptRunningCallsOnClose() throws InterruptedException {
+
+		CountDownLatch release = new CountDownLatch(1);
+		BlockingQueue<SgReadyState> states = new LinkedBlockingQueue<>();
+		SlowConsumer slow = new SlowConsumer(DispatchPolicy.coalescing(Duration.ofSeconds(10)), release, states);
+
+		CompositeSgReadyStateConsumer composite = new CompositeSgReadyStateConsumer(List.of(slow), registry);
+
+		composite.onState(SgReadyState.EXCESS_PV);
+		assertThat(states.poll(5, TimeUnit.SECONDS)).isEqualTo(SgReadyState.EXCESS_PV);
+
+		composite.close();
+
+		assertThat(slow.interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	/**
+	 * Consumer recording states and blocking until released.
+	 */
+	static class SlowConsumer implements SgReadyStateConsumer {
+
+		private final DispatchPolicy policy;
+
+		private final CountDownLatch release;
+
+		private final BlockingQueue<SgReadyState> states;
+
+		private final CountDownLatch interrupted = new CountDownLatch(1);
+
+		SlowConsumer(DispatchPolicy policy, CountDownLatch release, BlockingQueue<SgReadyState> states) {
+			this.policy = policy;
+			this.release = release;
+			this.states = states;
+		}
+
+		@Override
+		public DispatchPolicy getDispatchPolicy() {
+			return policy;
+		}
+
+		@Override
+		public void onState(SgReadyState state) {
+
+			states.add(state);
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.output;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import biz.paluch.sgreadypi.SgReadyState;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Unit tests for {@link DebounceStateConsumer}.
+ *
+ * @author Mark Paluch
+ */
+class DebounceStateConsumerUnitTests {
+
+	TaskScheduler scheduler = mock(TaskScheduler.class);
+
+	List<Instant> readingTimes = new ArrayList<>();
+
+	SgReadyStateConsumer delegate = new SgReadyStateConsumer() {
+
+		@Override
+		public void onState(SgReadyState state) {
+			readingTimes.add(Instant.MIN);
+		}
+
+		@Override
+		public void onState(SgReadyState state, Instant readingTime) {
+			readingTimes.add(readingTime);
+		}
+	};
+
+	@Test
+	void shouldPassReadingTimeOfAppliedState() {
+
+		DebounceStateConsumer debounce = new DebounceStateConsumer(delegate, scheduler, Duration.ofMinutes(1));
+		Instant reading = Instant.parse("2026-06-01T10:00:00Z");
+
+		debounce.onState(SgReadyState.EXCESS_PV, reading);
+
+		assertThat(readingTimes).containsExactly(reading);
+	}
+
+	@Test
+	void shouldPassReadingTimeOfLatestDebouncedState() {
+
+		DebounceStateConsumer debounce = new DebounceStateConsumer(delegate, scheduler, Duration.ofMinutes(1));
+		Instant first = Instant.parse("2026-06-01T10:00:00Z");
+		Instant second = first.plusSeconds(10);
+		Instant third = first.plusSeconds(20);
+
+		debounce.onState(SgReadyState.EXCESS_PV, first);
+		debounce.onState(SgReadyState.AVAILABLE_PV, second);
+		debounce.onState(SgReadyState.NORMAL, third);
+
+		ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+		verify(scheduler).schedule(task.capture(), any(Instant.class));
+		task.getValue().run();
+
+		assertThat(debounce.getCurrent()).isEqualTo(SgReadyState.NORMAL);
+		assertThat(readingTimes).containsExactly(first, third);
+	}
+
+}
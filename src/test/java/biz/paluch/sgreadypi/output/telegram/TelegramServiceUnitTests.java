@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.output.telegram;
+
+import static org.assertj.core.api.Assertions.*;
+
+import biz.paluch.sgreadypi.ConditionOutcome;
+import biz.paluch.sgreadypi.Conditions;
+import biz.paluch.sgreadypi.Decision;
+import biz.paluch.sgreadypi.SgReadyState;
+import biz.paluch.sgreadypi.measure.Percent;
+import biz.paluch.sgreadypi.measure.Watt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.pengrad.telegrambot.TelegramBot;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Unit tests for {@link TelegramService} against a local stub of the Telegram Bot API.
+ *
+ * @author Mark Paluch
+ */
+class TelegramServiceUnitTests {
+
+	static final String OK = "{\"ok\":true,\"result\":{\"message_id\":1,\"date\":0,\"chat\":{\"id\":1,\"type\":\"private\"}}}";
+
+	HttpServer server;
+
+	BlockingQueue<String> requests = new LinkedBlockingQueue<>();
+
+	BlockingQueue<Reply> replies = new LinkedBlockingQueue<>();
+
+	TelegramProperties properties = new TelegramProperties();
+
+	TelegramService service;
+
+	Decision decision = new Decision(SgReadyState.EXCESS_PV, ConditionOutcome.match("test"))
+			.at(new Conditions(Watt.of(500), Watt.of(4200), Percent.of(80), Watt.zero(), false), Instant.now());
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+
+		properties.setChatId(1);
+		properties.setLocale(Locale.GERMAN);
+		properties.setWindow(Duration.ofMillis(200));
+		properties.setBackoff(Duration.ofMillis(10));
+		properties.setBurst(10);
+	}
+
+	@AfterEach
+	void tearDown() {
+
+		if (service != null) {
+			service.preDestroy();
+		}
+		server.stop(0);
+	}
+
+	@Test
+	void shouldRenderDecisionSnapshot() throws InterruptedException {
+
+		service = createService();
+
+		service.onState(SgReadyState.EXCESS_PV);
+
+		String message = requests.poll(5, TimeUnit.SECONDS);
+		assertThat(message).contains("Anlaufbefehl", "500 W", "4200 W").doesNotContain("Wechsel");
+	}
+
+	@Test
+	void shouldMergeTransitionsWithinWindow() throws InterruptedException {
+
+		service = createService();
+
+		service.onState(SgReadyState.AVAILABLE_PV);
+		service.onState(SgReadyState.EXCESS_PV);
+
+		String message = requests.poll(5, TimeUnit.SECONDS);
+		assertThat(message).contains("Wechsel: Einschaltempfehlung → Anlaufbefehl");
+		assertThat(requests.poll(500, TimeUnit.MILLISECONDS)).isNull();
+	}
+
+	@Test
+	void shouldSkipNotificationWithoutNetChange() throws InterruptedException {
+
+		service = createService();
+
+		service.onState(SgReadyState.EXCESS_PV);
+		assertThat(requests.poll(5, TimeUnit.SECONDS)).isNotNull();
+
+		service.onState(SgReadyState.AVAILABLE_PV);
+		service.onState(SgReadyState.EXCESS_PV);
+
+		assertThat(requests.poll(500, TimeUnit.MILLISECONDS)).isNull();
+	}
+
+	@Test
+	void shouldRetryFailedSends() throws InterruptedException {
+
+		replies.add(new Reply(500, "{\"ok\":false,\"error_code\":500,\"description\":\"Internal Server Error\"}"));
+		replies.add(new Reply(429,
+				"{\"ok\":false,\"error_code\":429,\"description\":\"Too Many Requests\",\"parameters\":{\"retry_after\":0}}"));
+		service = createService();
+
+		service.onState(SgReadyState.EXCESS_PV);
+
+		assertThat(requests.poll(5, TimeUnit.SECONDS)).isNotNull();
+		assertThat(requests.poll(5, TimeUnit.SECONDS)).isNotNull();
+		assertThat(requests.poll(5, TimeUnit.SECONDS)).isNotNull();
+		assertThat(replies).isEmpty();
+	}
+
+	@Test
+	void shouldNotRetryClientErrors() throws InterruptedException {
+
+		replies.add(new Reply(400, "{\"ok\":false,\"error_code\":400,\"description\":\"Bad Request\"}"));
+		service = createService();
+
+		service.onState(SgReadyState.EXCESS_PV);
+
+		assertThat(requests.poll(5, TimeUnit.SECONDS)).isNotNull();
+		assertThat(requests.poll(500, TimeUnit.MILLISECONDS)).isNull();
+	}
+
+	private TelegramService createService() {
+
+		TelegramBot bot = new TelegramBot.Builder("token")
+				.apiUrl("http://localhost:" + server.getAddress().getPort() + "/bot").build();
+		return new TelegramService(bot, properties, () -> decision);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+
+		String body;
+		try (InputStream in = exchange.getRequestBody()) {
+			body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+
+		String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+		requests.add(contentType != null && contentType.startsWith("application/x-www-form-urlencoded")
+				? URLDecoder.decode(body, StandardCharsets.UTF_8)
+				: body);
+
+		Reply reply = replies.poll();
+		byte[] response = (reply != null ? reply.body() : OK).getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(reply != null ? reply.status() : 200, response.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(response);
+		}
+	}
+
+	record Reply(int status, String body) {
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.output.telegram;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link TokenBucket}.
+ *
+ * @author Mark Paluch
+ */
+class TokenBucketUnitTests {
+
+	AtomicLong now = new AtomicLong();
+
+	TokenBucket bucket = new TokenBucket(2, Duration.ofNanos(100), now::get);
+
+	@Test
+	void shouldAllowBurstUpToCapacity() {
+
+		assertThat(bucket.tryAcquire()).isZero();
+		assertThat(bucket.tryAcquire()).isZero();
+		assertThat(bucket.tryAcquire()).isEqualTo(100);
+	}
+
+	@Test
+	void shouldRefillOneTokenPerPeriod() {
+
+		bucket.tryAcquire();
+		bucket.tryAcquire();
+
+		now.set(60);
+		assertThat(bucket.tryAcquire()).isEqualTo(40);
+
+		now.set(100);
+		assertThat(bucket.tryAcquire()).isZero();
+		assertThat(bucket.tryAcquire()).isEqualTo(100);
+	}
+
+	@Test
+	void shouldNotExceedCapacityAfterIdling() {
+
+		now.set(10_000);
+
+		assertThat(bucket.tryAcquire()).isZero();
+		assertThat(bucket.tryAcquire()).isZero();
+		assertThat(bucket.tryAcquire()).isEqualTo(100);
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link AdaptivePollingInterval}.
+ *
+ * @author Mark Paluch
+ */
+class AdaptivePollingIntervalUnitTests {
+
+	AdaptivePollingInterval interval = new AdaptivePollingInterval(Duration.ofSeconds(5), Duration.ofSeconds(60), 10,
+			200);
+
+	@Test
+	void shouldBackOffOnFlatReadings() {
+
+		assertThat(interval.next(0, 1000, 0, true, false)).hasSeconds(10);
+		assertThat(interval.next(10_000, 1000, 0, true, false)).hasSeconds(20);
+		assertThat(interval.next(30_000, 1010, 0, true, false)).hasSeconds(40);
+		assertThat(interval.next(70_000, 1000, 0, true, false)).hasSeconds(60);
+		assertThat(interval.next(130_000, 1000, 0, true, false)).hasSeconds(60);
+		assertThat(interval.getInterval()).hasSeconds(60);
+	}
+
+	@Test
+	void shouldSnapBackOnFastPowerChange() {
+
+		interval.next(0, 1000, 0, true, false);
+		interval.next(10_000, 1000, 0, true, false);
+
+		// 500 W within 20 seconds are 25 W/s
+		assertThat(interval.next(30_000, 1500, 0, true, false)).hasSeconds(5);
+	}
+
+	@Test
+	void shouldSnapBackOnBatteryFlow() {
+
+		interval.next(0, 1000, 0, true, false);
+
+		assertThat(interval.next(10_000, 1000, -300, true, false)).hasSeconds(5);
+		assertThat(interval.next(15_000, 1000, 250, true, false)).hasSeconds(5);
+	}
+
+	@Test
+	void shouldSnapBackNearThreshold() {
+
+		interval.next(0, 1000, 0, true, false);
+
+		assertThat(interval.next(10_000, 1000, 0, true, true)).hasSeconds(5);
+	}
+
+	@Test
+	void shouldUseMaximumIntervalAtNight() {
+
+		assertThat(interval.next(0, 0, 0, false, false)).hasSeconds(60);
+		assertThat(interval.next(60_000, 0, 0, false, true)).hasSeconds(5);
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link Average}.
+ *
+ * @author Mark Paluch
+ */
+class AverageUnitTests {
+
+	@Test
+	void shouldReturnZeroWithoutSamples() {
+		assertThat(new Average(Duration.ofSeconds(10)).getAverage()).isZero();
+	}
+
+	@Test
+	void shouldAverageSamplesWithinWindow() {
+
+		Average average = new Average(Duration.ofSeconds(10));
+
+		average.add(1_000, 100);
+		average.add(2_000, 200);
+		average.add(3_000, 600);
+
+		assertThat(average.getAverage()).isEqualTo(300);
+		assertThat(average.size()).isEqualTo(3);
+	}
+
+	@Test
+	void shouldEvictSamplesOlderThanWindow() {
+
+		Average average = new Average(Duration.ofSeconds(10));
+
+		average.add(1_000, 1000);
+		average.add(5_000, 100);
+		average.add(11_001, 200);
+
+		assertThat(average.getAverage()).isEqualTo(150);
+		assertThat(average.size()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldRetainSampleAtWindowBoundary() {
+
+		Average average = new Average(Duration.ofSeconds(10));
+
+		average.add(1_000, 100);
+		average.add(11_000, 200);
+
+		assertThat(average.getAverage()).isEqualTo(150);
+	}
+
+	@Test
+	void shouldResetWhenAllSamplesExpire() {
+
+		Average average = new Average(Duration.ofSeconds(1));
+
+		average.add(1_000, 0.1);
+		average.add(1_500, 0.2);
+		average.add(60_000, 42);
+
+		assertThat(average.getAverage()).isEqualTo(42);
+		assertThat(average.size()).isOne();
+	}
+
+	@Test
+	void shouldGrowAndWrapAroundRing() {
+
+		Average average = new Average(Duration.ofSeconds(100));
+
+		for (int i = 0; i < 1_000; i++) {
+			average.add(i * 1_000L, i);
+		}
+
+		// samples 899..999 remain in the 100s window
+		assertThat(average.size()).isEqualTo(101);
+		assertThat(average.getAverage()).isCloseTo(949, within(1e-9));
+	}
+
+}
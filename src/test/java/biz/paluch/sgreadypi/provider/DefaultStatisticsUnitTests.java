@@ -0,0 +1,250 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import static org.assertj.core.api.Assertions.*;
+
+import biz.paluch.sgreadypi.measure.Watt;
+import tech.units.indriya.unit.Units;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.measure.quantity.Power;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link DefaultStatistics}.
+ *
+ * @author Mark Paluch
+ */
+class DefaultStatisticsUnitTests {
+
+	@Test
+	void shouldReportZeroWithoutUpdates() {
+
+		DefaultStatistics<Power> statistics = new DefaultStatistics<>(Duration.ofMinutes(5), Units.WATT);
+
+		assertThat(statistics.getAverage().getValue().intValue()).isZero();
+		assertThat(statistics.getMostRecent().getValue().intValue()).isZero();
+	}
+
+	@Test
+	void shouldPublishAverageAndMostRecent() {
+
+		DefaultStatistics<Power> statistics = new DefaultStatistics<>(Duration.ofMinutes(5), Units.WATT);
+
+		statistics.update(Watt.of(100));
+		statistics.update(Watt.of(300));
+
+		assertThat(statistics.getAverage().getValue().intValue()).isEqualTo(200);
+		assertThat(statistics.getMostRecent()).isEqualTo(Watt.of(300));
+	}
+
+	@Test
+	void shouldPublishWattForPowerStatistics() {
+
+		DefaultStatistics<Power> statistics = new DefaultStatistics<>(Duration.ofMinutes(5), Units.WATT);
+
+		statistics.update(Watt.of(100));
+		statistics.update(Watt.of(201));
+
+		assertThat(statistics.getAverage()).isEqualTo(Watt.of(151)).isInstanceOf(Watt.class);
+		assertThat(statistics.getPercentiles().p50()).isInstanceOf(Watt.class);
+	}
+
+	@Test
+	void shouldPublishPercentiles() {
+
+		DefaultStatistics<Power> statistics = new DefaultStatistics<>(Duration.ofMinutes(5), Units.WATT);
+
+		for (int i = 1; i <= 100; i++) {
+			statistics.update(Watt.of(i * 10));
+		}
+
+		Percentiles<Power> percentiles = statistics.getPercentiles();
+
+		assertThat(percentiles.p10().getValue().intValue()).isCloseTo(100, withinPercentage(2));
+		assertThat(percentiles.p50().getValue().intValue()).isCloseTo(500, withinPercentage(2));
+		assertThat(percentiles.p90().getValue().intValue()).isCloseTo(900, withinPercentage(2));
+	}
+
+	@Test
+	void shouldNotContendUnderSimulatedFeed() throws InterruptedException {
+
+		StatisticsContention contention = new StatisticsContention();
+		DefaultStatistics<Power> statistics = new DefaultStatistics<>(Duration.ofMinutes(5), Units.WATT, contention);
+		AtomicBoolean done = new AtomicBoolean();
+		CountDownLatch readersStarted = new CountDownLatch(3);
+		List<Thread> readers = new ArrayList<>();
+
+		for (int i = 0; i < 3; i++) {
+			readers.add(Thread.ofPlatform().start(() -> {
+				readersStarted.countDown();
+				while (!done.get()) {
+					statistics.getAverage();
+					statistics.getMostRecent();
+				}
+			}));
+		}
+
+		readersStarted.await(1, TimeUnit.SECONDS);
+
+		// 100 Hz ingestion for one second
+		for (int i = 0; i < 100; i++) {
+			statistics.update(Watt.of(i));
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+		}
+
+		done.set(true);
+		for (Thread reader : readers) {
+			reader.join();
+		}
+
+		assertThat(contention.getUpdates()).isEqualTo(100);
+		assertThat(contention.getContendedUpdates()).isZero();
+		assertThat(contention.getReads()).isGreaterThan(100);
+		assertThat(statistics.getMostRecent()).isEqualTo(Watt.of(99));
+		assertThat(statistics.getAverage().getValue().intValue()).isEqualTo(50);
+	}
+
+	@Test
+	void shouldPublishConsistentSnapshotsUnderConcurrentWriters() throws InterruptedException {
+
+		// reports the most recent sample so that average and most recent value of one snapshot must match
+		RollingEstimator latest = new RollingEstimator() {
+
+			double value;
+
+			@Override
+			public void add(long timestamp, double value) {
+				this.value = value;
+			}
+
+			@Override
+			public double getValue() {
+				return value;
+			}
+		};
+
+		StatisticsContention contention = new StatisticsContention();
+		DefaultStatistics<Power> statistics = new DefaultStatistics<>(Duration.ofMinutes(5), latest, Units.WATT,
+				contention);
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicInteger snapshots = new AtomicInteger();
+		AtomicInteger inconsistent = new AtomicInteger();
+		List<Thread> threads = new ArrayList<>();
+
+		for (int i = 0; i < 2; i++) {
+			threads.add(Thread.ofPlatform().start(() -> {
+				while (!done.get()) {
+
+					DefaultStatistics.Snapshot<Power> snapshot = statistics.getSnapshot();
+					Percentiles<Power> percentiles = snapshot.percentiles();
+					int p10 = percentiles.p10().getValue().intValue();
+					int p50 = percentiles.p50().getValue().intValue();
+					int p90 = percentiles.p90().getValue().intValue();
+
+					if (!snapshot.average().equals(snapshot.mostRecent()) || p10 > p50 || p50 > p90) {
+						inconsistent.incrementAndGet();
+					}
+					snapshots.incrementAndGet();
+				}
+			}));
+		}
+
+		List<Thread> writers = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			int offset = i * 1000;
+			writers.add(Thread.ofPlatform().start(() -> {
+				for (int j = 0; j < 5000; j++) {
+					statistics.update(Watt.of(offset + j % 1000));
+				}
+			}));
+		}
+
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		done.set(true);
+		for (Thread reader : threads) {
+			reader.join();
+		}
+
+		assertThat(snapshots.get()).isPositive();
+		assertThat(inconsistent.get()).isZero();
+		assertThat(contention.getUpdates()).isEqualTo(10000);
+	}
+
+	@Test
+	void shouldCountContendedUpdates() throws InterruptedException {
+
+		CountDownLatch adding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		// blocks the first update while holding the write lock
+		RollingEstimator blocking = new RollingEstimator() {
+
+			final AtomicBoolean first = new AtomicBoolean(true);
+
+			@Override
+			public void add(long timestamp, double value) {
+
+				if (first.compareAndSet(true, false)) {
+					adding.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+
+			@Override
+			public double getValue() {
+				return 0;
+			}
+		};
+
+		StatisticsContention contention = new StatisticsContention();
+		DefaultStatistics<Power> statistics = new DefaultStatistics<>(Duration.ofMinutes(5), blocking, Units.WATT,
+				contention);
+
+		Thread holder = Thread.ofPlatform().start(() -> statistics.update(Watt.of(1)));
+		assertThat(adding.await(5, TimeUnit.SECONDS)).isTrue();
+
+		Thread waiter = Thread.ofPlatform().start(() -> statistics.update(Watt.of(2)));
+		while (waiter.getState() != Thread.State.WAITING) {
+			Thread.onSpinWait();
+		}
+
+		release.countDown();
+		holder.join();
+		waiter.join();
+
+		assertThat(contention.getUpdates()).isEqualTo(2);
+		assertThat(contention.getContendedUpdates()).isOne();
+		assertThat(statistics.getMostRecent()).isEqualTo(Watt.of(2));
+	}
+
+}
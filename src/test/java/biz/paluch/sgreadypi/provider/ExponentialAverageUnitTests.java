@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ExponentialAverage}.
+ *
+ * @author Mark Paluch
+ */
+class ExponentialAverageUnitTests {
+
+	@Test
+	void shouldReturnZeroWithoutSamples() {
+		assertThat(new ExponentialAverage(Duration.ofSeconds(10)).getValue()).isZero();
+	}
+
+	@Test
+	void shouldStartWithFirstSample() {
+
+		ExponentialAverage average = new ExponentialAverage(Duration.ofSeconds(10));
+
+		average.add(1_000, 500);
+
+		assertThat(average.getValue()).isEqualTo(500);
+	}
+
+	@Test
+	void shouldWeightSamplesByElapsedTime() {
+
+		ExponentialAverage average = new ExponentialAverage(Duration.ofSeconds(10));
+
+		average.add(0, 0);
+		average.add(10_000, 1000);
+
+		// one time constant elapsed: 1 - 1/e of the step
+		assertThat(average.getValue()).isCloseTo(1000 * (1 - Math.exp(-1)), within(1e-9));
+	}
+
+	@Test
+	void shouldConvergeToSteadyValue() {
+
+		ExponentialAverage average = new ExponentialAverage(Duration.ofSeconds(10));
+
+		average.add(0, 0);
+		for (int i = 1; i <= 120; i++) {
+			average.add(i * 1_000L, 1000);
+		}
+
+		assertThat(average.getValue()).isCloseTo(1000, within(0.1));
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import static org.assertj.core.api.Assertions.*;
+
+import cat.joanpujol.smasolar.modbus.ModbusReadPlan;
+import cat.joanpujol.smasolar.modbus.ModbusReadResponse;
+import cat.joanpujol.smasolar.modbus.ModbusRegister;
+import cat.joanpujol.smasolar.modbus.SmaModbusClient;
+import io.netty.buffer.Unpooled;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link InverterPoller}.
+ *
+ * @author Mark Paluch
+ */
+class InverterPollerUnitTests {
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	StubClient client = new StubClient();
+
+	@Test
+	void shouldPipelineAtomicRequestsUpToInFlightLimit() {
+
+		InverterPoller poller = new InverterPoller("a", client, PLAN, 2, Duration.ofSeconds(5), registry);
+		AtomicReference<ModbusReadResponse> result = new AtomicReference<>();
+
+		poller.poll().subscribe(result::set);
+
+		assertThat(client.pending).hasSize(2);
+
+		client.complete(0, 1000);
+
+		assertThat(client.pending).hasSize(3);
+
+		client.complete(1, 200);
+		client.complete(2, 300);
+
+		assertThat(result.get().getInt(0)).isEqualTo(1000);
+		assertThat(result.get().getInt(1)).isEqualTo(200);
+		assertThat(result.get().getInt(2)).isEqualTo(300);
+		assertThat(registry.get("sg.modbus.round-trip").tag("host", "a").timer().count()).isEqualTo(3);
+	}
+
+	@Test
+	void shouldSkipPollWhilePreviousPollIsOutstanding() {
+
+		InverterPoller poller = new InverterPoller("a", client, PLAN, 3, Duration.ofSeconds(5), registry);
+
+		poller.poll().subscribe();
+		poller.poll().subscribe();
+
+		assertThat(poller.isOutstanding()).isTrue();
+		assertThat(client.pending).hasSize(3);
+		assertThat(registry.get("sg.modbus.polls.skipped").tag("host", "a").counter().count()).isEqualTo(1);
+
+		for (int i = 0; i < 3; i++) {
+			client.complete(i, i);
+		}
+
+		assertThat(poller.isOutstanding()).isFalse();
+
+		poller.poll().subscribe();
+
+		assertThat(client.pending).hasSize(6);
+	}
+
+	@Test
+	void shouldReleasePollAfterTimedOutRequestsCompleted() {
+
+		InverterPoller poller = new InverterPoller("a", client, PLAN, 3, Duration.ofMillis(10), registry);
+
+		assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> poller.poll().block());
+
+		assertThat(poller.isOutstanding()).isTrue();
+		assertThat(registry.get("sg.modbus.round-trip").tag("host", "a").timer().count()).isZero();
+
+		poller.poll().subscribe();
+		assertThat(client.pending).hasSize(3);
+
+		// late responses of the timed out poll
+		for (int i = 0; i < 3; i++) {
+			client.complete(i, 42);
+		}
+
+		assertThat(poller.isOutstanding()).isFalse();
+
+		AtomicReference<ModbusReadResponse> result = new AtomicReference<>();
+		poller.poll().subscribe(result::set);
+		assertThat(client.pending).hasSize(6);
+
+		client.complete(3, 1000);
+		client.complete(4, 200);
+
+		assertThat(result.get()).isNull();
+		assertThat(poller.isOutstanding()).isTrue();
+
+		client.complete(5, 300);
+
+		assertThat(result.get().getInt(0)).isEqualTo(1000);
+		assertThat(result.get().getInt(1)).isEqualTo(200);
+		assertThat(result.get().getInt(2)).isEqualTo(300);
+	}
+
+	@Test
+	void shouldReleasePollAfterTimedOutRequestFailed() {
+
+		InverterPoller poller = new InverterPoller("a", client, PLAN, 1, Duration.ofMillis(10), registry);
+
+		assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> poller.poll().block());
+
+		assertThat(client.pending).hasSize(1);
+		assertThat(poller.isOutstanding()).isTrue();
+
+		client.pending.get(0).sink().tryEmitError(new IllegalStateException("Request timed out"));
+
+		assertThat(poller.isOutstanding()).isFalse();
+	}
+
+	@Test
+	void shouldRejectInvalidInFlightLimit() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new InverterPoller("a", client, PLAN, 0, Duration.ofSeconds(5), registry));
+	}
+
+	// registers too far apart for a single Modbus request
+	static final ModbusReadPlan PLAN = ModbusReadPlan.compile(null, ModbusRegister.CURRENT_ACTIVE_POWER,
+			ModbusRegister.BATTERY_CURRENT_CHARGING, ModbusRegister.AMBIENT_TEMPERATURE);
+
+	static class StubClient extends SmaModbusClient {
+
+		final List<Completion> pending = new CopyOnWriteArrayList<>();
+
+		StubClient() {
+			super("localhost", 502, registerReader -> 3);
+		}
+
+		@Override
+		public Mono<ModbusReadResponse> read(ModbusReadPlan plan, int request, ModbusReadResponse into) {
+
+			Sinks.One<ModbusReadResponse> sink = Sinks.one();
+			pending.add(new Completion(plan, request, into, sink));
+			return sink.asMono();
+		}
+
+		void complete(int index, int value) {
+
+			Completion completion = pending.get(index);
+			completion.plan.decode(completion.request, Unpooled.buffer().writeInt(value), completion.into);
+			completion.sink.tryEmitValue(completion.into);
+		}
+
+		record Completion(ModbusReadPlan plan, int request, ModbusReadResponse into, Sinks.One<ModbusReadResponse> sink) {
+		}
+
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import static org.assertj.core.api.Assertions.*;
+
+import cat.joanpujol.smasolar.emeter.EMeterLecture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link NettySunnyHomeManagerService}.
+ *
+ * @author Mark Paluch
+ */
+class NettySunnyHomeManagerServiceUnitTests {
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void shouldRecordIngressAndEgressFromLecture() {
+
+		NioEventLoopGroup group = new NioEventLoopGroup(1);
+		try {
+			NettySunnyHomeManagerService service = new NettySunnyHomeManagerService(42, Duration.ofMinutes(5),
+					Estimator.MEAN, Estimator.MEAN, group, new SimpleMeterRegistry());
+
+			EMeterLecture lecture = new EMeterLecture();
+			lecture.getCurrentSum().setActivePower(1234.4);
+			lecture.getCurrentSum().setNegativeActivePower(10.6);
+
+			service.onLecture(lecture);
+
+			assertThat(service.getIngress().getMostRecent().getValue().intValue()).isEqualTo(1234);
+			assertThat(service.getEgress().getMostRecent().getValue().intValue()).isEqualTo(11);
+			assertThat(service.getReading()).isNotEqualTo(Instant.MIN);
+			assertThat(service.isRunning()).isFalse();
+		} finally {
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	void shouldShareNioEventLoopWithModbus() {
+
+		EventLoopGroup group = NettyTransport.createEventLoopGroup(true);
+		try {
+			DatagramChannel channel = NettyTransport.datagramChannelFactory(group).newChannel();
+
+			assertThat(NettyTransport.isNio(group)).isTrue();
+			assertThat(channel).isInstanceOf(NioDatagramChannel.class);
+			channel.close();
+		} finally {
+			group.shutdownGracefully();
+		}
+	}
+
+	@Test
+	void shouldPreferEpollWithoutModbus() {
+
+		EventLoopGroup group = NettyTransport.createEventLoopGroup(false);
+		try {
+			assertThat(NettyTransport.isNio(group)).isNotEqualTo(Epoll.isAvailable());
+		} finally {
+			group.shutdownGracefully();
+		}
+	}
+
+}
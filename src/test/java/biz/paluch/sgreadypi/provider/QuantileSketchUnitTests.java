@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link QuantileSketch}.
+ *
+ * @author Mark Paluch
+ */
+class QuantileSketchUnitTests {
+
+	@Test
+	void shouldReturnZeroWithoutSamples() {
+		assertThat(new QuantileSketch(Duration.ofSeconds(10)).quantile(0.5)).isZero();
+	}
+
+	@Test
+	void shouldEstimateQuantilesWithinRelativeAccuracy() {
+
+		QuantileSketch sketch = new QuantileSketch(Duration.ofMinutes(5));
+
+		for (int i = 1; i <= 1000; i++) {
+			sketch.add(i, i);
+		}
+
+		assertThat(sketch.quantile(0.1)).isCloseTo(100, withinPercentage(QuantileSketch.RELATIVE_ACCURACY * 100));
+		assertThat(sketch.quantile(0.5)).isCloseTo(500, withinPercentage(QuantileSketch.RELATIVE_ACCURACY * 100));
+		assertThat(sketch.quantile(0.9)).isCloseTo(900, withinPercentage(QuantileSketch.RELATIVE_ACCURACY * 100));
+	}
+
+	@Test
+	void shouldTrackNegativeValuesAndZero() {
+
+		QuantileSketch sketch = new QuantileSketch(Duration.ofMinutes(5));
+
+		sketch.add(1, -500);
+		sketch.add(2, 0);
+		sketch.add(3, 500);
+
+		assertThat(sketch.quantile(0)).isCloseTo(-500, withinPercentage(2));
+		assertThat(sketch.quantile(0.5)).isZero();
+		assertThat(sketch.quantile(1)).isCloseTo(500, withinPercentage(2));
+	}
+
+	@Test
+	void shouldExpireSlicesOutsideWindow() {
+
+		QuantileSketch sketch = new QuantileSketch(Duration.ofSeconds(10));
+
+		for (int i = 0; i < 10; i++) {
+			sketch.add(i * 1_000L, 5000);
+		}
+		for (int i = 10; i < 20; i++) {
+			sketch.add(i * 1_000L, 100);
+		}
+
+		assertThat(sketch.count()).isEqualTo(10);
+		assertThat(sketch.quantile(0.9)).isCloseTo(100, withinPercentage(2));
+	}
+
+	@Test
+	void shouldResetAfterLongGap() {
+
+		QuantileSketch sketch = new QuantileSketch(Duration.ofSeconds(10));
+
+		sketch.add(0, 5000);
+		sketch.add(1_000, 5000);
+		sketch.add(3_600_000, 100);
+
+		assertThat(sketch.count()).isOne();
+		assertThat(sketch.quantile(0.1)).isCloseTo(100, withinPercentage(2));
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.provider;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SortedWindow}.
+ *
+ * @author Mark Paluch
+ */
+class SortedWindowUnitTests {
+
+	@Test
+	void shouldReturnZeroWithoutSamples() {
+		assertThat(SortedWindow.median(Duration.ofSeconds(10)).getValue()).isZero();
+	}
+
+	@Test
+	void medianShouldIgnoreSpike() {
+
+		SortedWindow median = SortedWindow.median(Duration.ofSeconds(10));
+
+		median.add(1_000, 100);
+		median.add(2_000, 5000);
+		median.add(3_000, 120);
+
+		assertThat(median.getValue()).isEqualTo(120);
+	}
+
+	@Test
+	void medianShouldAverageMiddleSamplesOfEvenCount() {
+
+		SortedWindow median = SortedWindow.median(Duration.ofSeconds(10));
+
+		median.add(1_000, 400);
+		median.add(2_000, 100);
+		median.add(3_000, 300);
+		median.add(4_000, 200);
+
+		assertThat(median.getValue()).isEqualTo(250);
+	}
+
+	@Test
+	void medianShouldEvictSamplesOlderThanWindow() {
+
+		SortedWindow median = SortedWindow.median(Duration.ofSeconds(10));
+
+		median.add(1_000, 1);
+		median.add(2_000, 2);
+		median.add(3_000, 3);
+		median.add(12_500, 10);
+
+		assertThat(median.size()).isEqualTo(2);
+		assertThat(median.getValue()).isEqualTo(6.5);
+	}
+
+	@Test
+	void trimmedMeanShouldDiscardOutliers() {
+
+		SortedWindow trimmed = SortedWindow.trimmedMean(Duration.ofSeconds(100), 0.1);
+
+		for (int i = 0; i < 8; i++) {
+			trimmed.add(i * 1_000L, 100);
+		}
+		trimmed.add(8_000, -10_000);
+		trimmed.add(9_000, 10_000);
+
+		assertThat(trimmed.getValue()).isEqualTo(100);
+	}
+
+	@Test
+	void shouldCapRetainedSamples() {
+
+		SortedWindow median = SortedWindow.median(Duration.ofDays(1));
+
+		for (int i = 0; i < SortedWindow.MAX_CAPACITY + 100; i++) {
+			median.add(i, i);
+		}
+
+		assertThat(median.size()).isEqualTo(SortedWindow.MAX_CAPACITY);
+		assertThat(median.getValue()).isEqualTo(100 + (SortedWindow.MAX_CAPACITY - 1) / 2.0);
+	}
+
+	@Test
+	void shouldMatchSortedReference() {
+
+		SortedWindow median = SortedWindow.median(Duration.ofSeconds(30));
+		SortedWindow trimmed = SortedWindow.trimmedMean(Duration.ofSeconds(30), 0.1);
+		Deque<long[]> reference = new ArrayDeque<>();
+		Random random = new Random(42);
+
+		long timestamp = 0;
+		for (int i = 0; i < 5_000; i++) {
+
+			// irregular spacing grows and shrinks the window, duplicates exercise equal values
+			timestamp += random.nextInt(1_000);
+			long value = random.nextInt(100) * 10L;
+
+			median.add(timestamp, value);
+			trimmed.add(timestamp, value);
+			reference.addLast(new long[] { timestamp, value });
+			while (reference.getFirst()[0] < timestamp - 30_000) {
+				reference.removeFirst();
+			}
+
+			double[] sorted = reference.stream().mapToDouble(sample -> sample[1]).sorted().toArray();
+			int middle = sorted.length / 2;
+			int trim = (int) (sorted.length * 0.1);
+
+			assertThat(median.getValue()).isEqualTo(
+					sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2);
+			assertThat(trimmed.getValue()).isCloseTo(
+					Arrays.stream(sorted, trim, sorted.length - trim).average().orElseThrow(), within(1e-9));
+		}
+	}
+
+	@Test
+	void shouldRejectInvalidTrimRatio() {
+		assertThatIllegalArgumentException().isThrownBy(() -> SortedWindow.trimmedMean(Duration.ofSeconds(1), 0.5));
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.replay;
+
+import static org.assertj.core.api.Assertions.*;
+
+import biz.paluch.sgreadypi.SgReadyProperties;
+import biz.paluch.sgreadypi.SgReadyState;
+import biz.paluch.sgreadypi.measure.Watt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link Backtest}.
+ *
+ * @author Mark Paluch
+ */
+class BacktestUnitTests {
+
+	static final long START = Instant.parse("2026-06-01T10:00:00Z").toEpochMilli();
+
+	static final long MINUTE = 60_000;
+
+	SgReadyProperties properties = new SgReadyProperties();
+
+	@BeforeEach
+	void setUp() {
+		properties.setHeatPumpPowerConsumption(Watt.of(1000));
+		properties.setHeatElementPowerConsumption(Watt.of(3000));
+	}
+
+	@Test
+	void shouldAccountRuntimePerState() {
+
+		ConditionSeries.Builder builder = ConditionSeries.builder();
+		for (int minute = 0; minute < 120; minute++) {
+			builder.add(START + minute * MINUTE, 0, minute < 60 ? 0 : 1500, 50, 0, false);
+		}
+
+		BacktestResult result = backtest().run(builder.build());
+
+		assertThat(result.steps()).isEqualTo(120);
+		assertThat(result.duration()).isEqualTo(Duration.ofMinutes(119));
+		assertThat(result.getRuntime(SgReadyState.NORMAL)).isEqualTo(Duration.ofMinutes(60));
+		assertThat(result.getRuntime(SgReadyState.AVAILABLE_PV)).isEqualTo(Duration.ofMinutes(59));
+		assertThat(result.getRuntime(SgReadyState.EXCESS_PV)).isZero();
+		assertThat(result.transitions()).isOne();
+		assertThat(result.relaySwitches()).isOne();
+		assertThat(result.boostEnergy()).isCloseTo(1000 * 59 / 60d, Offset.offset(1e-6));
+		assertThat(result.selfConsumption()).isCloseTo(result.boostEnergy(), Offset.offset(1e-6));
+		assertThat(result.gridEnergy()).isZero();
+	}
+
+	@Test
+	void shouldDebounceStateChanges() {
+
+		ConditionSeries.Builder builder = ConditionSeries.builder();
+		for (int minute = 0; minute < 30; minute++) {
+			builder.add(START + minute * MINUTE, 0, minute >= 5 && minute < 10 ? 0 : 1500, 50, 0, false);
+		}
+		ConditionSeries series = builder.build();
+
+		BacktestResult debounced = backtest().run(series);
+
+		assertThat(debounced.transitions()).isOne();
+		assertThat(debounced.getRuntime(SgReadyState.AVAILABLE_PV)).isEqualTo(Duration.ofMinutes(29));
+
+		properties.setDebounce(Duration.ZERO);
+		BacktestResult undebounced = backtest().run(series);
+
+		assertThat(undebounced.transitions()).isEqualTo(3);
+		assertThat(undebounced.getRuntime(SgReadyState.AVAILABLE_PV)).isEqualTo(Duration.ofMinutes(24));
+		assertThat(undebounced.getRuntime(SgReadyState.NORMAL)).isEqualTo(Duration.ofMinutes(5));
+	}
+
+	@Test
+	void shouldApplyPendingStateWhenDebounceExpires() {
+
+		ConditionSeries.Builder builder = ConditionSeries.builder();
+		for (int minute = 0; minute < 30; minute++) {
+			builder.add(START + minute * MINUTE, 0, minute < 5 ? 1500 : 0, 50, 0, false);
+		}
+
+		BacktestResult result = backtest().run(builder.build());
+
+		assertThat(result.transitions()).isEqualTo(2);
+		assertThat(result.getRuntime(SgReadyState.AVAILABLE_PV)).isEqualTo(Duration.ofMinutes(15));
+		assertThat(result.getRuntime(SgReadyState.NORMAL)).isEqualTo(Duration.ofMinutes(14));
+	}
+
+	@Test
+	void shouldSplitBoostEnergyIntoSelfConsumptionAndGrid() {
+
+		ConditionSeries.Builder builder = ConditionSeries.builder();
+		for (int minute = 0; minute <= 60; minute++) {
+			builder.add(START + minute * MINUTE, 0, minute == 0 ? 1500 : 800, 50, 0, false);
+		}
+
+		BacktestResult result = backtest().run(builder.build());
+
+		assertThat(result.getRuntime(SgReadyState.AVAILABLE_PV)).isEqualTo(Duration.ofMinutes(60));
+		assertThat(result.boostEnergy()).isCloseTo(1000, Offset.offset(1e-6));
+		assertThat(result.selfConsumption()).isCloseTo(1000 / 60d + 800 * 59 / 60d, Offset.offset(1e-6));
+		assertThat(result.gridEnergy()).isCloseTo(200 * 59 / 60d, Offset.offset(1e-6));
+		assertThat(result.ingressAvoided()).isCloseTo(result.selfConsumption() - result.gridEnergy(),
+				Offset.offset(1e-6));
+	}
+
+	@Test
+	void shouldEvaluateTimeGatesInZone() {
+
+		properties.setDebounce(Duration.ZERO);
+		properties.setExcessNotBefore(LocalTime.of(12, 0));
+
+		ConditionSeries.Builder builder = ConditionSeries.builder();
+		for (int minute = 60; minute < 180; minute++) {
+			builder.add(START + minute * MINUTE, 0, 3500, 90, 0, false);
+		}
+		ConditionSeries series = builder.build();
+
+		BacktestResult utc = new Backtest(properties, ZoneOffset.UTC).run(series);
+
+		assertThat(utc.getRuntime(SgReadyState.AVAILABLE_PV)).isEqualTo(Duration.ofMinutes(60));
+		assertThat(utc.getRuntime(SgReadyState.EXCESS_PV)).isEqualTo(Duration.ofMinutes(59));
+
+		BacktestResult berlin = new Backtest(properties, ZoneId.of("Europe/Berlin")).run(series);
+
+		assertThat(berlin.getRuntime(SgReadyState.AVAILABLE_PV)).isZero();
+		assertThat(berlin.getRuntime(SgReadyState.EXCESS_PV)).isEqualTo(Duration.ofMinutes(119));
+		assertThat(berlin.relaySwitches()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldFallBackToNormalWhenOutOfService() {
+
+		properties.setDebounce(Duration.ZERO);
+
+		ConditionSeries.Builder builder = ConditionSeries.builder();
+		for (int minute = 0; minute < 20; minute++) {
+			builder.add(START + minute * MINUTE, 0, minute < 10 ? 1500 : Double.NaN, 50, 0, false);
+		}
+
+		BacktestResult result = backtest().run(builder.build());
+
+		assertThat(result.getRuntime(SgReadyState.AVAILABLE_PV)).isEqualTo(Duration.ofMinutes(10));
+		assertThat(result.getRuntime(SgReadyState.NORMAL)).isEqualTo(Duration.ofMinutes(9));
+	}
+
+	@Test
+	void shouldReplayDeterministically() {
+
+		ConditionSeries.Builder builder = ConditionSeries.builder();
+		for (int minute = 0; minute < 600; minute++) {
+			builder.add(START + minute * MINUTE, minute % 50, 2000 + 1800 * Math.sin(minute / 20d), 40 + minute / 10d,
+					0, false);
+		}
+		ConditionSeries series = builder.build();
+
+		assertThat(backtest().run(series)).isEqualTo(backtest().run(series));
+	}
+
+	private Backtest backtest() {
+		return new Backtest(properties, ZoneOffset.UTC);
+	}
+
+}
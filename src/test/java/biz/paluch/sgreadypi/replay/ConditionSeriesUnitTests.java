@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.replay;
+
+import static org.assertj.core.api.Assertions.*;
+
+import biz.paluch.sgreadypi.Conditions;
+import biz.paluch.sgreadypi.history.Channel;
+import biz.paluch.sgreadypi.history.History;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ConditionSeries}.
+ *
+ * @author Mark Paluch
+ */
+class ConditionSeriesUnitTests {
+
+	@Test
+	void shouldReadCsv() throws Exception {
+
+		String csv = """
+				# exported readings
+				soc,timestamp,generatorPower,ingress,batteryDischarge
+				50,2026-06-01T10:00:00Z,1500,10,-200
+
+				51,1780308060000,1600,,-100
+				""";
+
+		ConditionSeries series = ConditionSeries.read(new StringReader(csv));
+
+		assertThat(series.size()).isEqualTo(2);
+		assertThat(series.getTimestamp(0)).isEqualTo(Instant.parse("2026-06-01T10:00:00Z").toEpochMilli());
+		assertThat(series.getTimestamp(1)).isEqualTo(1780308060000L);
+		assertThat(series.getGeneratorPower(0)).isEqualTo(1500);
+		assertThat(series.getSoc(0)).isEqualTo(50);
+		assertThat(series.getBatteryDischarge(0)).isEqualTo(-200);
+		assertThat(series.isOutOfService(0)).isFalse();
+		assertThat(series.getIngress(1)).isNaN();
+		assertThat(series.isOutOfService(1)).isTrue();
+	}
+
+	@Test
+	void shouldReadOutOfServiceColumn() throws Exception {
+
+		String csv = """
+				timestamp,ingress,generatorPower,soc,batteryDischarge,outOfService
+				0,0,1500,50,0,true
+				1000,0,1500,50,0,false
+				""";
+
+		ConditionSeries series = ConditionSeries.read(new StringReader(csv));
+
+		assertThat(series.isOutOfService(0)).isTrue();
+		assertThat(series.isOutOfService(1)).isFalse();
+	}
+
+	@Test
+	void shouldRejectIncompleteHeader() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> ConditionSeries.read(new StringReader("timestamp,ingress,generatorPower,soc\n")))
+				.withMessageContaining("batteryDischarge");
+	}
+
+	@Test
+	void shouldRejectUnparseableLine() {
+
+		String csv = """
+				timestamp,ingress,generatorPower,soc,batteryDischarge
+				yesterday,0,1500,50,0
+				""";
+
+		assertThatIllegalArgumentException().isThrownBy(() -> ConditionSeries.read(new StringReader(csv)))
+				.withMessageContaining("line 2");
+	}
+
+	@Test
+	void shouldRejectSamplesOutOfOrder() {
+
+		ConditionSeries.Builder builder = ConditionSeries.builder().add(1000, 0, 0, 0, 0, false);
+
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.add(999, 0, 0, 0, 0, false));
+	}
+
+	@Test
+	void shouldCreateFromHistory() {
+
+		Instant from = Instant.parse("2026-06-01T10:00:00Z");
+		History history = new History(from, Duration.ofMinutes(1), 2,
+				Map.of(Channel.INGRESS.name(), new double[] { 10, 20 }, Channel.GENERATOR_POWER.name(),
+						new double[] { 1500, Double.NaN }, Channel.SOC.name(), new double[] { 50, 51 },
+						Channel.BATTERY_DISCHARGE.name(), new double[] { 0, 0 }));
+
+		ConditionSeries series = ConditionSeries.from(history);
+
+		assertThat(series.size()).isEqualTo(2);
+		assertThat(series.getTimestamp(1)).isEqualTo(from.plusSeconds(60).toEpochMilli());
+		assertThat(series.isOutOfService(0)).isFalse();
+		assertThat(series.isOutOfService(1)).isTrue();
+
+		Conditions conditions = series.getConditions(0);
+		assertThat(conditions.ingress().getValue().doubleValue()).isEqualTo(10);
+		assertThat(conditions.generatorPower().getValue().doubleValue()).isEqualTo(1500);
+		assertThat(conditions.timestamp()).isEqualTo(from);
+	}
+
+	@Test
+	void shouldMarkHistoryWithoutBatteryOutOfService() {
+
+		History history = new History(Instant.EPOCH, Duration.ofMinutes(1), 1,
+				Map.of(Channel.INGRESS.name(), new double[] { 10 }, Channel.GENERATOR_POWER.name(), new double[] { 1500 }));
+
+		assertThat(ConditionSeries.from(history).isOutOfService(0)).isTrue();
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.replay;
+
+import static org.assertj.core.api.Assertions.*;
+
+import biz.paluch.sgreadypi.SgReadyProperties;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for {@link ParameterSweepRunner}.
+ *
+ * @author Mark Paluch
+ */
+class ParameterSweepRunnerUnitTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void shouldParseOptionsAndRanges() {
+
+		Map<String, String> options = new LinkedHashMap<>();
+		List<ParameterSweep.Range> ranges = new ArrayList<>();
+
+		ParameterSweepRunner.parse(new String[] { "--csv=conditions.csv", "--samples=100",
+				"--heat-pump-power-consumption=800:1600:200", "--battery.pv-excess-on=85" }, options, ranges);
+
+		assertThat(options).containsEntry("csv", "conditions.csv").containsEntry("samples", "100");
+		assertThat(ranges).containsExactly(
+				new ParameterSweep.Range(SweepParameter.HEAT_PUMP_POWER_CONSUMPTION, 800, 1600, 200),
+				ParameterSweep.Range.of(SweepParameter.PV_EXCESS_ON, 85));
+	}
+
+	@Test
+	void shouldRejectUnknownParameter() {
+		assertThatIllegalArgumentException().isThrownBy(() -> ParameterSweepRunner.parse(new String[] { "--unknown=1" },
+				new LinkedHashMap<>(), new ArrayList<>()));
+	}
+
+	@Test
+	void shouldBindBaseConfiguration() throws Exception {
+
+		Path config = directory.resolve("application.properties");
+		Files.writeString(config, """
+				sg.heat-pump-power-consumption=1200
+				sg.battery.pv-available=30
+				sg.battery.pv-excess-on=85
+				sg.battery.pv-excess-off=65
+				sg.debounce=10m
+				""");
+
+		SgReadyProperties properties = ParameterSweepRunner.loadProperties(config.toString());
+
+		assertThat(properties.getHeatPumpPowerConsumption().getValue().intValue()).isEqualTo(1200);
+		assertThat(properties.getBattery().pvExcessOn().getValue().intValue()).isEqualTo(85);
+		assertThat(properties.getDebounce()).isEqualTo(Duration.ofMinutes(10));
+	}
+
+}
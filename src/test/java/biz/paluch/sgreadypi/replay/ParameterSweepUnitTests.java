@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package biz.paluch.sgreadypi.replay;
+
+import static org.assertj.core.api.Assertions.*;
+
+import biz.paluch.sgreadypi.SgReadyProperties;
+import biz.paluch.sgreadypi.measure.Percent;
+import biz.paluch.sgreadypi.measure.Watt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ParameterSweep}.
+ *
+ * @author Mark Paluch
+ */
+class ParameterSweepUnitTests {
+
+	static final long START = Instant.parse("2026-06-01T10:00:00Z").toEpochMilli();
+
+	SgReadyProperties properties = new SgReadyProperties();
+
+	@Test
+	void shouldCreateGrid() {
+
+		List<ParameterSweep.Candidate> candidates = ParameterSweep
+				.grid(List.of(new ParameterSweep.Range(SweepParameter.HEAT_PUMP_POWER_CONSUMPTION, 800, 1200, 200),
+						new ParameterSweep.Range(SweepParameter.PV_AVAILABLE, 20, 30, 10)));
+
+		assertThat(candidates).hasSize(6);
+		assertThat(candidates.get(0).values()).containsEntry(SweepParameter.HEAT_PUMP_POWER_CONSUMPTION, 800d)
+				.containsEntry(SweepParameter.PV_AVAILABLE, 20d);
+		assertThat(candidates.get(1).values()).containsEntry(SweepParameter.HEAT_PUMP_POWER_CONSUMPTION, 800d)
+				.containsEntry(SweepParameter.PV_AVAILABLE, 30d);
+		assertThat(candidates.get(5).values()).containsEntry(SweepParameter.HEAT_PUMP_POWER_CONSUMPTION, 1200d)
+				.containsEntry(SweepParameter.PV_AVAILABLE, 30d);
+	}
+
+	@Test
+	void shouldRejectOversizedGrid() {
+
+		ParameterSweep.Range range = new ParameterSweep.Range(SweepParameter.INGRESS_LIMIT, 0, 1000, 1);
+
+		assertThatIllegalArgumentException().isThrownBy(() -> ParameterSweep.grid(List.of(range, range)));
+	}
+
+	@Test
+	void shouldDrawReproducibleRandomCandidates() {
+
+		List<ParameterSweep.Range> ranges = List
+				.of(new ParameterSweep.Range(SweepParameter.HEAT_PUMP_POWER_CONSUMPTION, 800, 1600, 100));
+
+		List<ParameterSweep.Candidate> candidates = ParameterSweep.random(ranges, 50, 42);
+
+		assertThat(candidates).hasSize(50).isEqualTo(ParameterSweep.random(ranges, 50, 42));
+		assertThat(candidates).extracting(it -> it.values().get(SweepParameter.HEAT_PUMP_POWER_CONSUMPTION))
+				.allSatisfy(it -> assertThat(it % 100).isZero())
+				.allSatisfy(it -> assertThat(it).isBetween(800d, 1600d));
+	}
+
+	@Test
+	void shouldParseRange() {
+
+		assertThat(ParameterSweep.Range.parse(SweepParameter.DEBOUNCE, "5:30:5").size()).isEqualTo(6);
+		assertThat(ParameterSweep.Range.parse(SweepParameter.DEBOUNCE, "15").size()).isOne();
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> ParameterSweep.Range.parse(SweepParameter.DEBOUNCE, "5:30"));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> ParameterSweep.Range.parse(SweepParameter.DEBOUNCE, "30:5:5"));
+	}
+
+	@Test
+	void shouldApplyCandidateToCopyOfBase() {
+
+		properties.setHeatPumpPowerConsumption(Watt.of(1000));
+		ParameterSweep sweep = new ParameterSweep(properties, ZoneOffset.UTC, ConditionSeries.builder().build(),
+				SweepCost.selfConsumption(0));
+
+		SgReadyProperties configured = sweep.configure(new ParameterSweep.Candidate(
+				Map.of(SweepParameter.PV_EXCESS_ON, 90d, SweepParameter.EXCESS_NOT_BEFORE, 690d,
+						SweepParameter.EXCESS_NOT_AFTER, -1d, SweepParameter.DEBOUNCE, 5d)));
+
+		assertThat(configured.getHeatPumpPowerConsumption()).isEqualTo(Watt.of(1000));
+		assertThat(configured.getBattery().pvExcessOn().getValue().doubleValue()).isEqualTo(90);
+		assertThat(configured.getBattery().pvAvailable()).isEqualTo(properties.getBattery().pvAvailable());
+		assertThat(configured.getExcessNotBefore()).isEqualTo(LocalTime.of(11, 30));
+		assertThat(configured.getExcessNotAfter()).isNull();
+		assertThat(configured.getDebounce()).isEqualTo(Duration.ofMinutes(5));
+		assertThat(properties.getBattery().pvExcessOn()).isEqualTo(Percent.of(80));
+		assertThat(properties.getDebounce()).isEqualTo(Duration.ofMinutes(15));
+	}
+
+	@Test
+	void shouldRankCandidatesByCost() {
+
+		properties.setHeatPumpPowerConsumption(Watt.of(1000));
+		properties.setHeatElementPowerConsumption(Watt.of(3000));
+
+		ConditionSeries.Builder builder = ConditionSeries.builder();
+		for (int minute = 0; minute < 120; minute++) {
+			builder.add(START + minute * 60_000L, 0, minute < 60 ? 0 : 1500, 50, 0, false);
+		}
+
+		ParameterSweep sweep = new ParameterSweep(properties, ZoneOffset.UTC, builder.build(),
+				SweepCost.selfConsumption(0.5));
+		List<ParameterSweep.Candidate> candidates = ParameterSweep
+				.grid(List.of(new ParameterSweep.Range(SweepParameter.HEAT_PUMP_POWER_CONSUMPTION, 500, 2000, 500)));
+
+		List<ParameterSweep.Result> ranking = sweep.run(candidates, new ForkJoinPool(4));
+
+		assertThat(ranking).hasSize(4).isSortedAccordingTo((a, b) -> Double.compare(a.cost(), b.cost()));
+		assertThat(ranking.get(0).candidate().values())
+				.containsEntry(SweepParameter.HEAT_PUMP_POWER_CONSUMPTION, 1500d);
+		assertThat(ranking.get(0).backtest().selfConsumption()).isPositive();
+		assertThat(ranking).isEqualTo(sweep.run(candidates, new ForkJoinPool(1)));
+	}
+
+}
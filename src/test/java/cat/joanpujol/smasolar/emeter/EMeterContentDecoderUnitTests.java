@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cat.joanpujol.smasolar.emeter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.socket.DatagramPacket;
+import java.net.InetSocketAddress;
+import org.junit.jupiter.api.Test;
+
+class EMeterContentDecoderUnitTests {
+
+	static final long SERIAL = 3004123456L;
+
+	@Test
+	void shouldDecodeAllMetersInFullMode() {
+		EMeterLecture lecture = decode(new EMeterContentDecoder(), EMeterDatagrams.create(SERIAL));
+
+		assertThat(lecture.getDeviceServiceNumber()).isEqualTo("003493004123456");
+		assertThat(lecture.getTicker()).isEqualTo(123456789);
+		assertThat(lecture.getCurrentSum().getActivePower()).isCloseTo(1234.5, within(1e-9));
+		assertThat(lecture.getCurrentSum().getPowerFactor()).isCloseTo(0.95, within(1e-9));
+		assertThat(lecture.getCounterSum().getActivePower()).isCloseTo(2, within(1e-9));
+		assertThat(lecture.getCurrentPhase2().getVoltage()).isCloseTo(230.002, within(1e-9));
+	}
+
+	@Test
+	void shouldDecodeSubscribedMeterInTableMode() {
+		EMeterLecture expected = decode(new EMeterContentDecoder(), EMeterDatagrams.create(SERIAL));
+		EMeterLecture actual = decode(new EMeterContentDecoder(SERIAL), EMeterDatagrams.create(SERIAL));
+
+		assertThat(actual.getDeviceServiceNumber()).isEqualTo(expected.getDeviceServiceNumber());
+		assertThat(actual.getTicker()).isEqualTo(expected.getTicker());
+		assertSameData(actual.getCurrentSum(), expected.getCurrentSum());
+		assertSameData(actual.getCurrentPhase1(), expected.getCurrentPhase1());
+		assertSameData(actual.getCurrentPhase2(), expected.getCurrentPhase2());
+		assertSameData(actual.getCurrentPhase3(), expected.getCurrentPhase3());
+		assertSameData(actual.getCounterSum(), expected.getCounterSum());
+		assertSameData(actual.getCounterPhase1(), expected.getCounterPhase1());
+		assertSameData(actual.getCounterPhase2(), expected.getCounterPhase2());
+		assertSameData(actual.getCounterPhase3(), expected.getCounterPhase3());
+	}
+
+	@Test
+	void shouldReuseFormattedSerialInTableMode() {
+		EmbeddedChannel channel = new EmbeddedChannel(new EMeterContentDecoder(SERIAL));
+
+		channel.writeInbound(packet(EMeterDatagrams.create(SERIAL)), packet(EMeterDatagrams.create(SERIAL)));
+		EMeterLecture first = channel.readInbound();
+		EMeterLecture second = channel.readInbound();
+
+		assertThat(first.getDeviceServiceNumber()).isEqualTo("003493004123456");
+		assertThat(second.getDeviceServiceNumber()).isSameAs(first.getDeviceServiceNumber());
+	}
+
+	@Test
+	void shouldDropUnsubscribedMeterInTableMode() {
+		ByteBuf content = EMeterDatagrams.create(SERIAL);
+		EmbeddedChannel channel = new EmbeddedChannel(new EMeterContentDecoder(42));
+
+		channel.writeInbound(packet(content));
+
+		assertThat((Object) channel.readInbound()).isNull();
+		assertThat(content.refCnt()).isZero();
+	}
+
+	@Test
+	void shouldPeekSerialWithoutConsumingBuffer() {
+		ByteBuf content = EMeterDatagrams.create(SERIAL);
+
+		assertThat(EMeterContentDecoder.peekSerialNumber(content)).isEqualTo(SERIAL);
+		assertThat(EMeterContentDecoder.peekSusyId(content)).isEqualTo(EMeterDatagrams.SUSY_ID);
+		assertThat(content.readerIndex()).isZero();
+	}
+
+	private static EMeterLecture decode(EMeterContentDecoder decoder, ByteBuf content) {
+		EmbeddedChannel channel = new EmbeddedChannel(decoder);
+		channel.writeInbound(packet(content));
+		return channel.readInbound();
+	}
+
+	private static DatagramPacket packet(ByteBuf content) {
+		return new DatagramPacket(
+				content, new InetSocketAddress("239.12.255.254", 9522), new InetSocketAddress("192.168.1.2", 9522));
+	}
+
+	private static void assertSameData(EMeterLecture.Data actual, EMeterLecture.Data expected) {
+		assertThat(actual.getActivePower()).isCloseTo(expected.getActivePower(), within(1e-9));
+		assertThat(actual.getNegativeActivePower()).isCloseTo(expected.getNegativeActivePower(), within(1e-9));
+		assertThat(actual.getReactivePower()).isCloseTo(expected.getReactivePower(), within(1e-9));
+		assertThat(actual.getNegativeReactivePower()).isCloseTo(expected.getNegativeReactivePower(), within(1e-9));
+		assertThat(actual.getApparentPower()).isCloseTo(expected.getApparentPower(), within(1e-9));
+		assertThat(actual.getNegativeApparentPower()).isCloseTo(expected.getNegativeApparentPower(), within(1e-9));
+		assertThat(actual.getPowerFactor()).isCloseTo(expected.getPowerFactor(), within(1e-9));
+		assertThat(actual.getElectricCurrent()).isCloseTo(expected.getElectricCurrent(), within(1e-9));
+		assertThat(actual.getVoltage()).isCloseTo(expected.getVoltage(), within(1e-9));
+	}
+}
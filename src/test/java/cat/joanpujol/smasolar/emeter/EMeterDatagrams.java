@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cat.joanpujol.smasolar.emeter;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+
+/** Builds EMeter datagram payloads for tests and benchmarks. */
+class EMeterDatagrams {
+
+	static final int SUSY_ID = 349;
+
+	/**
+	 * Creates an EMeter datagram payload carrying sum and phase measures, counters and the end marker.
+	 */
+	static ByteBuf create(long serialNumber) {
+		ByteBuf buffer = Unpooled.buffer(608);
+
+		buffer.writeBytes("SMA\0".getBytes(StandardCharsets.US_ASCII));
+		buffer.writeInt(0x000402A0);
+		buffer.writeInt(0x00000001);
+		buffer.writeShort(0); // data length, patched below
+		buffer.writeInt(0x00106069);
+		buffer.writeShort(SUSY_ID);
+		buffer.writeInt((int) serialNumber);
+		buffer.writeInt(123456789); // ticker
+
+		measure(buffer, 1, 12345); // 1234.5 W
+		counter(buffer, 1, 0, 7_200_000);
+		measure(buffer, 2, 20);
+		counter(buffer, 2, 0, 3_600_000);
+		measure(buffer, 3, 300);
+		measure(buffer, 4, 400);
+		measure(buffer, 9, 12400);
+		measure(buffer, 10, 0);
+		measure(buffer, 13, 950); // cos phi 0.95
+
+		for (int phase = 1; phase <= 3; phase++) {
+			int base = phase * 20;
+			measure(buffer, base + 1, 4100 + phase);
+			counter(buffer, base + 1, 0, 3_600_000L * phase);
+			measure(buffer, base + 2, 10 + phase);
+			measure(buffer, base + 3, 100 + phase);
+			measure(buffer, base + 4, 200 + phase);
+			measure(buffer, base + 9, 4150 + phase);
+			measure(buffer, base + 10, phase);
+			measure(buffer, base + 11, 6_000 + phase); // mA
+			measure(buffer, base + 12, 230_000 + phase); // mV
+		}
+
+		// software version channel followed by end marker
+		buffer.writeInt(0x90000000);
+		buffer.writeInt(0x02001252);
+		buffer.writeInt(0);
+
+		buffer.setShort(12, buffer.writerIndex() - 16);
+		return buffer;
+	}
+
+	private static void measure(ByteBuf buffer, int idx, long value) {
+		buffer.writeByte(0);
+		buffer.writeByte(idx);
+		buffer.writeByte(4);
+		buffer.writeByte(0);
+		buffer.writeInt((int) value);
+	}
+
+	private static void counter(ByteBuf buffer, int idx, long high, long low) {
+		buffer.writeByte(0);
+		buffer.writeByte(idx);
+		buffer.writeByte(8);
+		buffer.writeByte(0);
+		buffer.writeInt((int) high);
+		buffer.writeInt((int) low);
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cat.joanpujol.smasolar.emeter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cat.joanpujol.smasolar.emeter.impl.EMeterCreateObservableImpl;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class EMeterReaderUnitTests {
+
+	final Sinks.Many<EMeterLecture> upstream = Sinks.many().multicast().onBackpressureBuffer();
+	final AtomicInteger upstreamSubscriptions = new AtomicInteger();
+
+	@Test
+	void shouldMulticastOverSingleUpstreamSubscription() {
+		EMeterReader reader = reader(EMeterConfig.newBuilder().build());
+		List<Long> first = new CopyOnWriteArrayList<>();
+		List<Long> second = new CopyOnWriteArrayList<>();
+
+		Disposable d1 = reader.create().subscribe(it -> first.add(it.getTicker()));
+		Disposable d2 = reader.create().subscribe(it -> second.add(it.getTicker()));
+		emit(1);
+		emit(2);
+
+		assertThat(first).containsExactly(1L, 2L);
+		assertThat(second).containsExactly(1L, 2L);
+		assertThat(upstreamSubscriptions).hasValue(1);
+
+		d1.dispose();
+		d2.dispose();
+	}
+
+	@Test
+	void shouldReplayLatestLectureToLateSubscriber() {
+		EMeterReader reader = reader(EMeterConfig.newBuilder().build());
+		Disposable d1 = reader.create().subscribe();
+		emit(1);
+		emit(2);
+
+		List<Long> late = new CopyOnWriteArrayList<>();
+		Disposable d2 = reader.create().subscribe(it -> late.add(it.getTicker()));
+		emit(3);
+
+		assertThat(late).containsExactly(2L, 3L);
+
+		d1.dispose();
+		d2.dispose();
+	}
+
+	@Test
+	void shouldDropOldestLecturesOfSlowSubscriber() {
+		EMeterReader reader = reader(EMeterConfig.newBuilder().bufferSize(2).build());
+		List<Long> fast = new CopyOnWriteArrayList<>();
+		List<Long> slow = new CopyOnWriteArrayList<>();
+		BaseSubscriber<EMeterLecture> slowSubscriber =
+				new BaseSubscriber<>() {
+					@Override
+					protected void hookOnSubscribe(Subscription subscription) {}
+
+					@Override
+					protected void hookOnNext(EMeterLecture value) {
+						slow.add(value.getTicker());
+					}
+				};
+
+		Disposable d1 = reader.create().subscribe(it -> fast.add(it.getTicker()));
+		reader.create().subscribe(slowSubscriber);
+		for (int i = 1; i <= 5; i++) {
+			emit(i);
+		}
+		slowSubscriber.request(10);
+
+		assertThat(fast).containsExactly(1L, 2L, 3L, 4L, 5L);
+		assertThat(slow).containsExactly(4L, 5L);
+
+		d1.dispose();
+		slowSubscriber.dispose();
+	}
+
+	private void emit(long ticker) {
+		EMeterLecture lecture = new EMeterLecture();
+		lecture.setTicker(ticker);
+		upstream.tryEmitNext(lecture);
+	}
+
+	private EMeterReader reader(EMeterConfig config) {
+		return new EMeterReader(config) {
+			@Override
+			protected EMeterCreateObservableImpl createObservable() {
+				return new EMeterCreateObservableImpl(config) {
+					@Override
+					public Flux<EMeterLecture> create() {
+						return upstream.asFlux().doOnSubscribe(it -> upstreamSubscriptions.incrementAndGet());
+					}
+				};
+			}
+		};
+	}
+}
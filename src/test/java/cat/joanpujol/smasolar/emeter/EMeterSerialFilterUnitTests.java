@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cat.joanpujol.smasolar.emeter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.socket.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import org.junit.jupiter.api.Test;
+
+class EMeterSerialFilterUnitTests {
+
+	static final long SERIAL = 3004123456L;
+
+	static final InetSocketAddress METER = new InetSocketAddress("192.168.1.2", 9522);
+	static final InetSocketAddress INVERTER = new InetSocketAddress("192.168.1.3", 9522);
+
+	@Test
+	void shouldPassSubscribedMeter() {
+		EMeterSerialFilter filter = new EMeterSerialFilter(SERIAL);
+		EmbeddedChannel channel = new EmbeddedChannel(filter);
+
+		channel.writeInbound(packet(EMeterDatagrams.create(SERIAL), METER));
+
+		DatagramPacket packet = channel.readInbound();
+		assertThat(packet).isNotNull();
+		assertThat(packet.content().readerIndex()).isZero();
+		assertThat(filter.getAccepted(METER.getAddress())).isOne();
+		assertThat(filter.getDropped(METER.getAddress())).isZero();
+		packet.release();
+	}
+
+	@Test
+	void shouldDropAndReleaseForeignMeter() {
+		EMeterSerialFilter filter = new EMeterSerialFilter(SERIAL);
+		EmbeddedChannel channel = new EmbeddedChannel(filter);
+		ByteBuf content = EMeterDatagrams.create(42);
+
+		channel.writeInbound(packet(content, METER));
+
+		assertThat((Object) channel.readInbound()).isNull();
+		assertThat(content.refCnt()).isZero();
+		assertThat(filter.getDropped(METER.getAddress())).isOne();
+	}
+
+	@Test
+	void shouldDropOtherProtocolsAndShortDatagrams() {
+		EMeterSerialFilter filter = new EMeterSerialFilter(SERIAL);
+		EmbeddedChannel channel = new EmbeddedChannel(filter);
+
+		ByteBuf inverterTelegram = EMeterDatagrams.create(SERIAL);
+		inverterTelegram.setShort(EMeterSerialFilter.OFFSET_PROTOCOL_ID, 0x6065);
+
+		channel.writeInbound(packet(inverterTelegram, INVERTER));
+		channel.writeInbound(packet(Unpooled.wrappedBuffer(new byte[] {'S', 'M', 'A', 0}), INVERTER));
+
+		assertThat((Object) channel.readInbound()).isNull();
+		assertThat(filter.getDropped(INVERTER.getAddress())).isEqualTo(2);
+		assertThat(filter.getOrigins()).containsOnly(INVERTER.getAddress());
+	}
+
+	@Test
+	void shouldFilterBySusyId() {
+		EMeterSerialFilter filter = new EMeterSerialFilter(EMeterDatagrams.SUSY_ID + 1, SERIAL);
+		EmbeddedChannel channel = new EmbeddedChannel(filter);
+
+		channel.writeInbound(packet(EMeterDatagrams.create(SERIAL), METER));
+
+		assertThat((Object) channel.readInbound()).isNull();
+		assertThat(filter.getAccepted(METER.getAddress())).isZero();
+		assertThat(filter.getDropped(METER.getAddress())).isOne();
+	}
+
+	@Test
+	void shouldReportZeroForUnknownOrigin() throws Exception {
+		EMeterSerialFilter filter = new EMeterSerialFilter(SERIAL);
+
+		assertThat(filter.getAccepted(InetAddress.getByName("10.0.0.1"))).isZero();
+		assertThat(filter.getDropped(InetAddress.getByName("10.0.0.1"))).isZero();
+	}
+
+	@Test
+	void shouldRegisterCountersPerOrigin() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		EMeterSerialFilter filter =
+				new EMeterSerialFilter(registry, EMeterSerialFilter.ANY_SUSY_ID, SERIAL);
+		EmbeddedChannel channel = new EmbeddedChannel(filter);
+
+		channel.writeInbound(packet(EMeterDatagrams.create(SERIAL), METER));
+		channel.writeInbound(packet(EMeterDatagrams.create(42), INVERTER));
+		channel.releaseInbound();
+
+		assertThat(counter(registry, METER, "accepted")).isOne();
+		assertThat(counter(registry, METER, "dropped")).isZero();
+		assertThat(counter(registry, INVERTER, "dropped")).isOne();
+	}
+
+	@Test
+	void shouldCapTrackedOrigins() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		EMeterSerialFilter filter =
+				new EMeterSerialFilter(registry, EMeterSerialFilter.ANY_SUSY_ID, SERIAL);
+		EmbeddedChannel channel = new EmbeddedChannel(filter);
+
+		for (int i = 0; i < EMeterSerialFilter.MAX_ORIGINS + 5; i++) {
+			InetSocketAddress sender = new InetSocketAddress("10.0.0." + (i + 1), 9522);
+			channel.writeInbound(packet(EMeterDatagrams.create(42), sender));
+		}
+
+		assertThat(filter.getOrigins()).hasSize(EMeterSerialFilter.MAX_ORIGINS);
+		assertThat(filter.getDroppedFromOtherOrigins()).isEqualTo(5);
+		assertThat(registry.get("emeter.datagrams").tag("origin", "other").tag("outcome", "dropped")
+				.functionCounter().count()).isEqualTo(5);
+		assertThat(registry.get("emeter.datagrams").tag("outcome", "dropped").functionCounters())
+				.hasSize(EMeterSerialFilter.MAX_ORIGINS + 1);
+	}
+
+	private static double counter(SimpleMeterRegistry registry, InetSocketAddress origin, String outcome) {
+		return registry.get("emeter.datagrams").tag("origin", origin.getAddress().getHostAddress())
+				.tag("outcome", outcome).functionCounter().count();
+	}
+
+	private static DatagramPacket packet(ByteBuf content, InetSocketAddress sender) {
+		return new DatagramPacket(content, new InetSocketAddress("239.12.255.254", 9522), sender);
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cat.joanpujol.smasolar.emeter.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cat.joanpujol.smasolar.emeter.EMeterConfig;
+import cat.joanpujol.smasolar.emeter.EMeterLecture;
+import io.netty.channel.Channel;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+class EMeterCreateObservableImplUnitTests {
+
+	final List<EmbeddedChannel> channels = new CopyOnWriteArrayList<>();
+
+	@Test
+	void shouldShareChannelBetweenSubscribers() {
+		EMeterCreateObservableImpl observable = observable();
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		List<EMeterLecture> first = new CopyOnWriteArrayList<>();
+		List<EMeterLecture> second = new CopyOnWriteArrayList<>();
+
+		Disposable d1 = observable.create().subscribe(first::add, error::set);
+		Disposable d2 = observable.create().subscribe(second::add, error::set);
+		channels.get(0).writeInbound(new EMeterLecture());
+
+		assertThat(error).hasNullValue();
+		assertThat(channels).hasSize(1);
+		assertThat(first).hasSize(1);
+		assertThat(second).hasSize(1);
+
+		d1.dispose();
+		d2.dispose();
+	}
+
+	@Test
+	void shouldCloseChannelAfterLastSubscriberAndReopen() {
+		EMeterCreateObservableImpl observable = observable();
+
+		Disposable d1 = observable.create().subscribe();
+		Disposable d2 = observable.create().subscribe();
+		d1.dispose();
+
+		assertThat(channels.get(0).isOpen()).isTrue();
+
+		d2.dispose();
+
+		assertThat(channels.get(0).isOpen()).isFalse();
+
+		Disposable d3 = observable.create().subscribe();
+
+		assertThat(channels).hasSize(2);
+		assertThat(channels.get(1).isOpen()).isTrue();
+
+		d3.dispose();
+	}
+
+	private EMeterCreateObservableImpl observable() {
+		return new EMeterCreateObservableImpl(EMeterConfig.newBuilder().build()) {
+			@Override
+			protected Channel createChannel(
+					EMeterConfig config, SimpleChannelInboundHandler<EMeterLecture> processor) {
+				EmbeddedChannel channel = new EmbeddedChannel(processor);
+				channels.add(channel);
+				return channel;
+			}
+		};
+	}
+}
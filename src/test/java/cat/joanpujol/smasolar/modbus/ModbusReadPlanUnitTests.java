@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cat.joanpujol.smasolar.modbus;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import org.junit.jupiter.api.Test;
+
+class ModbusReadPlanUnitTests {
+
+	static final ModbusRegister<Number> S16 = register(30001, ModbusDataType.S16);
+	static final ModbusRegister<Number> U32 = register(30005, ModbusDataType.U32);
+	static final ModbusRegister<Number> S32 = register(30003, ModbusDataType.S32);
+	static final ModbusRegister<Number> U64 = register(31001, ModbusDataType.U64);
+
+	@Test
+	void shouldSplitIntoAtomicRequestsAndKeepSlotOrder() {
+		ModbusReadPlan plan = ModbusReadPlan.compile(null, U64, U32, S16);
+
+		assertThat(plan.getRequestCount()).isEqualTo(2);
+		assertThat(plan.getSlotCount()).isEqualTo(3);
+		assertThat(plan.getRegister(0)).isEqualTo(U64);
+		assertThat(plan.getRegister(2)).isEqualTo(S16);
+	}
+
+	@Test
+	void shouldDecodeValuesAtPrecomputedOffsets() {
+		ModbusReadPlan plan = ModbusReadPlan.compile(null, U32, S16, S32);
+		ModbusReadResponse response = plan.newResponse();
+
+		// 30001 S16, 30002 gap, 30003 S32, 30005 U32
+		ByteBuf registers = Unpooled.buffer().writeShort(-5).writeShort(0).writeInt(-100_000).writeInt(0xFFFFFFF0);
+
+		plan.decode(0, registers, response);
+
+		assertThat(response.getLong(0)).isEqualTo(0xFFFFFFF0L);
+		assertThat(response.getInt(1)).isEqualTo(-5);
+		assertThat(response.getInt(2)).isEqualTo(-100_000);
+		assertThat(registers.readerIndex()).isZero();
+	}
+
+	@Test
+	void shouldReportNaNValuesAsNotPresent() {
+		ModbusReadPlan plan = ModbusReadPlan.compile(null, S32, U64);
+		ModbusReadResponse response = plan.newResponse();
+
+		plan.decode(0, Unpooled.buffer().writeInt(Integer.MIN_VALUE), response);
+		plan.decode(1, Unpooled.buffer().writeLong(7), response);
+
+		assertThat(response.isPresent(0)).isFalse();
+		assertThat(response.getInt(0)).isZero();
+		assertThat(response.isPresent(1)).isTrue();
+		assertThat(response.getLong(1)).isEqualTo(7);
+
+		response.clear();
+
+		assertThat(response.isPresent(1)).isFalse();
+		assertThat(response.getLong(1)).isZero();
+	}
+
+	@Test
+	void shouldRejectStringRegisters() {
+		ModbusRegister<String> register = new ModbusRegister<>(40001, "TEST_STRING", "Test string", ModbusDataType.STR32,
+				ModbusDataFormat.UTF8, ModbusAccesType.READ_ONLY);
+
+		assertThatIllegalArgumentException().isThrownBy(() -> ModbusReadPlan.compile(null, register));
+	}
+
+	private static ModbusRegister<Number> register(int number, ModbusDataType dataType) {
+		return new ModbusRegister<>(number, "TEST_" + number, "Test register", dataType, ModbusDataFormat.FIX0,
+				ModbusAccesType.READ_ONLY);
+	}
+
+}
@@ -16,8 +16,11 @@
 package cat.joanpujol.smasolar.modbus;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 import io.netty.buffer.Unpooled;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Test;
 
@@ -45,4 +48,58 @@ class ModbusValueReaderUnitTests {
 		assertThat(value).isNull();
 		assertThat(buffer.readerIndex()).isEqualTo(32);
 	}
+
+	@Test
+	void shouldReadPrimitiveValuesAndAdvanceReaderIndex() {
+		var buffer = Unpooled.buffer().writeShort(-7).writeShort(0xFFFE).writeInt(-70_000).writeInt(0xFFFFFFF0)
+				.writeLong(Long.MIN_VALUE);
+		var reader = new ModbusValueReader();
+
+		assertThat(reader.readInt(buffer, ModbusDataType.S16, 0)).isEqualTo(-7);
+		assertThat(reader.readInt(buffer, ModbusDataType.U16, 0)).isEqualTo(0xFFFE);
+		assertThat(reader.readInt(buffer, ModbusDataType.S32, 0)).isEqualTo(-70_000);
+		assertThat(reader.readLong(buffer, ModbusDataType.U32, 0)).isEqualTo(0xFFFFFFF0L);
+		assertThat(reader.readScaledDouble(buffer, ModbusDataType.U64, 0)).isEqualTo(0x1p63);
+		assertThat(buffer.readerIndex()).isEqualTo(20);
+	}
+
+	@Test
+	void shouldReturnNaNValueForSmaNaNSentinels() {
+		var buffer = Unpooled.buffer().writeShort(0x8000).writeShort(0xFFFF).writeInt(Integer.MIN_VALUE).writeInt(0xFFFFFD)
+				.writeInt(0xFFFFFFFF).writeInt(Integer.MIN_VALUE);
+		var reader = new ModbusValueReader();
+
+		assertThat(reader.readInt(buffer, ModbusDataType.S16, -1)).isEqualTo(-1);
+		assertThat(reader.readInt(buffer, ModbusDataType.U16, -1)).isEqualTo(-1);
+		assertThat(reader.readInt(buffer, ModbusDataType.S32, -1)).isEqualTo(-1);
+		assertThat(reader.readInt(buffer, ModbusDataType.U32_STATUS, -1)).isEqualTo(-1);
+		assertThat(reader.readLong(buffer, ModbusDataType.U32, -1)).isEqualTo(-1);
+		assertThat(reader.readScaledDouble(buffer, ModbusDataType.S32, 2)).isNaN();
+	}
+
+	@Test
+	void shouldScaleFixedPointValues() {
+		var reader = new ModbusValueReader();
+
+		assertThat(reader.readScaledDouble(Unpooled.buffer().writeInt(-12345), ModbusDataType.S32,
+				ModbusDataFormat.FIX2.getDecimals())).isEqualTo(-123.45);
+		assertThat(reader.read(Unpooled.buffer().writeInt(-12345), ModbusDataType.S32, ModbusDataFormat.FIX2))
+				.isEqualTo(new BigDecimal("-123.45"));
+		assertThat(ModbusDataFormat.TEMP.getDecimals()).isEqualTo(1);
+		assertThat(ModbusDataFormat.FIX0.getDecimals()).isZero();
+	}
+
+	@Test
+	void shouldReadUnsigned64BitValuesAsBigInteger() {
+		Number value = new ModbusValueReader().read(Unpooled.buffer().writeLong(-2), ModbusDataType.U64,
+				ModbusDataFormat.FIX0);
+
+		assertThat(value).isEqualTo(new BigInteger("18446744073709551614"));
+	}
+
+	@Test
+	void shouldRejectIntReadsOfWideTypes() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new ModbusValueReader().readInt(Unpooled.buffer().writeInt(1), ModbusDataType.U32, 0));
+	}
 }
@@ -62,6 +62,24 @@ class SmaModbusClientUnitTests {
 		assertThat(registers.refCnt()).isZero();
 	}
 
+	@Test
+	void shouldDecodePlanIntoReusableResponseAndReleaseBuffer() {
+		ModbusRegister<Number> register = new ModbusRegister<>(30001, "TEST_REGISTER", "Test register", ModbusDataType.S32,
+				ModbusDataFormat.FIX0, ModbusAccesType.READ_ONLY);
+		ModbusReadPlan plan = ModbusReadPlan.compile(3, register);
+		ModbusReadResponse into = plan.newResponse();
+
+		var registers = Unpooled.buffer().writeInt(-42);
+		var modbusResponse = new ReadInputRegistersResponse(registers);
+		SmaModbusClient client = new TestSmaModbusClient(CompletableFuture.completedFuture(modbusResponse));
+
+		ModbusReadResponse response = client.read(plan, into).block();
+
+		assertThat(response).isSameAs(into);
+		assertThat(response.getInt(0)).isEqualTo(-42);
+		assertThat(registers.refCnt()).isZero();
+	}
+
 	private static class TestSmaModbusClient extends SmaModbusClient {
 		private final ModbusTcpMaster master;
 
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cat.joanpujol.smasolar.modbus;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SmaModbusRequestUnitTests {
+
+	@Test
+	void shouldReadCloseRegistersInSingleRequest() {
+		SmaModbusRequest request = SmaModbusRequest.newBuilder(SmaModbusRequest.Type.READ)
+				.addRegister(ModbusRegister.CURRENT_BATTERY_CAPACITY)
+				.addRegister(ModbusRegister.CURRENT_BATTERY_STATE_OF_CHARGE).build();
+
+		assertThat(request.isAtomic()).isTrue();
+		assertThat(request.getFirstRegisterNumber()).isEqualTo(30845);
+		assertThat(request.calculateNumberOfRegistersToReadInAtomicRequest()).isEqualTo(4);
+	}
+
+	@Test
+	void shouldSplitAtGapsCostlierThanRoundTrip() {
+		SmaModbusRequest request = SmaModbusRequest.newBuilder(SmaModbusRequest.Type.READ)
+				.addRegister(ModbusRegister.CURRENT_ACTIVE_POWER).addRegister(ModbusRegister.BATTERY_CURRENT_DISCHARGING)
+				.addRegister(ModbusRegister.BATTERY_CURRENT_CHARGING)
+				.addRegister(ModbusRegister.CURRENT_BATTERY_STATE_OF_CHARGE)
+				.addRegister(ModbusRegister.CURRENT_BATTERY_CAPACITY).build();
+
+		List<SmaModbusRequest> requests = request.subdivideInAtomicRequests();
+
+		assertThat(requests).extracting(SmaModbusRequest::getFirstRegisterNumber).containsExactly(30775, 30845, 31393);
+		assertThat(requests).extracting(SmaModbusRequest::calculateNumberOfRegistersToReadInAtomicRequest)
+				.containsExactly(2, 4, 4);
+		assertThat(requests).allMatch(SmaModbusRequest::isAtomic);
+	}
+
+	@Test
+	void shouldBridgeGapsCheaperThanRoundTrip() {
+		ModbusRegister<Number> first = register(30001);
+		ModbusRegister<Number> second = register(30001 + 2 + 20);
+
+		SmaModbusRequest request = SmaModbusRequest.newBuilder(SmaModbusRequest.Type.READ).addRegister(second)
+				.addRegister(first).build();
+
+		assertThat(request.isAtomic()).isTrue();
+		assertThat(request.calculateNumberOfRegistersToReadInAtomicRequest()).isEqualTo(24);
+	}
+
+	@Test
+	void shouldRespectRegisterLimit() {
+		SmaModbusRequest.Builder builder = SmaModbusRequest.newBuilder(SmaModbusRequest.Type.READ);
+		for (int i = 0; i < 100; i++) {
+			builder.addRegister(register(30001 + i * 2));
+		}
+
+		List<SmaModbusRequest> requests = builder.build().subdivideInAtomicRequests();
+
+		assertThat(requests).hasSize(2);
+		assertThat(requests)
+				.allSatisfy(it -> assertThat(it.calculateNumberOfRegistersToReadInAtomicRequest())
+						.isLessThanOrEqualTo(SmaModbusRequest.READ_MAX_REGISTERS_NUMBER));
+		assertThat(requests).flatExtracting(SmaModbusRequest::getRegisters).hasSize(100);
+	}
+
+	@Test
+	void shouldReusePlanForSameRegisterLayout() {
+		int[] first = plan(register(30001), register(30501), register(30503));
+		int[] second = plan(register(30001), register(30501), register(30503));
+
+		assertThat(first).containsExactly(0, 1).isSameAs(second);
+	}
+
+	@SafeVarargs
+	private static int[] plan(ModbusRegister<Number>... registers) {
+		SmaModbusRequest.Builder builder = SmaModbusRequest.newBuilder(SmaModbusRequest.Type.READ);
+		for (ModbusRegister<Number> register : registers) {
+			builder.addRegister(register);
+		}
+		return SmaModbusRequest.planAtomicRequests(builder.build());
+	}
+
+	private static ModbusRegister<Number> register(int number) {
+		return new ModbusRegister<>(number, "TEST_" + number, "Test register", ModbusDataType.U32, ModbusDataFormat.FIX0,
+				ModbusAccesType.READ_ONLY);
+	}
+
+}